@@ -0,0 +1,139 @@
+package Project.TaskAutomation;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.http2.Http2Protocol;
+
+/**
+ * Settings of the embedded Tomcat's HTTP connector, read from the environment
+ * like {@code PORT}:
+ * <ul>
+ * <li>{@code SERVER_THREADS}: {@code platform} (default) for Tomcat's pool of
+ * {@code SERVER_MAX_THREADS} threads, or {@code virtual} for a new virtual
+ * thread per request. Virtual threads need Java 21; on older runtimes the
+ * connector falls back to the platform pool.</li>
+ * <li>{@code SERVER_MAX_CONNECTIONS}: connections kept open at once.</li>
+ * <li>{@code SERVER_ACCEPT_COUNT}: connections the OS queues beyond those.</li>
+ * <li>{@code SERVER_KEEP_ALIVE_MS} and {@code SERVER_MAX_KEEP_ALIVE_REQUESTS}:
+ * how long an idle connection stays open and how many requests it may
+ * carry.</li>
+ * <li>{@code SERVER_HTTP2}: {@code true} (default) lets clients switch a
+ * connection to cleartext HTTP/2 (h2c), by upgrade or with prior knowledge,
+ * so one connection multiplexes many requests.</li>
+ * <li>{@code SERVER_COMPRESSION}: {@code true} (default) gzips responses of
+ * {@code SERVER_COMPRESSION_MIN_BYTES} or more whose type is in
+ * {@code SERVER_COMPRESSIBLE_TYPES}, for clients that accept gzip.</li>
+ * </ul>
+ * Request handling keeps its per-thread state (security context, transaction
+ * synchronization) in ThreadLocals that are set and cleared within each
+ * request, so it behaves the same on either kind of thread.
+ */
+public class ConnectorSettings {
+
+	public enum ThreadMode {
+		PLATFORM, VIRTUAL
+	}
+
+	private ThreadMode threadMode = ThreadMode.PLATFORM;
+	private int maxThreads = 200;
+	private int maxConnections = 8192;
+	private int acceptCount = 100;
+	private int keepAliveTimeoutMs = 20_000;
+	private int maxKeepAliveRequests = 100;
+	private boolean http2 = true;
+	private boolean compression = true;
+	private int compressionMinBytes = 1024;
+	private String compressibleTypes = "application/json,text/html,text/plain,text/css,application/javascript";
+
+	public static ConnectorSettings fromEnvironment(Map<String, String> env) {
+		ConnectorSettings settings = new ConnectorSettings();
+		String threads = env.getOrDefault("SERVER_THREADS", "platform").trim();
+		settings.threadMode = ThreadMode.valueOf(threads.toUpperCase(Locale.ROOT));
+		settings.maxThreads = intValue(env, "SERVER_MAX_THREADS", settings.maxThreads);
+		settings.maxConnections = intValue(env, "SERVER_MAX_CONNECTIONS", settings.maxConnections);
+		settings.acceptCount = intValue(env, "SERVER_ACCEPT_COUNT", settings.acceptCount);
+		settings.keepAliveTimeoutMs = intValue(env, "SERVER_KEEP_ALIVE_MS", settings.keepAliveTimeoutMs);
+		settings.maxKeepAliveRequests = intValue(env, "SERVER_MAX_KEEP_ALIVE_REQUESTS", settings.maxKeepAliveRequests);
+		settings.http2 = booleanValue(env, "SERVER_HTTP2", settings.http2);
+		settings.compression = booleanValue(env, "SERVER_COMPRESSION", settings.compression);
+		settings.compressionMinBytes = intValue(env, "SERVER_COMPRESSION_MIN_BYTES", settings.compressionMinBytes);
+		settings.compressibleTypes = env.getOrDefault("SERVER_COMPRESSIBLE_TYPES", settings.compressibleTypes).trim();
+		return settings;
+	}
+
+	public static boolean virtualThreadsAvailable() {
+		return Runtime.version().feature() >= 21;
+	}
+
+	/**
+	 * Applies the settings to a connector that has not been started yet and
+	 * returns the thread mode it will actually use.
+	 */
+	public ThreadMode applyTo(Connector connector) {
+		ThreadMode mode = threadMode;
+		if (mode == ThreadMode.VIRTUAL && !virtualThreadsAvailable()) {
+			System.err.println("!! Virtual threads need Java 21, running on Java " + Runtime.version().feature()
+					+ "; using platform threads");
+			mode = ThreadMode.PLATFORM;
+		}
+
+		// Tomcat creates the virtual thread executor itself, through its Java 21 compatibility layer.
+		connector.setProperty("useVirtualThreads", Boolean.toString(mode == ThreadMode.VIRTUAL));
+		connector.setProperty("maxThreads", Integer.toString(maxThreads));
+		connector.setProperty("maxConnections", Integer.toString(maxConnections));
+		connector.setProperty("acceptCount", Integer.toString(acceptCount));
+		connector.setProperty("keepAliveTimeout", Integer.toString(keepAliveTimeoutMs));
+		connector.setProperty("maxKeepAliveRequests", Integer.toString(maxKeepAliveRequests));
+		connector.setProperty("compression", compression ? "on" : "off");
+		connector.setProperty("compressionMinSize", Integer.toString(compressionMinBytes));
+		connector.setProperty("compressibleMimeType", compressibleTypes);
+
+		if (http2) {
+			// HTTP/2 streams use the compression settings of the HTTP/1.1 protocol set above.
+			Http2Protocol http2Protocol = new Http2Protocol();
+			http2Protocol.setKeepAliveTimeout(keepAliveTimeoutMs);
+			connector.addUpgradeProtocol(http2Protocol);
+		}
+		return mode;
+	}
+
+	public ConnectorSettings threadMode(ThreadMode threadMode) {
+		this.threadMode = threadMode;
+		return this;
+	}
+
+	public ConnectorSettings maxThreads(int maxThreads) {
+		this.maxThreads = maxThreads;
+		return this;
+	}
+
+	public ConnectorSettings http2(boolean http2) {
+		this.http2 = http2;
+		return this;
+	}
+
+	public ConnectorSettings compressionMinBytes(int compressionMinBytes) {
+		this.compressionMinBytes = compressionMinBytes;
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("threads=%s, maxThreads=%d, maxConnections=%d, acceptCount=%d, keepAlive=%dms/%d requests, "
+				+ "http2=%s, compression=%s",
+				threadMode, maxThreads, maxConnections, acceptCount, keepAliveTimeoutMs, maxKeepAliveRequests, http2,
+				compression ? ">= " + compressionMinBytes + " bytes" : "off");
+	}
+
+	private static int intValue(Map<String, String> env, String name, int defaultValue) {
+		String value = env.get(name);
+		return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+	}
+
+	private static boolean booleanValue(Map<String, String> env, String name, boolean defaultValue) {
+		String value = env.get(name);
+		return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+	}
+}
@@ -1,31 +1,33 @@
-package Project.config;
-
-import org.springframework.web.WebApplicationInitializer;
-import org.springframework.web.context.ContextLoaderListener;
-import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
-import org.springframework.web.filter.DelegatingFilterProxy;
-import org.springframework.web.servlet.DispatcherServlet;
-
-import jakarta.servlet.FilterRegistration;
-import jakarta.servlet.ServletContext;
-import jakarta.servlet.ServletException;
-import jakarta.servlet.ServletRegistration;
-
-public class WebAppInitializer implements WebApplicationInitializer {
-
-	@Override
-	public void onStartup(ServletContext servletContext) throws ServletException {
-		AnnotationConfigWebApplicationContext rootContext = new AnnotationConfigWebApplicationContext();
-		rootContext.register(AppConfig.class, SecurityConfig.class, QuartzConfig.class);
-		servletContext.addListener(new ContextLoaderListener(rootContext));
-		AnnotationConfigWebApplicationContext dispatcherContext = new AnnotationConfigWebApplicationContext();
-		dispatcherContext.register(WebConfig.class);
-		ServletRegistration.Dynamic dispatcher = servletContext.addServlet("dispatcher",
-				new DispatcherServlet(dispatcherContext));
-		dispatcher.setLoadOnStartup(1);
-		dispatcher.addMapping("/");
-		FilterRegistration.Dynamic securityFilter = servletContext.addFilter("springSecurityFilterChain",
-				new DelegatingFilterProxy("springSecurityFilterChain"));
-		securityFilter.addMappingForUrlPatterns(null, false, "/");
-	}
-}
+package Project.config;
+
+import org.springframework.web.WebApplicationInitializer;
+import org.springframework.web.context.ContextLoaderListener;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.filter.DelegatingFilterProxy;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import jakarta.servlet.FilterRegistration;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRegistration;
+
+public class WebAppInitializer implements WebApplicationInitializer {
+
+	@Override
+	public void onStartup(ServletContext servletContext) throws ServletException {
+		AnnotationConfigWebApplicationContext rootContext = new AnnotationConfigWebApplicationContext();
+		rootContext.register(AppConfig.class, SecurityConfig.class, QuartzConfig.class);
+		servletContext.addListener(new ContextLoaderListener(rootContext));
+		AnnotationConfigWebApplicationContext dispatcherContext = new AnnotationConfigWebApplicationContext();
+		dispatcherContext.register(WebConfig.class);
+		ServletRegistration.Dynamic dispatcher = servletContext.addServlet("dispatcher",
+				new DispatcherServlet(dispatcherContext));
+		dispatcher.setLoadOnStartup(1);
+		dispatcher.setAsyncSupported(true);
+		dispatcher.addMapping("/");
+		FilterRegistration.Dynamic securityFilter = servletContext.addFilter("springSecurityFilterChain",
+				new DelegatingFilterProxy("springSecurityFilterChain"));
+		securityFilter.setAsyncSupported(true);
+		securityFilter.addMappingForUrlPatterns(null, false, "/");
+	}
+}
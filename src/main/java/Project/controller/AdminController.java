@@ -0,0 +1,135 @@
+package Project.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import Project.dto.ApiResponse;
+import Project.dto.ProvisioningResult;
+import Project.executor.PasswordHashExecutor;
+import Project.metrics.SchedulerMetrics;
+import Project.model.ReminderDeadLetter;
+import Project.model.User;
+import Project.scheduler.ReminderRetryWorker;
+import Project.service.LoginThrottle;
+import Project.service.TokenRevocationService;
+import Project.service.UserProvisioningService;
+import Project.template.NotificationTemplates;
+import Project.util.JwtUtil;
+import Project.util.RateLimitFilter;
+
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+
+    @Autowired
+    private SchedulerMetrics schedulerMetrics;
+
+    @Autowired
+    private ReminderRetryWorker reminderRetryWorker;
+
+    @Autowired
+    private NotificationTemplates notificationTemplates;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private PasswordHashExecutor passwordHashExecutor;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private UserProvisioningService userProvisioningService;
+
+    @GetMapping("/metrics")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getMetrics() {
+        Map<String, Object> metrics = schedulerMetrics.snapshot();
+        metrics.put("jwtCache", jwtUtil.getCacheStats());
+        metrics.put("tokenRevocation", tokenRevocationService.getStats());
+        metrics.put("passwordHash", passwordHashExecutor.getStats());
+        metrics.put("loginThrottle", loginThrottle.getStats());
+        metrics.put("rateLimit", rateLimitFilter.getStats());
+        return ResponseEntity.ok(ApiResponse.success("Metrics retrieved successfully", metrics));
+    }
+
+    /**
+     * Reminders that failed every retry, most recent first.
+     */
+    @GetMapping("/dead-letters")
+    public ResponseEntity<ApiResponse<List<ReminderDeadLetter>>> getDeadLetters(
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            List<ReminderDeadLetter> deadLetters = reminderRetryWorker.getDeadLetters(Math.max(1, Math.min(limit, 1000)));
+            return ResponseEntity.ok(ApiResponse.success("Dead letters retrieved successfully", deadLetters));
+        } catch (RuntimeException e) {
+            logger.error("Error fetching dead letters", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to fetch dead letters: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Recompiles the notification templates from {@code templates.location}.
+     * A template that fails to compile leaves the current ones in use.
+     */
+    @PostMapping("/templates/reload")
+    public ResponseEntity<ApiResponse<Integer>> reloadTemplates() {
+        try {
+            int loaded = notificationTemplates.reload();
+            return ResponseEntity.ok(ApiResponse.success("Templates reloaded successfully", loaded));
+        } catch (RuntimeException e) {
+            logger.error("Error reloading templates", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/dead-letters/{id}/replay")
+    public ResponseEntity<ApiResponse<Void>> replayDeadLetter(@PathVariable Long id) {
+        try {
+            reminderRetryWorker.replay(id);
+            return ResponseEntity.ok(ApiResponse.success("Dead letter queued for retry", null));
+        } catch (RuntimeException e) {
+            logger.error("Error replaying dead letter {}", id, e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Creates the given users, e.g. when onboarding a customer. Rows that
+     * fail validation or clash with an existing username or email are
+     * reported by their position in the request; the others are created.
+     */
+    @PostMapping("/users/bulk")
+    public ResponseEntity<ApiResponse<ProvisioningResult>> provisionUsers(@RequestBody List<User> users) {
+        try {
+            ProvisioningResult result = userProvisioningService.provision(users);
+            return ResponseEntity.ok(ApiResponse.success(
+                    "Provisioned " + result.getCreated() + " of " + result.getRequested() + " users", result));
+        } catch (RuntimeException e) {
+            logger.error("Error provisioning users", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package Project.controller;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import Project.dto.ApiResponse;
+import Project.service.AuthService;
+import Project.service.NotificationHub;
+
+@RestController
+@RequestMapping("/notifications")
+public class NotificationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationController.class);
+
+    @Autowired
+    private NotificationHub notificationHub;
+
+    @Autowired
+    private AuthService authService;
+
+    @Value("${notifications.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    private String getCurrentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            throw new RuntimeException("User not authenticated");
+        }
+        return auth.getName();
+    }
+
+    /**
+     * Server-sent events stream of the current user's notifications. The
+     * stream ends after {@code notifications.stream-timeout-ms}; clients are
+     * expected to reconnect. When no stream can be opened the response is a 503
+     * carrying a single "error" event.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream() {
+        try {
+            String username = getCurrentUsername();
+            Long userId = authService.getUserByUsername(username).getId();
+
+            SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+            NotificationHub.Subscription subscription = notificationHub.subscribe(userId, new SseSink(emitter));
+            emitter.onCompletion(subscription::cancel);
+            emitter.onTimeout(subscription::cancel);
+            emitter.onError(error -> subscription.cancel());
+            // Commits the response so the client sees the stream open before the first notification.
+            emitter.send(SseEmitter.event().comment("connected"));
+
+            logger.info("Opened notification stream for user: {}", username);
+            return ResponseEntity.ok(emitter);
+        } catch (Exception e) {
+            logger.error("Error opening notification stream", e);
+            SseEmitter emitter = new SseEmitter();
+            try {
+                emitter.send(SseEmitter.event().name("error")
+                        .data(ApiResponse.error("Failed to open notification stream: " + e.getMessage()),
+                                MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (IOException sendError) {
+                emitter.completeWithError(sendError);
+            }
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(emitter);
+        }
+    }
+
+    private static final class SseSink implements NotificationHub.Sink {
+
+        private final SseEmitter emitter;
+
+        private SseSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(Map<String, Object> notification) throws IOException {
+            emitter.send(SseEmitter.event().name("notification").data(notification, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package Project.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import Project.dto.ApiResponse;
+import Project.model.UserRule;
+import Project.service.UserRuleService;
+
+@RestController
+@RequestMapping("/rules")
+public class RuleController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleController.class);
+
+    @Autowired
+    private UserRuleService userRuleService;
+
+    private String getCurrentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            throw new RuntimeException("User not authenticated");
+        }
+        return auth.getName();
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<UserRule>>> getRules() {
+        try {
+            List<UserRule> rules = userRuleService.getRules(getCurrentUsername());
+            return ResponseEntity.ok(ApiResponse.success("Rules retrieved successfully", rules));
+        } catch (Exception e) {
+            logger.error("Error fetching rules", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to fetch rules: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<UserRule>> createRule(@RequestBody UserRule rule) {
+        try {
+            UserRule created = userRuleService.createRule(getCurrentUsername(), rule);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Rule created successfully", created));
+        } catch (RuntimeException e) {
+            logger.error("Error creating rule", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> deleteRule(@PathVariable Long id) {
+        try {
+            userRuleService.deleteRule(getCurrentUsername(), id);
+            return ResponseEntity.ok(ApiResponse.success("Rule deleted successfully", null));
+        } catch (RuntimeException e) {
+            logger.error("Error deleting rule {}", id, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
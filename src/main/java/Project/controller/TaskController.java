@@ -1,135 +1,218 @@
-package Project.controller;
-
-import java.util.List;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.web.bind.annotation.DeleteMapping;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PatchMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.PutMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
-
-import Project.dto.ApiResponse;
-import Project.model.Task;
-import Project.service.TaskService;
-
-@RestController
-@RequestMapping("/tasks")
-public class TaskController {
-
-    private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
-
-    @Autowired
-    private TaskService taskService;
-
-    private String getCurrentUsername() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated()) {
-            throw new RuntimeException("User not authenticated");
-        }
-        return auth.getName();
-    }
-
-    @GetMapping
-    public ResponseEntity<ApiResponse<List<Task>>> getAllTasks() {
-        try {
-            String username = getCurrentUsername();
-            logger.info("Fetching all tasks for user: {}", username);
-
-            List<Task> tasks = taskService.getTasksByUsername(username);
-
-            return ResponseEntity.ok(ApiResponse.success("Tasks retrieved successfully", tasks));
-        } catch (Exception e) {
-            logger.error("Error fetching tasks", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error("Failed to fetch tasks: " + e.getMessage()));
-        }
-    }
-
-    @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Task>> getTaskById(@PathVariable Long id) {
-        try {
-            String username = getCurrentUsername();
-            logger.info("Fetching task {} for user: {}", id, username);
-
-            Task task = taskService.getTaskById(id, username);
-
-            return ResponseEntity.ok(ApiResponse.success("Task retrieved successfully", task));
-        } catch (RuntimeException e) {
-            logger.error("Error fetching task {}", id, e);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage()));
-        }
-    }
-
-    @PostMapping
-    public ResponseEntity<ApiResponse<Task>> createTask(@RequestBody Task task) {
-        try {
-            String username = getCurrentUsername();
-            logger.info("Creating task for user: {}", username);
-
-            Task createdTask = taskService.createTask(task, username);
-
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(ApiResponse.success("Task created successfully", createdTask));
-        } catch (Exception e) {
-            logger.error("Error creating task", e);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(ApiResponse.error("Failed to create task: " + e.getMessage()));
-        }
-    }
-
-    @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse<Task>> updateTask(@PathVariable Long id, @RequestBody Task task) {
-        try {
-            String username = getCurrentUsername();
-            logger.info("Updating task {} for user: {}", id, username);
-
-            Task updatedTask = taskService.updateTask(id, task, username);
-
-            return ResponseEntity.ok(ApiResponse.success("Task updated successfully", updatedTask));
-        } catch (RuntimeException e) {
-            logger.error("Error updating task {}", id, e);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
-        }
-    }
-
-    @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<Void>> deleteTask(@PathVariable Long id) {
-        try {
-            String username = getCurrentUsername();
-            logger.info("Deleting task {} for user: {}", id, username);
-
-            taskService.deleteTask(id, username);
-
-            return ResponseEntity.ok(ApiResponse.success("Task deleted successfully", null));
-        } catch (RuntimeException e) {
-            logger.error("Error deleting task {}", id, e);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
-        }
-    }
-
-    @PatchMapping("/{id}/complete")
-    public ResponseEntity<ApiResponse<Task>> completeTask(@PathVariable Long id) {
-        try {
-            String username = getCurrentUsername();
-            logger.info("Marking task {} as complete for user: {}", id, username);
-
-            Task task = taskService.completeTask(id, username);
-
-            return ResponseEntity.ok(ApiResponse.success("Task marked as complete", task));
-        } catch (RuntimeException e) {
-            logger.error("Error completing task {}", id, e);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
-        }
-    }
-}
+package Project.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import Project.dto.ApiResponse;
+import Project.model.ReminderDelivery;
+import Project.model.Task;
+import Project.service.TaskService;
+
+@RestController
+@RequestMapping("/tasks")
+public class TaskController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
+
+    @Autowired
+    private TaskService taskService;
+
+    private String getCurrentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            throw new RuntimeException("User not authenticated");
+        }
+        return auth.getName();
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<Task>>> getAllTasks(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            String username = getCurrentUsername();
+            logger.info("Fetching all tasks for user: {}", username);
+
+            List<Task> tasks = taskService.getTasksByUsername(username, from, to);
+
+            return ResponseEntity.ok(ApiResponse.success("Tasks retrieved successfully", tasks));
+        } catch (Exception e) {
+            logger.error("Error fetching tasks", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to fetch tasks: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/urgent")
+    public ResponseEntity<ApiResponse<List<Task>>> getMostUrgentTasks(@RequestParam(defaultValue = "10") int k) {
+        try {
+            String username = getCurrentUsername();
+            logger.info("Fetching {} most urgent tasks for user: {}", k, username);
+
+            List<Task> tasks = taskService.getMostUrgentTasks(username, k);
+
+            return ResponseEntity.ok(ApiResponse.success("Urgent tasks retrieved successfully", tasks));
+        } catch (RuntimeException e) {
+            logger.error("Error fetching urgent tasks", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/attention")
+    public ResponseEntity<ApiResponse<List<Task>>> getTasksNeedingAttention() {
+        try {
+            String username = getCurrentUsername();
+            logger.info("Fetching tasks needing attention for user: {}", username);
+
+            List<Task> tasks = taskService.getTasksNeedingAttention(username);
+
+            return ResponseEntity.ok(ApiResponse.success("Tasks needing attention retrieved successfully", tasks));
+        } catch (RuntimeException e) {
+            logger.error("Error fetching tasks needing attention", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<Task>> getTaskById(@PathVariable Long id) {
+        try {
+            String username = getCurrentUsername();
+            logger.info("Fetching task {} for user: {}", id, username);
+
+            Task task = taskService.getTaskById(id, username);
+
+            return ResponseEntity.ok(ApiResponse.success("Task retrieved successfully", task));
+        } catch (RuntimeException e) {
+            logger.error("Error fetching task {}", id, e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<Task>> createTask(@RequestBody Task task) {
+        try {
+            String username = getCurrentUsername();
+            logger.info("Creating task for user: {}", username);
+
+            Task createdTask = taskService.createTask(task, username);
+
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Task created successfully", createdTask));
+        } catch (Exception e) {
+            logger.error("Error creating task", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Failed to create task: " + e.getMessage()));
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<ApiResponse<Task>> updateTask(@PathVariable Long id, @RequestBody Task task) {
+        try {
+            String username = getCurrentUsername();
+            logger.info("Updating task {} for user: {}", id, username);
+
+            Task updatedTask = taskService.updateTask(id, task, username);
+
+            return ResponseEntity.ok(ApiResponse.success("Task updated successfully", updatedTask));
+        } catch (RuntimeException e) {
+            logger.error("Error updating task {}", id, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> deleteTask(@PathVariable Long id) {
+        try {
+            String username = getCurrentUsername();
+            logger.info("Deleting task {} for user: {}", id, username);
+
+            taskService.deleteTask(id, username);
+
+            return ResponseEntity.ok(ApiResponse.success("Task deleted successfully", null));
+        } catch (RuntimeException e) {
+            logger.error("Error deleting task {}", id, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PatchMapping("/{id}/complete")
+    public ResponseEntity<ApiResponse<Task>> completeTask(@PathVariable Long id) {
+        try {
+            String username = getCurrentUsername();
+            logger.info("Marking task {} as complete for user: {}", id, username);
+
+            Task task = taskService.completeTask(id, username);
+
+            return ResponseEntity.ok(ApiResponse.success("Task marked as complete", task));
+        } catch (RuntimeException e) {
+            logger.error("Error completing task {}", id, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PutMapping("/{id}/occurrences/{date}")
+    public ResponseEntity<ApiResponse<Task>> updateOccurrence(@PathVariable Long id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date, @RequestBody Task task) {
+        try {
+            String username = getCurrentUsername();
+            logger.info("Updating occurrence {} of task {} for user: {}", date, id, username);
+
+            Task occurrence = taskService.updateOccurrence(id, date, task, username);
+
+            return ResponseEntity.ok(ApiResponse.success("Occurrence updated successfully", occurrence));
+        } catch (RuntimeException e) {
+            logger.error("Error updating occurrence {} of task {}", date, id, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PatchMapping("/{id}/occurrences/{date}/complete")
+    public ResponseEntity<ApiResponse<Task>> completeOccurrence(@PathVariable Long id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            String username = getCurrentUsername();
+            logger.info("Marking occurrence {} of task {} as complete for user: {}", date, id, username);
+
+            Task occurrence = taskService.completeOccurrence(id, date, username);
+
+            return ResponseEntity.ok(ApiResponse.success("Occurrence marked as complete", occurrence));
+        } catch (RuntimeException e) {
+            logger.error("Error completing occurrence {} of task {}", date, id, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/deliveries")
+    public ResponseEntity<ApiResponse<List<ReminderDelivery>>> getDeliveryHistory(@PathVariable Long id) {
+        try {
+            String username = getCurrentUsername();
+            logger.info("Fetching reminder deliveries for task {} of user: {}", id, username);
+
+            List<ReminderDelivery> deliveries = taskService.getDeliveryHistory(id, username);
+
+            return ResponseEntity.ok(ApiResponse.success("Reminder deliveries retrieved successfully", deliveries));
+        } catch (RuntimeException e) {
+            logger.error("Error fetching reminder deliveries for task {}", id, e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
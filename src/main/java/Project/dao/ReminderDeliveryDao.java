@@ -0,0 +1,138 @@
+package Project.dao;
+
+import Project.model.ReminderDelivery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import java.sql.BatchUpdateException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ledger of reminder deliveries keyed by (task id, reminder instant, channel).
+ * A reminder may only be dispatched by whoever inserted its ledger row, so the
+ * per-task job, the global sweep and retries never send the same reminder twice.
+ */
+@Repository
+public class ReminderDeliveryDao {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderDeliveryDao.class);
+
+    private static final String CLAIM_SQL = "INSERT INTO reminder_deliveries (task_id, reminder_at, channel, status, claimed_at) "
+            + "SELECT ?, ?, ?, '" + ReminderDelivery.STATUS_CLAIMED + "', ? WHERE NOT EXISTS "
+            + "(SELECT 1 FROM reminder_deliveries WHERE task_id = ? AND reminder_at = ? AND channel = ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Clock clock;
+
+    private static final RowMapper<ReminderDelivery> DELIVERY_ROW_MAPPER = new RowMapper<ReminderDelivery>() {
+        @Override
+        public ReminderDelivery mapRow(ResultSet rs, int rowNum) throws SQLException {
+            ReminderDelivery delivery = new ReminderDelivery();
+            delivery.setId(rs.getLong("id"));
+            delivery.setTaskId(rs.getLong("task_id"));
+            delivery.setReminderAt(rs.getTimestamp("reminder_at").toLocalDateTime());
+            delivery.setChannel(rs.getString("channel"));
+            delivery.setStatus(rs.getString("status"));
+
+            Timestamp claimedAt = rs.getTimestamp("claimed_at");
+            if (claimedAt != null) {
+                delivery.setClaimedAt(claimedAt.toLocalDateTime());
+            }
+
+            Timestamp completedAt = rs.getTimestamp("completed_at");
+            if (completedAt != null) {
+                delivery.setCompletedAt(completedAt.toLocalDateTime());
+            }
+
+            return delivery;
+        }
+    };
+
+    /**
+     * Claims all deliveries with a single batched insert. The returned array is
+     * parallel to the input: {@code true} means the caller now owns the delivery
+     * and must dispatch it, {@code false} means it was already claimed.
+     */
+    public boolean[] claim(List<ReminderDelivery> deliveries) {
+        boolean[] claimed = new boolean[deliveries.size()];
+        if (deliveries.isEmpty()) {
+            return claimed;
+        }
+
+        Timestamp claimedAt = Timestamp.valueOf(LocalDateTime.now(clock));
+        try {
+            int[] counts = jdbcTemplate.batchUpdate(CLAIM_SQL, deliveries, deliveries.size(), (ps, delivery) -> {
+                Timestamp reminderAt = Timestamp.valueOf(delivery.getReminderAt());
+                ps.setLong(1, delivery.getTaskId());
+                ps.setTimestamp(2, reminderAt);
+                ps.setString(3, delivery.getChannel());
+                ps.setTimestamp(4, claimedAt);
+                ps.setLong(5, delivery.getTaskId());
+                ps.setTimestamp(6, reminderAt);
+                ps.setString(7, delivery.getChannel());
+            })[0];
+
+            for (int i = 0; i < counts.length; i++) {
+                claimed[i] = counts[i] > 0;
+            }
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent claimer won the race for at least one row. The driver has
+            // already run (and auto-committed) the other rows, so read the outcome of
+            // each from the batch instead of claiming them again: a second attempt
+            // would find our own row and report it as lost.
+            int[] counts = updateCounts(e);
+            logger.debug("Batched claim hit a concurrent insert, {} of {} rows reported", counts.length, deliveries.size());
+            for (int i = 0; i < deliveries.size(); i++) {
+                // Rows the driver did not get to are still undecided.
+                claimed[i] = i < counts.length ? counts[i] > 0 : claimOne(deliveries.get(i), claimedAt);
+            }
+        }
+
+        return claimed;
+    }
+
+    private static int[] updateCounts(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BatchUpdateException) {
+                int[] counts = ((BatchUpdateException) cause).getUpdateCounts();
+                return counts != null ? counts : new int[0];
+            }
+        }
+        return new int[0];
+    }
+
+    private boolean claimOne(ReminderDelivery delivery, Timestamp claimedAt) {
+        Timestamp reminderAt = Timestamp.valueOf(delivery.getReminderAt());
+        try {
+            return jdbcTemplate.update(CLAIM_SQL, delivery.getTaskId(), reminderAt, delivery.getChannel(), claimedAt,
+                    delivery.getTaskId(), reminderAt, delivery.getChannel()) > 0;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    public void updateStatus(ReminderDelivery delivery, String status) {
+        String sql = "UPDATE reminder_deliveries SET status = ?, completed_at = ? "
+                + "WHERE task_id = ? AND reminder_at = ? AND channel = ?";
+        jdbcTemplate.update(sql, status, Timestamp.valueOf(LocalDateTime.now(clock)), delivery.getTaskId(),
+                Timestamp.valueOf(delivery.getReminderAt()), delivery.getChannel());
+        delivery.setStatus(status);
+    }
+
+    public List<ReminderDelivery> findByTaskId(Long taskId) {
+        String sql = "SELECT * FROM reminder_deliveries WHERE task_id = ? ORDER BY reminder_at DESC";
+        return jdbcTemplate.query(sql, DELIVERY_ROW_MAPPER, taskId);
+    }
+}
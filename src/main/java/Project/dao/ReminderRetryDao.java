@@ -0,0 +1,162 @@
+package Project.dao;
+
+import Project.model.ReminderDeadLetter;
+import Project.model.ReminderDelivery;
+import Project.model.ReminderRetry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Durable queue of failed reminder deliveries and the dead letters of those
+ * that ran out of attempts. Rows are keyed like the delivery ledger, so a
+ * reminder is queued for retry at most once.
+ */
+@Repository
+public class ReminderRetryDao {
+
+    private static final String ENQUEUE_SQL = "INSERT INTO reminder_retries "
+            + "(task_id, reminder_at, channel, due_date, attempts, next_attempt_at, created_at) "
+            + "SELECT ?, ?, ?, ?, 0, ?, ? WHERE NOT EXISTS "
+            + "(SELECT 1 FROM reminder_retries WHERE task_id = ? AND reminder_at = ? AND channel = ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final RowMapper<ReminderRetry> RETRY_ROW_MAPPER = new RowMapper<ReminderRetry>() {
+        @Override
+        public ReminderRetry mapRow(ResultSet rs, int rowNum) throws SQLException {
+            ReminderRetry retry = new ReminderRetry();
+            retry.setId(rs.getLong("id"));
+            retry.setTaskId(rs.getLong("task_id"));
+            retry.setReminderAt(rs.getTimestamp("reminder_at").toLocalDateTime());
+            retry.setChannel(rs.getString("channel"));
+            retry.setDueDate(rs.getDate("due_date").toLocalDate());
+            retry.setAttempts(rs.getInt("attempts"));
+            retry.setNextAttemptAt(rs.getTimestamp("next_attempt_at").toLocalDateTime());
+
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            if (createdAt != null) {
+                retry.setCreatedAt(createdAt.toLocalDateTime());
+            }
+
+            return retry;
+        }
+    };
+
+    private static final RowMapper<ReminderDeadLetter> DEAD_LETTER_ROW_MAPPER = new RowMapper<ReminderDeadLetter>() {
+        @Override
+        public ReminderDeadLetter mapRow(ResultSet rs, int rowNum) throws SQLException {
+            ReminderDeadLetter deadLetter = new ReminderDeadLetter();
+            deadLetter.setId(rs.getLong("id"));
+            deadLetter.setTaskId(rs.getLong("task_id"));
+            deadLetter.setReminderAt(rs.getTimestamp("reminder_at").toLocalDateTime());
+            deadLetter.setChannel(rs.getString("channel"));
+            deadLetter.setDueDate(rs.getDate("due_date").toLocalDate());
+            deadLetter.setAttempts(rs.getInt("attempts"));
+
+            Timestamp firstFailedAt = rs.getTimestamp("first_failed_at");
+            if (firstFailedAt != null) {
+                deadLetter.setFirstFailedAt(firstFailedAt.toLocalDateTime());
+            }
+
+            Timestamp failedAt = rs.getTimestamp("failed_at");
+            if (failedAt != null) {
+                deadLetter.setFailedAt(failedAt.toLocalDateTime());
+            }
+
+            return deadLetter;
+        }
+    };
+
+    /**
+     * Queues a failed delivery for its first retry. Returns {@code false} if
+     * the reminder is already queued.
+     */
+    public boolean enqueue(ReminderDelivery delivery, LocalDate dueDate, LocalDateTime nextAttemptAt, LocalDateTime now) {
+        Timestamp reminderAt = Timestamp.valueOf(delivery.getReminderAt());
+        return jdbcTemplate.update(ENQUEUE_SQL, delivery.getTaskId(), reminderAt, delivery.getChannel(),
+                Date.valueOf(dueDate), Timestamp.valueOf(nextAttemptAt), Timestamp.valueOf(now),
+                delivery.getTaskId(), reminderAt, delivery.getChannel()) > 0;
+    }
+
+    public List<ReminderRetry> findDue(LocalDateTime now, int limit) {
+        String sql = "SELECT * FROM reminder_retries WHERE next_attempt_at <= ? ORDER BY next_attempt_at ASC LIMIT ?";
+        return jdbcTemplate.query(sql, RETRY_ROW_MAPPER, Timestamp.valueOf(now), limit);
+    }
+
+    /**
+     * Counts an attempt and pushes the retry out to when the following one is
+     * due, so the row is not picked up again while this attempt is in flight.
+     * Returns {@code false} if another worker got to the row first.
+     */
+    public boolean startAttempt(ReminderRetry retry, LocalDateTime nextAttemptAt) {
+        String sql = "UPDATE reminder_retries SET attempts = attempts + 1, next_attempt_at = ? "
+                + "WHERE id = ? AND attempts = ?";
+        boolean started = jdbcTemplate.update(sql, Timestamp.valueOf(nextAttemptAt), retry.getId(),
+                retry.getAttempts()) > 0;
+        if (started) {
+            retry.setAttempts(retry.getAttempts() + 1);
+            retry.setNextAttemptAt(nextAttemptAt);
+        }
+        return started;
+    }
+
+    public void delete(Long id) {
+        jdbcTemplate.update("DELETE FROM reminder_retries WHERE id = ?", id);
+    }
+
+    @Transactional
+    public void moveToDeadLetters(ReminderRetry retry, LocalDateTime failedAt) {
+        String sql = "INSERT INTO reminder_dead_letters "
+                + "(task_id, reminder_at, channel, due_date, attempts, first_failed_at, failed_at) "
+                + "SELECT task_id, reminder_at, channel, due_date, attempts, created_at, ? "
+                + "FROM reminder_retries WHERE id = ?";
+        jdbcTemplate.update(sql, Timestamp.valueOf(failedAt), retry.getId());
+        delete(retry.getId());
+    }
+
+    public List<ReminderDeadLetter> findDeadLetters(int limit) {
+        String sql = "SELECT * FROM reminder_dead_letters ORDER BY failed_at DESC, id DESC LIMIT ?";
+        return jdbcTemplate.query(sql, DEAD_LETTER_ROW_MAPPER, limit);
+    }
+
+    /**
+     * Puts a dead letter back on the retry queue with a fresh set of attempts.
+     * Returns {@code false} if there is no such dead letter or its reminder is
+     * already queued again.
+     */
+    @Transactional
+    public boolean replayDeadLetter(Long id, LocalDateTime now) {
+        String sql = "INSERT INTO reminder_retries "
+                + "(task_id, reminder_at, channel, due_date, attempts, next_attempt_at, created_at) "
+                + "SELECT task_id, reminder_at, channel, due_date, 0, ?, ? FROM reminder_dead_letters d WHERE id = ? "
+                + "AND NOT EXISTS (SELECT 1 FROM reminder_retries r WHERE r.task_id = d.task_id "
+                + "AND r.reminder_at = d.reminder_at AND r.channel = d.channel)";
+        Timestamp timestamp = Timestamp.valueOf(now);
+        if (jdbcTemplate.update(sql, timestamp, timestamp, id) == 0) {
+            return false;
+        }
+        jdbcTemplate.update("DELETE FROM reminder_dead_letters WHERE id = ?", id);
+        return true;
+    }
+
+    public int countRetries() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reminder_retries", Integer.class);
+        return count != null ? count : 0;
+    }
+
+    public int countDeadLetters() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reminder_dead_letters", Integer.class);
+        return count != null ? count : 0;
+    }
+}
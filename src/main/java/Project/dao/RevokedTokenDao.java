@@ -0,0 +1,40 @@
+package Project.dao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * IDs of tokens revoked before they expire, e.g. on logout. A row is only
+ * needed until the token would have expired anyway.
+ */
+@Repository
+public class RevokedTokenDao {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void revoke(String jti, Long userId, Instant expiresAt) {
+        String sql = "INSERT INTO revoked_tokens (jti, user_id, expires_at) SELECT ?, ?, ? "
+                + "WHERE NOT EXISTS (SELECT 1 FROM revoked_tokens WHERE jti = ?)";
+        jdbcTemplate.update(sql, jti, userId, Timestamp.from(expiresAt), jti);
+    }
+
+    /** Token IDs revoked and not yet expired, with their expiry. */
+    public Map<String, Instant> findUnexpired(Instant now) {
+        String sql = "SELECT jti, expires_at FROM revoked_tokens WHERE expires_at > ?";
+        Map<String, Instant> revoked = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            revoked.put(rs.getString("jti"), rs.getTimestamp("expires_at").toInstant());
+        }, Timestamp.from(now));
+        return revoked;
+    }
+
+    public int deleteExpired(Instant now) {
+        return jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expires_at <= ?", Timestamp.from(now));
+    }
+}
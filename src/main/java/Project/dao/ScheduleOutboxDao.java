@@ -0,0 +1,73 @@
+package Project.dao;
+
+import Project.model.ScheduleOutboxEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Transactional outbox for Quartz schedule changes. Rows are written in the
+ * same transaction as the task change and applied later by
+ * {@link Project.scheduler.ScheduleOutboxRelay}.
+ */
+@Repository
+public class ScheduleOutboxDao {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final RowMapper<ScheduleOutboxEntry> OUTBOX_ROW_MAPPER = new RowMapper<ScheduleOutboxEntry>() {
+        @Override
+        public ScheduleOutboxEntry mapRow(ResultSet rs, int rowNum) throws SQLException {
+            ScheduleOutboxEntry entry = new ScheduleOutboxEntry();
+            entry.setId(rs.getLong("id"));
+            entry.setTaskId(rs.getLong("task_id"));
+            entry.setAction(rs.getString("action"));
+
+            Timestamp dueDate = rs.getTimestamp("due_date");
+            if (dueDate != null) {
+                entry.setDueDate(dueDate.toLocalDateTime().toLocalDate());
+            }
+
+            entry.setAttempts(rs.getInt("attempts"));
+            return entry;
+        }
+    };
+
+    public void enqueue(Long taskId, String action, LocalDate dueDate) {
+        String sql = "INSERT INTO schedule_outbox (task_id, action, due_date) VALUES (?, ?, ?)";
+        jdbcTemplate.update(sql, taskId, action, dueDate != null ? Timestamp.valueOf(dueDate.atStartOfDay()) : null);
+    }
+
+    public List<ScheduleOutboxEntry> findBatch(int limit) {
+        String sql = "SELECT * FROM schedule_outbox ORDER BY id ASC LIMIT ?";
+        return jdbcTemplate.query(sql, OUTBOX_ROW_MAPPER, limit);
+    }
+
+    public void deleteAll(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("DELETE FROM schedule_outbox WHERE id = ?", ids, ids.size(),
+                (ps, id) -> ps.setLong(1, id));
+    }
+
+    public void incrementAttempts(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("UPDATE schedule_outbox SET attempts = attempts + 1 WHERE id = ?", ids, ids.size(),
+                (ps, id) -> ps.setLong(1, id));
+    }
+
+    public int count() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schedule_outbox", Integer.class);
+        return count != null ? count : 0;
+    }
+}
@@ -1,93 +1,144 @@
-package Project.dao;
-
-import Project.model.User;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
-import org.springframework.stereotype.Repository;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.List;
-
-@Repository
-public class UserDao {
-
-	@Autowired
-	private JdbcTemplate jdbcTemplate;
-
-	private static final RowMapper<User> USER_ROW_MAPPER = new RowMapper<User>() {
-		@Override
-		public User mapRow(ResultSet rs, int rowNum) throws SQLException {
-			User user = new User();
-			user.setId(rs.getLong("id"));
-			user.setUsername(rs.getString("username"));
-			user.setPassword(rs.getString("password"));
-			user.setEmail(rs.getString("email"));
-			user.setRole(rs.getString("role"));
-			user.setEnabled(rs.getBoolean("enabled"));
-			return user;
-		}
-	};
-
-	public void save(User user) {
-		String sql = "INSERT INTO users (username, password, email, role, enabled) VALUES (?, ?, ?, ?, ?)";
-		jdbcTemplate.update(sql, user.getUsername(), user.getPassword(), user.getEmail(),
-				user.getRole() != null ? user.getRole() : "USER", user.isEnabled() != null ? user.isEnabled() : true);
-	}
-
-	public User findById(Long id) {
-		try {
-			String sql = "SELECT * FROM users WHERE id = ?";
-			return jdbcTemplate.queryForObject(sql, USER_ROW_MAPPER, id);
-		} catch (EmptyResultDataAccessException e) {
-			return null;
-		}
-	}
-
-	public User findByUsername(String username) {
-		try {
-			String sql = "SELECT * FROM users WHERE username = ?";
-			return jdbcTemplate.queryForObject(sql, USER_ROW_MAPPER, username);
-		} catch (EmptyResultDataAccessException e) {
-			return null;
-		}
-	}
-
-	public User findByEmail(String email) {
-		try {
-			String sql = "SELECT * FROM users WHERE email = ?";
-			return jdbcTemplate.queryForObject(sql, USER_ROW_MAPPER, email);
-		} catch (EmptyResultDataAccessException e) {
-			return null;
-		}
-	}
-
-	public List<User> findAll() {
-		String sql = "SELECT * FROM users";
-		return jdbcTemplate.query(sql, USER_ROW_MAPPER);
-	}
-
-	public void update(User user) {
-		String sql = "UPDATE users SET username = ?, password = ?, email = ?, role = ?, enabled = ? WHERE id = ?";
-		jdbcTemplate.update(sql, user.getUsername(), user.getPassword(), user.getEmail(), user.getRole(),
-				user.isEnabled(), user.getId());
-	}
-
-	public void delete(Long id) {
-		String sql = "DELETE FROM users WHERE id = ?";
-		jdbcTemplate.update(sql, id);
-	}
-
-	public boolean existsByUsername(String username) {
-		String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
-		Integer count = jdbcTemplate.queryForObject(sql, Integer.class, username);
-		return count != null && count > 0;
-	}
-
-	public boolean existsByEmail(String email) {
-		String sql = "SELECT COUNT(*) FROM users WHERE email = ?";
-		Integer count = jdbcTemplate.queryForObject(sql, Integer.class, email);
-		return count != null && count > 0;
-	}
-}
+package Project.dao;
+
+import Project.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Repository
+public class UserDao {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private static final RowMapper<User> USER_ROW_MAPPER = new RowMapper<User>() {
+		@Override
+		public User mapRow(ResultSet rs, int rowNum) throws SQLException {
+			User user = new User();
+			user.setId(rs.getLong("id"));
+			user.setUsername(rs.getString("username"));
+			user.setPassword(rs.getString("password"));
+			user.setEmail(rs.getString("email"));
+			user.setRole(rs.getString("role"));
+			user.setEnabled(rs.getBoolean("enabled"));
+			user.setLocale(rs.getString("locale"));
+			user.setCredentialVersion(rs.getInt("credential_version"));
+			return user;
+		}
+	};
+
+	private static final String INSERT_SQL = "INSERT INTO users (username, password, email, role, enabled, locale) "
+			+ "VALUES (?, ?, ?, ?, ?, ?)";
+
+	public void save(User user) {
+		jdbcTemplate.update(INSERT_SQL, user.getUsername(), user.getPassword(), user.getEmail(),
+				user.getRole() != null ? user.getRole() : "USER", user.isEnabled() != null ? user.isEnabled() : true,
+				user.getLocale());
+	}
+
+	/**
+	 * Inserts the users in one JDBC batch. A username or email already taken
+	 * fails the batch with a DuplicateKeyException; run it in a transaction
+	 * to leave no part of the batch behind.
+	 */
+	public void saveAll(List<User> users) {
+		jdbcTemplate.batchUpdate(INSERT_SQL, users, users.size(), (ps, user) -> {
+			ps.setString(1, user.getUsername());
+			ps.setString(2, user.getPassword());
+			ps.setString(3, user.getEmail());
+			ps.setString(4, user.getRole() != null ? user.getRole() : "USER");
+			ps.setBoolean(5, user.isEnabled() != null ? user.isEnabled() : true);
+			ps.setString(6, user.getLocale());
+		});
+	}
+
+	public User findById(Long id) {
+		try {
+			String sql = "SELECT * FROM users WHERE id = ?";
+			return jdbcTemplate.queryForObject(sql, USER_ROW_MAPPER, id);
+		} catch (EmptyResultDataAccessException e) {
+			return null;
+		}
+	}
+
+	public User findByUsername(String username) {
+		try {
+			String sql = "SELECT * FROM users WHERE username = ?";
+			return jdbcTemplate.queryForObject(sql, USER_ROW_MAPPER, username);
+		} catch (EmptyResultDataAccessException e) {
+			return null;
+		}
+	}
+
+	public User findByEmail(String email) {
+		try {
+			String sql = "SELECT * FROM users WHERE email = ?";
+			return jdbcTemplate.queryForObject(sql, USER_ROW_MAPPER, email);
+		} catch (EmptyResultDataAccessException e) {
+			return null;
+		}
+	}
+
+	public List<User> findAll() {
+		String sql = "SELECT * FROM users";
+		return jdbcTemplate.query(sql, USER_ROW_MAPPER);
+	}
+
+	/**
+	 * Saves the user. A change of password, role or enabled flag also bumps
+	 * the credential version, which the user object picks up.
+	 */
+	public void update(User user) {
+		String sql = "UPDATE users SET credential_version = credential_version + CASE WHEN password <> ? OR role <> ? "
+				+ "OR enabled <> ? THEN 1 ELSE 0 END, username = ?, password = ?, email = ?, role = ?, enabled = ?, "
+				+ "locale = ? WHERE id = ?";
+		jdbcTemplate.update(sql, user.getPassword(), user.getRole(), user.isEnabled(), user.getUsername(),
+				user.getPassword(), user.getEmail(), user.getRole(), user.isEnabled(), user.getLocale(), user.getId());
+		Integer version = jdbcTemplate.queryForObject("SELECT credential_version FROM users WHERE id = ?",
+				Integer.class, user.getId());
+		if (version != null) {
+			user.setCredentialVersion(version);
+		}
+	}
+
+	/** Credential versions of the users whose version was ever bumped. */
+	public Map<Long, Integer> findBumpedCredentialVersions() {
+		String sql = "SELECT id, credential_version FROM users WHERE credential_version > 0";
+		Map<Long, Integer> versions = new HashMap<>();
+		jdbcTemplate.query(sql, rs -> {
+			versions.put(rs.getLong("id"), rs.getInt("credential_version"));
+		});
+		return versions;
+	}
+
+	public Set<Long> findDisabledIds() {
+		String sql = "SELECT id FROM users WHERE enabled = FALSE";
+		return new HashSet<>(jdbcTemplate.queryForList(sql, Long.class));
+	}
+
+	public void delete(Long id) {
+		String sql = "DELETE FROM users WHERE id = ?";
+		jdbcTemplate.update(sql, id);
+	}
+
+	public boolean existsByUsername(String username) {
+		String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
+		Integer count = jdbcTemplate.queryForObject(sql, Integer.class, username);
+		return count != null && count > 0;
+	}
+
+	public boolean existsByEmail(String email) {
+		String sql = "SELECT COUNT(*) FROM users WHERE email = ?";
+		Integer count = jdbcTemplate.queryForObject(sql, Integer.class, email);
+		return count != null && count > 0;
+	}
+}
@@ -0,0 +1,78 @@
+package Project.dao;
+
+import Project.model.UserRule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public class UserRuleDao {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final RowMapper<UserRule> RULE_ROW_MAPPER = new RowMapper<UserRule>() {
+        @Override
+        public UserRule mapRow(ResultSet rs, int rowNum) throws SQLException {
+            UserRule rule = new UserRule();
+            rule.setId(rs.getLong("id"));
+            rule.setUserId(rs.getLong("user_id"));
+            rule.setName(rs.getString("name"));
+            rule.setExpression(rs.getString("expression"));
+
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            if (createdAt != null) {
+                rule.setCreatedAt(createdAt.toLocalDateTime());
+            }
+            return rule;
+        }
+    };
+
+    public UserRule save(UserRule rule) {
+        String sql = "INSERT INTO user_rules (user_id, name, expression) VALUES (?, ?, ?)";
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, new String[]{"id"});
+            ps.setLong(1, rule.getUserId());
+            ps.setString(2, rule.getName());
+            ps.setString(3, rule.getExpression());
+            return ps;
+        }, keyHolder);
+
+        if (keyHolder.getKey() != null) {
+            rule.setId(keyHolder.getKey().longValue());
+        }
+        return rule;
+    }
+
+    public UserRule findById(Long id) {
+        try {
+            return jdbcTemplate.queryForObject("SELECT * FROM user_rules WHERE id = ?", RULE_ROW_MAPPER, id);
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    public List<UserRule> findByUserId(Long userId) {
+        String sql = "SELECT * FROM user_rules WHERE user_id = ? ORDER BY id ASC";
+        return jdbcTemplate.query(sql, RULE_ROW_MAPPER, userId);
+    }
+
+    public List<Long> findUserIdsWithRules() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM user_rules ORDER BY user_id", Long.class);
+    }
+
+    public void delete(Long id) {
+        jdbcTemplate.update("DELETE FROM user_rules WHERE id = ?", id);
+    }
+}
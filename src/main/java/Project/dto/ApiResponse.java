@@ -1,70 +1,70 @@
-package Project.dto;
-
-import com.fasterxml.jackson.annotation.JsonInclude;
-
-@JsonInclude(JsonInclude.Include.NON_NULL)
-public class ApiResponse<T> {
-	private boolean success;
-	private String message;
-	private T data;
-	private Long timestamp;
-
-	public ApiResponse() {
-		this.timestamp = System.currentTimeMillis();
-	}
-
-	public ApiResponse(boolean success, String message, T data) {
-		this.success = success;
-		this.message = message;
-		this.data = data;
-		this.timestamp = System.currentTimeMillis();
-	}
-
-	public static <T> ApiResponse<T> success(T data) {
-		return new ApiResponse<>(true, "Success", data);
-	}
-
-	public static <T> ApiResponse<T> success(String message, T data) {
-		return new ApiResponse<>(true, message, data);
-	}
-
-	public static <T> ApiResponse<T> error(String message) {
-		return new ApiResponse<>(false, message, null);
-	}
-
-	public static <T> ApiResponse<T> error(String message, T data) {
-		return new ApiResponse<>(false, message, data);
-	}
-
-	public boolean isSuccess() {
-		return success;
-	}
-
-	public void setSuccess(boolean success) {
-		this.success = success;
-	}
-
-	public String getMessage() {
-		return message;
-	}
-
-	public void setMessage(String message) {
-		this.message = message;
-	}
-
-	public T getData() {
-		return data;
-	}
-
-	public void setData(T data) {
-		this.data = data;
-	}
-
-	public Long getTimestamp() {
-		return timestamp;
-	}
-
-	public void setTimestamp(Long timestamp) {
-		this.timestamp = timestamp;
-	}
-}
+package Project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ApiResponse<T> {
+	private boolean success;
+	private String message;
+	private T data;
+	private Long timestamp;
+
+	public ApiResponse() {
+		this.timestamp = System.currentTimeMillis();
+	}
+
+	public ApiResponse(boolean success, String message, T data) {
+		this.success = success;
+		this.message = message;
+		this.data = data;
+		this.timestamp = System.currentTimeMillis();
+	}
+
+	public static <T> ApiResponse<T> success(T data) {
+		return new ApiResponse<>(true, "Success", data);
+	}
+
+	public static <T> ApiResponse<T> success(String message, T data) {
+		return new ApiResponse<>(true, message, data);
+	}
+
+	public static <T> ApiResponse<T> error(String message) {
+		return new ApiResponse<>(false, message, null);
+	}
+
+	public static <T> ApiResponse<T> error(String message, T data) {
+		return new ApiResponse<>(false, message, data);
+	}
+
+	public boolean isSuccess() {
+		return success;
+	}
+
+	public void setSuccess(boolean success) {
+		this.success = success;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	public T getData() {
+		return data;
+	}
+
+	public void setData(T data) {
+		this.data = data;
+	}
+
+	public Long getTimestamp() {
+		return timestamp;
+	}
+
+	public void setTimestamp(Long timestamp) {
+		this.timestamp = timestamp;
+	}
+}
@@ -0,0 +1,87 @@
+package Project.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk user provisioning request: totals, plus one row for every
+ * user that was not created, with its position in the request.
+ */
+public class ProvisioningResult {
+
+	public static final String CONFLICT = "CONFLICT";
+	public static final String INVALID = "INVALID";
+
+	private int requested;
+	private int created;
+	private int conflicts;
+	private int invalid;
+	private final List<Row> rejected = new ArrayList<>();
+
+	public ProvisioningResult(int requested) {
+		this.requested = requested;
+	}
+
+	public void created(int count) {
+		created += count;
+	}
+
+	public void reject(int index, String username, String status, String message) {
+		if (CONFLICT.equals(status)) {
+			conflicts++;
+		} else {
+			invalid++;
+		}
+		rejected.add(new Row(index, username, status, message));
+	}
+
+	public int getRequested() {
+		return requested;
+	}
+
+	public int getCreated() {
+		return created;
+	}
+
+	public int getConflicts() {
+		return conflicts;
+	}
+
+	public int getInvalid() {
+		return invalid;
+	}
+
+	public List<Row> getRejected() {
+		return rejected;
+	}
+
+	public static class Row {
+		private final int index;
+		private final String username;
+		private final String status;
+		private final String message;
+
+		public Row(int index, String username, String status, String message) {
+			this.index = index;
+			this.username = username;
+			this.status = status;
+			this.message = message;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public String getUsername() {
+			return username;
+		}
+
+		public String getStatus() {
+			return status;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+	}
+}
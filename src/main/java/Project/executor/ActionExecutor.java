@@ -1,110 +1,336 @@
-package Project.executor;
-
-import Project.dao.UserDao;
-import Project.model.Task;
-import Project.model.User;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.stereotype.Component;
-import java.time.format.DateTimeFormatter;
-
-@Component
-public class ActionExecutor {
-
-	private static final Logger logger = LoggerFactory.getLogger(ActionExecutor.class);
-	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-	@Autowired
-	private JavaMailSender mailSender;
-
-	@Autowired
-	private UserDao userDao;
-
-	public void execute(Task task) {
-		if (task == null) {
-			logger.warn("Cannot execute actions for null task");
-			return;
-		}
-
-		logger.info("Executing actions for task: {}", task.getId());
-
-		try {
-			User user = userDao.findById(task.getUserId());
-
-			if (user == null) {
-				logger.error("User not found for task: {}", task.getId());
-				return;
-			}
-
-			if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
-				logger.warn("User {} has no email configured. Cannot send reminder for task: {}", user.getUsername(),
-						task.getId());
-				return;
-			}
-
-			sendEmailReminder(task, user);
-
-			logger.info("Actions executed successfully for task: {}", task.getId());
-
-		} catch (Exception e) {
-			logger.error("Failed to execute actions for task: {}", task.getId(), e);
-		}
-	}
-
-	private void sendEmailReminder(Task task, User user) {
-		try {
-			SimpleMailMessage message = new SimpleMailMessage();
-			message.setTo(user.getEmail());
-			message.setSubject("Task Reminder: " + task.getTitle());
-
-			StringBuilder emailBody = new StringBuilder();
-			emailBody.append("Hello ").append(user.getUsername()).append(",\n\n");
-			emailBody.append("This is a reminder for your upcoming task:\n\n");
-			emailBody.append("Title: ").append(task.getTitle()).append("\n");
-
-			if (task.getDescription() != null && !task.getDescription().isEmpty()) {
-				emailBody.append("Description: ").append(task.getDescription()).append("\n");
-			}
-
-			if (task.getDueDate() != null) {
-				emailBody.append("Due Date: ").append(task.getDueDate().format(DATE_FORMATTER)).append("\n");
-			}
-
-			emailBody.append("Priority: ").append(task.getPriority()).append("\n");
-			emailBody.append("Status: ").append(task.getStatus()).append("\n\n");
-			emailBody.append("Don't forget to complete this task!\n\n");
-			emailBody.append("Best regards,\n");
-			emailBody.append("Task Automation System");
-
-			message.setText(emailBody.toString());
-
-			mailSender.send(message);
-			logger.info("Email reminder sent successfully to {} for task: {}", user.getEmail(), task.getId());
-
-		} catch (Exception e) {
-			logger.error("Failed to send email reminder for task: {}", task.getId(), e);
-			throw new RuntimeException("Failed to send email reminder", e);
-		}
-	}
-
-	public void executeAction(Task task, String actionType) {
-		logger.info("Executing {} action for task: {}", actionType, task.getId());
-
-		switch (actionType.toUpperCase()) {
-		case "EMAIL":
-			execute(task);
-			break;
-		case "NOTIFICATION":
-			logger.info("Notification action not yet implemented");
-			break;
-		case "SMS":
-			logger.info("SMS action not yet implemented");
-			break;
-		default:
-			logger.warn("Unknown action type: {}", actionType);
-		}
-	}
-}
+package Project.executor;
+
+import Project.dao.UserDao;
+import Project.metrics.SchedulerMetrics;
+import Project.model.Task;
+import Project.model.User;
+import Project.template.NotificationTemplates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class ActionExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(ActionExecutor.class);
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+	private static final String TEMPLATE_REMINDER = "reminder";
+	private static final String TEMPLATE_DIGEST = "digest";
+
+	// Most urgent first, then earliest due, then oldest task.
+	private static final Comparator<DigestEntry> DIGEST_ORDER = Comparator
+			.comparingInt((DigestEntry entry) -> -entry.urgencyScore)
+			.thenComparing(entry -> entry.task.getDueDate(), Comparator.nullsLast(Comparator.naturalOrder()))
+			.thenComparing(entry -> entry.task.getId(), Comparator.nullsLast(Comparator.naturalOrder()));
+
+	@Autowired
+	private MailDeliveryPipeline mailPipeline;
+
+	@Autowired
+	private OutboundMailGuard mailGuard;
+
+	@Autowired
+	private UserDao userDao;
+
+	@Autowired
+	private SchedulerMetrics schedulerMetrics;
+
+	@Autowired
+	private NotificationDispatcher notificationDispatcher;
+
+	@Autowired
+	private NotificationTemplates templates;
+
+	@Value("${templates.html.enabled:false}")
+	private boolean htmlEnabled;
+
+	@Value("${reminder.digest.enabled:false}")
+	private boolean digestEnabled;
+
+	@Value("${reminder.digest.window-ms:2000}")
+	private long digestWindowMs;
+
+	@Value("${reminder.digest.max-tasks:50}")
+	private int digestMaxTasks;
+
+	private final Map<Long, List<DigestEntry>> digests = new HashMap<>();
+	private ScheduledExecutorService digestFlusher;
+
+	@PostConstruct
+	public void start() {
+		if (digestEnabled) {
+			digestFlusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "reminder-digest");
+				thread.setDaemon(true);
+				return thread;
+			});
+			logger.info("Reminder digests enabled: window {} ms, at most {} tasks per email", digestWindowMs,
+					digestMaxTasks);
+		}
+	}
+
+	/**
+	 * Sends the digests still collecting right away, so nothing claimed is
+	 * left behind on shutdown.
+	 */
+	@PreDestroy
+	public void stop() {
+		if (digestFlusher == null) {
+			return;
+		}
+		digestFlusher.shutdownNow();
+
+		List<List<DigestEntry>> remaining;
+		synchronized (digests) {
+			remaining = new ArrayList<>(digests.values());
+			digests.clear();
+		}
+		remaining.forEach(this::deliverDigest);
+	}
+
+	public boolean execute(Task task) {
+		return executeAsync(task).join();
+	}
+
+	/**
+	 * Hands the reminder to the mail pipeline. The future completes with
+	 * whether the reminder was sent once the mail server has answered.
+	 */
+	public CompletableFuture<Boolean> executeAsync(Task task) {
+		if (task == null) {
+			logger.warn("Cannot execute actions for null task");
+			return CompletableFuture.completedFuture(false);
+		}
+
+		long start = System.nanoTime();
+		return deliver(task).thenApply(sent -> {
+			schedulerMetrics.recordDelivery(System.nanoTime() - start, sent);
+			return sent;
+		});
+	}
+
+	/**
+	 * Like {@link #executeAsync(Task)}, but in digest mode the reminder waits
+	 * up to {@code reminder.digest.window-ms} for others of the same user, and
+	 * they all go out in one email ordered by urgency score.
+	 */
+	public CompletableFuture<Boolean> executeAsync(Task task, int urgencyScore) {
+		if (!digestEnabled || task == null || task.getUserId() == null) {
+			return executeAsync(task);
+		}
+
+		DigestEntry entry = new DigestEntry(task, urgencyScore);
+		List<DigestEntry> full = null;
+		synchronized (digests) {
+			Long userId = task.getUserId();
+			List<DigestEntry> digest = digests.get(userId);
+			if (digest == null) {
+				List<DigestEntry> collecting = new ArrayList<>();
+				digest = collecting;
+				digests.put(userId, collecting);
+				digestFlusher.schedule(() -> flushDigest(userId, collecting), digestWindowMs, TimeUnit.MILLISECONDS);
+			}
+			digest.add(entry);
+			if (digest.size() >= Math.max(1, digestMaxTasks)) {
+				digests.remove(userId);
+				full = digest;
+			}
+		}
+
+		if (full != null) {
+			deliverDigest(full);
+		}
+		return entry.future;
+	}
+
+	private void flushDigest(Long userId, List<DigestEntry> digest) {
+		synchronized (digests) {
+			// Already sent if it filled up before the window closed.
+			if (digests.get(userId) != digest) {
+				return;
+			}
+			digests.remove(userId);
+		}
+		deliverDigest(digest);
+	}
+
+	private void deliverDigest(List<DigestEntry> digest) {
+		if (digest.size() == 1) {
+			DigestEntry only = digest.get(0);
+			executeAsync(only.task).whenComplete((sent, error) -> only.future.complete(error == null && sent));
+			return;
+		}
+
+		Long userId = digest.get(0).task.getUserId();
+		logger.info("Sending digest of {} reminders to user {}", digest.size(), userId);
+		CompletableFuture<Boolean> result;
+		try {
+			User user = userDao.findById(userId);
+
+			if (user == null) {
+				logger.error("User {} not found for digest of {} reminders", userId, digest.size());
+				result = CompletableFuture.completedFuture(false);
+			} else if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
+				logger.warn("User {} has no email configured. Cannot send digest of {} reminders", user.getUsername(),
+						digest.size());
+				result = CompletableFuture.completedFuture(false);
+			} else {
+				digest.sort(DIGEST_ORDER);
+				result = sendTemplated(TEMPLATE_DIGEST, user, digestModel(digest, user)).handle((ignored, error) -> {
+					if (error instanceof OutboundMailGuard.DeferredException) {
+						logger.warn("Digest of {} reminders to user {} deferred: {}", digest.size(), userId,
+								error.getMessage());
+						return false;
+					}
+					if (error != null) {
+						logger.error("Failed to send digest of {} reminders to user {}", digest.size(), userId, error);
+						return false;
+					}
+					logger.info("Digest of {} reminders sent successfully to {}", digest.size(), user.getEmail());
+					return true;
+				});
+			}
+		} catch (Exception e) {
+			logger.error("Failed to send digest of {} reminders to user {}", digest.size(), userId, e);
+			result = CompletableFuture.completedFuture(false);
+		}
+
+		result.whenComplete((sent, error) -> {
+			boolean delivered = error == null && sent;
+			schedulerMetrics.recordDigest(digest.size(), delivered);
+			for (DigestEntry entry : digest) {
+				schedulerMetrics.recordDelivery(System.nanoTime() - entry.startNanos, delivered);
+				entry.future.complete(delivered);
+			}
+		});
+	}
+
+	private CompletableFuture<Boolean> deliver(Task task) {
+		logger.info("Executing actions for task: {}", task.getId());
+
+		try {
+			User user = userDao.findById(task.getUserId());
+
+			if (user == null) {
+				logger.error("User not found for task: {}", task.getId());
+				return CompletableFuture.completedFuture(false);
+			}
+
+			if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
+				logger.warn("User {} has no email configured. Cannot send reminder for task: {}", user.getUsername(),
+						task.getId());
+				return CompletableFuture.completedFuture(false);
+			}
+
+			return sendTemplated(TEMPLATE_REMINDER, user, reminderModel(task, user)).handle((ignored, error) -> {
+				if (error instanceof OutboundMailGuard.DeferredException) {
+					logger.warn("Email reminder for task {} deferred: {}", task.getId(), error.getMessage());
+					return false;
+				}
+				if (error != null) {
+					logger.error("Failed to send email reminder for task: {}", task.getId(), error);
+					return false;
+				}
+				logger.info("Email reminder sent successfully to {} for task: {}", user.getEmail(), task.getId());
+				return true;
+			});
+
+		} catch (Exception e) {
+			logger.error("Failed to execute actions for task: {}", task.getId(), e);
+			return CompletableFuture.completedFuture(false);
+		}
+	}
+
+	/**
+	 * Renders the subject, text and, unless disabled, HTML variants of the
+	 * template in the user's locale and queues the email, unless the
+	 * {@link OutboundMailGuard} defers it.
+	 */
+	private CompletableFuture<Void> sendTemplated(String template, User user, Map<String, Object> model) {
+		Locale locale = user.getLocale() != null ? Locale.forLanguageTag(user.getLocale()) : null;
+		String subject = templates.render(template, locale, NotificationTemplates.SUBJECT, model);
+		String text = templates.render(template, locale, NotificationTemplates.TEXT, model);
+		if (subject == null || text == null) {
+			throw new RuntimeException("Missing email template: " + template);
+		}
+
+		SimpleMailMessage message = new SimpleMailMessage();
+		message.setTo(user.getEmail());
+		message.setSubject(subject);
+		message.setText(text);
+		String html = htmlEnabled ? templates.render(template, locale, NotificationTemplates.HTML, model) : null;
+		return mailGuard.send(sendStarted -> mailPipeline.submit(message, html, sendStarted));
+	}
+
+	private static Map<String, Object> reminderModel(Task task, User user) {
+		Map<String, Object> model = taskModel(task);
+		model.put("username", user.getUsername());
+		return model;
+	}
+
+	private static Map<String, Object> digestModel(List<DigestEntry> digest, User user) {
+		List<Map<String, Object>> tasks = new ArrayList<>(digest.size());
+		for (DigestEntry entry : digest) {
+			Map<String, Object> task = taskModel(entry.task);
+			task.put("index", tasks.size() + 1);
+			tasks.add(task);
+		}
+
+		Map<String, Object> model = new HashMap<>();
+		model.put("username", user.getUsername());
+		model.put("count", digest.size());
+		model.put("tasks", tasks);
+		return model;
+	}
+
+	private static Map<String, Object> taskModel(Task task) {
+		Map<String, Object> model = new HashMap<>();
+		model.put("title", task.getTitle());
+		model.put("description", task.getDescription());
+		if (task.getDueDate() != null) {
+			model.put("dueDate", task.getDueDate().atStartOfDay().format(DATE_FORMATTER));
+		}
+		model.put("priority", task.getPriority());
+		model.put("status", task.getStatus());
+		return model;
+	}
+
+	/**
+	 * Runs the named notification channel ("EMAIL", "NOTIFICATION", ...) for
+	 * the task on that channel's bulkhead.
+	 */
+	public CompletableFuture<Boolean> executeAction(Task task, String actionType) {
+		logger.info("Executing {} action for task: {}", actionType, task.getId());
+		return notificationDispatcher.dispatch(task, actionType);
+	}
+
+	private static final class DigestEntry {
+		private final Task task;
+		private final int urgencyScore;
+		private final long startNanos = System.nanoTime();
+		private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+		private DigestEntry(Task task, int urgencyScore) {
+			this.task = task;
+			this.urgencyScore = urgencyScore;
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package Project.executor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. While closed it remembers the outcome of the
+ * last {@code windowSize} calls; once at least {@code minimumCalls} are in the
+ * window and the share of failed or of slow calls reaches its threshold, it
+ * opens and refuses every call for {@code openNanos}. After that it lets
+ * {@code halfOpenCalls} probes through: if all of them succeed in time it
+ * closes again with an empty window, otherwise it reopens.
+ *
+ * A permit remembers the state it was granted in, so a call that started
+ * before the breaker opened does not count as a probe when it finishes.
+ */
+public final class CircuitBreaker {
+
+	public static final long NOT_PERMITTED = -1;
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private static final byte FAILED = 1;
+	private static final byte SLOW = 2;
+
+	private final int minimumCalls;
+	private final int failureRateThreshold;
+	private final int slowCallRateThreshold;
+	private final long slowCallNanos;
+	private final long openNanos;
+	private final int halfOpenCalls;
+	private final LongSupplier nanoClock;
+
+	private final byte[] window;
+	private int position;
+	private int recorded;
+	private int failures;
+	private int slowCalls;
+
+	private State state = State.CLOSED;
+	// Bumped on every transition; permits from an earlier state are stale.
+	private long generation;
+	private long openedAt;
+	private int probesStarted;
+	private int probesSucceeded;
+
+	private long notPermitted;
+	private long timesOpened;
+
+	/**
+	 * @param failureRateThreshold  percentage of failed calls that opens the breaker
+	 * @param slowCallRateThreshold percentage of calls slower than {@code slowCallNanos} that opens it
+	 */
+	public CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, int slowCallRateThreshold,
+			long slowCallNanos, long openNanos, int halfOpenCalls, LongSupplier nanoClock) {
+		this.window = new byte[Math.max(1, windowSize)];
+		this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+		this.failureRateThreshold = failureRateThreshold;
+		this.slowCallRateThreshold = slowCallRateThreshold;
+		this.slowCallNanos = slowCallNanos;
+		this.openNanos = openNanos;
+		this.halfOpenCalls = Math.max(1, halfOpenCalls);
+		this.nanoClock = nanoClock;
+	}
+
+	/**
+	 * Asks to make a call. Returns a permit to pass to {@link #onResult} or
+	 * {@link #release}, or {@link #NOT_PERMITTED} if the call must not be made.
+	 */
+	public synchronized long tryAcquire() {
+		if (state == State.OPEN) {
+			if (nanoClock.getAsLong() - openedAt < openNanos) {
+				notPermitted++;
+				return NOT_PERMITTED;
+			}
+			transition(State.HALF_OPEN);
+		}
+		if (state == State.HALF_OPEN) {
+			if (probesStarted >= halfOpenCalls) {
+				notPermitted++;
+				return NOT_PERMITTED;
+			}
+			probesStarted++;
+		}
+		return generation;
+	}
+
+	/** Gives back a permit that was not used for a call. */
+	public synchronized void release(long permit) {
+		if (permit == generation && state == State.HALF_OPEN && probesStarted > 0) {
+			probesStarted--;
+		}
+	}
+
+	public synchronized void onResult(long permit, long durationNanos, boolean success) {
+		if (permit != generation) {
+			return;
+		}
+		boolean slow = durationNanos >= slowCallNanos;
+
+		if (state == State.HALF_OPEN) {
+			if (!success || slow) {
+				open();
+			} else if (++probesSucceeded >= halfOpenCalls) {
+				transition(State.CLOSED);
+			}
+			return;
+		}
+
+		byte outcome = (byte) ((success ? 0 : FAILED) | (slow ? SLOW : 0));
+		if (recorded == window.length) {
+			byte evicted = window[position];
+			failures -= evicted & FAILED;
+			slowCalls -= (evicted & SLOW) >> 1;
+		} else {
+			recorded++;
+		}
+		window[position] = outcome;
+		position = (position + 1) % window.length;
+		failures += outcome & FAILED;
+		slowCalls += (outcome & SLOW) >> 1;
+
+		if (recorded >= minimumCalls && (failures * 100 >= failureRateThreshold * recorded
+				|| slowCalls * 100 >= slowCallRateThreshold * recorded)) {
+			open();
+		}
+	}
+
+	public synchronized State getState() {
+		// Report an open breaker whose wait is over as ready to probe.
+		if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+			return State.HALF_OPEN;
+		}
+		return state;
+	}
+
+	public synchronized Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("state", getState().name());
+		stats.put("bufferedCalls", recorded);
+		stats.put("failureRate", recorded == 0 ? 0.0 : failures * 100.0 / recorded);
+		stats.put("slowCallRate", recorded == 0 ? 0.0 : slowCalls * 100.0 / recorded);
+		stats.put("notPermitted", notPermitted);
+		stats.put("timesOpened", timesOpened);
+		return stats;
+	}
+
+	private void open() {
+		transition(State.OPEN);
+		openedAt = nanoClock.getAsLong();
+		timesOpened++;
+	}
+
+	private void transition(State next) {
+		state = next;
+		generation++;
+		probesStarted = 0;
+		probesSucceeded = 0;
+		if (next != State.OPEN) {
+			position = 0;
+			recorded = 0;
+			failures = 0;
+			slowCalls = 0;
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package Project.executor;
+
+import Project.model.ReminderDelivery;
+import Project.model.Task;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Email reminders through {@link ActionExecutor}. {@link #deliver(Task)}
+ * blocks until the mail server has answered, so a slow server backs up this
+ * channel's bulkhead only. Reminders from the sweep only hold a bulkhead
+ * thread while they are handed to the mail path: they may wait there for a
+ * digest, and the mail pipeline's bounded queue and the
+ * {@link OutboundMailGuard} take care of a slow server.
+ */
+@Component
+public class EmailNotificationChannel implements NotificationChannel {
+
+	public static final String NAME = ReminderDelivery.CHANNEL_EMAIL;
+
+	// Lazy: ActionExecutor routes executeAction back through the dispatcher.
+	@Autowired
+	@Lazy
+	private ActionExecutor actionExecutor;
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public boolean deliver(Task task) {
+		return actionExecutor.execute(task);
+	}
+
+	@Override
+	public CompletableFuture<Boolean> deliver(Task task, int urgencyScore) {
+		return actionExecutor.executeAsync(task, urgencyScore);
+	}
+}
@@ -0,0 +1,44 @@
+package Project.executor;
+
+import Project.model.Task;
+import Project.service.NotificationHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pushes reminders to the user's connected browsers through the
+ * {@link NotificationHub}. Delivered means at least one open connection took it.
+ */
+@Component
+public class InAppNotificationChannel implements NotificationChannel {
+
+	public static final String NAME = "NOTIFICATION";
+
+	@Autowired
+	private NotificationHub notificationHub;
+
+	@Autowired
+	private Clock clock;
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public boolean deliver(Task task) {
+		Map<String, Object> notification = new LinkedHashMap<>();
+		notification.put("type", "REMINDER");
+		notification.put("taskId", task.getId());
+		notification.put("title", task.getTitle());
+		notification.put("dueDate", task.getDueDate());
+		notification.put("priority", task.getPriority());
+		notification.put("sentAt", LocalDateTime.now(clock));
+		return notificationHub.publish(task.getUserId(), notification) > 0;
+	}
+}
@@ -0,0 +1,397 @@
+package Project.executor;
+
+import Project.metrics.LatencyHistogram;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends mail off the calling thread. Messages go into a bounded queue and a
+ * fixed set of workers drain it in batches. Each worker owns one SMTP
+ * connection and keeps it open between batches. The connection closes after
+ * it has been idle for {@code mail.pipeline.max-idle-ms}, or reconnects when
+ * the server drops it.
+ *
+ * When the configured sender is anything but a plain {@link JavaMailSenderImpl}
+ * (e.g. a test double) each batch goes through
+ * {@link JavaMailSender#send(SimpleMailMessage...)} instead, as plain text only.
+ */
+@Component
+public class MailDeliveryPipeline {
+
+	private static final Logger logger = LoggerFactory.getLogger(MailDeliveryPipeline.class);
+
+	private static final long POLL_INTERVAL_MS = 500;
+
+	@Autowired
+	private JavaMailSender mailSender;
+
+	@Value("${mail.pipeline.workers:2}")
+	private int workerCount;
+
+	@Value("${mail.pipeline.queue-capacity:1000}")
+	private int queueCapacity;
+
+	@Value("${mail.pipeline.batch-size:20}")
+	private int batchSize;
+
+	@Value("${mail.pipeline.max-idle-ms:30000}")
+	private long maxIdleMs;
+
+	private BlockingQueue<Pending> queue;
+	private final List<Thread> workers = new ArrayList<>();
+	private volatile boolean running;
+
+	private final LatencyHistogram queueDelay = new LatencyHistogram();
+	private final LatencyHistogram latency = new LatencyHistogram();
+	private final LongAdder sent = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder connectionsOpened = new LongAdder();
+
+	@PostConstruct
+	public void start() {
+		queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+		running = true;
+		for (int i = 1; i <= Math.max(1, workerCount); i++) {
+			Thread worker = new Thread(this::work, "mail-delivery-" + i);
+			worker.setDaemon(true);
+			worker.start();
+			workers.add(worker);
+		}
+		logger.info("Mail delivery pipeline started with {} workers, queue capacity {}, batch size {}",
+				workers.size(), queueCapacity, batchSize);
+	}
+
+	/**
+	 * Lets the workers send what is already queued, then closes their
+	 * connections. Messages still queued after the grace period fail.
+	 */
+	@PreDestroy
+	public void stop() {
+		running = false;
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		for (Thread worker : workers) {
+			try {
+				worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+
+		List<Pending> leftovers = new ArrayList<>();
+		queue.drainTo(leftovers);
+		for (Pending pending : leftovers) {
+			fail(pending, new RuntimeException("Mail delivery pipeline stopped"));
+		}
+	}
+
+	/**
+	 * Queues a message for delivery. The future completes once the server has
+	 * accepted it, or fails right away if the queue is full.
+	 */
+	public CompletableFuture<Void> submit(SimpleMailMessage message) {
+		return submit(message, null);
+	}
+
+	/**
+	 * Like {@link #submit(SimpleMailMessage)}, but sent as multipart/alternative
+	 * with the message text as plain part and {@code html} as HTML part.
+	 */
+	public CompletableFuture<Void> submit(SimpleMailMessage message, String html) {
+		return submit(message, html, null);
+	}
+
+	/**
+	 * Like {@link #submit(SimpleMailMessage, String)}; {@code onSendStarted}
+	 * runs on the worker right before the message is transmitted.
+	 */
+	public CompletableFuture<Void> submit(SimpleMailMessage message, String html, Runnable onSendStarted) {
+		Pending pending = new Pending(message, html, onSendStarted);
+		if (!running) {
+			rejected.increment();
+			pending.future.completeExceptionally(new RuntimeException("Mail delivery pipeline stopped"));
+		} else if (!queue.offer(pending)) {
+			rejected.increment();
+			pending.future.completeExceptionally(new RuntimeException("Mail queue is full"));
+		}
+		return pending.future;
+	}
+
+	public int getQueueDepth() {
+		return queue.size();
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		long batchCount = batches.sum();
+		stats.put("queueDepth", getQueueDepth());
+		stats.put("sent", sent.sum());
+		stats.put("failed", failed.sum());
+		stats.put("rejected", rejected.sum());
+		stats.put("batches", batchCount);
+		stats.put("averageBatchSize", batchCount == 0 ? 0.0 : (double) (sent.sum() + failed.sum()) / batchCount);
+		stats.put("connectionsOpened", connectionsOpened.sum());
+		stats.put("queueDelay", queueDelay.snapshot());
+		stats.put("latency", latency.snapshot());
+		return stats;
+	}
+
+	private void work() {
+		// Subclasses may override send(), so only the stock sender is bypassed for raw transports.
+		MailChannel channel = mailSender.getClass() == JavaMailSenderImpl.class
+				? new SmtpChannel((JavaMailSenderImpl) mailSender)
+				: new BatchChannel();
+		List<Pending> batch = new ArrayList<>(batchSize);
+		long lastUsed = System.nanoTime();
+
+		try {
+			while (running || !queue.isEmpty()) {
+				Pending first;
+				try {
+					first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+
+				if (first == null) {
+					if (System.nanoTime() - lastUsed > TimeUnit.MILLISECONDS.toNanos(maxIdleMs)) {
+						channel.close();
+					}
+					continue;
+				}
+
+				batch.add(first);
+				queue.drainTo(batch, Math.max(1, batchSize) - 1);
+				long batchStart = System.nanoTime();
+				for (Pending pending : batch) {
+					queueDelay.record(batchStart - pending.enqueuedNanos);
+				}
+
+				batches.increment();
+				try {
+					channel.send(batch);
+				} catch (RuntimeException e) {
+					logger.error("Mail batch of {} failed", batch.size(), e);
+					for (Pending pending : batch) {
+						fail(pending, e);
+					}
+				}
+				batch.clear();
+				lastUsed = System.nanoTime();
+			}
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void complete(Pending pending) {
+		if (pending.future.isDone()) {
+			return;
+		}
+		latency.record(System.nanoTime() - pending.enqueuedNanos);
+		sent.increment();
+		pending.future.complete(null);
+	}
+
+	private void fail(Pending pending, Exception e) {
+		if (pending.future.isDone()) {
+			return;
+		}
+		latency.record(System.nanoTime() - pending.enqueuedNanos);
+		failed.increment();
+		pending.future.completeExceptionally(e);
+	}
+
+	private interface MailChannel {
+
+		void send(List<Pending> batch);
+
+		void close();
+	}
+
+	/**
+	 * One long-lived connection, reopened when the server has dropped it.
+	 * A message that fails on a dead connection is retried once on a new one.
+	 */
+	private class SmtpChannel implements MailChannel {
+
+		private final JavaMailSenderImpl sender;
+		private Transport transport;
+
+		private SmtpChannel(JavaMailSenderImpl sender) {
+			this.sender = sender;
+		}
+
+		@Override
+		public void send(List<Pending> batch) {
+			for (Pending pending : batch) {
+				MimeMessage message;
+				try {
+					message = sender.createMimeMessage();
+					MimeMessageHelper helper = new MimeMessageHelper(message, pending.html != null, "UTF-8");
+					pending.message.copyTo(new MimeMailMessage(helper));
+					if (pending.html != null) {
+						helper.setText(pending.message.getText(), pending.html);
+					}
+					message.saveChanges();
+				} catch (Exception e) {
+					fail(pending, e);
+					continue;
+				}
+
+				try {
+					pending.sendStarted();
+					sendMessage(message);
+					complete(pending);
+				} catch (MessagingException e) {
+					if (transport != null && transport.isConnected()) {
+						fail(pending, e);
+						continue;
+					}
+					logger.warn("SMTP connection lost, reconnecting: {}", e.getMessage());
+					close();
+					try {
+						sendMessage(message);
+						complete(pending);
+					} catch (MessagingException retryFailure) {
+						close();
+						fail(pending, retryFailure);
+					}
+				}
+			}
+		}
+
+		private void sendMessage(MimeMessage message) throws MessagingException {
+			if (transport == null) {
+				transport = connect();
+			}
+			transport.sendMessage(message, message.getAllRecipients());
+		}
+
+		private Transport connect() throws MessagingException {
+			String username = sender.getUsername();
+			String password = sender.getPassword();
+			if ("".equals(username)) {
+				username = null;
+				if ("".equals(password)) {
+					password = null;
+				}
+			}
+
+			// Same protocol lookup as JavaMailSenderImpl#getTransport.
+			String protocol = sender.getProtocol();
+			if (protocol == null) {
+				protocol = sender.getSession().getProperty("mail.transport.protocol");
+			}
+			Transport connected = sender.getSession().getTransport(protocol != null ? protocol : "smtp");
+			connected.connect(sender.getHost(), sender.getPort(), username, password);
+			connectionsOpened.increment();
+			logger.debug("Opened SMTP connection to {}:{}", sender.getHost(), sender.getPort());
+			return connected;
+		}
+
+		@Override
+		public void close() {
+			if (transport == null) {
+				return;
+			}
+			try {
+				transport.close();
+			} catch (MessagingException e) {
+				logger.debug("Error closing SMTP connection: {}", e.getMessage());
+			}
+			transport = null;
+		}
+	}
+
+	private class BatchChannel implements MailChannel {
+
+		@Override
+		public void send(List<Pending> batch) {
+			SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+			for (int i = 0; i < messages.length; i++) {
+				messages[i] = batch.get(i).message;
+			}
+
+			for (Pending pending : batch) {
+				pending.sendStarted();
+			}
+			try {
+				mailSender.send(messages);
+			} catch (MailSendException e) {
+				// Without per-message failures we cannot tell what went out, so the whole batch fails.
+				Map<Object, Exception> failedMessages = e.getFailedMessages();
+				boolean matched = false;
+				for (Pending pending : batch) {
+					Exception failure = failedMessages.get(pending.message);
+					if (failure != null) {
+						fail(pending, failure);
+						matched = true;
+					}
+				}
+				if (!matched) {
+					throw e;
+				}
+			}
+			for (Pending pending : batch) {
+				complete(pending);
+			}
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	private static final class Pending {
+		private final SimpleMailMessage message;
+		private final String html;
+		private final Runnable onSendStarted;
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+		private final long enqueuedNanos = System.nanoTime();
+
+		private Pending(SimpleMailMessage message, String html, Runnable onSendStarted) {
+			this.message = message;
+			this.html = html;
+			this.onSendStarted = onSendStarted;
+		}
+
+		private void sendStarted() {
+			if (onSendStarted == null) {
+				return;
+			}
+			try {
+				onSendStarted.run();
+			} catch (RuntimeException e) {
+				logger.warn("Send start callback failed: {}", e.getMessage());
+			}
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package Project.executor;
+
+import Project.model.Task;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A way of telling a user about a task. Channels are Spring beans; the
+ * {@link NotificationDispatcher} picks every one up under its name (the action
+ * type, e.g. "EMAIL") and runs it on a bulkhead of its own.
+ */
+public interface NotificationChannel {
+
+	String getName();
+
+	/**
+	 * Delivers the notification and returns whether it reached the user. May
+	 * block: it runs on the channel's own threads, never on the caller's.
+	 */
+	boolean deliver(Task task) throws Exception;
+
+	/**
+	 * Delivers a reminder the sweep dispatched with the given urgency score.
+	 * Runs on the channel's threads like {@link #deliver(Task)}, which it calls
+	 * by default; channels with an asynchronous transport may instead return
+	 * once the reminder is handed over and complete the future later.
+	 */
+	default CompletableFuture<Boolean> deliver(Task task, int urgencyScore) throws Exception {
+		return CompletableFuture.completedFuture(deliver(task));
+	}
+}
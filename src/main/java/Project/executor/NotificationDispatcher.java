@@ -0,0 +1,215 @@
+package Project.executor;
+
+import Project.metrics.LatencyHistogram;
+import Project.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes notifications to {@link NotificationChannel}s. Every channel gets a
+ * bulkhead: its own small thread pool and bounded queue. A stalled channel
+ * (e.g. a slow SMTP server) fills only its own bulkhead, and once that is full
+ * further work for it is rejected instead of piling up. Other channels are
+ * not affected.
+ *
+ * Pool and queue sizes come from {@code notification.bulkhead.<channel>.threads}
+ * and {@code .queue-capacity}, falling back to the {@code notification.bulkhead.*}
+ * defaults. Reminders from the sweep wait up to
+ * {@code notification.bulkhead.max-wait-ms} for room in a full queue, so the
+ * dispatch queue slows down to the channel's pace instead of shedding a burst.
+ */
+@Component
+public class NotificationDispatcher {
+
+	private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+	@Autowired
+	private List<NotificationChannel> channels;
+
+	@Autowired
+	private Environment environment;
+
+	@Value("${notification.bulkhead.threads:2}")
+	private int defaultThreads;
+
+	@Value("${notification.bulkhead.queue-capacity:200}")
+	private int defaultQueueCapacity;
+
+	@Value("${notification.bulkhead.max-wait-ms:5000}")
+	private long maxWaitMs;
+
+	private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+
+	@PostConstruct
+	public void start() {
+		for (NotificationChannel channel : channels) {
+			String name = channel.getName().toUpperCase();
+			String prefix = "notification.bulkhead." + name.toLowerCase();
+			int threads = Math.max(1, environment.getProperty(prefix + ".threads", Integer.class, defaultThreads));
+			int queueCapacity = Math.max(1,
+					environment.getProperty(prefix + ".queue-capacity", Integer.class, defaultQueueCapacity));
+			bulkheads.put(name, new Bulkhead(channel, threads, queueCapacity));
+			logger.info("Notification channel {} registered with {} threads and queue capacity {}", name, threads,
+					queueCapacity);
+		}
+	}
+
+	@PreDestroy
+	public void stop() {
+		for (Bulkhead bulkhead : bulkheads.values()) {
+			bulkhead.executor.shutdown();
+		}
+		for (Bulkhead bulkhead : bulkheads.values()) {
+			try {
+				bulkhead.executor.awaitTermination(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	public boolean hasChannel(String name) {
+		return name != null && bulkheads.containsKey(name.toUpperCase());
+	}
+
+	/**
+	 * Runs the named channel for the task on that channel's bulkhead. The
+	 * future completes with whether the notification was delivered; it is
+	 * false right away for an unknown channel or a full bulkhead.
+	 */
+	public CompletableFuture<Boolean> dispatch(Task task, String channelName) {
+		Bulkhead bulkhead = bulkhead(channelName);
+		if (bulkhead == null) {
+			return CompletableFuture.completedFuture(false);
+		}
+		return bulkhead.submit(task, () -> CompletableFuture.completedFuture(bulkhead.channel.deliver(task)), 0);
+	}
+
+	/**
+	 * Like {@link #dispatch(Task, String)} for a reminder from the sweep,
+	 * through {@link NotificationChannel#deliver(Task, int)}. Blocks the caller
+	 * while the bulkhead is full, up to {@code notification.bulkhead.max-wait-ms}.
+	 */
+	public CompletableFuture<Boolean> dispatch(Task task, int urgencyScore, String channelName) {
+		Bulkhead bulkhead = bulkhead(channelName);
+		if (bulkhead == null) {
+			return CompletableFuture.completedFuture(false);
+		}
+		return bulkhead.submit(task, () -> bulkhead.channel.deliver(task, urgencyScore), maxWaitMs);
+	}
+
+	private Bulkhead bulkhead(String channelName) {
+		Bulkhead bulkhead = channelName != null ? bulkheads.get(channelName.toUpperCase()) : null;
+		if (bulkhead == null) {
+			logger.warn("No notification channel for action type: {}", channelName);
+		}
+		return bulkhead;
+	}
+
+	public Map<String, Map<String, Object>> getStats() {
+		Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+		bulkheads.forEach((name, bulkhead) -> stats.put(name, bulkhead.stats()));
+		return stats;
+	}
+
+	private static final class Bulkhead {
+		private final NotificationChannel channel;
+		private final ThreadPoolExecutor executor;
+		private final LatencyHistogram latency = new LatencyHistogram();
+		private final LongAdder delivered = new LongAdder();
+		private final LongAdder failed = new LongAdder();
+		private final LongAdder rejected = new LongAdder();
+		private final LongAdder waited = new LongAdder();
+
+		private Bulkhead(NotificationChannel channel, int threads, int queueCapacity) {
+			this.channel = channel;
+			String threadPrefix = "notify-" + channel.getName().toLowerCase() + "-";
+			AtomicInteger threadIndex = new AtomicInteger();
+			this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+						Thread thread = new Thread(runnable, threadPrefix + threadIndex.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}, new ThreadPoolExecutor.AbortPolicy());
+		}
+
+		private CompletableFuture<Boolean> submit(Task task, Callable<CompletableFuture<Boolean>> delivery,
+				long waitMs) {
+			CompletableFuture<Boolean> result = new CompletableFuture<>();
+			long start = System.nanoTime();
+			Runnable work = () -> run(task, delivery, start, result);
+			try {
+				try {
+					executor.execute(work);
+				} catch (RejectedExecutionException e) {
+					// Rejected means every thread is busy, so one of them picks up what is queued directly.
+					if (waitMs <= 0 || executor.isShutdown()
+							|| !executor.getQueue().offer(work, waitMs, TimeUnit.MILLISECONDS)) {
+						throw e;
+					}
+					waited.increment();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				rejected.increment();
+				result.complete(false);
+			} catch (RejectedExecutionException e) {
+				rejected.increment();
+				logger.warn("Notification channel {} is saturated, dropping notification for task {}",
+						channel.getName(), task.getId());
+				result.complete(false);
+			}
+			return result;
+		}
+
+		private void run(Task task, Callable<CompletableFuture<Boolean>> delivery, long start,
+				CompletableFuture<Boolean> result) {
+			CompletableFuture<Boolean> sent;
+			try {
+				sent = delivery.call();
+			} catch (Exception e) {
+				sent = CompletableFuture.failedFuture(e);
+			}
+			sent.whenComplete((success, error) -> {
+				if (error != null) {
+					logger.error("Notification channel {} failed for task {}", channel.getName(), task.getId(), error);
+				}
+				boolean delivered = error == null && Boolean.TRUE.equals(success);
+				latency.record(System.nanoTime() - start);
+				(delivered ? this.delivered : failed).increment();
+				result.complete(delivered);
+			});
+		}
+
+		private Map<String, Object> stats() {
+			Map<String, Object> stats = new LinkedHashMap<>();
+			stats.put("active", executor.getActiveCount());
+			stats.put("queued", executor.getQueue().size());
+			stats.put("delivered", delivered.sum());
+			stats.put("failed", failed.sum());
+			stats.put("rejected", rejected.sum());
+			stats.put("waited", waited.sum());
+			stats.put("latency", latency.snapshot());
+			return stats;
+		}
+	}
+}
@@ -0,0 +1,241 @@
+package Project.executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Circuit breaker and rate limiter in front of the mail relay. Sends beyond
+ * the relay's quota ({@code mail.rate-limit.per-second}, bursts of
+ * {@code mail.rate-limit.burst}) are paced: each takes the next token and is
+ * started once it has refilled. A send is deferred, i.e. fails with a
+ * {@link DeferredException} without reaching the relay, while the breaker is
+ * open or when its token would be more than {@code mail.rate-limit.max-wait-ms}
+ * away. Callers treat a deferral like any failed delivery, so reminders end
+ * up on the retry path.
+ *
+ * A call counts as slow when the relay has not accepted the message within
+ * {@code mail.breaker.slow-call-ms} of the sender starting to transmit it;
+ * time spent queueing in the mail pipeline does not count. With
+ * {@code mail.rate-limit.adaptive} the rate halves on every failed or slow
+ * call and creeps back up on successes.
+ */
+@Component
+public class OutboundMailGuard {
+
+	private static final Logger logger = LoggerFactory.getLogger(OutboundMailGuard.class);
+
+	@Value("${mail.breaker.window-size:50}")
+	private int windowSize;
+
+	@Value("${mail.breaker.minimum-calls:10}")
+	private int minimumCalls;
+
+	@Value("${mail.breaker.failure-rate-threshold:50}")
+	private int failureRateThreshold;
+
+	@Value("${mail.breaker.slow-call-rate-threshold:80}")
+	private int slowCallRateThreshold;
+
+	@Value("${mail.breaker.slow-call-ms:5000}")
+	private long slowCallMs;
+
+	@Value("${mail.breaker.open-ms:30000}")
+	private long openMs;
+
+	@Value("${mail.breaker.half-open-calls:3}")
+	private int halfOpenCalls;
+
+	@Value("${mail.rate-limit.per-second:10}")
+	private double ratePerSecond;
+
+	@Value("${mail.rate-limit.burst:20}")
+	private int burst;
+
+	@Value("${mail.rate-limit.adaptive:true}")
+	private boolean adaptive;
+
+	@Value("${mail.rate-limit.max-wait-ms:30000}")
+	private long maxWaitMs;
+
+	private CircuitBreaker breaker;
+	private TokenBucket rateLimiter;
+	private ScheduledExecutorService pacer;
+
+	// Paced sends not started yet; stop() defers whatever is left.
+	private final Set<CompletableFuture<Void>> waiting = ConcurrentHashMap.newKeySet();
+
+	private final LongAdder paced = new LongAdder();
+	private final LongAdder deferredByBreaker = new LongAdder();
+	private final LongAdder deferredByRateLimit = new LongAdder();
+
+	@PostConstruct
+	public void start() {
+		breaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, slowCallRateThreshold,
+				TimeUnit.MILLISECONDS.toNanos(slowCallMs), TimeUnit.MILLISECONDS.toNanos(openMs), halfOpenCalls,
+				System::nanoTime);
+		rateLimiter = ratePerSecond > 0 ? new TokenBucket(ratePerSecond, ratePerSecond / 10, burst, System::nanoTime)
+				: null;
+		pacer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "mail-pacer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		logger.info("Outbound mail guard: breaker at {}% failed or {}% slower than {} ms, rate limit {}",
+				failureRateThreshold, slowCallRateThreshold, slowCallMs,
+				rateLimiter != null ? ratePerSecond + "/s" + (adaptive ? " (adaptive)" : "") : "off");
+	}
+
+	/** Defers the paced sends that have not started yet. */
+	@PreDestroy
+	public void stop() {
+		if (pacer != null) {
+			pacer.shutdownNow();
+		}
+		for (CompletableFuture<Void> result : waiting) {
+			if (waiting.remove(result)) {
+				result.completeExceptionally(new DeferredException("mail guard stopped"));
+			}
+		}
+	}
+
+	/**
+	 * Runs the send once the rate limiter has a token for it, if the breaker
+	 * allows it then, and records how it went; otherwise returns a future
+	 * failed with a {@link DeferredException}. The send is handed a callback
+	 * to run when it starts talking to the relay, which starts the slow-call
+	 * timer.
+	 */
+	public CompletableFuture<Void> send(Function<Runnable, CompletableFuture<Void>> send) {
+		if (isOpen()) {
+			deferredByBreaker.increment();
+			return CompletableFuture.failedFuture(new DeferredException("mail relay circuit is open"));
+		}
+		long waitNanos = rateLimiter != null ? rateLimiter.reserve(TimeUnit.MILLISECONDS.toNanos(maxWaitMs)) : 0;
+		if (waitNanos < 0) {
+			deferredByRateLimit.increment();
+			return CompletableFuture.failedFuture(new DeferredException("mail relay rate limit reached"));
+		}
+		if (waitNanos == 0) {
+			return attempt(send);
+		}
+
+		paced.increment();
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		waiting.add(result);
+		try {
+			pacer.schedule(() -> start(send, result), waitNanos, TimeUnit.NANOSECONDS);
+		} catch (RejectedExecutionException e) {
+			waiting.remove(result);
+			result.completeExceptionally(new DeferredException("mail guard stopped"));
+		}
+		return result;
+	}
+
+	private void start(Function<Runnable, CompletableFuture<Void>> send, CompletableFuture<Void> result) {
+		if (!waiting.remove(result)) {
+			return;
+		}
+		try {
+			attempt(send).whenComplete((ignored, error) -> {
+				if (error != null) {
+					result.completeExceptionally(error);
+				} else {
+					result.complete(null);
+				}
+			});
+		} catch (RuntimeException e) {
+			result.completeExceptionally(e);
+		}
+	}
+
+	/** Whether sends are currently refused outright because the breaker is open. */
+	public boolean isOpen() {
+		return breaker.getState() == CircuitBreaker.State.OPEN;
+	}
+
+	/**
+	 * How many sends would start right away without waiting for the rate
+	 * limiter: 0 while the breaker is open.
+	 */
+	public int availablePermits() {
+		if (isOpen()) {
+			return 0;
+		}
+		return rateLimiter != null ? rateLimiter.available() : Integer.MAX_VALUE;
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>(breaker.stats());
+		stats.put("paced", paced.sum());
+		stats.put("waiting", waiting.size());
+		stats.put("deferredByBreaker", deferredByBreaker.sum());
+		stats.put("deferredByRateLimit", deferredByRateLimit.sum());
+		if (rateLimiter != null) {
+			stats.put("rateLimit", rateLimiter.stats());
+		}
+		return stats;
+	}
+
+	private CompletableFuture<Void> attempt(Function<Runnable, CompletableFuture<Void>> send) {
+		long permit = breaker.tryAcquire();
+		if (permit == CircuitBreaker.NOT_PERMITTED) {
+			deferredByBreaker.increment();
+			return CompletableFuture.failedFuture(new DeferredException("mail relay circuit is open"));
+		}
+
+		AtomicLong start = new AtomicLong(System.nanoTime());
+		CompletableFuture<Void> result;
+		try {
+			result = send.apply(() -> start.set(System.nanoTime()));
+		} catch (RuntimeException e) {
+			// The message never reached the relay, so this says nothing about its health.
+			breaker.release(permit);
+			throw e;
+		}
+		result.whenComplete((ignored, error) -> record(permit, start.get(), error == null));
+		return result;
+	}
+
+	private void record(long permit, long start, boolean success) {
+		long duration = System.nanoTime() - start;
+		CircuitBreaker.State before = breaker.getState();
+		breaker.onResult(permit, duration, success);
+		CircuitBreaker.State after = breaker.getState();
+		if (before != after) {
+			logger.warn("Mail relay circuit breaker {} -> {}", before, after);
+		}
+
+		if (adaptive && rateLimiter != null) {
+			if (!success || duration >= TimeUnit.MILLISECONDS.toNanos(slowCallMs)) {
+				rateLimiter.slowDown();
+			} else {
+				rateLimiter.speedUp();
+			}
+		}
+	}
+
+	/** A send that was not attempted because the relay is being protected. */
+	public static final class DeferredException extends RuntimeException {
+
+		public DeferredException(String message) {
+			super(message);
+		}
+	}
+}
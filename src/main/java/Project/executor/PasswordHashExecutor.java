@@ -0,0 +1,138 @@
+package Project.executor;
+
+import Project.metrics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on a few dedicated threads, so a burst of logins
+ * cannot tie up the request threads with BCrypt. Work waits in a bounded
+ * queue; once {@code auth.hash.queue-capacity} hashes are waiting, new ones
+ * fail at once with {@link OverloadedException} rather than queue up behind
+ * work that would finish after the client gave up.
+ */
+@Component
+public class PasswordHashExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(PasswordHashExecutor.class);
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Value("${auth.hash.threads:2}")
+	private int threads;
+
+	@Value("${auth.hash.queue-capacity:32}")
+	private int queueCapacity;
+
+	private ThreadPoolExecutor executor;
+
+	private final LatencyHistogram queueDelay = new LatencyHistogram();
+	private final LatencyHistogram latency = new LatencyHistogram();
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	@PostConstruct
+	public void start() {
+		AtomicInteger threadCount = new AtomicInteger();
+		int poolSize = Math.max(1, threads);
+		executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+					Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		logger.info("Password hashing started with {} threads, queue capacity {}", poolSize, queueCapacity);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+		return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+	}
+
+	public CompletableFuture<String> encode(CharSequence rawPassword) {
+		return submit(() -> passwordEncoder.encode(rawPassword));
+	}
+
+	/** True while new hashes would be rejected, so callers can shed before doing other work. */
+	public boolean isSaturated() {
+		return executor.getQueue().remainingCapacity() == 0;
+	}
+
+	public int getQueueDepth() {
+		return executor.getQueue().size();
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("threads", executor.getMaximumPoolSize());
+		stats.put("active", executor.getActiveCount());
+		stats.put("queueDepth", getQueueDepth());
+		stats.put("completed", completed.sum());
+		stats.put("rejected", rejected.sum());
+		stats.put("queueDelay", queueDelay.snapshot());
+		stats.put("latency", latency.snapshot());
+		return stats;
+	}
+
+	private <T> CompletableFuture<T> submit(Supplier<T> work) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		long enqueuedNanos = System.nanoTime();
+		try {
+			executor.execute(() -> {
+				long startedNanos = System.nanoTime();
+				queueDelay.record(startedNanos - enqueuedNanos);
+				try {
+					future.complete(work.get());
+				} catch (RuntimeException e) {
+					future.completeExceptionally(e);
+				} finally {
+					latency.record(System.nanoTime() - startedNanos);
+					completed.increment();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			return reject();
+		}
+		return future;
+	}
+
+	/** A future failed with {@link OverloadedException}, counted as rejected. */
+	public <T> CompletableFuture<T> reject() {
+		rejected.increment();
+		logger.debug("Password hashing overloaded, {} hashes waiting", getQueueDepth());
+		return CompletableFuture.failedFuture(
+				new OverloadedException("Too many logins in progress, try again shortly"));
+	}
+
+	/** The hashing queue is full; the caller should retry later. */
+	public static final class OverloadedException extends RuntimeException {
+
+		public OverloadedException(String message) {
+			super(message);
+		}
+	}
+}
@@ -0,0 +1,322 @@
+package Project.executor;
+
+import Project.metrics.LatencyHistogram;
+import Project.model.Task;
+import Project.rules.RuleEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Orders reminder dispatch between rule evaluation and {@link ActionExecutor}.
+ *
+ * Each reminder gets a virtual deadline of {@code enqueueTime - urgencyScore * agingMs},
+ * and the smallest deadline is dispatched first. A more urgent reminder therefore
+ * jumps ahead of less urgent ones, but only by a bounded amount of time, so a LOW
+ * reminder that has waited long enough is dispatched before newly queued HIGH
+ * ones. Each priority class has its own concurrency quota, so a burst of one
+ * class cannot occupy every dispatch thread.
+ *
+ * On shutdown the queue stops accepting reminders and keeps dispatching for up
+ * to {@code dispatch.drain-timeout-ms}. Reminders still queued after that are
+ * handed to their drop handler, which records them for a later retry.
+ */
+@Component
+// Drop handlers write to the database, so the pool must outlive this queue.
+@DependsOn("dataSource")
+public class ReminderDispatchQueue {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReminderDispatchQueue.class);
+
+	public enum PriorityClass {
+		HIGH, MEDIUM, LOW;
+
+		static PriorityClass of(Task task) {
+			String priority = task.getPriority();
+			if ("HIGH".equalsIgnoreCase(priority)) {
+				return HIGH;
+			}
+			if ("LOW".equalsIgnoreCase(priority)) {
+				return LOW;
+			}
+			return MEDIUM;
+		}
+	}
+
+	private static final Comparator<Entry> DEADLINE_ORDER = Comparator.comparingLong((Entry e) -> e.virtualDeadline)
+			.thenComparingLong(e -> e.sequence);
+
+	@Autowired
+	private RuleEngine ruleEngine;
+
+	@Value("${dispatch.quota.high:4}")
+	private int highQuota;
+
+	@Value("${dispatch.quota.medium:2}")
+	private int mediumQuota;
+
+	@Value("${dispatch.quota.low:1}")
+	private int lowQuota;
+
+	@Value("${dispatch.aging-ms-per-point:2000}")
+	private long agingMsPerPoint;
+
+	@Value("${dispatch.drain-timeout-ms:5000}")
+	private long drainTimeoutMs;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition changed = lock.newCondition();
+	private final Map<PriorityClass, PriorityQueue<Entry>> queues = new LinkedHashMap<>();
+	private final Map<PriorityClass, Integer> quotas = new LinkedHashMap<>();
+	private final int[] inFlight = new int[PriorityClass.values().length];
+	private final Map<PriorityClass, LatencyHistogram> delayStats = new LinkedHashMap<>();
+	private final AtomicInteger depth = new AtomicInteger();
+
+	private long sequence;
+	private boolean accepting;
+	private volatile boolean running;
+	private Thread dispatcher;
+	private ExecutorService workers;
+
+	@PostConstruct
+	public void start() {
+		quotas.put(PriorityClass.HIGH, Math.max(1, highQuota));
+		quotas.put(PriorityClass.MEDIUM, Math.max(1, mediumQuota));
+		quotas.put(PriorityClass.LOW, Math.max(1, lowQuota));
+		for (PriorityClass priorityClass : PriorityClass.values()) {
+			queues.put(priorityClass, new PriorityQueue<>(DEADLINE_ORDER));
+			delayStats.put(priorityClass, new LatencyHistogram());
+		}
+
+		int poolSize = quotas.values().stream().mapToInt(Integer::intValue).sum();
+		AtomicInteger threadIndex = new AtomicInteger();
+		workers = Executors.newFixedThreadPool(poolSize, runnable -> {
+			Thread thread = new Thread(runnable, "reminder-dispatch-" + threadIndex.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		accepting = true;
+		running = true;
+		dispatcher = new Thread(this::dispatchLoop, "reminder-dispatcher");
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+		logger.info("Reminder dispatch queue started with quotas {}", quotas);
+	}
+
+	@PreDestroy
+	public void stop() {
+		List<Entry> undispatched = new ArrayList<>();
+		lock.lock();
+		try {
+			accepting = false;
+			long remainingNanos = TimeUnit.MILLISECONDS.toNanos(drainTimeoutMs);
+			while (!queuesEmpty() && remainingNanos > 0) {
+				remainingNanos = changed.awaitNanos(remainingNanos);
+			}
+			running = false;
+			for (PriorityQueue<Entry> queue : queues.values()) {
+				undispatched.addAll(queue);
+				queue.clear();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			lock.unlock();
+		}
+
+		try {
+			if (dispatcher != null) {
+				dispatcher.interrupt();
+				dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+			}
+			if (workers != null) {
+				workers.shutdown();
+				workers.awaitTermination(10, TimeUnit.SECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		if (!undispatched.isEmpty()) {
+			logger.warn("Reminder dispatch queue stopped with {} reminders not dispatched", undispatched.size());
+		}
+		for (Entry entry : undispatched) {
+			depth.decrementAndGet();
+			dropped(entry);
+		}
+	}
+
+	/**
+	 * Queues a reminder action for the given task. Returns immediately; the
+	 * action runs on a dispatch thread once its priority class has capacity.
+	 */
+	public void submit(Task task, Runnable action) {
+		submit(task, ruleEngine.calculateUrgencyScore(task), action);
+	}
+
+	/**
+	 * Same as {@link #submit(Task, Runnable)} with an urgency score the caller
+	 * already computed.
+	 */
+	public void submit(Task task, int urgencyScore, Runnable action) {
+		submit(task, urgencyScore, action, null);
+	}
+
+	/**
+	 * Same as {@link #submit(Task, int, Runnable)}. {@code onDropped} runs instead
+	 * of the action if the queue stops before the reminder is dispatched.
+	 */
+	public void submit(Task task, int urgencyScore, Runnable action, Runnable onDropped) {
+		Entry entry = new Entry(task, action, onDropped, PriorityClass.of(task), urgencyScore);
+
+		lock.lock();
+		try {
+			if (accepting) {
+				entry.sequence = sequence++;
+				entry.virtualDeadline = TimeUnit.NANOSECONDS.toMillis(entry.enqueuedNanos)
+						- entry.urgencyScore * agingMsPerPoint;
+				queues.get(entry.priorityClass).add(entry);
+				depth.incrementAndGet();
+				changed.signalAll();
+				return;
+			}
+		} finally {
+			lock.unlock();
+		}
+		dropped(entry);
+	}
+
+	public int getQueueDepth() {
+		return depth.get();
+	}
+
+	/**
+	 * Queueing delay histogram snapshot per priority class.
+	 */
+	public Map<String, Map<String, Object>> getQueueDelayStats() {
+		Map<String, Map<String, Object>> snapshot = new LinkedHashMap<>();
+		delayStats.forEach((priorityClass, stats) -> snapshot.put(priorityClass.name(), stats.snapshot()));
+		return snapshot;
+	}
+
+	private void dispatchLoop() {
+		while (running) {
+			Entry entry;
+			lock.lock();
+			try {
+				while ((entry = pollEligible()) == null) {
+					changed.await();
+				}
+				inFlight[entry.priorityClass.ordinal()]++;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} finally {
+				lock.unlock();
+			}
+
+			depth.decrementAndGet();
+			long delayNanos = System.nanoTime() - entry.enqueuedNanos;
+			delayStats.get(entry.priorityClass).record(delayNanos);
+
+			Entry dispatched = entry;
+			workers.execute(() -> run(dispatched));
+		}
+	}
+
+	/**
+	 * Head with the earliest virtual deadline among classes that are below their
+	 * quota. Must be called with the lock held.
+	 */
+	private Entry pollEligible() {
+		PriorityQueue<Entry> best = null;
+		for (Map.Entry<PriorityClass, PriorityQueue<Entry>> candidate : queues.entrySet()) {
+			PriorityClass priorityClass = candidate.getKey();
+			Entry head = candidate.getValue().peek();
+			if (head == null || inFlight[priorityClass.ordinal()] >= quotas.get(priorityClass)) {
+				continue;
+			}
+			if (best == null || DEADLINE_ORDER.compare(head, best.peek()) < 0) {
+				best = candidate.getValue();
+			}
+		}
+		return best != null ? best.poll() : null;
+	}
+
+	/** Must be called with the lock held. */
+	private boolean queuesEmpty() {
+		for (PriorityQueue<Entry> queue : queues.values()) {
+			if (!queue.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void dropped(Entry entry) {
+		if (entry.onDropped == null) {
+			logger.warn("Dropping reminder for task {}: dispatch queue is stopped", entry.task.getId());
+			return;
+		}
+		try {
+			entry.onDropped.run();
+		} catch (Exception e) {
+			logger.error("Error handing back undispatched reminder for task {}", entry.task.getId(), e);
+		}
+	}
+
+	private void run(Entry entry) {
+		try {
+			entry.action.run();
+		} catch (Exception e) {
+			logger.error("Error dispatching reminder for task {}", entry.task.getId(), e);
+		} finally {
+			lock.lock();
+			try {
+				inFlight[entry.priorityClass.ordinal()]--;
+				// Both the dispatcher and a draining stop() may be waiting.
+				changed.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private static final class Entry {
+		private final Task task;
+		private final Runnable action;
+		private final Runnable onDropped;
+		private final PriorityClass priorityClass;
+		private final int urgencyScore;
+		private final long enqueuedNanos = System.nanoTime();
+		private long virtualDeadline;
+		private long sequence;
+
+		private Entry(Task task, Runnable action, Runnable onDropped, PriorityClass priorityClass, int urgencyScore) {
+			this.task = task;
+			this.action = action;
+			this.onDropped = onDropped;
+			this.priorityClass = priorityClass;
+			this.urgencyScore = urgencyScore;
+		}
+	}
+}
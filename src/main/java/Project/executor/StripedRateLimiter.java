@@ -0,0 +1,119 @@
+package Project.executor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets for many keys (e.g. one per user and route class), kept in
+ * lock stripes so requests for different keys rarely contend. Every stripe
+ * holds at most {@code maxBuckets / stripes} buckets and drops its least
+ * recently used one when full. A dropped bucket comes back full, which is
+ * also where an idle bucket would have refilled to, so memory stays bounded
+ * however many keys show up and only keys evicted while still draining get
+ * a little extra allowance.
+ */
+public final class StripedRateLimiter {
+
+	private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+	private final Stripe[] stripes;
+	private final int bucketsPerStripe;
+	private final LongSupplier nanoClock;
+
+	private final LongAdder granted = new LongAdder();
+	private final LongAdder limited = new LongAdder();
+	private final LongAdder evicted = new LongAdder();
+
+	public StripedRateLimiter(int stripes, int maxBuckets, LongSupplier nanoClock) {
+		this.stripes = new Stripe[stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1];
+		this.bucketsPerStripe = Math.max(1, maxBuckets / this.stripes.length);
+		this.nanoClock = nanoClock;
+		for (int i = 0; i < this.stripes.length; i++) {
+			this.stripes[i] = new Stripe();
+		}
+	}
+
+	/**
+	 * Takes a token from the key's bucket, which refills at {@code perSecond}
+	 * up to {@code burst} tokens.
+	 *
+	 * @return 0 if a token was taken, otherwise the nanoseconds until the
+	 *         next one is available
+	 */
+	public long tryAcquire(String key, double perSecond, int burst) {
+		Stripe stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+		long now = nanoClock.getAsLong();
+		double capacity = Math.max(1, burst);
+		synchronized (stripe) {
+			Bucket bucket = stripe.get(key);
+			if (bucket == null) {
+				bucket = new Bucket(capacity, now);
+				stripe.put(key, bucket);
+			} else {
+				bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAt) / NANOS_PER_SECOND * perSecond);
+				bucket.refilledAt = now;
+			}
+
+			if (bucket.tokens >= 1) {
+				bucket.tokens--;
+				granted.increment();
+				return 0;
+			}
+			limited.increment();
+			return perSecond <= 0 ? Long.MAX_VALUE : (long) Math.ceil((1 - bucket.tokens) / perSecond * NANOS_PER_SECOND);
+		}
+	}
+
+	public int size() {
+		int size = 0;
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				size += stripe.size();
+			}
+		}
+		return size;
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("buckets", size());
+		stats.put("maxBuckets", bucketsPerStripe * stripes.length);
+		stats.put("stripes", stripes.length);
+		stats.put("granted", granted.sum());
+		stats.put("limited", limited.sum());
+		stats.put("evicted", evicted.sum());
+		return stats;
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private final class Stripe extends LinkedHashMap<String, Bucket> {
+
+		private Stripe() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+			if (size() > bucketsPerStripe) {
+				evicted.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+
+	private static final class Bucket {
+		private double tokens;
+		private long refilledAt;
+
+		private Bucket(double tokens, long refilledAt) {
+			this.tokens = tokens;
+			this.refilledAt = refilledAt;
+		}
+	}
+}
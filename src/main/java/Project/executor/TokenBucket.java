@@ -0,0 +1,94 @@
+package Project.executor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket holding up to {@code capacity} tokens and refilled at a rate
+ * that starts at {@code maxPerSecond}. {@link #slowDown()} halves the rate
+ * (never below {@code minPerSecond}) and {@link #speedUp()} wins back a
+ * twentieth of the maximum, so the rate backs off quickly when the other side
+ * struggles and recovers gradually.
+ */
+public final class TokenBucket {
+
+	private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+	private final double capacity;
+	private final double maxPerSecond;
+	private final double minPerSecond;
+	private final LongSupplier nanoClock;
+
+	private double perSecond;
+	private double tokens;
+	private long refilledAt;
+
+	private long granted;
+	private long limited;
+
+	public TokenBucket(double perSecond, double minPerSecond, int capacity, LongSupplier nanoClock) {
+		this.capacity = Math.max(1, capacity);
+		this.maxPerSecond = perSecond;
+		this.minPerSecond = Math.min(perSecond, Math.max(minPerSecond, 0.0));
+		this.nanoClock = nanoClock;
+		this.perSecond = perSecond;
+		this.tokens = this.capacity;
+		this.refilledAt = nanoClock.getAsLong();
+	}
+
+	/**
+	 * Takes the next token even if it has not been refilled yet, so callers
+	 * queue up behind each other instead of failing. Returns how many
+	 * nanoseconds the caller has to wait before using it, or -1 without
+	 * taking anything if that would be longer than {@code maxWaitNanos}.
+	 */
+	public synchronized long reserve(long maxWaitNanos) {
+		refill();
+		long waitNanos = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / perSecond * NANOS_PER_SECOND);
+		if (waitNanos > maxWaitNanos) {
+			limited++;
+			return -1;
+		}
+		tokens--;
+		granted++;
+		return waitNanos;
+	}
+
+	/** Whole tokens that can be taken right now without waiting. */
+	public synchronized int available() {
+		refill();
+		return tokens < 1 ? 0 : (int) Math.min(Integer.MAX_VALUE, tokens);
+	}
+
+	public synchronized void slowDown() {
+		refill();
+		perSecond = Math.max(minPerSecond, perSecond / 2);
+	}
+
+	public synchronized void speedUp() {
+		refill();
+		perSecond = Math.min(maxPerSecond, perSecond + maxPerSecond / 20);
+	}
+
+	public synchronized double getRate() {
+		return perSecond;
+	}
+
+	public synchronized Map<String, Object> stats() {
+		refill();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("ratePerSecond", perSecond);
+		stats.put("maxRatePerSecond", maxPerSecond);
+		stats.put("tokens", Math.floor(tokens));
+		stats.put("granted", granted);
+		stats.put("limited", limited);
+		return stats;
+	}
+
+	private void refill() {
+		long now = nanoClock.getAsLong();
+		tokens = Math.min(capacity, tokens + (now - refilledAt) / NANOS_PER_SECOND * perSecond);
+		refilledAt = now;
+	}
+}
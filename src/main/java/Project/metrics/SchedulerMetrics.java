@@ -0,0 +1,194 @@
+package Project.metrics;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.listeners.TriggerListenerSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import Project.executor.MailDeliveryPipeline;
+import Project.executor.NotificationDispatcher;
+import Project.executor.OutboundMailGuard;
+import Project.executor.ReminderDispatchQueue;
+import Project.rules.UrgencyScoreCache;
+import Project.scheduler.ReminderRetryWorker;
+import Project.service.NotificationHub;
+
+/**
+ * Latency and throughput of the reminder pipeline: how late Quartz fires jobs,
+ * how long rule evaluation and delivery take, and how many jobs are waiting in
+ * the store or the dispatch queue.
+ */
+@Component
+public class SchedulerMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerMetrics.class);
+
+    @Autowired
+    private Scheduler scheduler;
+
+    @Autowired
+    private ReminderDispatchQueue dispatchQueue;
+
+    @Autowired
+    private UrgencyScoreCache urgencyScoreCache;
+
+    @Autowired
+    private MailDeliveryPipeline mailPipeline;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private OutboundMailGuard mailGuard;
+
+    @Autowired
+    private NotificationHub notificationHub;
+
+    @Autowired
+    private ReminderRetryWorker reminderRetryWorker;
+
+    @Value("${metrics.log-interval-ms:60000}")
+    private long logIntervalMs;
+
+    private final LatencyHistogram fireLag = new LatencyHistogram();
+    private final LatencyHistogram ruleEvaluation = new LatencyHistogram();
+    private final LatencyHistogram delivery = new LatencyHistogram();
+
+    private final LongAdder jobsFired = new LongAdder();
+    private final LongAdder misfires = new LongAdder();
+    private final LongAdder scheduleChanges = new LongAdder();
+    private final LongAdder scheduleFailures = new LongAdder();
+    private final LongAdder deliveriesSent = new LongAdder();
+    private final LongAdder deliveriesFailed = new LongAdder();
+    private final LongAdder digestsSent = new LongAdder();
+    private final LongAdder digestedReminders = new LongAdder();
+
+    private final long startedAt = System.currentTimeMillis();
+    private ScheduledExecutorService reporter;
+
+    @PostConstruct
+    public void start() throws SchedulerException {
+        scheduler.getListenerManager().addTriggerListener(new MisfireListener());
+
+        if (logIntervalMs > 0) {
+            reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "scheduler-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(this::logSummary, logIntervalMs, logIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+        }
+    }
+
+    public void recordFire(Date scheduledFireTime, Date fireTime) {
+        jobsFired.increment();
+        if (scheduledFireTime != null && fireTime != null) {
+            fireLag.record(TimeUnit.MILLISECONDS.toNanos(fireTime.getTime() - scheduledFireTime.getTime()));
+        }
+    }
+
+    public void recordRuleEvaluation(long nanos) {
+        ruleEvaluation.record(nanos);
+    }
+
+    public void recordDelivery(long nanos, boolean sent) {
+        delivery.record(nanos);
+        (sent ? deliveriesSent : deliveriesFailed).increment();
+    }
+
+    /** One email carrying {@code reminders} reminders of the same user. */
+    public void recordDigest(int reminders, boolean sent) {
+        if (sent) {
+            digestsSent.increment();
+            digestedReminders.add(reminders);
+        }
+    }
+
+    public void recordScheduleChange(boolean applied) {
+        (applied ? scheduleChanges : scheduleFailures).increment();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("uptimeSeconds", (System.currentTimeMillis() - startedAt) / 1000);
+        metrics.put("jobsFired", jobsFired.sum());
+        metrics.put("misfires", misfires.sum());
+        metrics.put("jobsInStore", jobsInStore());
+        metrics.put("dispatchQueueDepth", dispatchQueue.getQueueDepth());
+        metrics.put("scheduleChanges", scheduleChanges.sum());
+        metrics.put("scheduleFailures", scheduleFailures.sum());
+        metrics.put("deliveriesSent", deliveriesSent.sum());
+        metrics.put("deliveriesFailed", deliveriesFailed.sum());
+        metrics.put("digestsSent", digestsSent.sum());
+        metrics.put("digestedReminders", digestedReminders.sum());
+        metrics.put("fireLag", fireLag.snapshot());
+        metrics.put("ruleEvaluation", ruleEvaluation.snapshot());
+        metrics.put("delivery", delivery.snapshot());
+        metrics.put("queueDelay", dispatchQueue.getQueueDelayStats());
+        metrics.put("urgencyCache", urgencyScoreCache.getStats());
+        metrics.put("mail", mailPipeline.getStats());
+        metrics.put("mailGuard", mailGuard.getStats());
+        metrics.put("channels", notificationDispatcher.getStats());
+        metrics.put("notifications", notificationHub.getStats());
+        metrics.put("retries", reminderRetryWorker.getStats());
+        return metrics;
+    }
+
+    private int jobsInStore() {
+        try {
+            return scheduler.getJobKeys(GroupMatcher.anyJobGroup()).size();
+        } catch (SchedulerException e) {
+            logger.warn("Could not count jobs in store: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    private void logSummary() {
+        try {
+            logger.info("Scheduler metrics: fired={} misfires={} jobsInStore={} queueDepth={} mailQueueDepth={} "
+                    + "sent={} failed={} fireLag={} delivery={} queueDelay={}", jobsFired.sum(), misfires.sum(),
+                    jobsInStore(), dispatchQueue.getQueueDepth(), mailPipeline.getQueueDepth(), deliveriesSent.sum(),
+                    deliveriesFailed.sum(), fireLag.snapshot(), delivery.snapshot(), dispatchQueue.getQueueDelayStats());
+        } catch (Exception e) {
+            logger.error("Error logging scheduler metrics", e);
+        }
+    }
+
+    private class MisfireListener extends TriggerListenerSupport {
+
+        @Override
+        public String getName() {
+            return "schedulerMetrics";
+        }
+
+        @Override
+        public void triggerMisfired(Trigger trigger) {
+            misfires.increment();
+            logger.warn("Trigger {} misfired (scheduled for {})", trigger.getKey(), trigger.getNextFireTime());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package Project.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+public class ReminderDeadLetter {
+
+	private Long id;
+	private Long taskId;
+
+	@JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+	private LocalDateTime reminderAt;
+
+	private String channel;
+
+	@JsonFormat(pattern = "yyyy-MM-dd", shape = JsonFormat.Shape.STRING)
+	private LocalDate dueDate;
+
+	private int attempts;
+
+	@JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+	private LocalDateTime firstFailedAt;
+
+	@JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+	private LocalDateTime failedAt;
+
+	public ReminderDeadLetter() {
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Long getTaskId() {
+		return taskId;
+	}
+
+	public void setTaskId(Long taskId) {
+		this.taskId = taskId;
+	}
+
+	public LocalDateTime getReminderAt() {
+		return reminderAt;
+	}
+
+	public void setReminderAt(LocalDateTime reminderAt) {
+		this.reminderAt = reminderAt;
+	}
+
+	public String getChannel() {
+		return channel;
+	}
+
+	public void setChannel(String channel) {
+		this.channel = channel;
+	}
+
+	public LocalDate getDueDate() {
+		return dueDate;
+	}
+
+	public void setDueDate(LocalDate dueDate) {
+		this.dueDate = dueDate;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	public LocalDateTime getFirstFailedAt() {
+		return firstFailedAt;
+	}
+
+	public void setFirstFailedAt(LocalDateTime firstFailedAt) {
+		this.firstFailedAt = firstFailedAt;
+	}
+
+	public LocalDateTime getFailedAt() {
+		return failedAt;
+	}
+
+	public void setFailedAt(LocalDateTime failedAt) {
+		this.failedAt = failedAt;
+	}
+
+	@Override
+	public String toString() {
+		return "ReminderDeadLetter{" + "id=" + id + ", taskId=" + taskId + ", reminderAt=" + reminderAt
+				+ ", channel='" + channel + '\'' + ", attempts=" + attempts + ", failedAt=" + failedAt + '}';
+	}
+}
@@ -0,0 +1,106 @@
+package Project.model;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+public class ReminderDelivery {
+
+	public static final String CHANNEL_EMAIL = "EMAIL";
+
+	public static final String STATUS_CLAIMED = "CLAIMED";
+	public static final String STATUS_SENT = "SENT";
+	public static final String STATUS_RETRYING = "RETRYING";
+	public static final String STATUS_FAILED = "FAILED";
+	/** Given up without sending because the task was completed or deleted first. */
+	public static final String STATUS_SKIPPED = "SKIPPED";
+
+	private Long id;
+	private Long taskId;
+
+	@JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+	private LocalDateTime reminderAt;
+
+	private String channel;
+	private String status;
+
+	@JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+	private LocalDateTime claimedAt;
+
+	@JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+	private LocalDateTime completedAt;
+
+	public ReminderDelivery() {
+		this.status = STATUS_CLAIMED;
+	}
+
+	public ReminderDelivery(Long taskId, LocalDateTime reminderAt, String channel) {
+		this.taskId = taskId;
+		this.reminderAt = reminderAt;
+		this.channel = channel;
+		this.status = STATUS_CLAIMED;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Long getTaskId() {
+		return taskId;
+	}
+
+	public void setTaskId(Long taskId) {
+		this.taskId = taskId;
+	}
+
+	public LocalDateTime getReminderAt() {
+		return reminderAt;
+	}
+
+	public void setReminderAt(LocalDateTime reminderAt) {
+		this.reminderAt = reminderAt;
+	}
+
+	public String getChannel() {
+		return channel;
+	}
+
+	public void setChannel(String channel) {
+		this.channel = channel;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public LocalDateTime getClaimedAt() {
+		return claimedAt;
+	}
+
+	public void setClaimedAt(LocalDateTime claimedAt) {
+		this.claimedAt = claimedAt;
+	}
+
+	public LocalDateTime getCompletedAt() {
+		return completedAt;
+	}
+
+	public void setCompletedAt(LocalDateTime completedAt) {
+		this.completedAt = completedAt;
+	}
+
+	@Override
+	public String toString() {
+		return "ReminderDelivery{" + "id=" + id + ", taskId=" + taskId + ", reminderAt=" + reminderAt + ", channel='"
+				+ channel + '\'' + ", status='" + status + '\'' + ", claimedAt=" + claimedAt + ", completedAt="
+				+ completedAt + '}';
+	}
+}
@@ -0,0 +1,93 @@
+package Project.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class ReminderRetry {
+
+	private Long id;
+	private Long taskId;
+	private LocalDateTime reminderAt;
+	private String channel;
+	private LocalDate dueDate;
+	private int attempts;
+	private LocalDateTime nextAttemptAt;
+	private LocalDateTime createdAt;
+
+	public ReminderRetry() {
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Long getTaskId() {
+		return taskId;
+	}
+
+	public void setTaskId(Long taskId) {
+		this.taskId = taskId;
+	}
+
+	public LocalDateTime getReminderAt() {
+		return reminderAt;
+	}
+
+	public void setReminderAt(LocalDateTime reminderAt) {
+		this.reminderAt = reminderAt;
+	}
+
+	public String getChannel() {
+		return channel;
+	}
+
+	public void setChannel(String channel) {
+		this.channel = channel;
+	}
+
+	public LocalDate getDueDate() {
+		return dueDate;
+	}
+
+	public void setDueDate(LocalDate dueDate) {
+		this.dueDate = dueDate;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	public LocalDateTime getNextAttemptAt() {
+		return nextAttemptAt;
+	}
+
+	public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+		this.nextAttemptAt = nextAttemptAt;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public ReminderDelivery toDelivery() {
+		return new ReminderDelivery(taskId, reminderAt, channel);
+	}
+
+	@Override
+	public String toString() {
+		return "ReminderRetry{" + "id=" + id + ", taskId=" + taskId + ", reminderAt=" + reminderAt + ", channel='"
+				+ channel + '\'' + ", attempts=" + attempts + ", nextAttemptAt=" + nextAttemptAt + '}';
+	}
+}
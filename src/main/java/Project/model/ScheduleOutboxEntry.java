@@ -0,0 +1,72 @@
+package Project.model;
+
+import java.time.LocalDate;
+
+public class ScheduleOutboxEntry {
+
+	public static final String ACTION_SCHEDULE = "SCHEDULE";
+	public static final String ACTION_CANCEL = "CANCEL";
+
+	private Long id;
+	private Long taskId;
+	private String action;
+	private LocalDate dueDate;
+	private int attempts;
+
+	public ScheduleOutboxEntry() {
+	}
+
+	public ScheduleOutboxEntry(Long id, Long taskId, String action, LocalDate dueDate, int attempts) {
+		this.id = id;
+		this.taskId = taskId;
+		this.action = action;
+		this.dueDate = dueDate;
+		this.attempts = attempts;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Long getTaskId() {
+		return taskId;
+	}
+
+	public void setTaskId(Long taskId) {
+		this.taskId = taskId;
+	}
+
+	public String getAction() {
+		return action;
+	}
+
+	public void setAction(String action) {
+		this.action = action;
+	}
+
+	public LocalDate getDueDate() {
+		return dueDate;
+	}
+
+	public void setDueDate(LocalDate dueDate) {
+		this.dueDate = dueDate;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public void setAttempts(int attempts) {
+		this.attempts = attempts;
+	}
+
+	@Override
+	public String toString() {
+		return "ScheduleOutboxEntry{" + "id=" + id + ", taskId=" + taskId + ", action='" + action + '\'' + ", dueDate="
+				+ dueDate + ", attempts=" + attempts + '}';
+	}
+}
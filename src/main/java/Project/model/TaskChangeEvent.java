@@ -0,0 +1,38 @@
+package Project.model;
+
+/**
+ * Published by TaskService when a task row is created, updated or deleted.
+ * Carries the task as written; listeners registered for after-commit only see
+ * changes that were actually persisted.
+ */
+public class TaskChangeEvent {
+
+	public enum Type {
+		CREATED, UPDATED, DELETED
+	}
+
+	private final Type type;
+	private final Task task;
+
+	public TaskChangeEvent(Type type, Task task) {
+		this.type = type;
+		this.task = task;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public Task getTask() {
+		return task;
+	}
+
+	public Long getTaskId() {
+		return task.getId();
+	}
+
+	@Override
+	public String toString() {
+		return "TaskChangeEvent{" + type + " task=" + task.getId() + "}";
+	}
+}
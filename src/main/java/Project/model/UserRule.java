@@ -0,0 +1,77 @@
+package Project.model;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class UserRule {
+
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	private Long id;
+
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	private Long userId;
+
+	private String name;
+	private String expression;
+
+	@JsonProperty(access = JsonProperty.Access.READ_ONLY)
+	@JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+	private LocalDateTime createdAt;
+
+	public UserRule() {
+	}
+
+	public UserRule(Long userId, String name, String expression) {
+		this.userId = userId;
+		this.name = name;
+		this.expression = expression;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public void setUserId(Long userId) {
+		this.userId = userId;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getExpression() {
+		return expression;
+	}
+
+	public void setExpression(String expression) {
+		this.expression = expression;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	@Override
+	public String toString() {
+		return "UserRule{" + "id=" + id + ", userId=" + userId + ", name='" + name + '\'' + ", expression='"
+				+ expression + '\'' + '}';
+	}
+}
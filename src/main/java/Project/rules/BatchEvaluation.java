@@ -0,0 +1,36 @@
+package Project.rules;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of {@link RuleEngine#evaluateBatch}: decisions and urgency scores in
+ * arrays parallel to the evaluated task list, all computed against one instant.
+ */
+public final class BatchEvaluation {
+
+    private final LocalDateTime evaluatedAt;
+    private final boolean[] shouldExecute;
+    private final int[] urgencyScores;
+
+    BatchEvaluation(LocalDateTime evaluatedAt, boolean[] shouldExecute, int[] urgencyScores) {
+        this.evaluatedAt = evaluatedAt;
+        this.shouldExecute = shouldExecute;
+        this.urgencyScores = urgencyScores;
+    }
+
+    public LocalDateTime getEvaluatedAt() {
+        return evaluatedAt;
+    }
+
+    public int size() {
+        return shouldExecute.length;
+    }
+
+    public boolean shouldExecute(int index) {
+        return shouldExecute[index];
+    }
+
+    public int urgencyScore(int index) {
+        return urgencyScores[index];
+    }
+}
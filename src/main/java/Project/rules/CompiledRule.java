@@ -0,0 +1,16 @@
+package Project.rules;
+
+import java.time.LocalDateTime;
+
+import Project.model.Task;
+
+/**
+ * A rule expression compiled into a tree of predicates. Stateless and safe to
+ * share between threads; {@code now} is passed in so a whole sweep is evaluated
+ * against the same instant.
+ */
+@FunctionalInterface
+public interface CompiledRule {
+
+    boolean matches(Task task, LocalDateTime now);
+}
@@ -0,0 +1,293 @@
+package Project.rules;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Parsed subset of an iCalendar RRULE: FREQ (DAILY, WEEKLY, MONTHLY), INTERVAL,
+ * BYDAY (weekday list, DAILY/WEEKLY only), COUNT and UNTIL. Occurrences are
+ * computed on demand for a window, jumping straight to the window instead of
+ * walking every occurrence since the series start.
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY
+    }
+
+    private static final DateTimeFormatter UNTIL_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Set<DayOfWeek> byDay;
+    private final Integer count;
+    private final LocalDate until;
+
+    private RecurrenceRule(Frequency frequency, int interval, Set<DayOfWeek> byDay, Integer count, LocalDate until) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.byDay = byDay;
+        this.count = count;
+        this.until = until;
+    }
+
+    public static RecurrenceRule parse(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException("Recurrence rule cannot be empty");
+        }
+
+        String body = text.trim();
+        if (body.toUpperCase(Locale.ROOT).startsWith("RRULE:")) {
+            body = body.substring("RRULE:".length());
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+        Integer count = null;
+        LocalDate until = null;
+
+        for (String part : body.split(";")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Malformed recurrence rule part: " + part);
+            }
+            String key = part.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+            String value = part.substring(eq + 1).trim().toUpperCase(Locale.ROOT);
+
+            switch (key) {
+                case "FREQ":
+                    try {
+                        frequency = Frequency.valueOf(value);
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Unsupported recurrence frequency: " + value);
+                    }
+                    break;
+                case "INTERVAL":
+                    interval = parsePositive(key, value);
+                    break;
+                case "COUNT":
+                    count = parsePositive(key, value);
+                    break;
+                case "UNTIL":
+                    until = parseUntil(value);
+                    break;
+                case "BYDAY":
+                    for (String day : value.split(",")) {
+                        byDay.add(parseDay(day.trim()));
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported recurrence rule part: " + key);
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule must specify FREQ");
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("Recurrence rule cannot combine COUNT and UNTIL");
+        }
+        if (!byDay.isEmpty()) {
+            if (frequency == Frequency.MONTHLY) {
+                throw new IllegalArgumentException("BYDAY is not supported for MONTHLY recurrence");
+            }
+            if (frequency == Frequency.DAILY) {
+                if (interval != 1) {
+                    throw new IllegalArgumentException("BYDAY with DAILY recurrence requires INTERVAL=1");
+                }
+                // Every day filtered to a set of weekdays is the same series as weekly on those days.
+                frequency = Frequency.WEEKLY;
+            }
+        }
+
+        return new RecurrenceRule(frequency, interval, byDay, count, until);
+    }
+
+    /**
+     * Returns the occurrences of a series starting on {@code start} that fall in
+     * the inclusive window [{@code from}, {@code to}], in ascending order.
+     */
+    public List<LocalDate> occurrencesBetween(LocalDate start, LocalDate from, LocalDate to) {
+        List<LocalDate> result = new ArrayList<>();
+        if (start == null || from == null || to == null || to.isBefore(from) || to.isBefore(start)) {
+            return result;
+        }
+
+        switch (frequency) {
+            case DAILY:
+                expandDaily(start, from, to, result);
+                break;
+            case WEEKLY:
+                expandWeekly(start, from, to, result);
+                break;
+            case MONTHLY:
+                expandMonthly(start, from, to, result);
+                break;
+        }
+        return result;
+    }
+
+    public boolean occursOn(LocalDate start, LocalDate date) {
+        return !occurrencesBetween(start, date, date).isEmpty();
+    }
+
+    private void expandDaily(LocalDate start, LocalDate from, LocalDate to, List<LocalDate> result) {
+        long index = 0;
+        if (from.isAfter(start)) {
+            index = ceilDiv(ChronoUnit.DAYS.between(start, from), interval);
+        }
+
+        for (;; index++) {
+            if (count != null && index >= count) {
+                return;
+            }
+            LocalDate date = start.plusDays(index * interval);
+            if (date.isAfter(to) || isAfterUntil(date)) {
+                return;
+            }
+            result.add(date);
+        }
+    }
+
+    private void expandWeekly(LocalDate start, LocalDate from, LocalDate to, List<LocalDate> result) {
+        Set<DayOfWeek> days = byDay.isEmpty() ? EnumSet.of(start.getDayOfWeek()) : byDay;
+        LocalDate firstWeek = start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+        int firstWeekCount = 0;
+        for (DayOfWeek day : days) {
+            if (day.getValue() >= start.getDayOfWeek().getValue()) {
+                firstWeekCount++;
+            }
+        }
+
+        long period = 0;
+        if (from.isAfter(start)) {
+            LocalDate fromWeek = from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            period = ChronoUnit.WEEKS.between(firstWeek, fromWeek) / interval;
+        }
+        long ordinal = period == 0 ? 0 : firstWeekCount + (period - 1) * days.size();
+
+        for (;; period++) {
+            LocalDate weekStart = firstWeek.plusWeeks(period * interval);
+            if (weekStart.isAfter(to)) {
+                return;
+            }
+            // EnumSet iterates in MONDAY..SUNDAY order, so dates ascend within the week.
+            for (DayOfWeek day : days) {
+                LocalDate date = weekStart.plusDays(day.getValue() - 1L);
+                if (date.isBefore(start)) {
+                    continue;
+                }
+                if ((count != null && ordinal >= count) || date.isAfter(to) || isAfterUntil(date)) {
+                    return;
+                }
+                ordinal++;
+                if (!date.isBefore(from)) {
+                    result.add(date);
+                }
+            }
+        }
+    }
+
+    private void expandMonthly(LocalDate start, LocalDate from, LocalDate to, List<LocalDate> result) {
+        int dayOfMonth = start.getDayOfMonth();
+        YearMonth firstMonth = YearMonth.from(start);
+
+        // Months too short for the start day are skipped and do not count towards
+        // COUNT, so the ordinal is only known by walking from the start.
+        long step = 0;
+        if (count == null && from.isAfter(start)) {
+            step = ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(from)) / interval;
+        }
+
+        long ordinal = 0;
+        for (;; step++) {
+            YearMonth month = firstMonth.plusMonths(step * interval);
+            if (month.atDay(1).isAfter(to)) {
+                return;
+            }
+            if (dayOfMonth > month.lengthOfMonth()) {
+                continue;
+            }
+            LocalDate date = month.atDay(dayOfMonth);
+            if ((count != null && ordinal >= count) || date.isAfter(to) || isAfterUntil(date)) {
+                return;
+            }
+            ordinal++;
+            if (!date.isBefore(from)) {
+                result.add(date);
+            }
+        }
+    }
+
+    private boolean isAfterUntil(LocalDate date) {
+        return until != null && date.isAfter(until);
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private static int parsePositive(String key, String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed <= 0) {
+                throw new IllegalArgumentException(key + " must be positive");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + value);
+        }
+    }
+
+    private static LocalDate parseUntil(String value) {
+        try {
+            return LocalDate.parse(value.length() > 8 ? value.substring(0, 8) : value, UNTIL_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid UNTIL: " + value);
+        }
+    }
+
+    private static DayOfWeek parseDay(String value) {
+        switch (value) {
+            case "MO":
+                return DayOfWeek.MONDAY;
+            case "TU":
+                return DayOfWeek.TUESDAY;
+            case "WE":
+                return DayOfWeek.WEDNESDAY;
+            case "TH":
+                return DayOfWeek.THURSDAY;
+            case "FR":
+                return DayOfWeek.FRIDAY;
+            case "SA":
+                return DayOfWeek.SATURDAY;
+            case "SU":
+                return DayOfWeek.SUNDAY;
+            default:
+                throw new IllegalArgumentException("Unsupported BYDAY value: " + value);
+        }
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+}
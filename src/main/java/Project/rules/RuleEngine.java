@@ -1,129 +1,279 @@
-package Project.rules;
-
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Component;
-
-import Project.model.Task;
-
-@Component
-public class RuleEngine {
-
-    private static final Logger logger = LoggerFactory.getLogger(RuleEngine.class);
-
-    public boolean shouldExecute(Task task) {
-        if (task == null) {
-            logger.warn("Null task provided to rule engine");
-            return false;
-        }
-
-        logger.debug("Evaluating execution rules for task: {}", task.getId());
-
-        if (task.isCompleted()) {
-            logger.debug("Task {} is already completed", task.getId());
-            return false;
-        }
-
-        if (task.getDueDate() == null) {
-            logger.debug("Task {} has no due date", task.getId());
-            return false;
-        }
-
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime dueDate = task.getDueDate().atStartOfDay();
-
-        if (dueDate.isBefore(now)) {
-            logger.debug("Task {} is overdue", task.getId());
-            return false;
-        }
-
-        long minutesUntilDue = ChronoUnit.MINUTES.between(now, dueDate);
-        boolean isDueSoon = minutesUntilDue <= 60 && minutesUntilDue >= 0;
-
-        if (isDueSoon) {
-            logger.info("Task {} meets execution criteria (due in {} minutes)", task.getId(), minutesUntilDue);
-        } else {
-            logger.debug("Task {} not due soon enough (due in {} minutes)", task.getId(), minutesUntilDue);
-        }
-
-        return isDueSoon;
-    }
-
-    public boolean isOverdue(Task task) {
-        if (task == null || task.getDueDate() == null) {
-            return false;
-        }
-
-        boolean overdue = task.getDueDate().isBefore(LocalDateTime.now().toLocalDate()) && !task.isCompleted();
-
-        if (overdue) {
-            logger.debug("Task {} is overdue", task.getId());
-        }
-
-        return overdue;
-    }
-
-    public boolean isHighPriority(Task task) {
-        if (task == null || task.getPriority() == null) {
-            return false;
-        }
-
-        return "HIGH".equalsIgnoreCase(task.getPriority());
-    }
-
-    public int calculateUrgencyScore(Task task) {
-        if (task == null || task.getDueDate() == null || task.isCompleted()) {
-            return 0;
-        }
-
-        int score = 0;
-
-        switch (task.getPriority().toUpperCase()) {
-            case "HIGH":
-                score += 50;
-                break;
-            case "MEDIUM":
-                score += 30;
-                break;
-            case "LOW":
-                score += 10;
-                break;
-        }
-
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime dueDate = task.getDueDate().atStartOfDay();
-        long hoursUntilDue = ChronoUnit.HOURS.between(now, dueDate);
-
-        if (hoursUntilDue < 0) {
-            score += 100;
-        } else if (hoursUntilDue <= 1) {
-            score += 80;
-        } else if (hoursUntilDue <= 6) {
-            score += 60;
-        } else if (hoursUntilDue <= 24) {
-            score += 40;
-        } else if (hoursUntilDue <= 72) {
-            score += 20;
-        }
-
-        logger.debug("Task {} urgency score: {}", task.getId(), score);
-        return score;
-    }
-
-    public boolean needsImmediateAttention(Task task) {
-        if (task == null || task.isCompleted()) {
-            return false;
-        }
-
-        boolean immediate = isOverdue(task) || (isHighPriority(task) && shouldExecute(task));
-
-        if (immediate) {
-            logger.info("Task {} needs immediate attention", task.getId());
-        }
-
-        return immediate;
-    }
-}
+package Project.rules;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import Project.model.Task;
+
+@Component
+public class RuleEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleEngine.class);
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MINUTE = 60 * NANOS_PER_SECOND;
+    private static final long NANOS_PER_HOUR = 60 * NANOS_PER_MINUTE;
+    private static final long SECONDS_PER_DAY = 86_400L;
+    // Beyond these a due date is more than ~292 years away and its distance no longer fits in nanoseconds.
+    private static final long MAX_SECONDS_UNTIL_DUE = Long.MAX_VALUE / NANOS_PER_SECOND - 1;
+    private static final long MIN_SECONDS_UNTIL_DUE = Long.MIN_VALUE / NANOS_PER_SECOND + 1;
+
+    /**
+     * The default reminder window: a pending task whose due date starts within
+     * the next hour. {@link #shouldExecute} evaluates it in Java and the sweep
+     * pushes it down to SQL through {@link #defaultReminderPredicate}.
+     */
+    public static final String DEFAULT_REMINDER_RULE = "!completed && !pastDue && minutesUntilDue <= 60";
+
+    private static final RuleExpression DEFAULT_REMINDER = RuleExpression.parse(DEFAULT_REMINDER_RULE);
+    private static final CompiledRule DEFAULT_REMINDER_COMPILED = DEFAULT_REMINDER.compile();
+
+    @Autowired
+    private Clock clock;
+
+    @Autowired(required = false)
+    private UrgencyScoreCache urgencyScoreCache;
+
+    /**
+     * Evaluates {@link #shouldExecute} and {@link #calculateUrgencyScore} for a
+     * whole batch against a single clock reading. Durations are computed from
+     * epoch arithmetic instead of building a LocalDateTime per task, truncated
+     * exactly like {@link ChronoUnit#between}, and nothing is logged per task.
+     */
+    public BatchEvaluation evaluateBatch(List<Task> tasks) {
+        return evaluateBatch(tasks, LocalDateTime.now(clock));
+    }
+
+    public BatchEvaluation evaluateBatch(List<Task> tasks, LocalDateTime now) {
+        long nowSecond = now.toEpochSecond(ZoneOffset.UTC);
+        long nowNano = now.getNano();
+
+        int size = tasks.size();
+        boolean[] shouldExecute = new boolean[size];
+        int[] urgencyScores = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            Task task = tasks.get(i);
+            if (task == null || task.isCompleted() || task.getDueDate() == null) {
+                continue;
+            }
+
+            long nanosUntilDue = nanosUntilDue(task.getDueDate(), nowSecond, nowNano);
+            long minutesUntilDue = nanosUntilDue / NANOS_PER_MINUTE;
+            long hoursUntilDue = nanosUntilDue / NANOS_PER_HOUR;
+
+            shouldExecute[i] = nanosUntilDue >= 0 && minutesUntilDue <= 60;
+            urgencyScores[i] = priorityScore(task.getPriority()) + dueScore(hoursUntilDue);
+        }
+
+        logger.debug("Evaluated batch of {} tasks", size);
+        return new BatchEvaluation(now, shouldExecute, urgencyScores);
+    }
+
+    /**
+     * Selector for the {@code k} most urgent tasks offered to it, scored against
+     * one clock reading the same way {@link #calculateUrgencyScore} scores them.
+     */
+    public TopKUrgencySelector topKSelector(int k) {
+        return new TopKUrgencySelector(k, LocalDateTime.now(clock), urgencyScoreCache);
+    }
+
+    static int urgencyScore(Task task, long nowSecond, long nowNano) {
+        if (task == null || task.getDueDate() == null || task.isCompleted()) {
+            return 0;
+        }
+        return priorityScore(task.getPriority()) + dueScore(nanosUntilDue(task.getDueDate(), nowSecond, nowNano) / NANOS_PER_HOUR);
+    }
+
+    /**
+     * How long a score computed now stays valid: until the next threshold of
+     * {@link #dueScore} is crossed, given that {@link ChronoUnit#between}
+     * truncates towards zero (a task only scores as overdue once it is a full
+     * hour past due).
+     */
+    static long urgencyScoreValidForNanos(LocalDate dueDate, long nowSecond, long nowNano) {
+        long nanosUntilDue = nanosUntilDue(dueDate, nowSecond, nowNano);
+        if (nanosUntilDue >= 73 * NANOS_PER_HOUR) {
+            return nanosUntilDue - 73 * NANOS_PER_HOUR + 1;
+        } else if (nanosUntilDue >= 25 * NANOS_PER_HOUR) {
+            return nanosUntilDue - 25 * NANOS_PER_HOUR + 1;
+        } else if (nanosUntilDue >= 7 * NANOS_PER_HOUR) {
+            return nanosUntilDue - 7 * NANOS_PER_HOUR + 1;
+        } else if (nanosUntilDue >= 2 * NANOS_PER_HOUR) {
+            return nanosUntilDue - 2 * NANOS_PER_HOUR + 1;
+        } else if (nanosUntilDue > -NANOS_PER_HOUR) {
+            return nanosUntilDue + NANOS_PER_HOUR;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Nanoseconds from now until the start of the due date, saturated at
+     * {@link Long#MAX_VALUE} / {@link Long#MIN_VALUE} for dates too far away to
+     * represent. Every score threshold is within days, so saturating does not
+     * change any decision.
+     */
+    static long nanosUntilDue(LocalDate dueDate, long nowSecond, long nowNano) {
+        long secondsUntilDue = dueDate.toEpochDay() * SECONDS_PER_DAY - nowSecond;
+        if (secondsUntilDue > MAX_SECONDS_UNTIL_DUE) {
+            return Long.MAX_VALUE;
+        }
+        if (secondsUntilDue < MIN_SECONDS_UNTIL_DUE) {
+            return Long.MIN_VALUE;
+        }
+        return secondsUntilDue * NANOS_PER_SECOND - nowNano;
+    }
+
+    private static int priorityScore(String priority) {
+        if (priority == null) {
+            return 0;
+        }
+        if ("HIGH".equalsIgnoreCase(priority)) {
+            return 50;
+        }
+        if ("MEDIUM".equalsIgnoreCase(priority)) {
+            return 30;
+        }
+        if ("LOW".equalsIgnoreCase(priority)) {
+            return 10;
+        }
+        return 0;
+    }
+
+    private static int dueScore(long hoursUntilDue) {
+        if (hoursUntilDue < 0) {
+            return 100;
+        } else if (hoursUntilDue <= 1) {
+            return 80;
+        } else if (hoursUntilDue <= 6) {
+            return 60;
+        } else if (hoursUntilDue <= 24) {
+            return 40;
+        } else if (hoursUntilDue <= 72) {
+            return 20;
+        }
+        return 0;
+    }
+
+    public boolean shouldExecute(Task task) {
+        if (task == null) {
+            logger.warn("Null task provided to rule engine");
+            return false;
+        }
+
+        logger.debug("Evaluating execution rules for task: {}", task.getId());
+
+        if (task.isCompleted()) {
+            logger.debug("Task {} is already completed", task.getId());
+            return false;
+        }
+
+        if (task.getDueDate() == null) {
+            logger.debug("Task {} has no due date", task.getId());
+            return false;
+        }
+
+        boolean isDueSoon = DEFAULT_REMINDER_COMPILED.matches(task, LocalDateTime.now(clock));
+
+        if (isDueSoon) {
+            logger.info("Task {} meets execution criteria (due {})", task.getId(), task.getDueDate());
+        } else {
+            logger.debug("Task {} is not inside the reminder window (due {})", task.getId(), task.getDueDate());
+        }
+
+        return isDueSoon;
+    }
+
+    /**
+     * {@link #DEFAULT_REMINDER_RULE} as a SQL predicate, so the sweep only loads
+     * rows that {@link #shouldExecute} would accept at {@code now}.
+     */
+    public SqlPredicate defaultReminderPredicate(LocalDateTime now) {
+        return DEFAULT_REMINDER.toSql(now);
+    }
+
+    /**
+     * Evaluates user-defined rules in place of the default window: the task is
+     * due for a reminder when any rule matches.
+     */
+    public boolean matchesAny(List<CompiledRule> rules, Task task) {
+        return matchesAny(rules, task, LocalDateTime.now(clock));
+    }
+
+    public boolean matchesAny(List<CompiledRule> rules, Task task, LocalDateTime now) {
+        if (task == null || task.isCompleted()) {
+            return false;
+        }
+
+        for (CompiledRule rule : rules) {
+            if (rule.matches(task, now)) {
+                logger.debug("Task {} matches a user rule", task.getId());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isOverdue(Task task) {
+        if (task == null || task.getDueDate() == null) {
+            return false;
+        }
+
+        boolean overdue = task.getDueDate().isBefore(LocalDate.now(clock)) && !task.isCompleted();
+
+        if (overdue) {
+            logger.debug("Task {} is overdue", task.getId());
+        }
+
+        return overdue;
+    }
+
+    public boolean isHighPriority(Task task) {
+        if (task == null || task.getPriority() == null) {
+            return false;
+        }
+
+        return "HIGH".equalsIgnoreCase(task.getPriority());
+    }
+
+    public int calculateUrgencyScore(Task task) {
+        if (task == null || task.getDueDate() == null || task.isCompleted()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        int score;
+        if (urgencyScoreCache != null) {
+            score = urgencyScoreCache.score(task, now.toEpochSecond(ZoneOffset.UTC), now.getNano());
+        } else {
+            long hoursUntilDue = ChronoUnit.HOURS.between(now, task.getDueDate().atStartOfDay());
+            score = priorityScore(task.getPriority()) + dueScore(hoursUntilDue);
+        }
+
+        logger.debug("Task {} urgency score: {}", task.getId(), score);
+        return score;
+    }
+
+    public boolean needsImmediateAttention(Task task) {
+        if (task == null || task.isCompleted()) {
+            return false;
+        }
+
+        boolean immediate = isOverdue(task) || (isHighPriority(task) && shouldExecute(task));
+
+        if (immediate) {
+            logger.info("Task {} needs immediate attention", task.getId());
+        }
+
+        return immediate;
+    }
+}
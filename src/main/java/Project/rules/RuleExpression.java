@@ -0,0 +1,521 @@
+package Project.rules;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import Project.model.Task;
+
+/**
+ * Parsed user rule such as {@code priority == HIGH && hoursUntilDue < 4}.
+ *
+ * <pre>
+ * expr       := and ( "||" and )*
+ * and        := unary ( "&&" unary )*
+ * unary      := "!" unary | "(" expr ")" | comparison | booleanVariable
+ * comparison := variable ( "==" | "!=" | "<" | "<=" | ">" | ">=" ) literal
+ * </pre>
+ *
+ * Variables are listed in {@link Variable}. {@code overdue} means due before
+ * today's date, {@code pastDue} that the start of the due date has passed.
+ * Time variables count whole units
+ * between now and the start of the due date, truncated like
+ * {@link ChronoUnit#between}, and never match a task without a due date.
+ * Strings compare case-insensitively and may be bare words or quoted.
+ */
+public final class RuleExpression {
+
+    public static final int MAX_LENGTH = 500;
+    private static final int MAX_DEPTH = 32;
+
+    public enum Type {
+        NUMBER, STRING, BOOLEAN
+    }
+
+    public enum Variable {
+        PRIORITY("priority", Type.STRING),
+        STATUS("status", Type.STRING),
+        COMPLETED("completed", Type.BOOLEAN),
+        OVERDUE("overdue", Type.BOOLEAN),
+        PAST_DUE("pastDue", Type.BOOLEAN),
+        MINUTES_UNTIL_DUE("minutesUntilDue", Type.NUMBER),
+        HOURS_UNTIL_DUE("hoursUntilDue", Type.NUMBER),
+        DAYS_UNTIL_DUE("daysUntilDue", Type.NUMBER);
+
+        private final String name;
+        private final Type type;
+
+        Variable(String name, Type type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        static Variable byName(String name) {
+            for (Variable variable : values()) {
+                if (variable.name.equalsIgnoreCase(name)) {
+                    return variable;
+                }
+            }
+            return null;
+        }
+    }
+
+    public enum Operator {
+        EQ("=="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        static Operator bySymbol(String symbol) {
+            for (Operator operator : values()) {
+                if (operator.symbol.equals(symbol)) {
+                    return operator;
+                }
+            }
+            return null;
+        }
+
+        boolean test(long left, long right) {
+            switch (this) {
+                case EQ:
+                    return left == right;
+                case NE:
+                    return left != right;
+                case LT:
+                    return left < right;
+                case LE:
+                    return left <= right;
+                case GT:
+                    return left > right;
+                default:
+                    return left >= right;
+            }
+        }
+    }
+
+    /** Node of the parsed expression tree. */
+    public interface Node {
+    }
+
+    public static final class And implements Node {
+        private final List<Node> operands;
+
+        And(List<Node> operands) {
+            this.operands = operands;
+        }
+
+        public List<Node> getOperands() {
+            return operands;
+        }
+    }
+
+    public static final class Or implements Node {
+        private final List<Node> operands;
+
+        Or(List<Node> operands) {
+            this.operands = operands;
+        }
+
+        public List<Node> getOperands() {
+            return operands;
+        }
+    }
+
+    public static final class Not implements Node {
+        private final Node operand;
+
+        Not(Node operand) {
+            this.operand = operand;
+        }
+
+        public Node getOperand() {
+            return operand;
+        }
+    }
+
+    /**
+     * {@code variable operator value}. A bare boolean variable is parsed as
+     * {@code variable == true}. The value is a Long, an upper-case String or a
+     * Boolean according to the variable type.
+     */
+    public static final class Comparison implements Node {
+        private final Variable variable;
+        private final Operator operator;
+        private final Object value;
+
+        Comparison(Variable variable, Operator operator, Object value) {
+            this.variable = variable;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        public Variable getVariable() {
+            return variable;
+        }
+
+        public Operator getOperator() {
+            return operator;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+    }
+
+    private final String source;
+    private final Node root;
+
+    private RuleExpression(String source, Node root) {
+        this.source = source;
+        this.root = root;
+    }
+
+    public static RuleExpression parse(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException("Rule expression cannot be empty");
+        }
+        if (text.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Rule expression is longer than " + MAX_LENGTH + " characters");
+        }
+        Parser parser = new Parser(tokenize(text));
+        Node root = parser.parseOr(0);
+        parser.expectEnd();
+        return new RuleExpression(text.trim(), root);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public Node getRoot() {
+        return root;
+    }
+
+    public CompiledRule compile() {
+        return compile(root);
+    }
+
+    /**
+     * SQL predicate on the {@code tasks} table selecting the same rows that
+     * {@link #compile()} matches at {@code now}.
+     */
+    public SqlPredicate toSql(LocalDateTime now) {
+        return RuleSqlTranslator.translate(root, now);
+    }
+
+    private static CompiledRule compile(Node node) {
+        if (node instanceof And) {
+            CompiledRule[] operands = compileConjunction(((And) node).operands);
+            if (operands.length == 1) {
+                return operands[0];
+            }
+            if (operands.length == 2) {
+                CompiledRule left = operands[0];
+                CompiledRule right = operands[1];
+                return (task, now) -> left.matches(task, now) && right.matches(task, now);
+            }
+            return (task, now) -> {
+                for (CompiledRule operand : operands) {
+                    if (!operand.matches(task, now)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+        if (node instanceof Or) {
+            CompiledRule[] operands = compileAll(((Or) node).operands);
+            if (operands.length == 2) {
+                CompiledRule left = operands[0];
+                CompiledRule right = operands[1];
+                return (task, now) -> left.matches(task, now) || right.matches(task, now);
+            }
+            return (task, now) -> {
+                for (CompiledRule operand : operands) {
+                    if (operand.matches(task, now)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+        if (node instanceof Not) {
+            CompiledRule operand = compile(((Not) node).operand);
+            return (task, now) -> !operand.matches(task, now);
+        }
+        return compileComparison((Comparison) node);
+    }
+
+    /**
+     * Compiles the operands of an AND. Comparisons on the same time variable are
+     * merged so the duration is computed once, and run after the cheaper checks.
+     */
+    private static CompiledRule[] compileConjunction(List<Node> nodes) {
+        List<CompiledRule> compiled = new ArrayList<>();
+        Map<Variable, List<Comparison>> timeComparisons = new EnumMap<>(Variable.class);
+        for (Node node : nodes) {
+            if (node instanceof Comparison && ((Comparison) node).variable.type == Type.NUMBER) {
+                Comparison comparison = (Comparison) node;
+                timeComparisons.computeIfAbsent(comparison.variable, v -> new ArrayList<>()).add(comparison);
+            } else {
+                compiled.add(compile(node));
+            }
+        }
+        timeComparisons.forEach((variable, comparisons) -> compiled.add(compileTimeComparisons(variable, comparisons)));
+        return compiled.toArray(new CompiledRule[0]);
+    }
+
+    private static CompiledRule[] compileAll(List<Node> nodes) {
+        CompiledRule[] compiled = new CompiledRule[nodes.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = compile(nodes.get(i));
+        }
+        return compiled;
+    }
+
+    private static CompiledRule compileComparison(Comparison comparison) {
+        Operator operator = comparison.operator;
+        switch (comparison.variable) {
+            case PRIORITY: {
+                String expected = (String) comparison.value;
+                boolean equal = operator == Operator.EQ;
+                return (task, now) -> (task.getPriority() != null && task.getPriority().equalsIgnoreCase(expected)) == equal;
+            }
+            case STATUS: {
+                String expected = (String) comparison.value;
+                boolean equal = operator == Operator.EQ;
+                return (task, now) -> (task.getStatus() != null && task.getStatus().equalsIgnoreCase(expected)) == equal;
+            }
+            case COMPLETED: {
+                boolean expected = (Boolean) comparison.value == (operator == Operator.EQ);
+                return (task, now) -> task.isCompleted() == expected;
+            }
+            case OVERDUE: {
+                boolean expected = (Boolean) comparison.value == (operator == Operator.EQ);
+                return (task, now) -> isOverdue(task, now) == expected;
+            }
+            case PAST_DUE: {
+                boolean expected = (Boolean) comparison.value == (operator == Operator.EQ);
+                return (task, now) -> isPastDue(task, now) == expected;
+            }
+            default:
+                return compileTimeComparisons(comparison.variable, List.of(comparison));
+        }
+    }
+
+    private static CompiledRule compileTimeComparisons(Variable variable, List<Comparison> comparisons) {
+        ChronoUnit unit = variable == Variable.MINUTES_UNTIL_DUE ? ChronoUnit.MINUTES
+                : variable == Variable.HOURS_UNTIL_DUE ? ChronoUnit.HOURS : ChronoUnit.DAYS;
+        if (comparisons.size() == 1) {
+            Operator operator = comparisons.get(0).operator;
+            long value = (Long) comparisons.get(0).value;
+            return (task, now) -> {
+                LocalDate dueDate = task.getDueDate();
+                return dueDate != null && operator.test(unit.between(now, dueDate.atStartOfDay()), value);
+            };
+        }
+
+        Operator[] operators = new Operator[comparisons.size()];
+        long[] values = new long[comparisons.size()];
+        for (int i = 0; i < operators.length; i++) {
+            operators[i] = comparisons.get(i).operator;
+            values[i] = (Long) comparisons.get(i).value;
+        }
+        return (task, now) -> {
+            LocalDate dueDate = task.getDueDate();
+            if (dueDate == null) {
+                return false;
+            }
+            long amount = unit.between(now, dueDate.atStartOfDay());
+            for (int i = 0; i < operators.length; i++) {
+                if (!operators[i].test(amount, values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    static boolean isOverdue(Task task, LocalDateTime now) {
+        return task.getDueDate() != null && !task.isCompleted() && task.getDueDate().isBefore(now.toLocalDate());
+    }
+
+    static boolean isPastDue(Task task, LocalDateTime now) {
+        return task.getDueDate() != null && task.getDueDate().atStartOfDay().isBefore(now);
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < text.length() && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_')) {
+                    i++;
+                }
+                tokens.add(text.substring(start, i));
+            } else if (Character.isDigit(c) || (c == '-' && i + 1 < text.length() && Character.isDigit(text.charAt(i + 1)))) {
+                int start = i++;
+                while (i < text.length() && Character.isDigit(text.charAt(i))) {
+                    i++;
+                }
+                tokens.add(text.substring(start, i));
+            } else if (c == '\'' || c == '"') {
+                int end = text.indexOf(c, i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated string at position " + i);
+                }
+                tokens.add(text.substring(i, end + 1));
+                i = end + 1;
+            } else if (text.startsWith("&&", i) || text.startsWith("||", i) || text.startsWith("==", i)
+                    || text.startsWith("!=", i) || text.startsWith("<=", i) || text.startsWith(">=", i)) {
+                tokens.add(text.substring(i, i + 2));
+                i += 2;
+            } else if (c == '<' || c == '>' || c == '!' || c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else {
+                throw new IllegalArgumentException("Unexpected character '" + c + "' at position " + i);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Parser {
+        private final List<String> tokens;
+        private int position;
+
+        Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        Node parseOr(int depth) {
+            List<Node> operands = new ArrayList<>();
+            operands.add(parseAnd(depth));
+            while ("||".equals(peek())) {
+                position++;
+                operands.add(parseAnd(depth));
+            }
+            return operands.size() == 1 ? operands.get(0) : new Or(operands);
+        }
+
+        Node parseAnd(int depth) {
+            List<Node> operands = new ArrayList<>();
+            operands.add(parseUnary(depth));
+            while ("&&".equals(peek())) {
+                position++;
+                operands.add(parseUnary(depth));
+            }
+            return operands.size() == 1 ? operands.get(0) : new And(operands);
+        }
+
+        Node parseUnary(int depth) {
+            if (depth > MAX_DEPTH) {
+                throw new IllegalArgumentException("Rule expression is nested too deeply");
+            }
+            String token = next("an expression");
+            if ("!".equals(token)) {
+                return new Not(parseUnary(depth + 1));
+            }
+            if ("(".equals(token)) {
+                Node inner = parseOr(depth + 1);
+                expect(")");
+                return inner;
+            }
+
+            Variable variable = Variable.byName(token);
+            if (variable == null) {
+                throw new IllegalArgumentException("Unknown variable: " + token);
+            }
+
+            Operator operator = peek() != null ? Operator.bySymbol(peek()) : null;
+            if (operator == null) {
+                if (variable.type != Type.BOOLEAN) {
+                    throw new IllegalArgumentException("Variable " + variable.name + " must be compared to a value");
+                }
+                return new Comparison(variable, Operator.EQ, Boolean.TRUE);
+            }
+            position++;
+            return new Comparison(variable, operator, literal(variable, operator, next("a value")));
+        }
+
+        private Object literal(Variable variable, Operator operator, String token) {
+            switch (variable.type) {
+                case NUMBER:
+                    try {
+                        return Long.parseLong(token);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException(variable.name + " must be compared to a number, got " + token);
+                    }
+                case BOOLEAN:
+                    requireEquality(variable, operator);
+                    if (!"true".equalsIgnoreCase(token) && !"false".equalsIgnoreCase(token)) {
+                        throw new IllegalArgumentException(variable.name + " must be compared to true or false");
+                    }
+                    return Boolean.parseBoolean(token.toLowerCase(Locale.ROOT));
+                default:
+                    requireEquality(variable, operator);
+                    String value = token;
+                    if (value.startsWith("'") || value.startsWith("\"")) {
+                        value = value.substring(1, value.length() - 1);
+                    } else if (!Character.isLetter(value.charAt(0)) && value.charAt(0) != '_') {
+                        throw new IllegalArgumentException(variable.name + " must be compared to a word, got " + token);
+                    }
+                    return value.toUpperCase(Locale.ROOT);
+            }
+        }
+
+        private void requireEquality(Variable variable, Operator operator) {
+            if (operator != Operator.EQ && operator != Operator.NE) {
+                throw new IllegalArgumentException(variable.name + " only supports == and !=");
+            }
+        }
+
+        private String peek() {
+            return position < tokens.size() ? tokens.get(position) : null;
+        }
+
+        private String next(String expected) {
+            if (position >= tokens.size()) {
+                throw new IllegalArgumentException("Expected " + expected + " at end of rule");
+            }
+            return tokens.get(position++);
+        }
+
+        private void expect(String token) {
+            String actual = next("'" + token + "'");
+            if (!token.equals(actual)) {
+                throw new IllegalArgumentException("Expected '" + token + "' but found '" + actual + "'");
+            }
+        }
+
+        void expectEnd() {
+            if (position < tokens.size()) {
+                throw new IllegalArgumentException("Unexpected '" + tokens.get(position) + "'");
+            }
+        }
+    }
+}
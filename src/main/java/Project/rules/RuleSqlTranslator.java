@@ -0,0 +1,180 @@
+package Project.rules;
+
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import Project.rules.RuleExpression.And;
+import Project.rules.RuleExpression.Comparison;
+import Project.rules.RuleExpression.Node;
+import Project.rules.RuleExpression.Not;
+import Project.rules.RuleExpression.Operator;
+import Project.rules.RuleExpression.Or;
+import Project.rules.RuleExpression.Variable;
+
+/**
+ * Translates a rule into a {@link SqlPredicate} that selects exactly the rows
+ * the compiled rule matches at {@code now}. Time comparisons become half-open
+ * ranges of midnights on {@code due_date}, worked out in exact arithmetic from
+ * the same truncation as {@link java.time.temporal.ChronoUnit#between}, so the
+ * predicate can use the due date index. Every leaf is guarded against NULL
+ * columns and evaluates to TRUE or FALSE, matching the Java side.
+ */
+final class RuleSqlTranslator {
+
+    private static final BigInteger NANOS_PER_DAY = BigInteger.valueOf(86_400_000_000_000L);
+    private static final BigInteger NANOS_PER_HOUR = BigInteger.valueOf(3_600_000_000_000L);
+    private static final BigInteger NANOS_PER_MINUTE = BigInteger.valueOf(60_000_000_000L);
+
+    // Range of dates a TIMESTAMP column can hold; bounds outside it are dropped.
+    private static final BigInteger MIN_DAY = BigInteger.valueOf(LocalDate.of(1, 1, 1).toEpochDay());
+    private static final BigInteger MAX_DAY = BigInteger.valueOf(LocalDate.of(9999, 12, 31).toEpochDay());
+
+    private final BigInteger now;
+
+    private RuleSqlTranslator(LocalDateTime now) {
+        this.now = BigInteger.valueOf(now.toEpochSecond(ZoneOffset.UTC)).multiply(BigInteger.valueOf(1_000_000_000L))
+                .add(BigInteger.valueOf(now.getNano()));
+    }
+
+    static SqlPredicate translate(Node root, LocalDateTime now) {
+        return new RuleSqlTranslator(now).translate(root);
+    }
+
+    private SqlPredicate translate(Node node) {
+        if (node instanceof And) {
+            return SqlPredicate.and(translateAll(((And) node).getOperands()));
+        }
+        if (node instanceof Or) {
+            return SqlPredicate.or(translateAll(((Or) node).getOperands()));
+        }
+        if (node instanceof Not) {
+            return SqlPredicate.not(translate(((Not) node).getOperand()));
+        }
+        return translateComparison((Comparison) node);
+    }
+
+    private List<SqlPredicate> translateAll(List<Node> nodes) {
+        List<SqlPredicate> predicates = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            predicates.add(translate(node));
+        }
+        return predicates;
+    }
+
+    private SqlPredicate translateComparison(Comparison comparison) {
+        Operator operator = comparison.getOperator();
+        boolean equal = operator == Operator.EQ;
+        switch (comparison.getVariable()) {
+            case PRIORITY:
+                return equalOrNot(equal,
+                        new SqlPredicate("(priority IS NOT NULL AND UPPER(priority) = ?)", List.of(comparison.getValue())));
+            case STATUS:
+                return equalOrNot(equal,
+                        new SqlPredicate("(status IS NOT NULL AND UPPER(status) = ?)", List.of(comparison.getValue())));
+            case COMPLETED: {
+                boolean expected = (Boolean) comparison.getValue() == equal;
+                return new SqlPredicate(expected ? "completed IS TRUE" : "completed IS NOT TRUE", List.of());
+            }
+            case OVERDUE: {
+                boolean expected = (Boolean) comparison.getValue() == equal;
+                // Due before today's date.
+                SqlPredicate overdue = new SqlPredicate(
+                        "(due_date IS NOT NULL AND completed IS NOT TRUE AND due_date < ?)",
+                        List.of(midnight(floorDiv(now, NANOS_PER_DAY))));
+                return equalOrNot(expected, overdue);
+            }
+            case PAST_DUE: {
+                boolean expected = (Boolean) comparison.getValue() == equal;
+                // Start of the due date before now, i.e. due before the first midnight not before now.
+                SqlPredicate pastDue = new SqlPredicate("(due_date IS NOT NULL AND due_date < ?)",
+                        List.of(midnight(ceilDiv(now, NANOS_PER_DAY))));
+                return equalOrNot(expected, pastDue);
+            }
+            default:
+                return translateTimeComparison(comparison.getVariable(), operator, (Long) comparison.getValue());
+        }
+    }
+
+    private static SqlPredicate equalOrNot(boolean equal, SqlPredicate predicate) {
+        return equal ? predicate : SqlPredicate.not(predicate);
+    }
+
+    private SqlPredicate translateTimeComparison(Variable variable, Operator operator, long value) {
+        BigInteger unit = variable == Variable.MINUTES_UNTIL_DUE ? NANOS_PER_MINUTE
+                : variable == Variable.HOURS_UNTIL_DUE ? NANOS_PER_HOUR : NANOS_PER_DAY;
+        BigInteger amount = BigInteger.valueOf(value);
+
+        switch (operator) {
+            case EQ:
+                return amountBetween(unit, amount, amount);
+            case NE:
+                return SqlPredicate.and(List.of(new SqlPredicate("due_date IS NOT NULL", List.of()),
+                        SqlPredicate.not(amountBetween(unit, amount, amount))));
+            case LT:
+                return amountBetween(unit, null, amount.subtract(BigInteger.ONE));
+            case LE:
+                return amountBetween(unit, null, amount);
+            case GT:
+                return amountBetween(unit, amount.add(BigInteger.ONE), null);
+            default:
+                return amountBetween(unit, amount, null);
+        }
+    }
+
+    /**
+     * Rows whose truncated amount of {@code unit} until due lies in the inclusive
+     * range; a null bound is open. With d the nanos until due, trunc(d / u) >= a
+     * holds for d >= a*u when a > 0 and for d > (a-1)*u otherwise, and
+     * trunc(d / u) <= b holds for d < (b+1)*u when b >= 0 and for d <= b*u
+     * otherwise. Since d = dueDay * day - now, each bound maps to a due day.
+     */
+    private SqlPredicate amountBetween(BigInteger unit, BigInteger lowest, BigInteger highest) {
+        BigInteger fromDay = null;
+        if (lowest != null) {
+            fromDay = lowest.signum() > 0 ? ceilDiv(lowest.multiply(unit).add(now), NANOS_PER_DAY)
+                    : floorDiv(lowest.subtract(BigInteger.ONE).multiply(unit).add(now), NANOS_PER_DAY).add(BigInteger.ONE);
+        }
+        BigInteger untilDay = null;
+        if (highest != null) {
+            untilDay = highest.signum() >= 0 ? ceilDiv(highest.add(BigInteger.ONE).multiply(unit).add(now), NANOS_PER_DAY)
+                    : floorDiv(highest.multiply(unit).add(now), NANOS_PER_DAY).add(BigInteger.ONE);
+        }
+        return dueDayRange(fromDay, untilDay);
+    }
+
+    private static SqlPredicate dueDayRange(BigInteger fromDay, BigInteger untilDay) {
+        if ((fromDay != null && fromDay.compareTo(MAX_DAY) > 0) || (untilDay != null && untilDay.compareTo(MIN_DAY) <= 0)
+                || (fromDay != null && untilDay != null && fromDay.compareTo(untilDay) >= 0)) {
+            return SqlPredicate.FALSE;
+        }
+
+        StringBuilder sql = new StringBuilder("(due_date IS NOT NULL");
+        List<Object> parameters = new ArrayList<>(2);
+        if (fromDay != null && fromDay.compareTo(MIN_DAY) > 0) {
+            sql.append(" AND due_date >= ?");
+            parameters.add(midnight(fromDay));
+        }
+        if (untilDay != null && untilDay.compareTo(MAX_DAY) <= 0) {
+            sql.append(" AND due_date < ?");
+            parameters.add(midnight(untilDay));
+        }
+        return new SqlPredicate(sql.append(')').toString(), parameters);
+    }
+
+    private static Timestamp midnight(BigInteger epochDay) {
+        return Timestamp.valueOf(LocalDate.ofEpochDay(epochDay.longValueExact()).atStartOfDay());
+    }
+
+    private static BigInteger floorDiv(BigInteger dividend, BigInteger divisor) {
+        return dividend.subtract(dividend.mod(divisor)).divide(divisor);
+    }
+
+    private static BigInteger ceilDiv(BigInteger dividend, BigInteger divisor) {
+        return floorDiv(dividend.add(divisor).subtract(BigInteger.ONE), divisor);
+    }
+}
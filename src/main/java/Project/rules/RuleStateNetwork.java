@@ -0,0 +1,201 @@
+package Project.rules;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import Project.model.Task;
+
+/**
+ * Incrementally maintained {@link RuleEngine#needsImmediateAttention} state, in
+ * the style of a Rete network:
+ *
+ * <ul>
+ * <li>alpha tests on the task itself (pending with a due date, high priority)
+ * run only when the task changes;</li>
+ * <li>time tests (inside the reminder window, overdue) are re-run only when a
+ * time index entry for the task comes due, i.e. when it crosses one of its
+ * own boundaries;</li>
+ * <li>the terminal node keeps the tasks needing attention per user, so reading
+ * them costs O(result).</li>
+ * </ul>
+ *
+ * Recurring series rows are not tracked, matching the other overdue queries.
+ * All methods are synchronized; instants are local times as passed in.
+ */
+public class RuleStateNetwork {
+
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+
+    // shouldExecute holds while 0 <= nanos until due < 61 minutes.
+    private static final long REMINDER_WINDOW_NANOS = 61 * NANOS_PER_MINUTE;
+
+    private final Map<Long, TaskState> states = new HashMap<>();
+    private final TreeMap<Long, Set<Long>> timeIndex = new TreeMap<>();
+    private final Map<Long, Map<Long, Task>> attentionByUser = new HashMap<>();
+
+    private long evaluatedAt = Long.MIN_VALUE;
+    private long evaluations;
+
+    public synchronized void load(Collection<Task> tasks, LocalDateTime now) {
+        states.clear();
+        timeIndex.clear();
+        attentionByUser.clear();
+        evaluatedAt = toNanos(now);
+        for (Task task : tasks) {
+            upsert(task, evaluatedAt);
+        }
+    }
+
+    public synchronized void upsert(Task task, LocalDateTime now) {
+        advanceTo(toNanos(now));
+        upsert(task, evaluatedAt);
+    }
+
+    public synchronized void remove(Long taskId) {
+        TaskState state = states.remove(taskId);
+        if (state != null) {
+            unschedule(state);
+            setAttention(state, false);
+        }
+    }
+
+    /**
+     * Tasks of the user that need immediate attention at {@code now}, earliest
+     * due first.
+     */
+    public synchronized List<Task> needingAttention(Long userId, LocalDateTime now) {
+        advanceTo(toNanos(now));
+        Map<Long, Task> attention = attentionByUser.get(userId);
+        if (attention == null) {
+            return List.of();
+        }
+
+        List<Task> tasks = new ArrayList<>(attention.values());
+        tasks.sort(Comparator.comparing(Task::getDueDate).thenComparing(Task::getId));
+        return tasks;
+    }
+
+    public synchronized int size() {
+        return states.size();
+    }
+
+    /** Number of per-task evaluations so far, for metrics and tests. */
+    public synchronized long getEvaluations() {
+        return evaluations;
+    }
+
+    private void upsert(Task task, long now) {
+        remove(task.getId());
+
+        // Alpha node: only pending one-off tasks with a due date can ever need attention.
+        if (task.isCompleted() || task.getDueDate() == null || task.getRecurrenceRule() != null) {
+            return;
+        }
+
+        TaskState state = new TaskState(task, "HIGH".equalsIgnoreCase(task.getPriority()));
+        states.put(task.getId(), state);
+        evaluate(state, now);
+    }
+
+    /**
+     * Fires the time index up to {@code now}. If the clock went backwards every
+     * task is re-evaluated, since the index only looks forward.
+     */
+    private void advanceTo(long now) {
+        if (now < evaluatedAt) {
+            for (TaskState state : states.values()) {
+                unschedule(state);
+                evaluate(state, now);
+            }
+        } else {
+            while (!timeIndex.isEmpty() && timeIndex.firstKey() <= now) {
+                Map.Entry<Long, Set<Long>> due = timeIndex.pollFirstEntry();
+                for (Long taskId : due.getValue()) {
+                    TaskState state = states.get(taskId);
+                    if (state != null && state.scheduledAt == due.getKey()) {
+                        state.scheduledAt = Long.MIN_VALUE;
+                        evaluate(state, now);
+                    }
+                }
+            }
+        }
+        evaluatedAt = now;
+    }
+
+    private void evaluate(TaskState state, long now) {
+        evaluations++;
+
+        long windowStart = state.dueAt - REMINDER_WINDOW_NANOS + 1;
+        long windowEnd = state.dueAt + 1;
+        long overdueAt = state.dueAt + NANOS_PER_DAY;
+
+        boolean overdue = now >= overdueAt;
+        boolean inWindow = state.highPriority && now >= windowStart && now < windowEnd;
+        setAttention(state, overdue || inWindow);
+
+        long next = Long.MAX_VALUE;
+        if (state.highPriority) {
+            next = now < windowStart ? windowStart : now < windowEnd ? windowEnd : next;
+        }
+        if (!overdue) {
+            next = Math.min(next, overdueAt);
+        }
+        if (next != Long.MAX_VALUE) {
+            state.scheduledAt = next;
+            timeIndex.computeIfAbsent(next, instant -> new HashSet<>()).add(state.task.getId());
+        }
+    }
+
+    private void setAttention(TaskState state, boolean attention) {
+        Long userId = state.task.getUserId();
+        if (attention) {
+            attentionByUser.computeIfAbsent(userId, id -> new HashMap<>()).put(state.task.getId(), state.task);
+        } else {
+            Map<Long, Task> tasks = attentionByUser.get(userId);
+            if (tasks != null && tasks.remove(state.task.getId()) != null && tasks.isEmpty()) {
+                attentionByUser.remove(userId);
+            }
+        }
+    }
+
+    private void unschedule(TaskState state) {
+        if (state.scheduledAt == Long.MIN_VALUE) {
+            return;
+        }
+        Set<Long> bucket = timeIndex.get(state.scheduledAt);
+        if (bucket != null) {
+            bucket.remove(state.task.getId());
+            if (bucket.isEmpty()) {
+                timeIndex.remove(state.scheduledAt);
+            }
+        }
+        state.scheduledAt = Long.MIN_VALUE;
+    }
+
+    private static long toNanos(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+
+    private static final class TaskState {
+        private final Task task;
+        private final boolean highPriority;
+        private final long dueAt;
+        private long scheduledAt = Long.MIN_VALUE;
+
+        private TaskState(Task task, boolean highPriority) {
+            this.task = task;
+            this.highPriority = highPriority;
+            this.dueAt = task.getDueDate().toEpochDay() * NANOS_PER_DAY;
+        }
+    }
+}
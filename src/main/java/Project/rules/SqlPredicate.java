@@ -0,0 +1,69 @@
+package Project.rules;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SQL boolean expression over the columns of the {@code tasks} table with its
+ * positional parameters. Predicates produced by {@link RuleExpression#toSql}
+ * never evaluate to UNKNOWN, so they can be negated and combined freely.
+ */
+public final class SqlPredicate {
+
+    public static final SqlPredicate TRUE = new SqlPredicate("1 = 1", List.of());
+    public static final SqlPredicate FALSE = new SqlPredicate("1 = 0", List.of());
+
+    private final String sql;
+    private final List<Object> parameters;
+
+    public SqlPredicate(String sql, List<Object> parameters) {
+        this.sql = sql;
+        this.parameters = Collections.unmodifiableList(new ArrayList<>(parameters));
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    public static SqlPredicate and(List<SqlPredicate> operands) {
+        return join(operands, " AND ", TRUE);
+    }
+
+    public static SqlPredicate or(List<SqlPredicate> operands) {
+        return join(operands, " OR ", FALSE);
+    }
+
+    public static SqlPredicate not(SqlPredicate operand) {
+        return new SqlPredicate("NOT (" + operand.sql + ")", operand.parameters);
+    }
+
+    private static SqlPredicate join(List<SqlPredicate> operands, String separator, SqlPredicate empty) {
+        if (operands.isEmpty()) {
+            return empty;
+        }
+        if (operands.size() == 1) {
+            return operands.get(0);
+        }
+
+        StringBuilder sql = new StringBuilder("(");
+        List<Object> parameters = new ArrayList<>();
+        for (int i = 0; i < operands.size(); i++) {
+            if (i > 0) {
+                sql.append(separator);
+            }
+            sql.append(operands.get(i).sql);
+            parameters.addAll(operands.get(i).parameters);
+        }
+        return new SqlPredicate(sql.append(')').toString(), parameters);
+    }
+
+    @Override
+    public String toString() {
+        return sql + " " + parameters;
+    }
+}
@@ -0,0 +1,104 @@
+package Project.rules;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import Project.model.Task;
+
+/**
+ * Keeps the {@code k} most urgent tasks out of a stream in a bounded min-heap,
+ * so selecting from n tasks costs O(n log k) time and O(k) memory. Ranking is
+ * by urgency score, then earlier due date, then lower id, then arrival order.
+ * Not thread-safe; create one per request through {@link RuleEngine#topKSelector}.
+ */
+public class TopKUrgencySelector {
+
+    private static final Comparator<Candidate> MOST_URGENT_FIRST = Comparator
+            .comparingInt((Candidate candidate) -> -candidate.score)
+            .thenComparing(candidate -> candidate.task.getDueDate(), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(candidate -> candidate.task.getId(), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingLong(candidate -> candidate.sequence);
+
+    private final int k;
+    private final LocalDateTime evaluatedAt;
+    private final long nowSecond;
+    private final long nowNano;
+    private final UrgencyScoreCache cache;
+    private final PriorityQueue<Candidate> heap;
+    private long offered;
+
+    TopKUrgencySelector(int k, LocalDateTime evaluatedAt, UrgencyScoreCache cache) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1");
+        }
+        this.k = k;
+        this.evaluatedAt = evaluatedAt;
+        this.nowSecond = evaluatedAt.toEpochSecond(ZoneOffset.UTC);
+        this.nowNano = evaluatedAt.getNano();
+        this.cache = cache;
+        this.heap = new PriorityQueue<>(k, MOST_URGENT_FIRST.reversed());
+    }
+
+    /**
+     * Scores the task and keeps it if it ranks among the {@code k} most urgent
+     * seen so far. Returns whether it was kept.
+     */
+    public boolean offer(Task task) {
+        if (task == null) {
+            return false;
+        }
+
+        int score = cache != null ? cache.score(task, nowSecond, nowNano) : RuleEngine.urgencyScore(task, nowSecond, nowNano);
+        Candidate candidate = new Candidate(task, score, offered++);
+        if (heap.size() < k) {
+            heap.add(candidate);
+            return true;
+        }
+
+        Candidate leastUrgent = heap.peek();
+        if (candidate.score < leastUrgent.score || MOST_URGENT_FIRST.compare(candidate, leastUrgent) > 0) {
+            return false;
+        }
+        heap.poll();
+        heap.add(candidate);
+        return true;
+    }
+
+    /**
+     * The selected tasks, most urgent first.
+     */
+    public List<Task> result() {
+        List<Candidate> candidates = new ArrayList<>(heap);
+        candidates.sort(MOST_URGENT_FIRST);
+
+        List<Task> tasks = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            tasks.add(candidate.task);
+        }
+        return tasks;
+    }
+
+    public LocalDateTime getEvaluatedAt() {
+        return evaluatedAt;
+    }
+
+    public long getOffered() {
+        return offered;
+    }
+
+    private static final class Candidate {
+        private final Task task;
+        private final int score;
+        private final long sequence;
+
+        private Candidate(Task task, int score, long sequence) {
+            this.task = task;
+            this.score = score;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package Project.rules;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import Project.model.Task;
+import Project.model.TaskChangeEvent;
+
+/**
+ * Urgency scores keyed by task id, each stored with the instant it next
+ * changes. A score only moves when the task crosses one of the thresholds of
+ * {@link RuleEngine#calculateUrgencyScore}, so between crossings a lookup
+ * replaces the date arithmetic. Entries also remember the priority, due date
+ * and completion they were computed from and are ignored if the task no longer
+ * matches; task change events drop them eagerly once a write commits. Once
+ * {@code maxEntries} is reached the least recently used entry makes room.
+ */
+@Component
+public class UrgencyScoreCache {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    @Value("${urgency.cache.max-entries:100000}")
+    private int maxEntries;
+
+    // Access-ordered, guarded by its own monitor.
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, UrgencyScoreCache.Entry> eldest) {
+            if (size() > maxEntries) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Urgency score of the task at the given local time, expressed as epoch
+     * seconds and nanos of a UTC-normalised LocalDateTime.
+     */
+    int score(Task task, long nowSecond, long nowNano) {
+        Long id = task.getId();
+        if (id == null || id.equals(task.getSeriesId()) || task.getRecurrenceRule() != null) {
+            // Virtual occurrences share the series id, so they cannot be keyed by it.
+            bypasses.increment();
+            return RuleEngine.urgencyScore(task, nowSecond, nowNano);
+        }
+
+        long now = nowSecond * NANOS_PER_SECOND + nowNano;
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(id);
+        }
+        if (entry != null && entry.matches(task)) {
+            if (now >= entry.computedAt && now < entry.expiresAt) {
+                hits.increment();
+                return entry.score;
+            }
+            refreshes.increment();
+        } else {
+            misses.increment();
+        }
+
+        int score = RuleEngine.urgencyScore(task, nowSecond, nowNano);
+        long validFor = task.isCompleted() || task.getDueDate() == null ? Long.MAX_VALUE
+                : RuleEngine.urgencyScoreValidForNanos(task.getDueDate(), nowSecond, nowNano);
+        long expiresAt = validFor > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + validFor;
+        synchronized (entries) {
+            entries.put(id, new Entry(task, score, now, expiresAt));
+        }
+        return score;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChange(TaskChangeEvent event) {
+        invalidate(event.getTaskId());
+    }
+
+    public void invalidate(Long taskId) {
+        if (taskId == null) {
+            return;
+        }
+        synchronized (entries) {
+            if (entries.remove(taskId) == null) {
+                return;
+            }
+        }
+        invalidations.increment();
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum() + refreshes.sum();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.sum());
+        stats.put("refreshes", refreshes.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("bypasses", bypasses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRate", lookups == 0 ? 0.0 : Math.round(hitCount * 1000.0 / lookups) / 1000.0);
+        return stats;
+    }
+
+    private static final class Entry {
+        private final String priority;
+        private final LocalDate dueDate;
+        private final boolean completed;
+        private final int score;
+        private final long computedAt;
+        private final long expiresAt;
+
+        private Entry(Task task, int score, long computedAt, long expiresAt) {
+            this.priority = task.getPriority();
+            this.dueDate = task.getDueDate();
+            this.completed = task.isCompleted();
+            this.score = score;
+            this.computedAt = computedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean matches(Task task) {
+            return completed == task.isCompleted() && Objects.equals(dueDate, task.getDueDate())
+                    && Objects.equals(priority, task.getPriority());
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package Project.scheduler;
+
+import Project.dao.ReminderDeliveryDao;
+import Project.dao.ReminderRetryDao;
+import Project.dao.TaskDao;
+import Project.executor.ActionExecutor;
+import Project.executor.OutboundMailGuard;
+import Project.model.ReminderDeadLetter;
+import Project.model.ReminderDelivery;
+import Project.model.ReminderRetry;
+import Project.model.Task;
+import Project.service.RecurrenceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retries failed reminder deliveries from the {@code reminder_retries} table
+ * with jittered exponential backoff, and moves them to
+ * {@code reminder_dead_letters} after {@code reminder.retry.max-attempts}
+ * retries. Runs on its own thread and sends through the async mail path, so
+ * neither Quartz threads nor this one wait on a mail server. Email retries
+ * stay queued while the {@link OutboundMailGuard} circuit is open, and no
+ * more start per batch than its rate limiter can send right away.
+ */
+@Component
+@DependsOn("dataSourceInitializer")
+public class ReminderRetryWorker {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReminderRetryWorker.class);
+
+	@Autowired
+	private ReminderRetryDao reminderRetryDao;
+
+	@Autowired
+	private ReminderDeliveryDao reminderDeliveryDao;
+
+	@Autowired
+	private TaskDao taskDao;
+
+	@Autowired
+	private RecurrenceService recurrenceService;
+
+	@Autowired
+	private ActionExecutor actionExecutor;
+
+	@Autowired
+	private OutboundMailGuard mailGuard;
+
+	@Autowired
+	private Clock clock;
+
+	@Value("${reminder.retry.interval-ms:5000}")
+	private long intervalMs;
+
+	@Value("${reminder.retry.batch-size:100}")
+	private int batchSize;
+
+	@Value("${reminder.retry.max-attempts:5}")
+	private int maxAttempts;
+
+	@Value("${reminder.retry.base-delay-ms:30000}")
+	private long baseDelayMs;
+
+	@Value("${reminder.retry.max-delay-ms:3600000}")
+	private long maxDelayMs;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final LongAdder queued = new LongAdder();
+	private final LongAdder recovered = new LongAdder();
+	private final LongAdder deadLettered = new LongAdder();
+
+	private ScheduledExecutorService executor;
+
+	@PostConstruct
+	public void start() {
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "reminder-retry");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::drain, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+		logger.info("Reminder retry worker started (interval {} ms, {} attempts, backoff {}-{} ms)", intervalMs,
+				maxAttempts, baseDelayMs, maxDelayMs);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Records a failed first delivery and queues its first retry. With retries
+	 * disabled the delivery is marked failed right away.
+	 */
+	public void deliveryFailed(Task task, ReminderDelivery delivery) {
+		if (maxAttempts <= 0 || task.getDueDate() == null) {
+			reminderDeliveryDao.updateStatus(delivery, ReminderDelivery.STATUS_FAILED);
+			return;
+		}
+
+		try {
+			LocalDateTime now = LocalDateTime.now(clock);
+			LocalDateTime nextAttemptAt = now.plus(backoffMillis(1), ChronoUnit.MILLIS);
+			if (reminderRetryDao.enqueue(delivery, task.getDueDate(), nextAttemptAt, now)) {
+				queued.increment();
+				logger.info("Reminder for task {} failed, first retry at {}", task.getId(), nextAttemptAt);
+			}
+			reminderDeliveryDao.updateStatus(delivery, ReminderDelivery.STATUS_RETRYING);
+		} catch (Exception e) {
+			logger.error("Could not queue retry for task {}", task.getId(), e);
+			reminderDeliveryDao.updateStatus(delivery, ReminderDelivery.STATUS_FAILED);
+		}
+	}
+
+	public void drain() {
+		try {
+			retryBatch();
+		} catch (Exception e) {
+			logger.error("Error retrying reminder deliveries", e);
+		}
+	}
+
+	/**
+	 * Starts the retries that are due, at most {@code reminder.retry.batch-size}
+	 * in flight at a time. Returns how many were started.
+	 */
+	int retryBatch() {
+		int capacity = batchSize - inFlight.get();
+		if (capacity <= 0) {
+			return 0;
+		}
+
+		LocalDateTime now = LocalDateTime.now(clock);
+		List<ReminderRetry> due = reminderRetryDao.findDue(now, capacity);
+		// Beyond these an email retry would be deferred, or queue behind first deliveries, and use up an attempt.
+		int mailPermits = mailGuard.availablePermits();
+		int started = 0;
+		for (ReminderRetry retry : due) {
+			boolean email = ReminderDelivery.CHANNEL_EMAIL.equals(retry.getChannel());
+			if (email && mailPermits <= 0) {
+				continue;
+			}
+			// Claim the attempt first; a crash mid-send leaves the row due again at the next backoff.
+			LocalDateTime nextAttemptAt = now.plus(backoffMillis(retry.getAttempts() + 2), ChronoUnit.MILLIS);
+			if (!reminderRetryDao.startAttempt(retry, nextAttemptAt)) {
+				continue;
+			}
+
+			Task task = resolveTask(retry);
+			if (task == null || task.isCompleted()) {
+				logger.debug("Dropping retry for task {}: task is gone or completed", retry.getTaskId());
+				reminderRetryDao.delete(retry.getId());
+				reminderDeliveryDao.updateStatus(retry.toDelivery(), ReminderDelivery.STATUS_SKIPPED);
+				continue;
+			}
+
+			attempt(task, retry);
+			started++;
+			if (email) {
+				mailPermits--;
+			}
+		}
+		return started;
+	}
+
+	public List<ReminderDeadLetter> getDeadLetters(int limit) {
+		return reminderRetryDao.findDeadLetters(limit);
+	}
+
+	/** Queues a dead letter for immediate retry with a fresh set of attempts. */
+	public void replay(Long deadLetterId) {
+		if (!reminderRetryDao.replayDeadLetter(deadLetterId, LocalDateTime.now(clock))) {
+			throw new RuntimeException("Dead letter not found or already queued: " + deadLetterId);
+		}
+		logger.info("Dead letter {} queued for replay", deadLetterId);
+		if (executor != null) {
+			executor.execute(this::drain);
+		}
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("queued", queued.sum());
+		stats.put("pending", reminderRetryDao.countRetries());
+		stats.put("inFlight", inFlight.get());
+		stats.put("recovered", recovered.sum());
+		stats.put("deadLettered", deadLettered.sum());
+		stats.put("deadLetters", reminderRetryDao.countDeadLetters());
+		return stats;
+	}
+
+	/**
+	 * Delay before the given retry: exponential in the attempt number and
+	 * capped at {@code reminder.retry.max-delay-ms}. Half of it is random so
+	 * reminders that failed together during an outage do not retry together.
+	 */
+	long backoffMillis(int attempt) {
+		long delay = Math.min(maxDelayMs, baseDelayMs << Math.min(Math.max(attempt - 1, 0), 30));
+		long half = delay / 2;
+		return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+	}
+
+	private Task resolveTask(ReminderRetry retry) {
+		Task task = taskDao.findById(retry.getTaskId());
+		if (task == null || task.getSeriesId() != null || task.getRecurrenceRule() == null) {
+			return task;
+		}
+
+		// Reminders of a series are keyed by the series id; retry the occurrence that was due.
+		Task occurrence = taskDao.findOccurrence(task.getId(), retry.getDueDate());
+		return occurrence != null ? occurrence : recurrenceService.occurrenceOf(task, retry.getDueDate());
+	}
+
+	private void attempt(Task task, ReminderRetry retry) {
+		ReminderDelivery delivery = retry.toDelivery();
+		CompletableFuture<Boolean> result = ReminderDelivery.CHANNEL_EMAIL.equals(retry.getChannel())
+				? actionExecutor.executeAsync(task)
+				: actionExecutor.executeAction(task, retry.getChannel());
+
+		inFlight.incrementAndGet();
+		result.whenComplete((sent, error) -> {
+			inFlight.decrementAndGet();
+			try {
+				completeAttempt(retry, delivery, error == null && sent);
+			} catch (Exception e) {
+				logger.error("Error recording retry of task {}", retry.getTaskId(), e);
+			}
+		});
+	}
+
+	private void completeAttempt(ReminderRetry retry, ReminderDelivery delivery, boolean sent) {
+		if (sent) {
+			reminderRetryDao.delete(retry.getId());
+			reminderDeliveryDao.updateStatus(delivery, ReminderDelivery.STATUS_SENT);
+			recovered.increment();
+			logger.info("Reminder for task {} sent on retry {}", retry.getTaskId(), retry.getAttempts());
+		} else if (retry.getAttempts() >= maxAttempts) {
+			reminderRetryDao.moveToDeadLetters(retry, LocalDateTime.now(clock));
+			reminderDeliveryDao.updateStatus(delivery, ReminderDelivery.STATUS_FAILED);
+			deadLettered.increment();
+			logger.error("Giving up on reminder for task {} after {} retries", retry.getTaskId(), retry.getAttempts());
+		} else {
+			logger.warn("Retry {} of reminder for task {} failed, next at {}", retry.getAttempts(), retry.getTaskId(),
+					retry.getNextAttemptAt());
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package Project.scheduler;
+
+import Project.dao.ScheduleOutboxDao;
+import Project.model.ScheduleOutboxEntry;
+import Project.model.Task;
+import Project.service.SchedulerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies schedule changes recorded by {@link Project.service.TaskService} in the
+ * outbox table. Runs outside any request transaction, collapses all entries of a
+ * task in a batch into its latest one and keeps failed entries for the next run.
+ */
+@Component
+@DependsOn("dataSourceInitializer")
+public class ScheduleOutboxRelay {
+
+	private static final Logger logger = LoggerFactory.getLogger(ScheduleOutboxRelay.class);
+
+	@Autowired
+	private ScheduleOutboxDao scheduleOutboxDao;
+
+	@Autowired
+	private SchedulerService schedulerService;
+
+	@Value("${outbox.relay.interval-ms:1000}")
+	private long intervalMs;
+
+	@Value("${outbox.relay.batch-size:200}")
+	private int batchSize;
+
+	@Value("${outbox.relay.max-attempts:5}")
+	private int maxAttempts;
+
+	private ScheduledExecutorService executor;
+
+	@PostConstruct
+	public void start() {
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "schedule-outbox-relay");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::drain, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+		logger.info("Schedule outbox relay started (interval {} ms, batch size {})", intervalMs, batchSize);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Relays batches until the outbox is empty or a batch could not be fully
+	 * applied.
+	 */
+	public void drain() {
+		try {
+			while (relayBatch() == batchSize) {
+				logger.debug("Outbox batch full, relaying next batch");
+			}
+		} catch (Exception e) {
+			logger.error("Error relaying schedule outbox", e);
+		}
+	}
+
+	int relayBatch() {
+		List<ScheduleOutboxEntry> entries = scheduleOutboxDao.findBatch(batchSize);
+		if (entries.isEmpty()) {
+			return 0;
+		}
+
+		Map<Long, ScheduleOutboxEntry> latestByTask = new LinkedHashMap<>();
+		List<Long> done = new ArrayList<>();
+		for (ScheduleOutboxEntry entry : entries) {
+			ScheduleOutboxEntry superseded = latestByTask.put(entry.getTaskId(), entry);
+			if (superseded != null) {
+				done.add(superseded.getId());
+			}
+		}
+
+		List<Long> failed = new ArrayList<>();
+		for (ScheduleOutboxEntry entry : latestByTask.values()) {
+			if (apply(entry)) {
+				done.add(entry.getId());
+			} else if (entry.getAttempts() + 1 >= maxAttempts) {
+				logger.error("Giving up on schedule change for task {} after {} attempts", entry.getTaskId(),
+						entry.getAttempts() + 1);
+				done.add(entry.getId());
+			} else {
+				failed.add(entry.getId());
+			}
+		}
+
+		scheduleOutboxDao.deleteAll(done);
+		scheduleOutboxDao.incrementAttempts(failed);
+
+		logger.debug("Relayed {} outbox entries for {} tasks ({} failed)", entries.size(), latestByTask.size(),
+				failed.size());
+		return failed.isEmpty() ? entries.size() : 0;
+	}
+
+	private boolean apply(ScheduleOutboxEntry entry) {
+		if (ScheduleOutboxEntry.ACTION_CANCEL.equals(entry.getAction())) {
+			return schedulerService.cancelTask(entry.getTaskId());
+		}
+
+		Task task = new Task();
+		task.setId(entry.getTaskId());
+		task.setDueDate(entry.getDueDate());
+		return schedulerService.scheduleTask(task);
+	}
+}
@@ -1,117 +1,236 @@
-package Project.scheduler;
-
-import Project.dao.TaskDao;
-import Project.executor.ActionExecutor;
-import Project.model.Task;
-import Project.rules.RuleEngine;
-import org.quartz.Job;
-import org.quartz.JobExecutionContext;
-import org.quartz.JobExecutionException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Component;
-import java.util.List;
-
-@Component
-public class TaskExecutionJob implements Job {
-
-	private static final Logger logger = LoggerFactory.getLogger(TaskExecutionJob.class);
-
-	@Autowired
-	private TaskDao taskDao;
-
-	@Autowired
-	private ActionExecutor actionExecutor;
-
-	@Autowired
-	private RuleEngine ruleEngine;
-
-	@Override
-	public void execute(JobExecutionContext context) throws JobExecutionException {
-		try {
-			logger.info("Task execution job started");
-			Long taskId = null;
-			try {
-				Object taskIdObj = context.getJobDetail().getJobDataMap().get("taskId");
-				if (taskIdObj != null) {
-					if (taskIdObj instanceof Long) {
-						taskId = (Long) taskIdObj;
-					} else if (taskIdObj instanceof Integer) {
-						taskId = ((Integer) taskIdObj).longValue();
-					} else if (taskIdObj instanceof String) {
-						taskId = Long.parseLong((String) taskIdObj);
-					}
-				}
-			} catch (Exception e) {
-				logger.debug("No taskId in job data or invalid format: {}", e.getMessage());
-			}
-
-			if (taskId != null && taskId > 0) {
-				executeSpecificTask(taskId);
-			} else {
-				executeAllPendingTasks();
-			}
-
-			logger.info("Task execution job completed");
-
-		} catch (Exception e) {
-			logger.error("Error during task execution job", e);
-		}
-	}
-
-	private void executeSpecificTask(Long taskId) {
-		logger.debug("Executing specific task: {}", taskId);
-
-		try {
-			Task task = taskDao.findById(taskId);
-
-			if (task == null) {
-				logger.warn("Task not found: {}", taskId);
-				return;
-			}
-
-			if (task.isCompleted()) {
-				logger.debug("Task {} is already completed, skipping", taskId);
-				return;
-			}
-
-			if (ruleEngine.shouldExecute(task)) {
-				logger.info("Executing actions for task: {}", taskId);
-				actionExecutor.execute(task);
-			} else {
-				logger.debug("Task {} does not meet execution criteria", taskId);
-			}
-		} catch (Exception e) {
-			logger.error("Error executing specific task {}", taskId, e);
-		}
-	}
-
-	private void executeAllPendingTasks() {
-		logger.debug("Checking all pending tasks");
-
-		try {
-			List<Task> pendingTasks = taskDao.findPendingTasksDueSoon();
-
-			if (pendingTasks == null || pendingTasks.isEmpty()) {
-				logger.debug("No pending tasks due soon");
-				return;
-			}
-
-			logger.info("Found {} pending tasks to process", pendingTasks.size());
-
-			for (Task task : pendingTasks) {
-				try {
-					if (ruleEngine.shouldExecute(task)) {
-						logger.info("Executing actions for task: {}", task.getId());
-						actionExecutor.execute(task);
-					}
-				} catch (Exception e) {
-					logger.error("Error executing task {}", task.getId(), e);
-				}
-			}
-		} catch (Exception e) {
-			logger.error("Error fetching pending tasks", e);
-		}
-	}
+package Project.scheduler;
+
+import Project.dao.ReminderDeliveryDao;
+import Project.dao.TaskDao;
+import Project.executor.EmailNotificationChannel;
+import Project.executor.InAppNotificationChannel;
+import Project.executor.NotificationDispatcher;
+import Project.executor.ReminderDispatchQueue;
+import Project.metrics.SchedulerMetrics;
+import Project.model.ReminderDelivery;
+import Project.model.Task;
+import Project.rules.BatchEvaluation;
+import Project.rules.CompiledRule;
+import Project.rules.RuleEngine;
+import Project.rules.SqlPredicate;
+import Project.service.RecurrenceService;
+import Project.service.SchedulerService;
+import Project.service.UserRuleService;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class TaskExecutionJob implements Job {
+
+	private static final Logger logger = LoggerFactory.getLogger(TaskExecutionJob.class);
+
+	@Autowired
+	private TaskDao taskDao;
+
+	@Autowired
+	private RuleEngine ruleEngine;
+
+	@Autowired
+	private ReminderDeliveryDao reminderDeliveryDao;
+
+	@Autowired
+	private RecurrenceService recurrenceService;
+
+	@Autowired
+	private ReminderDispatchQueue dispatchQueue;
+
+	@Autowired
+	private SchedulerMetrics schedulerMetrics;
+
+	@Autowired
+	private UserRuleService userRuleService;
+
+	@Autowired
+	private NotificationDispatcher notificationDispatcher;
+
+	@Autowired
+	private ReminderRetryWorker reminderRetryWorker;
+
+	@Autowired
+	private Clock clock;
+
+	@Value("${reminder.push.enabled:false}")
+	private boolean pushReminders;
+
+	@Override
+	public void execute(JobExecutionContext context) throws JobExecutionException {
+		try {
+			logger.info("Task execution job started");
+			schedulerMetrics.recordFire(context.getScheduledFireTime(), context.getFireTime());
+			Long taskId = null;
+			try {
+				Object taskIdObj = context.getJobDetail().getJobDataMap().get("taskId");
+				if (taskIdObj != null) {
+					if (taskIdObj instanceof Long) {
+						taskId = (Long) taskIdObj;
+					} else if (taskIdObj instanceof Integer) {
+						taskId = ((Integer) taskIdObj).longValue();
+					} else if (taskIdObj instanceof String) {
+						taskId = Long.parseLong((String) taskIdObj);
+					}
+				}
+			} catch (Exception e) {
+				logger.debug("No taskId in job data or invalid format: {}", e.getMessage());
+			}
+
+			if (taskId != null && taskId > 0) {
+				executeSpecificTask(taskId);
+			} else {
+				executeAllPendingTasks();
+			}
+
+			logger.info("Task execution job completed");
+
+		} catch (Exception e) {
+			logger.error("Error during task execution job", e);
+		}
+	}
+
+	private void executeSpecificTask(Long taskId) {
+		logger.debug("Executing specific task: {}", taskId);
+
+		try {
+			Task task = taskDao.findById(taskId);
+
+			if (task == null) {
+				logger.warn("Task not found: {}", taskId);
+				return;
+			}
+
+			if (task.isCompleted()) {
+				logger.debug("Task {} is already completed, skipping", taskId);
+				return;
+			}
+
+			if (shouldExecute(task)) {
+				ReminderDelivery delivery = newDelivery(task);
+				if (reminderDeliveryDao.claim(List.of(delivery))[0]) {
+					logger.info("Queueing actions for task: {}", taskId);
+					dispatch(task, delivery);
+				} else {
+					logger.debug("Reminder for task {} at {} already claimed, skipping", taskId,
+							delivery.getReminderAt());
+				}
+			} else {
+				logger.debug("Task {} does not meet execution criteria", taskId);
+			}
+		} catch (Exception e) {
+			logger.error("Error executing specific task {}", taskId, e);
+		}
+	}
+
+	private void executeAllPendingTasks() {
+		logger.debug("Checking all pending tasks");
+
+		try {
+			LocalDateTime now = LocalDateTime.now(clock);
+			long evaluationStart = System.nanoTime();
+
+			// Rule predicates are pushed down, so every row returned is actionable.
+			SqlPredicate defaultRule = ruleEngine.defaultReminderPredicate(now);
+			List<Task> candidates = new ArrayList<>(taskDao.findPendingTasksMatching(defaultRule));
+			candidates.addAll(taskDao.findPendingTasksMatchingUserRules(userRuleService.predicatesByUser(now, defaultRule)));
+			int matchedRows = candidates.size();
+
+			// Virtual occurrences are not rows and are evaluated here.
+			LocalDate today = now.toLocalDate();
+			candidates.addAll(recurrenceService.findOpenOccurrencesBetween(today, today.plusDays(1)));
+
+			if (candidates.isEmpty()) {
+				logger.debug("No pending tasks due soon");
+				return;
+			}
+
+			logger.info("Found {} pending tasks to process", candidates.size());
+
+			BatchEvaluation evaluation = ruleEngine.evaluateBatch(candidates, now);
+			List<Task> actionable = new ArrayList<>();
+			List<Integer> urgencyScores = new ArrayList<>();
+			List<ReminderDelivery> deliveries = new ArrayList<>();
+			for (int i = 0; i < candidates.size(); i++) {
+				Task task = candidates.get(i);
+				boolean execute = i < matchedRows;
+				if (!execute) {
+					List<CompiledRule> rules = userRuleService.rulesFor(task.getUserId());
+					execute = rules.isEmpty() ? evaluation.shouldExecute(i) : ruleEngine.matchesAny(rules, task, now);
+				}
+				if (execute) {
+					actionable.add(task);
+					urgencyScores.add(evaluation.urgencyScore(i));
+					deliveries.add(newDelivery(task));
+				}
+			}
+			schedulerMetrics.recordRuleEvaluation(System.nanoTime() - evaluationStart);
+
+			boolean[] claimed = reminderDeliveryDao.claim(deliveries);
+
+			for (int i = 0; i < actionable.size(); i++) {
+				Task task = actionable.get(i);
+				if (!claimed[i]) {
+					logger.debug("Reminder for task {} already claimed, skipping", task.getId());
+					continue;
+				}
+				try {
+					logger.info("Queueing actions for task: {}", task.getId());
+					dispatch(task, urgencyScores.get(i), deliveries.get(i));
+				} catch (Exception e) {
+					logger.error("Error queueing task {}", task.getId(), e);
+				}
+			}
+		} catch (Exception e) {
+			logger.error("Error fetching pending tasks", e);
+		}
+	}
+
+	private boolean shouldExecute(Task task) {
+		long start = System.nanoTime();
+		try {
+			List<CompiledRule> rules = userRuleService.rulesFor(task.getUserId());
+			return rules.isEmpty() ? ruleEngine.shouldExecute(task) : ruleEngine.matchesAny(rules, task);
+		} finally {
+			schedulerMetrics.recordRuleEvaluation(System.nanoTime() - start);
+		}
+	}
+
+	private ReminderDelivery newDelivery(Task task) {
+		// Occurrences of a series, virtual or materialized, share the series id as ledger key.
+		Long ledgerTaskId = task.getSeriesId() != null ? task.getSeriesId() : task.getId();
+		return new ReminderDelivery(ledgerTaskId, SchedulerService.reminderTimeFor(task), ReminderDelivery.CHANNEL_EMAIL);
+	}
+
+	private void dispatch(Task task, ReminderDelivery delivery) {
+		dispatch(task, ruleEngine.calculateUrgencyScore(task), delivery);
+	}
+
+	private void dispatch(Task task, int urgencyScore, ReminderDelivery delivery) {
+		dispatchQueue.submit(task, urgencyScore, () -> {
+			// Best effort and not in the ledger: the push only reaches browsers open right now.
+			if (pushReminders) {
+				notificationDispatcher.dispatch(task, InAppNotificationChannel.NAME);
+			}
+			notificationDispatcher.dispatch(task, urgencyScore, EmailNotificationChannel.NAME).thenAccept(sent -> {
+				if (sent) {
+					reminderDeliveryDao.updateStatus(delivery, ReminderDelivery.STATUS_SENT);
+				} else {
+					reminderRetryWorker.deliveryFailed(task, delivery);
+				}
+			});
+		}, () -> reminderRetryWorker.deliveryFailed(task, delivery));
+	}
 }
\ No newline at end of file
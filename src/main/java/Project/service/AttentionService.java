@@ -0,0 +1,70 @@
+package Project.service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import Project.dao.TaskDao;
+import Project.model.Task;
+import Project.model.TaskChangeEvent;
+import Project.rules.RuleStateNetwork;
+
+/**
+ * Answers "needs immediate attention" from a {@link RuleStateNetwork} kept up
+ * to date by task change events instead of re-evaluating every task per query.
+ * The network is loaded from the database on first use; events seen before
+ * that are already reflected in what it loads.
+ */
+@Service
+public class AttentionService {
+
+	private static final Logger logger = LoggerFactory.getLogger(AttentionService.class);
+
+	@Autowired
+	private TaskDao taskDao;
+
+	@Autowired
+	private Clock clock;
+
+	private final RuleStateNetwork network = new RuleStateNetwork();
+	private boolean loaded;
+
+	public List<Task> getTasksNeedingAttention(Long userId) {
+		ensureLoaded();
+		return network.needingAttention(userId, LocalDateTime.now(clock));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTaskChange(TaskChangeEvent event) {
+		synchronized (this) {
+			if (!loaded) {
+				return;
+			}
+		}
+
+		if (event.getType() == TaskChangeEvent.Type.DELETED) {
+			network.remove(event.getTaskId());
+		} else {
+			network.upsert(event.getTask(), LocalDateTime.now(clock));
+		}
+		logger.debug("Applied {} to attention network", event);
+	}
+
+	private synchronized void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+
+		long start = System.nanoTime();
+		network.load(taskDao.findPendingTasksWithDueDate(), LocalDateTime.now(clock));
+		loaded = true;
+		logger.info("Attention network loaded with {} tasks in {} ms", network.size(),
+				(System.nanoTime() - start) / 1_000_000);
+	}
+}
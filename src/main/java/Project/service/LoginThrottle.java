@@ -0,0 +1,83 @@
+package Project.service;
+
+import Project.executor.StripedRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits login attempts per client address and per username with one token
+ * bucket each, so a single client or a guessing run against one account
+ * cannot fill the password hashing queue for everyone else. At most
+ * {@code auth.throttle.max-keys} buckets of each kind are kept; when the
+ * table is full the least recently used bucket is dropped, so every attempt
+ * is still checked against a bucket and a key being hammered stays tracked.
+ */
+@Service
+public class LoginThrottle {
+
+	private static final Logger logger = LoggerFactory.getLogger(LoginThrottle.class);
+
+	private static final int STRIPES = 16;
+
+	@Value("${auth.throttle.address-per-minute:30}")
+	private int addressPerMinute;
+
+	@Value("${auth.throttle.address-burst:10}")
+	private int addressBurst;
+
+	@Value("${auth.throttle.username-per-minute:10}")
+	private int usernamePerMinute;
+
+	@Value("${auth.throttle.username-burst:5}")
+	private int usernameBurst;
+
+	@Value("${auth.throttle.max-keys:10000}")
+	private int maxKeys;
+
+	private StripedRateLimiter addresses;
+	private StripedRateLimiter usernames;
+	private final LongAdder throttled = new LongAdder();
+
+	@PostConstruct
+	public void init() {
+		addresses = new StripedRateLimiter(STRIPES, maxKeys, System::nanoTime);
+		usernames = new StripedRateLimiter(STRIPES, maxKeys, System::nanoTime);
+	}
+
+	public boolean tryAcquire(String address, String username) {
+		if (address != null && !acquire(addresses, address, addressPerMinute, addressBurst)) {
+			throttled.increment();
+			logger.warn("Login attempts from {} throttled", address);
+			return false;
+		}
+		if (username != null && !acquire(usernames, username, usernamePerMinute, usernameBurst)) {
+			throttled.increment();
+			logger.warn("Login attempts for user {} throttled", username);
+			return false;
+		}
+		return true;
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("addresses", addresses.size());
+		stats.put("usernames", usernames.size());
+		stats.put("throttled", throttled.sum());
+		stats.put("evicted", (Long) addresses.stats().get("evicted") + (Long) usernames.stats().get("evicted"));
+		return stats;
+	}
+
+	private static boolean acquire(StripedRateLimiter limiter, String key, int perMinute, int burst) {
+		if (perMinute <= 0) {
+			return true;
+		}
+		return limiter.tryAcquire(key, perMinute / 60.0, burst) == 0;
+	}
+}
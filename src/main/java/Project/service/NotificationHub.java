@@ -0,0 +1,347 @@
+package Project.service;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import Project.metrics.LatencyHistogram;
+
+/**
+ * In-process fan-out of notifications to connected clients. A publish only
+ * appends to each of the user's subscribers' buffers, so publishers never wait
+ * on a client connection. A small shared pool drains each buffer in order, one
+ * drain at a time per subscriber. A slow client loses its oldest undelivered
+ * notifications once its buffer is full. A client whose connection fails is
+ * dropped.
+ *
+ * A client whose last few writes each took longer than
+ * {@code notifications.slow-send-ms} is drained on a separate slow-lane pool
+ * until a write is fast again. Blocked writes to congested clients therefore
+ * cannot hold up the threads serving everyone else, while a single stall (a GC
+ * pause, a descheduled thread) does not demote a healthy client.
+ *
+ * Heartbeats keep idle connections open through proxies and detect clients that
+ * went away without closing.
+ */
+@Service
+public class NotificationHub {
+
+	private static final Logger logger = LoggerFactory.getLogger(NotificationHub.class);
+
+	private static final Object HEARTBEAT = new Object();
+
+	// Consecutive slow writes before a subscriber moves to the slow lane.
+	private static final int SLOW_WRITES = 3;
+
+	/** The client end of a subscription, e.g. an SSE stream. */
+	public interface Sink {
+
+		void send(Map<String, Object> notification) throws Exception;
+
+		void heartbeat() throws Exception;
+
+		/** Called when the hub drops the subscriber; not called after {@link Subscription#cancel()}. */
+		void close();
+	}
+
+	@Value("${notifications.max-subscribers:10000}")
+	private int maxSubscribers;
+
+	@Value("${notifications.subscriber-buffer:32}")
+	private int bufferSize;
+
+	@Value("${notifications.fanout-threads:4}")
+	private int fanoutThreads;
+
+	@Value("${notifications.slow-lane-threads:2}")
+	private int slowLaneThreads;
+
+	@Value("${notifications.slow-send-ms:10}")
+	private long slowSendMs;
+
+	@Value("${notifications.heartbeat-ms:25000}")
+	private long heartbeatMs;
+
+	private final Map<Long, Set<Subscriber>> subscribersByUser = new ConcurrentHashMap<>();
+	private final AtomicInteger subscriberCount = new AtomicInteger();
+
+	private final LatencyHistogram fanoutLatency = new LatencyHistogram();
+	private final LongAdder published = new LongAdder();
+	private final LongAdder delivered = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder disconnected = new LongAdder();
+	private final LongAdder movedToSlowLane = new LongAdder();
+
+	private ExecutorService fanout;
+	private ExecutorService slowLane;
+	private long slowSendNanos;
+	private ScheduledExecutorService heartbeats;
+
+	@PostConstruct
+	public void start() {
+		fanout = newPool("notification-fanout-", fanoutThreads);
+		slowLane = newPool("notification-slow-", slowLaneThreads);
+		slowSendNanos = TimeUnit.MILLISECONDS.toNanos(slowSendMs);
+
+		if (heartbeatMs > 0) {
+			heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "notification-heartbeat");
+				thread.setDaemon(true);
+				return thread;
+			});
+			heartbeats.scheduleAtFixedRate(this::sendHeartbeats, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (heartbeats != null) {
+			heartbeats.shutdownNow();
+		}
+		for (Set<Subscriber> subscribers : subscribersByUser.values()) {
+			for (Subscriber subscriber : subscribers) {
+				subscriber.closed = true;
+				subscriber.sink.close();
+			}
+		}
+		subscribersByUser.clear();
+		subscriberCount.set(0);
+		fanout.shutdownNow();
+		slowLane.shutdownNow();
+	}
+
+	public Subscription subscribe(Long userId, Sink sink) {
+		if (subscriberCount.incrementAndGet() > maxSubscribers) {
+			subscriberCount.decrementAndGet();
+			throw new RuntimeException("Too many notification subscribers");
+		}
+
+		Subscriber subscriber = new Subscriber(userId, sink);
+		// Add inside the map operation: remove() unmaps a user's set once it is empty,
+		// and a subscriber added to a set after that would never be published to.
+		subscribersByUser.compute(userId, (id, subscribers) -> {
+			Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.<Subscriber>newKeySet();
+			set.add(subscriber);
+			return set;
+		});
+		logger.debug("User {} subscribed to notifications ({} open)", userId, subscriberCount.get());
+		return new Subscription(subscriber);
+	}
+
+	/**
+	 * Queues the notification to every open subscription of the user and
+	 * returns how many that was.
+	 */
+	public int publish(Long userId, Map<String, Object> notification) {
+		published.increment();
+		Set<Subscriber> subscribers = subscribersByUser.get(userId);
+		if (subscribers == null) {
+			return 0;
+		}
+
+		Event event = new Event(notification);
+		int queued = 0;
+		for (Subscriber subscriber : subscribers) {
+			if (subscriber.offer(event)) {
+				queued++;
+			}
+		}
+		return queued;
+	}
+
+	public int getSubscriberCount() {
+		return subscriberCount.get();
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("subscribers", subscriberCount.get());
+		stats.put("users", subscribersByUser.size());
+		stats.put("published", published.sum());
+		stats.put("delivered", delivered.sum());
+		stats.put("dropped", dropped.sum());
+		stats.put("disconnected", disconnected.sum());
+		stats.put("movedToSlowLane", movedToSlowLane.sum());
+		stats.put("fanoutLatency", fanoutLatency.snapshot());
+		return stats;
+	}
+
+	private static ExecutorService newPool(String namePrefix, int threads) {
+		AtomicInteger threadIndex = new AtomicInteger();
+		return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+			Thread thread = new Thread(runnable, namePrefix + threadIndex.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	private void sendHeartbeats() {
+		try {
+			for (Set<Subscriber> subscribers : subscribersByUser.values()) {
+				for (Subscriber subscriber : subscribers) {
+					subscriber.offerHeartbeat();
+				}
+			}
+		} catch (Exception e) {
+			logger.error("Error sending notification heartbeats", e);
+		}
+	}
+
+	private boolean remove(Subscriber subscriber) {
+		subscriber.closed = true;
+		boolean[] removed = new boolean[1];
+		subscribersByUser.computeIfPresent(subscriber.userId, (id, subscribers) -> {
+			removed[0] = subscribers.remove(subscriber);
+			return subscribers.isEmpty() ? null : subscribers;
+		});
+		if (removed[0]) {
+			subscriberCount.decrementAndGet();
+		}
+		return removed[0];
+	}
+
+	public final class Subscription {
+
+		private final Subscriber subscriber;
+
+		private Subscription(Subscriber subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		/** Ends the subscription from the client side, e.g. when the connection completes. */
+		public void cancel() {
+			if (remove(subscriber)) {
+				logger.debug("User {} unsubscribed from notifications", subscriber.userId);
+			}
+		}
+	}
+
+	private static final class Event {
+		private final Map<String, Object> notification;
+		private final long publishedNanos = System.nanoTime();
+
+		private Event(Map<String, Object> notification) {
+			this.notification = notification;
+		}
+	}
+
+	private final class Subscriber implements Runnable {
+		private final Long userId;
+		private final Sink sink;
+		private final ArrayDeque<Object> buffer = new ArrayDeque<>();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		private volatile boolean closed;
+		private volatile boolean slow;
+		private boolean onSlowLane;
+		private int slowWrites;
+
+		private Subscriber(Long userId, Sink sink) {
+			this.userId = userId;
+			this.sink = sink;
+		}
+
+		private boolean offer(Event event) {
+			if (closed) {
+				return false;
+			}
+			synchronized (buffer) {
+				if (buffer.size() >= Math.max(1, bufferSize)) {
+					buffer.pollFirst();
+					dropped.increment();
+				}
+				buffer.addLast(event);
+			}
+			schedule();
+			return true;
+		}
+
+		private void offerHeartbeat() {
+			synchronized (buffer) {
+				if (closed || !buffer.isEmpty()) {
+					return;
+				}
+				buffer.addLast(HEARTBEAT);
+			}
+			schedule();
+		}
+
+		private void schedule() {
+			if (scheduled.compareAndSet(false, true)) {
+				try {
+					onSlowLane = slow;
+					(onSlowLane ? slowLane : fanout).execute(this);
+				} catch (RejectedExecutionException e) {
+					scheduled.set(false);
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				// Stop once the lane no longer fits; the re-check below reschedules on the right one.
+				while (!closed && slow == onSlowLane) {
+					Object next;
+					synchronized (buffer) {
+						next = buffer.pollFirst();
+					}
+					if (next == null) {
+						break;
+					}
+
+					long start = System.nanoTime();
+					if (next == HEARTBEAT) {
+						sink.heartbeat();
+					} else {
+						Event event = (Event) next;
+						sink.send(event.notification);
+						delivered.increment();
+						fanoutLatency.record(System.nanoTime() - event.publishedNanos);
+					}
+
+					slowWrites = System.nanoTime() - start > slowSendNanos ? slowWrites + 1 : 0;
+					boolean wasSlow = slow;
+					slow = slowWrites >= SLOW_WRITES;
+					if (slow && !wasSlow) {
+						movedToSlowLane.increment();
+					}
+				}
+			} catch (Exception e) {
+				if (remove(this)) {
+					disconnected.increment();
+					logger.debug("Dropping notification subscriber of user {}: {}", userId, e.getMessage());
+					sink.close();
+				}
+			} finally {
+				scheduled.set(false);
+			}
+
+			// Something may have been offered after the last poll but before the flag was cleared.
+			boolean pending;
+			synchronized (buffer) {
+				pending = !buffer.isEmpty();
+			}
+			if (pending && !closed) {
+				schedule();
+			}
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package Project.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import Project.dao.TaskDao;
+import Project.model.Task;
+import Project.rules.RecurrenceRule;
+
+/**
+ * Expands recurring series into occurrences on demand. A series is stored as a
+ * single row whose due date is the first occurrence; an occurrence only gets a
+ * row of its own once it is completed or edited.
+ */
+@Service
+public class RecurrenceService {
+
+	private static final Logger logger = LoggerFactory.getLogger(RecurrenceService.class);
+
+	@Autowired
+	private TaskDao taskDao;
+
+	public RecurrenceRule parseRule(String recurrenceRule) {
+		try {
+			return RecurrenceRule.parse(recurrenceRule);
+		} catch (IllegalArgumentException e) {
+			throw new RuntimeException("Invalid recurrence rule: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Expands each series into its occurrences inside the inclusive window.
+	 * Materialized occurrences from {@code overrides} replace the virtual ones for
+	 * the same date.
+	 */
+	public List<Task> expand(List<Task> series, List<Task> overrides, LocalDate from, LocalDate to) {
+		Map<Long, Map<LocalDate, Task>> overridesBySeries = new HashMap<>();
+		for (Task override : overrides) {
+			overridesBySeries.computeIfAbsent(override.getSeriesId(), id -> new HashMap<>())
+					.put(override.getOccurrenceDate(), override);
+		}
+
+		List<Task> occurrences = new ArrayList<>();
+		for (Task seriesTask : series) {
+			RecurrenceRule rule;
+			try {
+				rule = RecurrenceRule.parse(seriesTask.getRecurrenceRule());
+			} catch (IllegalArgumentException e) {
+				logger.warn("Skipping series {} with invalid recurrence rule: {}", seriesTask.getId(), e.getMessage());
+				continue;
+			}
+
+			Map<LocalDate, Task> materialized = overridesBySeries.getOrDefault(seriesTask.getId(), Map.of());
+			for (LocalDate date : rule.occurrencesBetween(seriesTask.getDueDate(), from, to)) {
+				Task override = materialized.get(date);
+				occurrences.add(override != null ? override : occurrenceOf(seriesTask, date));
+			}
+		}
+		return occurrences;
+	}
+
+	/**
+	 * Occurrences of all active series in the window that have not been
+	 * materialized. Materialized occurrences are ordinary rows and are picked up
+	 * by the regular task queries.
+	 */
+	public List<Task> findOpenOccurrencesBetween(LocalDate from, LocalDate to) {
+		return openOccurrencesOf(taskDao.findActiveSeries(), from, to);
+	}
+
+	public List<Task> findOpenOccurrencesBetween(Long userId, LocalDate from, LocalDate to) {
+		return openOccurrencesOf(taskDao.findActiveSeriesByUserId(userId), from, to);
+	}
+
+	private List<Task> openOccurrencesOf(List<Task> series, LocalDate from, LocalDate to) {
+		if (series.isEmpty()) {
+			return List.of();
+		}
+
+		List<Task> occurrences = expand(series, taskDao.findOccurrencesBetween(from, to), from, to);
+		occurrences.removeIf(occurrence -> occurrence.getId() != null && !occurrence.getId().equals(occurrence.getSeriesId()));
+		return occurrences;
+	}
+
+	/**
+	 * Virtual occurrence of a series. It carries the series id as both id and
+	 * series id so clients can address it as /tasks/{seriesId}/occurrences/{date}.
+	 */
+	public Task occurrenceOf(Task series, LocalDate date) {
+		Task occurrence = new Task(series.getId(), series.getTitle(), series.getDescription(), date, false,
+				series.getPriority(), "PENDING", series.getUserId(), null);
+		occurrence.setRecurrenceRule(series.getRecurrenceRule());
+		occurrence.setSeriesId(series.getId());
+		occurrence.setOccurrenceDate(date);
+		return occurrence;
+	}
+}
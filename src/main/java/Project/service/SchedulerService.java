@@ -1,127 +1,164 @@
-package Project.service;
-
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Date;
-
-import org.quartz.JobBuilder;
-import org.quartz.JobDetail;
-import org.quartz.JobKey;
-import org.quartz.Scheduler;
-import org.quartz.SchedulerException;
-import org.quartz.Trigger;
-import org.quartz.TriggerBuilder;
-import org.quartz.TriggerKey;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
-
-import Project.model.Task;
-import Project.scheduler.TaskExecutionJob;
-
-@Service
-public class SchedulerService {
-
-    private static final Logger logger = LoggerFactory.getLogger(SchedulerService.class);
-
-    @Autowired
-    private Scheduler scheduler;
-
-    public void scheduleTask(Task task) {
-        if (task == null || task.getId() == null || task.getDueDate() == null) {
-            logger.warn("Invalid task provided for scheduling: {}", task);
-            return;
-        }
-
-        LocalDateTime dueDate = task.getDueDate().atStartOfDay();
-
-        if (dueDate.isBefore(LocalDateTime.now())) {
-            logger.warn("Task {} has a due date in the past: {}. Skipping scheduling.", task.getId(), dueDate);
-            return;
-        }
-
-        try {
-            JobKey jobKey = new JobKey("task-" + task.getId());
-
-            if (scheduler.checkExists(jobKey)) {
-                scheduler.deleteJob(jobKey);
-                logger.info("Rescheduling existing task: {}", task.getId());
-            }
-
-            JobDetail job = JobBuilder.newJob(TaskExecutionJob.class).withIdentity(jobKey)
-                    .usingJobData("taskId", task.getId()).build();
-
-            LocalDateTime reminderTime = dueDate.minusHours(1);
-            if (reminderTime.isBefore(LocalDateTime.now())) {
-                reminderTime = LocalDateTime.now().plusMinutes(1);
-            }
-
-            Trigger trigger = TriggerBuilder.newTrigger().forJob(job).withIdentity("trigger-" + task.getId())
-                    .startAt(Date.from(reminderTime.atZone(ZoneId.systemDefault()).toInstant())).build();
-
-            scheduler.scheduleJob(job, trigger);
-            logger.info("Successfully scheduled task: {} for {}", task.getId(), reminderTime);
-
-        } catch (SchedulerException e) {
-            logger.error("Failed to schedule task with ID: {}", task.getId(), e);
-        }
-    }
-
-    public void cancelTask(Long taskId) {
-        if (taskId == null) {
-            logger.warn("Invalid task ID provided for cancellation");
-            return;
-        }
-
-        try {
-            JobKey jobKey = new JobKey("task-" + taskId);
-
-            if (scheduler.checkExists(jobKey)) {
-                scheduler.deleteJob(jobKey);
-                logger.info("Successfully cancelled scheduled task: {}", taskId);
-            } else {
-                logger.debug("Task {} was not scheduled, nothing to cancel", taskId);
-            }
-
-        } catch (SchedulerException e) {
-            logger.error("Failed to cancel task with ID: {}", taskId, e);
-        }
-    }
-
-    public void rescheduleTask(Task task) {
-        cancelTask(task.getId());
-        scheduleTask(task);
-    }
-
-    public boolean isTaskScheduled(Long taskId) {
-        try {
-            JobKey jobKey = new JobKey("task-" + taskId);
-            return scheduler.checkExists(jobKey);
-        } catch (SchedulerException e) {
-            logger.error("Error checking if task {} is scheduled", taskId, e);
-            return false;
-        }
-    }
-
-    public LocalDateTime getNextExecutionTime(Long taskId) {
-        try {
-            JobKey jobKey = new JobKey("task-" + taskId);
-            TriggerKey triggerKey = new TriggerKey("trigger-" + taskId);
-
-            if (scheduler.checkExists(jobKey)) {
-                Trigger trigger = scheduler.getTrigger(triggerKey);
-                if (trigger != null) {
-                    Date nextFireTime = trigger.getNextFireTime();
-                    if (nextFireTime != null) {
-                        return LocalDateTime.ofInstant(nextFireTime.toInstant(), ZoneId.systemDefault());
-                    }
-                }
-            }
-        } catch (SchedulerException e) {
-            logger.error("Error getting next execution time for task {}", taskId, e);
-        }
-
-        return null;
-    }
-}
+package Project.service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import Project.metrics.SchedulerMetrics;
+import Project.model.Task;
+import Project.scheduler.TaskExecutionJob;
+
+@Service
+public class SchedulerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerService.class);
+
+    private static final long REMINDER_LEAD_HOURS = 1;
+
+    @Autowired
+    private Scheduler scheduler;
+
+    @Autowired
+    private SchedulerMetrics schedulerMetrics;
+
+    @Autowired
+    private Clock clock;
+
+    /**
+     * Creates or replaces the reminder job for a task. Returns {@code false} only
+     * when Quartz rejected the change, so callers can retry it later.
+     */
+    public boolean scheduleTask(Task task) {
+        if (task == null || task.getId() == null || task.getDueDate() == null) {
+            logger.warn("Invalid task provided for scheduling: {}", task);
+            return true;
+        }
+
+        LocalDateTime dueDate = task.getDueDate().atStartOfDay();
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (dueDate.isBefore(now)) {
+            logger.warn("Task {} has a due date in the past: {}. Skipping scheduling.", task.getId(), dueDate);
+            return true;
+        }
+
+        try {
+            JobKey jobKey = new JobKey("task-" + task.getId());
+
+            JobDetail existing = scheduler.getJobDetail(jobKey);
+            if (existing != null) {
+                if (task.getDueDate().toString().equals(existing.getJobDataMap().getString("dueDate"))) {
+                    logger.debug("Task {} already scheduled for due date {}, nothing to change", task.getId(),
+                            task.getDueDate());
+                    return true;
+                }
+                scheduler.deleteJob(jobKey);
+                logger.info("Rescheduling existing task: {}", task.getId());
+            }
+
+            JobDetail job = JobBuilder.newJob(TaskExecutionJob.class).withIdentity(jobKey)
+                    .usingJobData("taskId", task.getId()).usingJobData("dueDate", task.getDueDate().toString())
+                    .build();
+
+            LocalDateTime reminderTime = reminderTimeFor(task);
+            if (reminderTime.isBefore(now)) {
+                reminderTime = now.plusMinutes(1);
+            }
+
+            Trigger trigger = TriggerBuilder.newTrigger().forJob(job).withIdentity("trigger-" + task.getId())
+                    .startAt(Date.from(reminderTime.atZone(clock.getZone()).toInstant())).build();
+
+            scheduler.scheduleJob(job, trigger);
+            schedulerMetrics.recordScheduleChange(true);
+            logger.info("Successfully scheduled task: {} for {}", task.getId(), reminderTime);
+            return true;
+
+        } catch (SchedulerException e) {
+            schedulerMetrics.recordScheduleChange(false);
+            logger.error("Failed to schedule task with ID: {}", task.getId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Nominal reminder instant for a task, used both for the Quartz trigger and as
+     * the reminder key in the delivery ledger.
+     */
+    public static LocalDateTime reminderTimeFor(Task task) {
+        return task.getDueDate().atStartOfDay().minusHours(REMINDER_LEAD_HOURS);
+    }
+
+    public boolean cancelTask(Long taskId) {
+        if (taskId == null) {
+            logger.warn("Invalid task ID provided for cancellation");
+            return true;
+        }
+
+        try {
+            JobKey jobKey = new JobKey("task-" + taskId);
+
+            if (scheduler.checkExists(jobKey)) {
+                scheduler.deleteJob(jobKey);
+                schedulerMetrics.recordScheduleChange(true);
+                logger.info("Successfully cancelled scheduled task: {}", taskId);
+            } else {
+                logger.debug("Task {} was not scheduled, nothing to cancel", taskId);
+            }
+            return true;
+
+        } catch (SchedulerException e) {
+            schedulerMetrics.recordScheduleChange(false);
+            logger.error("Failed to cancel task with ID: {}", taskId, e);
+            return false;
+        }
+    }
+
+    public void rescheduleTask(Task task) {
+        cancelTask(task.getId());
+        scheduleTask(task);
+    }
+
+    public boolean isTaskScheduled(Long taskId) {
+        try {
+            JobKey jobKey = new JobKey("task-" + taskId);
+            return scheduler.checkExists(jobKey);
+        } catch (SchedulerException e) {
+            logger.error("Error checking if task {} is scheduled", taskId, e);
+            return false;
+        }
+    }
+
+    public LocalDateTime getNextExecutionTime(Long taskId) {
+        try {
+            JobKey jobKey = new JobKey("task-" + taskId);
+            TriggerKey triggerKey = new TriggerKey("trigger-" + taskId);
+
+            if (scheduler.checkExists(jobKey)) {
+                Trigger trigger = scheduler.getTrigger(triggerKey);
+                if (trigger != null) {
+                    Date nextFireTime = trigger.getNextFireTime();
+                    if (nextFireTime != null) {
+                        return LocalDateTime.ofInstant(nextFireTime.toInstant(), clock.getZone());
+                    }
+                }
+            }
+        } catch (SchedulerException e) {
+            logger.error("Error getting next execution time for task {}", taskId, e);
+        }
+
+        return null;
+    }
+}
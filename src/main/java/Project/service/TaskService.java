@@ -1,240 +1,502 @@
-package Project.service;
-
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.List;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import Project.dao.TaskDao;
-import Project.dao.UserDao;
-import Project.model.Task;
-import Project.model.User;
-
-@Service
-@Transactional
-public class TaskService {
-
-	private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
-
-	@Autowired
-	private TaskDao taskDao;
-
-	@Autowired
-	private UserDao userDao;
-
-	@Autowired
-	private SchedulerService schedulerService;
-
-	@Transactional(readOnly = true)
-	public List<Task> getTasksByUsername(String username) {
-		logger.debug("Fetching tasks for user: {}", username);
-
-		User user = userDao.findByUsername(username);
-		if (user == null) {
-			throw new RuntimeException("User not found: " + username);
-		}
-
-		return taskDao.findByUserId(user.getId());
-	}
-
-	@Transactional(readOnly = true)
-	public List<Task> getAllTasks() {
-		logger.debug("Fetching all tasks");
-		return taskDao.findAll();
-	}
-
-	@Transactional(readOnly = true)
-	public Task getTaskById(Long id, String username) {
-		logger.debug("Fetching task {} for user: {}", id, username);
-
-		User user = userDao.findByUsername(username);
-		if (user == null) {
-			throw new RuntimeException("User not found: " + username);
-		}
-
-		Task task = taskDao.findById(id);
-		if (task == null) {
-			throw new RuntimeException("Task not found: " + id);
-		}
-
-		if (!task.getUserId().equals(user.getId())) {
-			throw new RuntimeException("Unauthorized: Task does not belong to user");
-		}
-
-		return task;
-	}
-
-	public Task createTask(Task task, String username) {
-		logger.debug("Creating task for user: {}", username);
-
-		User user = userDao.findByUsername(username);
-		if (user == null) {
-			throw new RuntimeException("User not found: " + username);
-		}
-
-		validateTask(task);
-
-		task.setUserId(user.getId());
-
-		if (task.getPriority() == null || task.getPriority().isEmpty()) {
-			task.setPriority("MEDIUM");
-		}
-
-		if (task.getStatus() == null || task.getStatus().isEmpty()) {
-			task.setStatus("PENDING");
-		}
-
-		Task savedTask = taskDao.save(task);
-
-		if (savedTask.getDueDate() != null) {
-			schedulerService.scheduleTask(savedTask);
-		}
-
-		logger.info("Task created successfully: {}", savedTask.getId());
-		return savedTask;
-	}
-
-	public Task updateTask(Long id, Task task, String username) {
-		logger.debug("Updating task {} for user: {}", id, username);
-
-		User user = userDao.findByUsername(username);
-		if (user == null) {
-			throw new RuntimeException("User not found: " + username);
-		}
-
-		Task existingTask = taskDao.findById(id);
-		if (existingTask == null) {
-			throw new RuntimeException("Task not found: " + id);
-		}
-
-		if (!existingTask.getUserId().equals(user.getId())) {
-			throw new RuntimeException("Unauthorized: Task does not belong to user");
-		}
-
-		validateTask(task);
-
-		task.setId(id);
-		task.setUserId(user.getId());
-
-		if (task.isCompleted() && !existingTask.isCompleted()) {
-			task.setCompletedAt(LocalDateTime.now());
-			task.setStatus("COMPLETED");
-		}
-
-		taskDao.update(task);
-
-		if (task.getDueDate() != null && !task.isCompleted()) {
-			schedulerService.scheduleTask(task);
-		} else if (task.isCompleted()) {
-			schedulerService.cancelTask(id);
-		}
-
-		logger.info("Task updated successfully: {}", id);
-		return task;
-	}
-
-	public void deleteTask(Long id, String username) {
-		logger.debug("Deleting task {} for user: {}", id, username);
-
-		User user = userDao.findByUsername(username);
-		if (user == null) {
-			throw new RuntimeException("User not found: " + username);
-		}
-
-		Task existingTask = taskDao.findById(id);
-		if (existingTask == null) {
-			throw new RuntimeException("Task not found: " + id);
-		}
-
-		if (!existingTask.getUserId().equals(user.getId())) {
-			throw new RuntimeException("Unauthorized: Task does not belong to user");
-		}
-
-		schedulerService.cancelTask(id);
-
-		taskDao.delete(id);
-
-		logger.info("Task deleted successfully: {}", id);
-	}
-
-	public Task completeTask(Long id, String username) {
-		logger.debug("Marking task {} as complete for user: {}", id, username);
-
-		Task task = getTaskById(id, username);
-
-		task.setCompleted(true);
-		task.setCompletedAt(LocalDateTime.now());
-		task.setStatus("COMPLETED");
-
-		taskDao.update(task);
-
-		schedulerService.cancelTask(id);
-
-		logger.info("Task marked as complete: {}", id);
-		return task;
-	}
-
-	@Transactional(readOnly = true)
-	public List<Task> getCompletedTasks(String username) {
-		logger.debug("Fetching completed tasks for user: {}", username);
-
-		User user = userDao.findByUsername(username);
-		if (user == null) {
-			throw new RuntimeException("User not found: " + username);
-		}
-
-		return taskDao.findByUserIdAndCompleted(user.getId(), true);
-	}
-
-	@Transactional(readOnly = true)
-	public List<Task> getPendingTasks(String username) {
-		logger.debug("Fetching pending tasks for user: {}", username);
-
-		User user = userDao.findByUsername(username);
-		if (user == null) {
-			throw new RuntimeException("User not found: " + username);
-		}
-
-		return taskDao.findByUserIdAndCompleted(user.getId(), false);
-	}
-
-	@Transactional(readOnly = true)
-	public List<Task> getOverdueTasks(String username) {
-		logger.debug("Fetching overdue tasks for user: {}", username);
-
-		User user = userDao.findByUsername(username);
-		if (user == null) {
-			throw new RuntimeException("User not found: " + username);
-		}
-
-		List<Task> allOverdue = taskDao.findOverdueTasks();
-		return allOverdue.stream().filter(task -> task.getUserId().equals(user.getId())).toList();
-	}
-
-	private void validateTask(Task task) {
-		if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
-			throw new RuntimeException("Task title cannot be empty");
-		}
-
-		if (task.getTitle().length() > 500) {
-			throw new RuntimeException("Task title is too long (max 500 characters)");
-		}
-
-		if (task.getDueDate() != null && task.getDueDate().isBefore(LocalDate.now())) {
-			throw new RuntimeException("Due date cannot be in the past");
-		}
-
-		if (task.getPriority() != null && !task.getPriority().matches("HIGH|MEDIUM|LOW")) {
-			throw new RuntimeException("Invalid priority. Must be HIGH, MEDIUM, or LOW");
-		}
-
-		if (task.getStatus() != null && !task.getStatus().matches("PENDING|IN_PROGRESS|COMPLETED|CANCELLED")) {
-			throw new RuntimeException("Invalid status");
-		}
-	}
-}
+package Project.service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import Project.dao.ReminderDeliveryDao;
+import Project.dao.ScheduleOutboxDao;
+import Project.dao.TaskDao;
+import Project.dao.UserDao;
+import Project.model.ReminderDelivery;
+import Project.model.ScheduleOutboxEntry;
+import Project.model.Task;
+import Project.model.TaskChangeEvent;
+import Project.model.User;
+import Project.rules.RuleEngine;
+import Project.rules.TopKUrgencySelector;
+
+@Service
+@Transactional
+public class TaskService {
+
+	private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
+
+	// Due dates further out than this no longer add to the urgency score.
+	private static final int URGENCY_HORIZON_DAYS = 4;
+
+	@Autowired
+	private TaskDao taskDao;
+
+	@Autowired
+	private UserDao userDao;
+
+	@Autowired
+	private ScheduleOutboxDao scheduleOutboxDao;
+
+	@Autowired
+	private ReminderDeliveryDao reminderDeliveryDao;
+
+	@Autowired
+	private RecurrenceService recurrenceService;
+
+	@Autowired
+	private RuleEngine ruleEngine;
+
+	@Autowired
+	private AttentionService attentionService;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private Clock clock;
+
+	@Value("${recurrence.default-window-days:30}")
+	private int defaultWindowDays;
+
+	@Value("${tasks.urgent.max-k:100}")
+	private int maxUrgentK;
+
+	@Transactional(readOnly = true)
+	public List<Task> getTasksByUsername(String username) {
+		return getTasksByUsername(username, null, null);
+	}
+
+	/**
+	 * Lists a user's tasks with recurring series expanded into their occurrences
+	 * inside [from, to]. Without a window, occurrences from today up to
+	 * recurrence.default-window-days ahead are listed.
+	 */
+	@Transactional(readOnly = true)
+	public List<Task> getTasksByUsername(String username, LocalDate from, LocalDate to) {
+		logger.debug("Fetching tasks for user: {}", username);
+
+		User user = userDao.findByUsername(username);
+		if (user == null) {
+			throw new RuntimeException("User not found: " + username);
+		}
+
+		List<Task> rows = taskDao.findByUserId(user.getId());
+
+		List<Task> tasks = new ArrayList<>();
+		List<Task> series = new ArrayList<>();
+		List<Task> occurrences = new ArrayList<>();
+		for (Task row : rows) {
+			if (row.getRecurrenceRule() != null) {
+				series.add(row);
+			} else if (row.getSeriesId() != null) {
+				occurrences.add(row);
+			} else {
+				tasks.add(row);
+			}
+		}
+
+		if (series.isEmpty() && occurrences.isEmpty()) {
+			return rows;
+		}
+
+		LocalDate windowStart = from != null ? from : LocalDate.now(clock);
+		LocalDate windowEnd = to != null ? to : windowStart.plusDays(defaultWindowDays);
+		if (windowEnd.isBefore(windowStart)) {
+			throw new RuntimeException("Window end cannot be before window start");
+		}
+
+		tasks.addAll(recurrenceService.expand(series, occurrences, windowStart, windowEnd));
+		tasks.sort(Comparator.comparing(Task::getDueDate, Comparator.nullsFirst(Comparator.naturalOrder())));
+		return tasks;
+	}
+
+	@Transactional(readOnly = true)
+	public List<Task> getAllTasks() {
+		logger.debug("Fetching all tasks");
+		return taskDao.findAll();
+	}
+
+	@Transactional(readOnly = true)
+	public Task getTaskById(Long id, String username) {
+		logger.debug("Fetching task {} for user: {}", id, username);
+
+		User user = userDao.findByUsername(username);
+		if (user == null) {
+			throw new RuntimeException("User not found: " + username);
+		}
+
+		Task task = taskDao.findById(id);
+		if (task == null) {
+			throw new RuntimeException("Task not found: " + id);
+		}
+
+		if (!task.getUserId().equals(user.getId())) {
+			throw new RuntimeException("Unauthorized: Task does not belong to user");
+		}
+
+		return task;
+	}
+
+	public Task createTask(Task task, String username) {
+		logger.debug("Creating task for user: {}", username);
+
+		User user = userDao.findByUsername(username);
+		if (user == null) {
+			throw new RuntimeException("User not found: " + username);
+		}
+
+		validateTask(task);
+		validateRecurrence(task);
+
+		task.setUserId(user.getId());
+
+		if (task.getPriority() == null || task.getPriority().isEmpty()) {
+			task.setPriority("MEDIUM");
+		}
+
+		if (task.getStatus() == null || task.getStatus().isEmpty()) {
+			task.setStatus("PENDING");
+		}
+
+		Task savedTask = taskDao.save(task);
+		eventPublisher.publishEvent(new TaskChangeEvent(TaskChangeEvent.Type.CREATED, savedTask));
+
+		if (savedTask.getDueDate() != null && savedTask.getRecurrenceRule() == null) {
+			scheduleOutboxDao.enqueue(savedTask.getId(), ScheduleOutboxEntry.ACTION_SCHEDULE, savedTask.getDueDate());
+		}
+
+		logger.info("Task created successfully: {}", savedTask.getId());
+		return savedTask;
+	}
+
+	public Task updateTask(Long id, Task task, String username) {
+		logger.debug("Updating task {} for user: {}", id, username);
+
+		User user = userDao.findByUsername(username);
+		if (user == null) {
+			throw new RuntimeException("User not found: " + username);
+		}
+
+		Task existingTask = taskDao.findById(id);
+		if (existingTask == null) {
+			throw new RuntimeException("Task not found: " + id);
+		}
+
+		if (!existingTask.getUserId().equals(user.getId())) {
+			throw new RuntimeException("Unauthorized: Task does not belong to user");
+		}
+
+		validateTask(task);
+
+		if (existingTask.getSeriesId() != null) {
+			task.setRecurrenceRule(null);
+		}
+		validateRecurrence(task);
+
+		task.setId(id);
+		task.setUserId(user.getId());
+		task.setSeriesId(existingTask.getSeriesId());
+		task.setOccurrenceDate(existingTask.getOccurrenceDate());
+
+		if (task.isCompleted() && !existingTask.isCompleted()) {
+			task.setCompletedAt(LocalDateTime.now(clock));
+			task.setStatus("COMPLETED");
+		}
+
+		taskDao.update(task);
+		eventPublisher.publishEvent(new TaskChangeEvent(TaskChangeEvent.Type.UPDATED, task));
+
+		boolean dueDateChanged = !Objects.equals(existingTask.getDueDate(), task.getDueDate());
+		boolean ruleChanged = !Objects.equals(existingTask.getRecurrenceRule(), task.getRecurrenceRule());
+		if (dueDateChanged || ruleChanged || existingTask.isCompleted() != task.isCompleted()) {
+			if (task.getDueDate() != null && !task.isCompleted() && task.getRecurrenceRule() == null) {
+				scheduleOutboxDao.enqueue(id, ScheduleOutboxEntry.ACTION_SCHEDULE, task.getDueDate());
+			} else {
+				scheduleOutboxDao.enqueue(id, ScheduleOutboxEntry.ACTION_CANCEL, null);
+			}
+		}
+
+		logger.info("Task updated successfully: {}", id);
+		return task;
+	}
+
+	public void deleteTask(Long id, String username) {
+		logger.debug("Deleting task {} for user: {}", id, username);
+
+		User user = userDao.findByUsername(username);
+		if (user == null) {
+			throw new RuntimeException("User not found: " + username);
+		}
+
+		Task existingTask = taskDao.findById(id);
+		if (existingTask == null) {
+			throw new RuntimeException("Task not found: " + id);
+		}
+
+		if (!existingTask.getUserId().equals(user.getId())) {
+			throw new RuntimeException("Unauthorized: Task does not belong to user");
+		}
+
+		scheduleOutboxDao.enqueue(id, ScheduleOutboxEntry.ACTION_CANCEL, null);
+
+		taskDao.delete(id);
+		eventPublisher.publishEvent(new TaskChangeEvent(TaskChangeEvent.Type.DELETED, existingTask));
+
+		logger.info("Task deleted successfully: {}", id);
+	}
+
+	public Task completeTask(Long id, String username) {
+		logger.debug("Marking task {} as complete for user: {}", id, username);
+
+		Task task = getTaskById(id, username);
+		boolean wasCompleted = task.isCompleted();
+
+		task.setCompleted(true);
+		task.setCompletedAt(LocalDateTime.now(clock));
+		task.setStatus("COMPLETED");
+
+		taskDao.update(task);
+		eventPublisher.publishEvent(new TaskChangeEvent(TaskChangeEvent.Type.UPDATED, task));
+
+		if (!wasCompleted) {
+			scheduleOutboxDao.enqueue(id, ScheduleOutboxEntry.ACTION_CANCEL, null);
+		}
+
+		logger.info("Task marked as complete: {}", id);
+		return task;
+	}
+
+	/**
+	 * Completes a single occurrence of a recurring series, materializing it as a
+	 * row of its own if it was still virtual.
+	 */
+	public Task completeOccurrence(Long seriesId, LocalDate occurrenceDate, String username) {
+		logger.debug("Marking occurrence {} of series {} as complete for user: {}", occurrenceDate, seriesId, username);
+
+		Task series = getSeries(seriesId, occurrenceDate, username);
+		Task occurrence = taskDao.findOccurrence(seriesId, occurrenceDate);
+
+		if (occurrence == null) {
+			occurrence = materialize(series, occurrenceDate);
+			occurrence.setCompleted(true);
+			occurrence.setCompletedAt(LocalDateTime.now(clock));
+			occurrence.setStatus("COMPLETED");
+			taskDao.save(occurrence);
+			eventPublisher.publishEvent(new TaskChangeEvent(TaskChangeEvent.Type.CREATED, occurrence));
+		} else if (!occurrence.isCompleted()) {
+			occurrence.setCompleted(true);
+			occurrence.setCompletedAt(LocalDateTime.now(clock));
+			occurrence.setStatus("COMPLETED");
+			taskDao.update(occurrence);
+			eventPublisher.publishEvent(new TaskChangeEvent(TaskChangeEvent.Type.UPDATED, occurrence));
+			scheduleOutboxDao.enqueue(occurrence.getId(), ScheduleOutboxEntry.ACTION_CANCEL, null);
+		}
+
+		logger.info("Occurrence {} of series {} marked as complete", occurrenceDate, seriesId);
+		return occurrence;
+	}
+
+	/**
+	 * Edits a single occurrence of a recurring series, materializing it as a row
+	 * of its own if it was still virtual. The rest of the series is unaffected.
+	 */
+	public Task updateOccurrence(Long seriesId, LocalDate occurrenceDate, Task changes, String username) {
+		logger.debug("Updating occurrence {} of series {} for user: {}", occurrenceDate, seriesId, username);
+
+		Task series = getSeries(seriesId, occurrenceDate, username);
+		Task occurrence = taskDao.findOccurrence(seriesId, occurrenceDate);
+		boolean isNew = occurrence == null;
+		if (isNew) {
+			occurrence = materialize(series, occurrenceDate);
+		}
+
+		if (changes.getDueDate() == null) {
+			changes.setDueDate(occurrence.getDueDate());
+		}
+		validateTask(changes);
+
+		occurrence.setTitle(changes.getTitle());
+		occurrence.setDescription(changes.getDescription());
+		occurrence.setDueDate(changes.getDueDate());
+		if (changes.getPriority() != null && !changes.getPriority().isEmpty()) {
+			occurrence.setPriority(changes.getPriority());
+		}
+
+		if (isNew) {
+			taskDao.save(occurrence);
+		} else {
+			taskDao.update(occurrence);
+		}
+		eventPublisher.publishEvent(
+				new TaskChangeEvent(isNew ? TaskChangeEvent.Type.CREATED : TaskChangeEvent.Type.UPDATED, occurrence));
+
+		if (!occurrence.isCompleted()) {
+			scheduleOutboxDao.enqueue(occurrence.getId(), ScheduleOutboxEntry.ACTION_SCHEDULE, occurrence.getDueDate());
+		}
+
+		logger.info("Occurrence {} of series {} updated", occurrenceDate, seriesId);
+		return occurrence;
+	}
+
+	private Task getSeries(Long seriesId, LocalDate occurrenceDate, String username) {
+		Task series = getTaskById(seriesId, username);
+
+		if (series.getRecurrenceRule() == null) {
+			throw new RuntimeException("Task is not recurring: " + seriesId);
+		}
+
+		if (!recurrenceService.parseRule(series.getRecurrenceRule()).occursOn(series.getDueDate(), occurrenceDate)) {
+			throw new RuntimeException("Task " + seriesId + " has no occurrence on " + occurrenceDate);
+		}
+
+		return series;
+	}
+
+	private Task materialize(Task series, LocalDate occurrenceDate) {
+		Task occurrence = recurrenceService.occurrenceOf(series, occurrenceDate);
+		occurrence.setId(null);
+		occurrence.setRecurrenceRule(null);
+		return occurrence;
+	}
+
+	@Transactional(readOnly = true)
+	public List<Task> getCompletedTasks(String username) {
+		logger.debug("Fetching completed tasks for user: {}", username);
+
+		User user = userDao.findByUsername(username);
+		if (user == null) {
+			throw new RuntimeException("User not found: " + username);
+		}
+
+		return taskDao.findByUserIdAndCompleted(user.getId(), true);
+	}
+
+	@Transactional(readOnly = true)
+	public List<Task> getPendingTasks(String username) {
+		logger.debug("Fetching pending tasks for user: {}", username);
+
+		User user = userDao.findByUsername(username);
+		if (user == null) {
+			throw new RuntimeException("User not found: " + username);
+		}
+
+		return taskDao.findByUserIdAndCompleted(user.getId(), false);
+	}
+
+	@Transactional(readOnly = true)
+	public List<Task> getOverdueTasks(String username) {
+		logger.debug("Fetching overdue tasks for user: {}", username);
+
+		User user = userDao.findByUsername(username);
+		if (user == null) {
+			throw new RuntimeException("User not found: " + username);
+		}
+
+		List<Task> allOverdue = taskDao.findOverdueTasks();
+		return allOverdue.stream().filter(task -> task.getUserId().equals(user.getId())).toList();
+	}
+
+	/**
+	 * The k most urgent open tasks of a user, ranked by the rule engine's urgency
+	 * score. Rows are streamed through a bounded heap, so memory stays at k tasks
+	 * however many the user has. Recurring series contribute the occurrences that
+	 * fall inside the urgency horizon.
+	 */
+	@Transactional(readOnly = true)
+	public List<Task> getMostUrgentTasks(String username, int k) {
+		logger.debug("Fetching {} most urgent tasks for user: {}", k, username);
+
+		if (k < 1 || k > maxUrgentK) {
+			throw new RuntimeException("k must be between 1 and " + maxUrgentK);
+		}
+
+		User user = userDao.findByUsername(username);
+		if (user == null) {
+			throw new RuntimeException("User not found: " + username);
+		}
+
+		TopKUrgencySelector selector = ruleEngine.topKSelector(k);
+		taskDao.forEachOpenTaskOfUser(user.getId(), selector::offer);
+
+		LocalDate today = selector.getEvaluatedAt().toLocalDate();
+		for (Task occurrence : recurrenceService.findOpenOccurrencesBetween(user.getId(), today,
+				today.plusDays(URGENCY_HORIZON_DAYS))) {
+			selector.offer(occurrence);
+		}
+
+		logger.debug("Selected most urgent tasks out of {} for user: {}", selector.getOffered(), username);
+		return selector.result();
+	}
+
+	/**
+	 * Tasks of the user that need immediate attention: overdue, or high
+	 * priority and inside the reminder window. Served from materialized state.
+	 */
+	@Transactional(readOnly = true)
+	public List<Task> getTasksNeedingAttention(String username) {
+		logger.debug("Fetching tasks needing attention for user: {}", username);
+
+		User user = userDao.findByUsername(username);
+		if (user == null) {
+			throw new RuntimeException("User not found: " + username);
+		}
+
+		return attentionService.getTasksNeedingAttention(user.getId());
+	}
+
+	@Transactional(readOnly = true)
+	public List<ReminderDelivery> getDeliveryHistory(Long id, String username) {
+		logger.debug("Fetching reminder deliveries for task {} of user: {}", id, username);
+
+		Task task = getTaskById(id, username);
+		return reminderDeliveryDao.findByTaskId(task.getId());
+	}
+
+	private void validateRecurrence(Task task) {
+		if (task.getRecurrenceRule() == null) {
+			return;
+		}
+
+		if (task.getRecurrenceRule().trim().isEmpty()) {
+			task.setRecurrenceRule(null);
+			return;
+		}
+
+		if (task.getDueDate() == null) {
+			throw new RuntimeException("Recurring tasks need a due date for their first occurrence");
+		}
+
+		recurrenceService.parseRule(task.getRecurrenceRule());
+	}
+
+	private void validateTask(Task task) {
+		if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
+			throw new RuntimeException("Task title cannot be empty");
+		}
+
+		if (task.getTitle().length() > 500) {
+			throw new RuntimeException("Task title is too long (max 500 characters)");
+		}
+
+		if (task.getDueDate() != null && task.getDueDate().isBefore(LocalDate.now(clock))) {
+			throw new RuntimeException("Due date cannot be in the past");
+		}
+
+		if (task.getPriority() != null && !task.getPriority().matches("HIGH|MEDIUM|LOW")) {
+			throw new RuntimeException("Invalid priority. Must be HIGH, MEDIUM, or LOW");
+		}
+
+		if (task.getStatus() != null && !task.getStatus().matches("PENDING|IN_PROGRESS|COMPLETED|CANCELLED")) {
+			throw new RuntimeException("Invalid status");
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package Project.service;
+
+import Project.dao.RevokedTokenDao;
+import Project.dao.UserDao;
+import Project.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether a token with valid signature has been revoked, without
+ * touching the database per request. It keeps in memory:
+ * <ul>
+ * <li>the credential version of every user whose password, role or enabled
+ * flag changed; tokens carrying an older version are revoked,</li>
+ * <li>the users disabled directly in the database,</li>
+ * <li>the IDs of tokens revoked on logout, until they expire.</li>
+ * </ul>
+ * Changes made through this instance apply at once. Everything is reloaded
+ * every {@code auth.revocation.refresh-ms}, which is how changes made by other
+ * instances or directly in the database arrive.
+ */
+@Service
+@DependsOn("dataSourceInitializer")
+public class TokenRevocationService {
+
+	private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+	@Autowired
+	private UserDao userDao;
+
+	@Autowired
+	private RevokedTokenDao revokedTokenDao;
+
+	@Autowired
+	private Clock clock;
+
+	@Value("${auth.revocation.refresh-ms:30000}")
+	private long refreshMs;
+
+	// Versions only grow, so a refresh never needs to undo a newer local value.
+	private final Map<Long, Integer> credentialVersions = new ConcurrentHashMap<>();
+	private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+	private volatile Set<Long> disabledUsers = Set.of();
+
+	private ScheduledExecutorService refresher;
+
+	@PostConstruct
+	public void start() {
+		refresh();
+		refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "token-revocation-refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+		refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (refresher != null) {
+			refresher.shutdownNow();
+		}
+	}
+
+	public boolean isRevoked(long userId, int credentialVersion, String tokenId) {
+		Integer current = credentialVersions.get(userId);
+		if (current != null && credentialVersion < current) {
+			return true;
+		}
+		if (disabledUsers.contains(userId)) {
+			return true;
+		}
+		return tokenId != null && revokedTokens.containsKey(tokenId);
+	}
+
+	/** Revokes one token, e.g. on logout, until it expires. */
+	public void revokeToken(String tokenId, Long userId, Instant expiresAt) {
+		revokedTokenDao.revoke(tokenId, userId, expiresAt);
+		revokedTokens.put(tokenId, expiresAt);
+		logger.info("Token {} of user {} revoked", tokenId, userId);
+	}
+
+	/**
+	 * Revokes the tokens issued to the user before its credential version
+	 * was last bumped.
+	 */
+	public void credentialsChanged(User user) {
+		credentialVersions.merge(user.getId(), user.getCredentialVersion(), Math::max);
+		logger.info("Tokens of user {} before credential version {} revoked", user.getId(),
+				user.getCredentialVersion());
+	}
+
+	public void refresh() {
+		Instant now = clock.instant();
+		userDao.findBumpedCredentialVersions().forEach((userId, version) -> credentialVersions.merge(userId, version,
+				Math::max));
+		disabledUsers = Set.copyOf(userDao.findDisabledIds());
+
+		revokedTokens.putAll(revokedTokenDao.findUnexpired(now));
+		revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+		revokedTokenDao.deleteExpired(now);
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("usersWithBumpedVersion", credentialVersions.size());
+		stats.put("disabledUsers", disabledUsers.size());
+		stats.put("revokedTokens", revokedTokens.size());
+		return stats;
+	}
+
+	private void refreshQuietly() {
+		try {
+			refresh();
+		} catch (Exception e) {
+			logger.error("Could not refresh token revocations", e);
+		}
+	}
+}
@@ -0,0 +1,223 @@
+package Project.service;
+
+import Project.dao.UserDao;
+import Project.dto.ProvisioningResult;
+import Project.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates many users in one go, e.g. when onboarding a customer. Rows are
+ * validated like {@code /auth/register}, passwords are hashed in parallel on
+ * a pool of their own (so onboarding never competes with logins for the
+ * login hashing queue), and users are inserted in JDBC batches of
+ * {@code auth.provision.batch-size}.
+ *
+ * The call is synchronous, so {@code auth.provision.max-rows} is kept to what
+ * the pool can hash within one request; larger imports are split by the
+ * caller. Only one import runs at a time and hashes never fall back to the
+ * request thread.
+ *
+ * Taken usernames and emails are found by the unique constraints rather than
+ * by a query per row: a batch runs in a transaction, and if it hits a
+ * constraint it is rolled back and its rows are inserted one at a time to
+ * tell which ones conflict.
+ */
+@Service
+public class UserProvisioningService {
+
+	private static final Logger logger = LoggerFactory.getLogger(UserProvisioningService.class);
+
+	private static final String USERNAME_CONSTRAINT = "uk_users_username";
+	private static final String EMAIL_CONSTRAINT = "uk_users_email";
+
+	@Autowired
+	private UserDao userDao;
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${auth.provision.hash-threads:2}")
+	private int hashThreads;
+
+	@Value("${auth.provision.batch-size:100}")
+	private int batchSize;
+
+	@Value("${auth.provision.max-rows:200}")
+	private int maxRows;
+
+	private ThreadPoolExecutor hashPool;
+	private TransactionTemplate transactionTemplate;
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	@PostConstruct
+	public void start() {
+		AtomicInteger threadCount = new AtomicInteger();
+		int poolSize = Math.max(1, hashThreads);
+		// One import at a time submits at most a batch, so the queue never fills.
+		hashPool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, batchSize)), runnable -> {
+					Thread thread = new Thread(runnable, "user-provision-hash-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+		transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (hashPool != null) {
+			hashPool.shutdownNow();
+		}
+	}
+
+	public ProvisioningResult provision(List<User> users) {
+		if (users == null || users.isEmpty()) {
+			throw new RuntimeException("No users to provision");
+		}
+		if (users.size() > maxRows) {
+			throw new RuntimeException("At most " + maxRows + " users can be provisioned at once");
+		}
+		if (!running.compareAndSet(false, true)) {
+			throw new RuntimeException("Another provisioning request is in progress, try again later");
+		}
+		try {
+			return provisionRows(users);
+		} finally {
+			running.set(false);
+		}
+	}
+
+	private ProvisioningResult provisionRows(List<User> users) {
+		long start = System.nanoTime();
+		ProvisioningResult result = new ProvisioningResult(users.size());
+		List<Integer> accepted = validate(users, result);
+
+		for (int from = 0; from < accepted.size(); from += Math.max(1, batchSize)) {
+			List<Integer> batch = accepted.subList(from, Math.min(accepted.size(), from + Math.max(1, batchSize)));
+			hashPasswords(users, batch);
+			insert(users, batch, result);
+		}
+
+		result.getRejected().sort(Comparator.comparingInt(ProvisioningResult.Row::getIndex));
+		logger.info("Provisioned {} of {} users ({} conflicts, {} invalid) in {} ms", result.getCreated(),
+				users.size(), result.getConflicts(), result.getInvalid(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return result;
+	}
+
+	/**
+	 * Returns the indexes of the rows to insert. Usernames and emails that
+	 * repeat within the request conflict here, so they cannot fail a batch.
+	 */
+	private List<Integer> validate(List<User> users, ProvisioningResult result) {
+		List<Integer> accepted = new ArrayList<>(users.size());
+		Set<String> usernames = new HashSet<>();
+		Set<String> emails = new HashSet<>();
+		for (int i = 0; i < users.size(); i++) {
+			User user = users.get(i);
+			if (user == null) {
+				result.reject(i, null, ProvisioningResult.INVALID, "Missing user");
+				continue;
+			}
+			try {
+				authService.validateUserInput(user);
+			} catch (RuntimeException e) {
+				result.reject(i, user.getUsername(), ProvisioningResult.INVALID, e.getMessage());
+				continue;
+			}
+
+			if (!usernames.add(user.getUsername())) {
+				result.reject(i, user.getUsername(), ProvisioningResult.CONFLICT, "Username repeated in request");
+				continue;
+			}
+			if (user.getEmail() != null && !emails.add(user.getEmail())) {
+				result.reject(i, user.getUsername(), ProvisioningResult.CONFLICT, "Email repeated in request");
+				continue;
+			}
+
+			if (user.getRole() == null || user.getRole().isEmpty()) {
+				user.setRole("USER");
+			}
+			if (user.isEnabled() == null) {
+				user.setEnabled(true);
+			}
+			accepted.add(i);
+		}
+		return accepted;
+	}
+
+	private void hashPasswords(List<User> users, List<Integer> batch) {
+		List<CompletableFuture<Void>> hashes = new ArrayList<>(batch.size());
+		for (int index : batch) {
+			User user = users.get(index);
+			String password = user.getPassword();
+			hashes.add(CompletableFuture.runAsync(() -> user.setPassword(passwordEncoder.encode(password)), hashPool));
+		}
+		CompletableFuture.allOf(hashes.toArray(new CompletableFuture[0])).join();
+	}
+
+	private void insert(List<User> users, List<Integer> batch, ProvisioningResult result) {
+		List<User> rows = new ArrayList<>(batch.size());
+		for (int index : batch) {
+			rows.add(users.get(index));
+		}
+
+		try {
+			transactionTemplate.executeWithoutResult(status -> userDao.saveAll(rows));
+			result.created(rows.size());
+			return;
+		} catch (DuplicateKeyException e) {
+			logger.debug("Batch of {} users hit a unique constraint, inserting one at a time", rows.size());
+		}
+
+		for (int index : batch) {
+			User user = users.get(index);
+			try {
+				userDao.save(user);
+				result.created(1);
+			} catch (DuplicateKeyException e) {
+				result.reject(index, user.getUsername(), ProvisioningResult.CONFLICT, conflictMessage(e));
+			}
+		}
+	}
+
+	private static String conflictMessage(DuplicateKeyException e) {
+		String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+		if (message.contains(EMAIL_CONSTRAINT)) {
+			return "Email already exists";
+		}
+		if (message.contains(USERNAME_CONSTRAINT)) {
+			return "Username already exists";
+		}
+		return "Username or email already exists";
+	}
+}
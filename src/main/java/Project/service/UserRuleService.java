@@ -0,0 +1,154 @@
+package Project.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import Project.dao.UserDao;
+import Project.dao.UserRuleDao;
+import Project.model.User;
+import Project.model.UserRule;
+import Project.rules.CompiledRule;
+import Project.rules.RuleExpression;
+import Project.rules.SqlPredicate;
+
+/**
+ * User-defined reminder rules. Expressions are validated when saved and
+ * parsed and compiled once per user on first use; both forms are cached until
+ * the user's rules change.
+ */
+@Service
+public class UserRuleService {
+
+	private static final Logger logger = LoggerFactory.getLogger(UserRuleService.class);
+
+	@Autowired
+	private UserRuleDao userRuleDao;
+
+	@Autowired
+	private UserDao userDao;
+
+	@Value("${rules.max-per-user:20}")
+	private int maxRulesPerUser;
+
+	private final Map<Long, List<RuleExpression>> parsedByUser = new ConcurrentHashMap<>();
+	private final Map<Long, List<CompiledRule>> compiledByUser = new ConcurrentHashMap<>();
+
+	public List<UserRule> getRules(String username) {
+		return userRuleDao.findByUserId(requireUser(username).getId());
+	}
+
+	public UserRule createRule(String username, UserRule rule) {
+		User user = requireUser(username);
+
+		if (rule.getName() == null || rule.getName().trim().isEmpty()) {
+			throw new RuntimeException("Rule name cannot be empty");
+		}
+		parse(rule.getExpression());
+		if (userRuleDao.findByUserId(user.getId()).size() >= maxRulesPerUser) {
+			throw new RuntimeException("A user can define at most " + maxRulesPerUser + " rules");
+		}
+
+		UserRule saved = userRuleDao.save(new UserRule(user.getId(), rule.getName().trim(), rule.getExpression().trim()));
+		evict(user.getId());
+		logger.info("Created rule {} for user {}: {}", saved.getId(), username, saved.getExpression());
+		return saved;
+	}
+
+	public void deleteRule(String username, Long ruleId) {
+		User user = requireUser(username);
+		UserRule rule = userRuleDao.findById(ruleId);
+		if (rule == null || !rule.getUserId().equals(user.getId())) {
+			throw new RuntimeException("Rule not found with id: " + ruleId);
+		}
+
+		userRuleDao.delete(ruleId);
+		evict(user.getId());
+		logger.info("Deleted rule {} for user {}", ruleId, username);
+	}
+
+	/**
+	 * Compiled rules of a user, empty when the user relies on the default
+	 * reminder window.
+	 */
+	public List<CompiledRule> rulesFor(Long userId) {
+		if (userId == null) {
+			return List.of();
+		}
+		return compiledByUser.computeIfAbsent(userId, this::compileRules);
+	}
+
+	/**
+	 * SQL form of the rules of every user that has any, OR-ed per user and
+	 * evaluated at {@code now}. A user whose stored rules all fail to parse gets
+	 * {@code fallback}, just as {@link #rulesFor} leaves them on the default
+	 * window.
+	 */
+	public Map<Long, SqlPredicate> predicatesByUser(LocalDateTime now, SqlPredicate fallback) {
+		Map<Long, SqlPredicate> predicates = new LinkedHashMap<>();
+		for (Long userId : userRuleDao.findUserIdsWithRules()) {
+			List<RuleExpression> expressions = parsedByUser.computeIfAbsent(userId, this::parseRules);
+			if (expressions.isEmpty()) {
+				predicates.put(userId, fallback);
+				continue;
+			}
+
+			List<SqlPredicate> rules = new ArrayList<>(expressions.size());
+			for (RuleExpression expression : expressions) {
+				rules.add(expression.toSql(now));
+			}
+			predicates.put(userId, SqlPredicate.or(rules));
+		}
+		return predicates;
+	}
+
+	public RuleExpression parse(String expression) {
+		try {
+			return RuleExpression.parse(expression);
+		} catch (IllegalArgumentException e) {
+			throw new RuntimeException("Invalid rule: " + e.getMessage());
+		}
+	}
+
+	private List<CompiledRule> compileRules(Long userId) {
+		List<CompiledRule> compiled = new ArrayList<>();
+		for (RuleExpression expression : parsedByUser.computeIfAbsent(userId, this::parseRules)) {
+			compiled.add(expression.compile());
+		}
+		return List.copyOf(compiled);
+	}
+
+	private List<RuleExpression> parseRules(Long userId) {
+		List<RuleExpression> parsed = new ArrayList<>();
+		for (UserRule rule : userRuleDao.findByUserId(userId)) {
+			try {
+				parsed.add(RuleExpression.parse(rule.getExpression()));
+			} catch (IllegalArgumentException e) {
+				logger.warn("Skipping invalid rule {} of user {}: {}", rule.getId(), userId, e.getMessage());
+			}
+		}
+		return List.copyOf(parsed);
+	}
+
+	private void evict(Long userId) {
+		parsedByUser.remove(userId);
+		compiledByUser.remove(userId);
+	}
+
+	private User requireUser(String username) {
+		User user = userDao.findByUsername(username);
+		if (user == null) {
+			throw new RuntimeException("User not found: " + username);
+		}
+		return user;
+	}
+}
@@ -0,0 +1,274 @@
+package Project.template;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A notification template parsed once into a flat list of segments. Rendering
+ * walks the list and appends straight into the caller's buffer; nothing is
+ * parsed or looked up by pattern at render time. Immutable and safe to share
+ * between threads.
+ *
+ * Syntax is a small subset of Mustache:
+ * <ul>
+ * <li>{@code {{name}}} inserts a value, HTML-escaped in HTML templates</li>
+ * <li>{@code {{#name}}...{{/name}}} repeats for each element of a collection
+ * (each a map of values), or renders once if the value is present, non-empty
+ * and not {@code false}</li>
+ * <li>{@code {{^name}}...{{/name}}} renders only if the value is absent, empty
+ * or {@code false}</li>
+ * <li>{@code {{! comment}}} is dropped</li>
+ * </ul>
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final Segment[] segments;
+
+    private CompiledTemplate(String name, Segment[] segments) {
+        this.name = name;
+        this.segments = segments;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static CompiledTemplate compile(String name, String source, boolean html) {
+        Deque<Frame> open = new ArrayDeque<>();
+        Frame current = new Frame(null, false);
+        StringBuilder literal = new StringBuilder();
+
+        int position = 0;
+        while (position < source.length()) {
+            int start = source.indexOf(OPEN, position);
+            if (start < 0) {
+                literal.append(source, position, source.length());
+                break;
+            }
+            literal.append(source, position, start);
+
+            int end = source.indexOf(CLOSE, start + OPEN.length());
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed tag at position " + start + " in template " + name);
+            }
+            String tag = source.substring(start + OPEN.length(), end).trim();
+            position = end + CLOSE.length();
+            if (tag.isEmpty()) {
+                throw new IllegalArgumentException("Empty tag at position " + start + " in template " + name);
+            }
+
+            char kind = tag.charAt(0);
+            if (kind == '!') {
+                continue;
+            }
+
+            current.flush(literal);
+            String key = kind == '#' || kind == '^' || kind == '/' ? tag.substring(1).trim() : tag;
+            if (kind == '#' || kind == '^') {
+                open.push(current);
+                current = new Frame(key, kind == '^');
+            } else if (kind == '/') {
+                if (!key.equals(current.key)) {
+                    throw new IllegalArgumentException("Unexpected {{/" + key + "}} at position " + start
+                            + " in template " + name);
+                }
+                Segment section = new Section(current.key, current.inverted, current.toArray());
+                current = open.pop();
+                current.segments.add(section);
+            } else {
+                current.segments.add(new Variable(key, html));
+            }
+        }
+
+        current.flush(literal);
+        if (!open.isEmpty()) {
+            throw new IllegalArgumentException("Unclosed section {{#" + current.key + "}} in template " + name);
+        }
+        return new CompiledTemplate(name, current.toArray());
+    }
+
+    public void renderTo(Map<String, ?> model, StringBuilder out) {
+        render(segments, new Scope(model, null), out);
+    }
+
+    public String render(Map<String, ?> model) {
+        StringBuilder out = new StringBuilder(256);
+        renderTo(model, out);
+        return out.toString();
+    }
+
+    private static void render(Segment[] segments, Scope scope, StringBuilder out) {
+        for (Segment segment : segments) {
+            segment.render(scope, out);
+        }
+    }
+
+    private static boolean isTruthy(Object value) {
+        if (value == null || Boolean.FALSE.equals(value)) {
+            return false;
+        }
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length() > 0;
+        }
+        if (value instanceof Collection) {
+            return !((Collection<?>) value).isEmpty();
+        }
+        return true;
+    }
+
+    private static void appendEscaped(CharSequence value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    out.append("&amp;");
+                    break;
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '"':
+                    out.append("&quot;");
+                    break;
+                case '\'':
+                    out.append("&#39;");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+
+    private interface Segment {
+
+        void render(Scope scope, StringBuilder out);
+    }
+
+    private static final class Literal implements Segment {
+        private final String text;
+
+        private Literal(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void render(Scope scope, StringBuilder out) {
+            out.append(text);
+        }
+    }
+
+    private static final class Variable implements Segment {
+        private final String key;
+        private final boolean escape;
+
+        private Variable(String key, boolean escape) {
+            this.key = key;
+            this.escape = escape;
+        }
+
+        @Override
+        public void render(Scope scope, StringBuilder out) {
+            Object value = scope.lookup(key);
+            if (value == null) {
+                return;
+            }
+            if (escape) {
+                appendEscaped(value instanceof CharSequence ? (CharSequence) value : value.toString(), out);
+            } else if (value instanceof CharSequence) {
+                out.append((CharSequence) value);
+            } else {
+                out.append(value);
+            }
+        }
+    }
+
+    private static final class Section implements Segment {
+        private final String key;
+        private final boolean inverted;
+        private final Segment[] body;
+
+        private Section(String key, boolean inverted, Segment[] body) {
+            this.key = key;
+            this.inverted = inverted;
+            this.body = body;
+        }
+
+        @Override
+        public void render(Scope scope, StringBuilder out) {
+            Object value = scope.lookup(key);
+            if (inverted) {
+                if (!isTruthy(value)) {
+                    CompiledTemplate.render(body, scope, out);
+                }
+                return;
+            }
+            if (!isTruthy(value)) {
+                return;
+            }
+
+            if (value instanceof Iterable) {
+                for (Object element : (Iterable<?>) value) {
+                    CompiledTemplate.render(body, element instanceof Map ? new Scope((Map<?, ?>) element, scope) : scope,
+                            out);
+                }
+            } else if (value instanceof Map) {
+                CompiledTemplate.render(body, new Scope((Map<?, ?>) value, scope), out);
+            } else {
+                CompiledTemplate.render(body, scope, out);
+            }
+        }
+    }
+
+    /** Values of a section element, falling back to the enclosing ones. */
+    private static final class Scope {
+        private final Map<?, ?> values;
+        private final Scope parent;
+
+        private Scope(Map<?, ?> values, Scope parent) {
+            this.values = values;
+            this.parent = parent;
+        }
+
+        private Object lookup(String key) {
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                Object value = scope.values.get(key);
+                if (value != null) {
+                    return value;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Frame {
+        private final String key;
+        private final boolean inverted;
+        private final List<Segment> segments = new ArrayList<>();
+
+        private Frame(String key, boolean inverted) {
+            this.key = key;
+            this.inverted = inverted;
+        }
+
+        private void flush(StringBuilder literal) {
+            if (literal.length() > 0) {
+                segments.add(new Literal(literal.toString()));
+                literal.setLength(0);
+            }
+        }
+
+        private Segment[] toArray() {
+            return segments.toArray(new Segment[0]);
+        }
+    }
+}
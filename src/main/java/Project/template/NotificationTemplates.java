@@ -0,0 +1,133 @@
+package Project.template;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Notification templates compiled once at startup from
+ * {@code templates.location}. A template file is named
+ * {@code <name>[_<language>[_<COUNTRY>]].<variant>}, where the variant is
+ * {@code subject}, {@code txt} or {@code html}; lookups fall back from the most
+ * specific locale to the unlocalized file.
+ *
+ * {@link #reload()} recompiles everything and swaps the new set in at once,
+ * so renders in progress keep the set they started with. Each thread renders
+ * into its own reused buffer.
+ */
+@Component
+public class NotificationTemplates {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationTemplates.class);
+
+    public static final String SUBJECT = "subject";
+    public static final String TEXT = "txt";
+    public static final String HTML = "html";
+
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    @Value("${templates.location:classpath:templates/}")
+    private String location;
+
+    private volatile Map<String, CompiledTemplate> templates = Map.of();
+
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    @PostConstruct
+    public void start() {
+        reload();
+    }
+
+    /**
+     * Compiles every template under {@code templates.location} and replaces
+     * the current set. If any template fails to load or compile, the current
+     * set stays in place. Returns how many templates were loaded.
+     */
+    public synchronized int reload() {
+        String base = location.endsWith("/") ? location : location + "/";
+        Map<String, CompiledTemplate> compiled = new HashMap<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(base + "*.*")) {
+                String filename = resource.getFilename();
+                String variant = filename != null ? filename.substring(filename.lastIndexOf('.') + 1) : "";
+                if (!SUBJECT.equals(variant) && !TEXT.equals(variant) && !HTML.equals(variant)) {
+                    continue;
+                }
+
+                String source;
+                try (InputStream in = resource.getInputStream()) {
+                    source = StreamUtils.copyToString(in, StandardCharsets.UTF_8).replace("\r\n", "\n");
+                }
+                // Editors add a final newline; it is not part of the message.
+                if (source.endsWith("\n")) {
+                    source = source.substring(0, source.length() - 1);
+                }
+                compiled.put(filename, CompiledTemplate.compile(filename, source, HTML.equals(variant)));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RuntimeException("Failed to load templates from " + base + ": " + e.getMessage(), e);
+        }
+
+        if (compiled.isEmpty()) {
+            throw new RuntimeException("No templates found at " + base);
+        }
+        templates = Map.copyOf(compiled);
+        logger.info("Loaded {} notification templates from {}", compiled.size(), base);
+        return compiled.size();
+    }
+
+    /**
+     * Renders the most specific template for the locale, or returns
+     * {@code null} if there is no such template in any locale.
+     */
+    public String render(String name, Locale locale, String variant, Map<String, ?> model) {
+        CompiledTemplate template = find(name, locale, variant);
+        if (template == null) {
+            return null;
+        }
+
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.renderTo(model, buffer);
+        String rendered = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+        return rendered;
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    private CompiledTemplate find(String name, Locale locale, String variant) {
+        Map<String, CompiledTemplate> current = templates;
+        if (locale != null && !locale.getLanguage().isEmpty()) {
+            CompiledTemplate template;
+            if (!locale.getCountry().isEmpty()) {
+                template = current.get(name + "_" + locale.getLanguage() + "_" + locale.getCountry() + "." + variant);
+                if (template != null) {
+                    return template;
+                }
+            }
+            template = current.get(name + "_" + locale.getLanguage() + "." + variant);
+            if (template != null) {
+                return template;
+            }
+        }
+        return current.get(name + "." + variant);
+    }
+}
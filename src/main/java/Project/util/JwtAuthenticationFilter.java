@@ -1,76 +1,111 @@
-package Project.util;
-
-import jakarta.servlet.FilterChain;
-import jakarta.servlet.ServletException;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.stereotype.Component;
-import org.springframework.web.filter.OncePerRequestFilter;
-
-import java.io.IOException;
-
-@Component
-public class JwtAuthenticationFilter extends OncePerRequestFilter {
-
-	private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
-
-	private final JwtUtil jwtUtil;
-	private final UserDetailsService userDetailsService;
-
-	public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
-		this.jwtUtil = jwtUtil;
-		this.userDetailsService = userDetailsService;
-	}
-
-	@Override
-	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
-			throws ServletException, IOException {
-
-		final String authHeader = request.getHeader("Authorization");
-		final String jwt;
-		final String username;
-		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-			logger.debug("No JWT token found in request headers");
-			filterChain.doFilter(request, response);
-			return;
-		}
-
-		try {
-			jwt = authHeader.substring(7);
-			username = jwtUtil.extractUsername(jwt);
-			logger.debug("JWT token found for user: {}", username);
-			if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-				UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-				if (jwtUtil.isTokenValid(jwt, userDetails)) {
-					logger.debug("JWT token is valid, setting authentication for user: {}", username);
-					UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
-							null, userDetails.getAuthorities());
-					authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-					SecurityContextHolder.getContext().setAuthentication(authToken);
-
-					logger.info("User authenticated successfully: {}", username);
-				} else {
-					logger.warn("JWT token validation failed for user: {}", username);
-				}
-			}
-
-		} catch (Exception e) {
-			logger.error("Error processing JWT authentication", e);
-			SecurityContextHolder.clearContext();
-		}
-		filterChain.doFilter(request, response);
-	}
-
-	@Override
-	protected boolean shouldNotFilter(HttpServletRequest request) {
-		String path = request.getRequestURI();
-		return path.startsWith("/api/auth/") || path.startsWith("/h2-console") || path.equals("/");
-	}
-}
+package Project.util;
+
+import Project.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+	private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+	private final JwtUtil jwtUtil;
+	private final UserDetailsService userDetailsService;
+	private final TokenRevocationService revocationService;
+
+	public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+			TokenRevocationService revocationService) {
+		this.jwtUtil = jwtUtil;
+		this.userDetailsService = userDetailsService;
+		this.revocationService = revocationService;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		final String authHeader = request.getHeader("Authorization");
+		final String jwt;
+		final String username;
+		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+			logger.debug("No JWT token found in request headers");
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		try {
+			jwt = authHeader.substring(7);
+			// Checks signature and expiry, once per token thanks to JwtUtil's cache.
+			Claims claims = jwtUtil.verify(jwt);
+			username = claims.getSubject();
+			logger.debug("JWT token found for user: {}", username);
+			if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+				UserDetails userDetails = loadUser(claims);
+				if (userDetails != null && username.equals(userDetails.getUsername())) {
+					logger.debug("JWT token is valid, setting authentication for user: {}", username);
+					UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
+							null, userDetails.getAuthorities());
+					authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+					SecurityContextHolder.getContext().setAuthentication(authToken);
+
+					logger.debug("User authenticated successfully: {}", username);
+				} else {
+					logger.warn("JWT token validation failed for user: {}", username);
+				}
+			}
+
+		} catch (JwtException | IllegalArgumentException e) {
+			logger.warn("Rejected JWT token: {}", e.getMessage());
+			SecurityContextHolder.clearContext();
+		} catch (Exception e) {
+			logger.error("Error processing JWT authentication", e);
+			SecurityContextHolder.clearContext();
+		}
+		filterChain.doFilter(request, response);
+	}
+
+	/**
+	 * Builds the principal from the token's claims, or returns null when the
+	 * token has been revoked. Tokens issued before the claims were added fall
+	 * back to loading the user from the database.
+	 */
+	private UserDetails loadUser(Claims claims) {
+		Number userId = claims.get(JwtUtil.CLAIM_USER_ID, Number.class);
+		if (userId == null) {
+			return this.userDetailsService.loadUserByUsername(claims.getSubject());
+		}
+		Number credentialVersion = claims.get(JwtUtil.CLAIM_CREDENTIAL_VERSION, Number.class);
+		if (revocationService.isRevoked(userId.longValue(),
+				credentialVersion == null ? 0 : credentialVersion.intValue(), claims.getId())) {
+			logger.warn("Rejected revoked JWT token for user: {}", claims.getSubject());
+			return null;
+		}
+		return User.withUsername(claims.getSubject())
+				.password("")
+				.authorities(new SimpleGrantedAuthority("ROLE_" + claims.get(JwtUtil.CLAIM_ROLE, String.class)))
+				.build();
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String path = request.getRequestURI();
+		return path.startsWith("/api/auth/") || path.startsWith("/h2-console") || path.equals("/");
+	}
+}
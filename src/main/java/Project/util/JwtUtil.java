@@ -1,152 +1,278 @@
-package Project.util;
-
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.MalformedJwtException;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.UnsupportedJwtException;
-import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
-
-import javax.annotation.PostConstruct;
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
-import java.util.Base64;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
-
-@Component
-public class JwtUtil {
-
-	private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
-	@Value("${jwt.secret:mySecretKey12345mySecretKey12345mySecretKey12345}")
-	private String secretKeyString;
-
-	@Value("${jwt.expiration:86400000}")
-	private long EXPIRATION_TIME; // 24 hours in milliseconds
-
-	private Key SECRET_KEY;
-
-	/**
-	 * Initialize the secret key after properties are injected This ensures the key
-	 * remains consistent across app restarts
-	 */
-	@PostConstruct
-	public void init() {
-		try {
-			if (secretKeyString.length() < 32) {
-				logger.warn("JWT secret key is too short. Padding to 32 characters.");
-				secretKeyString = String.format("%-32s", secretKeyString).replace(' ', '0');
-			}
-			byte[] keyBytes = secretKeyString.getBytes(StandardCharsets.UTF_8);
-			SECRET_KEY = Keys.hmacShaKeyFor(keyBytes);
-
-			logger.info("-> JWT Secret Key initialized successfully");
-		} catch (Exception e) {
-			logger.error("!! Failed to initialize JWT secret key", e);
-			SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-			logger.warn("! Using generated secret key. Tokens will be invalidated on restart!");
-		}
-	}
-
-	public String generateToken(String username) {
-		Map<String, Object> claims = new HashMap<>();
-		return createToken(claims, username);
-	}
-
-	public String generateTokenWithClaims(String username, Map<String, Object> additionalClaims) {
-		return createToken(additionalClaims, username);
-	}
-
-	private String createToken(Map<String, Object> claims, String subject) {
-		Date now = new Date(System.currentTimeMillis());
-		Date expirationDate = new Date(System.currentTimeMillis() + EXPIRATION_TIME);
-
-		return Jwts.builder().setClaims(claims).setSubject(subject).setIssuedAt(now).setExpiration(expirationDate)
-				.signWith(SECRET_KEY).compact();
-	}
-
-	public Boolean validateToken(String token, String username) {
-		try {
-			final String extractedUsername = extractUsername(token);
-			return (extractedUsername.equals(username) && !isTokenExpired(token));
-		} catch (Exception e) {
-			logger.error("Token validation failed", e);
-			return false;
-		}
-	}
-
-	public boolean isTokenValid(String token, org.springframework.security.core.userdetails.UserDetails userDetails) {
-		try {
-			final String username = extractUsername(token);
-			boolean valid = username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-
-			if (valid) {
-				logger.debug("Token is valid for user: {}", username);
-			} else {
-				logger.warn("Token validation failed for user: {}", username);
-			}
-
-			return valid;
-		} catch (ExpiredJwtException e) {
-			logger.warn("Token has expired");
-			return false;
-		} catch (MalformedJwtException e) {
-			logger.warn("Malformed JWT token");
-			return false;
-		} catch (SignatureException e) {
-			logger.warn("Invalid JWT signature");
-			return false;
-		} catch (UnsupportedJwtException e) {
-			logger.warn("Unsupported JWT token");
-			return false;
-		} catch (IllegalArgumentException e) {
-			logger.warn("JWT claims string is empty");
-			return false;
-		}
-	}
-
-	public String extractUsername(String token) {
-		return extractAllClaims(token).getSubject();
-	}
-
-	public Date extractExpiration(String token) {
-		return extractAllClaims(token).getExpiration();
-	}
-
-	public boolean isTokenExpired(String token) {
-		try {
-			Date expiration = extractExpiration(token);
-			return expiration.before(new Date());
-		} catch (ExpiredJwtException e) {
-			return true;
-		}
-	}
-
-	private Claims extractAllClaims(String token) {
-		return Jwts.parserBuilder().setSigningKey(SECRET_KEY).build().parseClaimsJws(token).getBody();
-	}
-
-	public long getExpirationTime() {
-		return EXPIRATION_TIME;
-	}
-
-	/**
-	 * Refresh an existing token by generating a new one with the same subject
-	 */
-	public String refreshToken(String token) {
-		try {
-			String username = extractUsername(token);
-			return generateToken(username);
-		} catch (Exception e) {
-			logger.error("Failed to refresh token", e);
-			throw new RuntimeException("Invalid token for refresh");
-		}
-	}
-}
\ No newline at end of file
+package Project.util;
+
+import Project.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Issues and verifies JWTs. Verified tokens are cached by the SHA-256 digest
+ * of the token, so a client sending the same token on every request pays for
+ * the signature check and claims parsing once. An entry is only served until
+ * the token's own expiry, and at most {@code jwt.cache.max-entries} are kept,
+ * the least recently used making room for new ones (0 turns the cache off).
+ */
+@Component
+public class JwtUtil {
+
+	private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
+
+	public static final String CLAIM_USER_ID = "uid";
+	public static final String CLAIM_ROLE = "role";
+	public static final String CLAIM_CREDENTIAL_VERSION = "cv";
+
+	@Value("${jwt.secret:mySecretKey12345mySecretKey12345mySecretKey12345}")
+	private String secretKeyString;
+
+	@Value("${jwt.expiration:86400000}")
+	private long EXPIRATION_TIME; // 24 hours in milliseconds
+
+	@Value("${jwt.cache.max-entries:10000}")
+	private int cacheMaxEntries;
+
+	private Key SECRET_KEY;
+
+	// Immutable once built and safe to share between request threads.
+	private JwtParser parser;
+
+	// Access-ordered, guarded by its own monitor.
+	private final LinkedHashMap<String, VerifiedToken> verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+			return size() > cacheMaxEntries;
+		}
+	};
+	private final LongAdder cacheHits = new LongAdder();
+	private final LongAdder cacheMisses = new LongAdder();
+
+	/**
+	 * Initialize the secret key after properties are injected This ensures the key
+	 * remains consistent across app restarts
+	 */
+	@PostConstruct
+	public void init() {
+		try {
+			if (secretKeyString.length() < 32) {
+				logger.warn("JWT secret key is too short. Padding to 32 characters.");
+				secretKeyString = String.format("%-32s", secretKeyString).replace(' ', '0');
+			}
+			byte[] keyBytes = secretKeyString.getBytes(StandardCharsets.UTF_8);
+			SECRET_KEY = Keys.hmacShaKeyFor(keyBytes);
+
+			logger.info("-> JWT Secret Key initialized successfully");
+		} catch (Exception e) {
+			logger.error("!! Failed to initialize JWT secret key", e);
+			SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+			logger.warn("! Using generated secret key. Tokens will be invalidated on restart!");
+		}
+		parser = Jwts.parserBuilder().setSigningKey(SECRET_KEY).build();
+	}
+
+	public String generateToken(String username) {
+		Map<String, Object> claims = new HashMap<>();
+		return createToken(claims, username);
+	}
+
+	/**
+	 * A token carrying everything needed to authenticate its requests: user
+	 * id, role and credential version, plus a unique ID so it can be revoked
+	 * on its own.
+	 */
+	public String generateToken(User user) {
+		Map<String, Object> claims = new HashMap<>();
+		claims.put(CLAIM_USER_ID, user.getId());
+		claims.put(CLAIM_ROLE, user.getRole());
+		claims.put(CLAIM_CREDENTIAL_VERSION, user.getCredentialVersion());
+		return createToken(claims, user.getUsername());
+	}
+
+	public String generateTokenWithClaims(String username, Map<String, Object> additionalClaims) {
+		return createToken(additionalClaims, username);
+	}
+
+	private String createToken(Map<String, Object> claims, String subject) {
+		Date now = new Date(System.currentTimeMillis());
+		Date expirationDate = new Date(System.currentTimeMillis() + EXPIRATION_TIME);
+
+		return Jwts.builder().setClaims(claims).setSubject(subject).setId(UUID.randomUUID().toString())
+				.setIssuedAt(now).setExpiration(expirationDate).signWith(SECRET_KEY).compact();
+	}
+
+	public Boolean validateToken(String token, String username) {
+		try {
+			final String extractedUsername = extractUsername(token);
+			return (extractedUsername.equals(username) && !isTokenExpired(token));
+		} catch (Exception e) {
+			logger.error("Token validation failed", e);
+			return false;
+		}
+	}
+
+	public boolean isTokenValid(String token, org.springframework.security.core.userdetails.UserDetails userDetails) {
+		try {
+			final String username = extractUsername(token);
+			boolean valid = username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+
+			if (valid) {
+				logger.debug("Token is valid for user: {}", username);
+			} else {
+				logger.warn("Token validation failed for user: {}", username);
+			}
+
+			return valid;
+		} catch (ExpiredJwtException e) {
+			logger.warn("Token has expired");
+			return false;
+		} catch (MalformedJwtException e) {
+			logger.warn("Malformed JWT token");
+			return false;
+		} catch (SignatureException e) {
+			logger.warn("Invalid JWT signature");
+			return false;
+		} catch (UnsupportedJwtException e) {
+			logger.warn("Unsupported JWT token");
+			return false;
+		} catch (IllegalArgumentException e) {
+			logger.warn("JWT claims string is empty");
+			return false;
+		}
+	}
+
+	public String extractUsername(String token) {
+		return verify(token).getSubject();
+	}
+
+	public Date extractExpiration(String token) {
+		return verify(token).getExpiration();
+	}
+
+	public boolean isTokenExpired(String token) {
+		try {
+			Date expiration = extractExpiration(token);
+			return expiration.before(new Date());
+		} catch (ExpiredJwtException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Returns the claims of a token with a valid signature that has not
+	 * expired, from the cache when the token was verified before. Throws the
+	 * parser's {@link io.jsonwebtoken.JwtException}s (e.g.
+	 * {@link ExpiredJwtException}) or {@link IllegalArgumentException} otherwise.
+	 */
+	public Claims verify(String token) {
+		if (cacheMaxEntries <= 0 || token == null) {
+			return parser.parseClaimsJws(token).getBody();
+		}
+
+		String key = digest(token);
+		long now = System.currentTimeMillis();
+		VerifiedToken cached;
+		synchronized (verifiedTokens) {
+			cached = verifiedTokens.get(key);
+			if (cached != null && now >= cached.expiresAt) {
+				verifiedTokens.remove(key);
+				cached = null;
+			}
+		}
+		if (cached != null) {
+			cacheHits.increment();
+			return cached.claims;
+		}
+
+		cacheMisses.increment();
+		Claims claims = parser.parseClaimsJws(token).getBody();
+		if (claims.getExpiration() != null) {
+			synchronized (verifiedTokens) {
+				verifiedTokens.put(key, new VerifiedToken(claims, claims.getExpiration().getTime()));
+			}
+		}
+		return claims;
+	}
+
+	public Map<String, Object> getCacheStats() {
+		long hits = cacheHits.sum();
+		long lookups = hits + cacheMisses.sum();
+		int size;
+		synchronized (verifiedTokens) {
+			size = verifiedTokens.size();
+		}
+
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("size", size);
+		stats.put("hits", hits);
+		stats.put("misses", cacheMisses.sum());
+		stats.put("hitRate", lookups == 0 ? 0.0 : Math.round(hits * 1000.0 / lookups) / 1000.0);
+		return stats;
+	}
+
+	// A new digest per call rather than one per thread: on virtual threads every request has a new thread.
+	private static String digest(String token) {
+		MessageDigest sha256;
+		try {
+			sha256 = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+		return Base64.getEncoder().withoutPadding()
+				.encodeToString(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+	}
+
+	public long getExpirationTime() {
+		return EXPIRATION_TIME;
+	}
+
+	/**
+	 * Refresh an existing token by generating a new one with the same subject
+	 * and user claims
+	 */
+	public String refreshToken(String token) {
+		try {
+			Claims claims = verify(token);
+			Map<String, Object> userClaims = new HashMap<>();
+			for (String name : new String[] { CLAIM_USER_ID, CLAIM_ROLE, CLAIM_CREDENTIAL_VERSION }) {
+				if (claims.get(name) != null) {
+					userClaims.put(name, claims.get(name));
+				}
+			}
+			return createToken(userClaims, claims.getSubject());
+		} catch (Exception e) {
+			logger.error("Failed to refresh token", e);
+			throw new RuntimeException("Invalid token for refresh");
+		}
+	}
+
+	private static final class VerifiedToken {
+		private final Claims claims;
+		private final long expiresAt;
+
+		private VerifiedToken(Claims claims, long expiresAt) {
+			this.claims = claims;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package Project.util;
+
+import Project.dto.ApiResponse;
+import Project.executor.StripedRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how fast each authenticated user may call the API, with separate
+ * quotas for reads, writes and admin calls so a client polling
+ * {@code /tasks} cannot use up its own writes, let alone everyone else's
+ * capacity. Runs right after {@link JwtAuthenticationFilter}; requests
+ * without an authenticated user are left to the login throttle and the
+ * authorization rules. Over quota, the request gets 429 with a
+ * {@code Retry-After} header; a quota of 0 per second means no limit.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+	private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	public enum RouteClass {
+		READ, WRITE, ADMIN
+	}
+
+	@Value("${rate-limit.enabled:true}")
+	private boolean enabled;
+
+	@Value("${rate-limit.stripes:64}")
+	private int stripes;
+
+	@Value("${rate-limit.max-buckets:100000}")
+	private int maxBuckets;
+
+	@Value("${rate-limit.read.per-second:20}")
+	private double readPerSecond;
+
+	@Value("${rate-limit.read.burst:40}")
+	private int readBurst;
+
+	@Value("${rate-limit.write.per-second:5}")
+	private double writePerSecond;
+
+	@Value("${rate-limit.write.burst:20}")
+	private int writeBurst;
+
+	@Value("${rate-limit.admin.per-second:10}")
+	private double adminPerSecond;
+
+	@Value("${rate-limit.admin.burst:20}")
+	private int adminBurst;
+
+	private StripedRateLimiter limiter;
+	private final Map<RouteClass, Quota> quotas = new EnumMap<>(RouteClass.class);
+
+	@PostConstruct
+	public void init() {
+		limiter = new StripedRateLimiter(stripes, maxBuckets, System::nanoTime);
+		quotas.put(RouteClass.READ, new Quota(readPerSecond, readBurst));
+		quotas.put(RouteClass.WRITE, new Quota(writePerSecond, writeBurst));
+		quotas.put(RouteClass.ADMIN, new Quota(adminPerSecond, adminBurst));
+		logger.info("API rate limit {}: {}", enabled ? "enabled" : "disabled", quotas);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (!enabled || authentication == null || !authentication.isAuthenticated()) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		RouteClass routeClass = classify(request);
+		Quota quota = quotas.get(routeClass);
+		if (quota.perSecond <= 0) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		long waitNanos = limiter.tryAcquire(authentication.getName() + ':' + routeClass.ordinal(), quota.perSecond,
+				quota.burst);
+		if (waitNanos == 0) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		long retryAfterSeconds = Math.max(1, (long) Math.ceil(waitNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+		logger.debug("Rate limited {} request from user {}, retry after {}s", routeClass, authentication.getName(),
+				retryAfterSeconds);
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		OBJECT_MAPPER.writeValue(response.getOutputStream(), ApiResponse.error("Too many requests, try again later"));
+	}
+
+	static RouteClass classify(HttpServletRequest request) {
+		if (request.getRequestURI().startsWith(request.getContextPath() + "/admin/")) {
+			return RouteClass.ADMIN;
+		}
+		switch (request.getMethod().toUpperCase(Locale.ROOT)) {
+		case "GET":
+		case "HEAD":
+		case "OPTIONS":
+			return RouteClass.READ;
+		default:
+			return RouteClass.WRITE;
+		}
+	}
+
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>(limiter.stats());
+		stats.put("enabled", enabled);
+		return stats;
+	}
+
+	private static final class Quota {
+		private final double perSecond;
+		private final int burst;
+
+		private Quota(double perSecond, int burst) {
+			this.perSecond = perSecond;
+			this.burst = burst;
+		}
+
+		@Override
+		public String toString() {
+			return perSecond + "/s burst " + burst;
+		}
+	}
+}
@@ -1,14 +1,24 @@
-﻿DROP TABLE IF EXISTS tasks;
+﻿DROP TABLE IF EXISTS user_rules;
+DROP TABLE IF EXISTS schedule_outbox;
+DROP TABLE IF EXISTS revoked_tokens;
+DROP TABLE IF EXISTS reminder_dead_letters;
+DROP TABLE IF EXISTS reminder_retries;
+DROP TABLE IF EXISTS reminder_deliveries;
+DROP TABLE IF EXISTS tasks;
 DROP TABLE IF EXISTS users;
 
 CREATE TABLE users (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    username VARCHAR(255) UNIQUE NOT NULL,
+    username VARCHAR(255) NOT NULL,
     password VARCHAR(255) NOT NULL,
     email VARCHAR(255),
     role VARCHAR(50) DEFAULT 'USER',
     enabled BOOLEAN DEFAULT TRUE,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    locale VARCHAR(35),
+    credential_version INT DEFAULT 0 NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
 );
 
 CREATE TABLE tasks (
@@ -22,14 +32,114 @@ CREATE TABLE tasks (
     user_id BIGINT NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     completed_at TIMESTAMP,
+    recurrence_rule VARCHAR(255),
+    series_id BIGINT,
+    occurrence_date DATE,
 
     CONSTRAINT fk_tasks_user
         FOREIGN KEY (user_id)
         REFERENCES users(id)
-        ON DELETE CASCADE
+        ON DELETE CASCADE,
+
+    CONSTRAINT fk_tasks_series
+        FOREIGN KEY (series_id)
+        REFERENCES tasks(id)
+        ON DELETE CASCADE,
+
+    CONSTRAINT uq_tasks_series_occurrence
+        UNIQUE (series_id, occurrence_date)
 );
 
 CREATE INDEX idx_tasks_user_id ON tasks(user_id);
+CREATE INDEX idx_tasks_occurrence_date ON tasks(occurrence_date);
+CREATE INDEX idx_tasks_due_date ON tasks(due_date);
+
+CREATE TABLE reminder_deliveries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    reminder_at TIMESTAMP NOT NULL,
+    channel VARCHAR(20) NOT NULL,
+    status VARCHAR(20) DEFAULT 'CLAIMED',
+    claimed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP,
+
+    CONSTRAINT uq_reminder_deliveries
+        UNIQUE (task_id, reminder_at, channel),
+
+    CONSTRAINT fk_reminder_deliveries_task
+        FOREIGN KEY (task_id)
+        REFERENCES tasks(id)
+        ON DELETE CASCADE
+);
+
+CREATE TABLE reminder_retries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    reminder_at TIMESTAMP NOT NULL,
+    channel VARCHAR(20) NOT NULL,
+    due_date DATE NOT NULL,
+    attempts INT DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uq_reminder_retries
+        UNIQUE (task_id, reminder_at, channel),
+
+    CONSTRAINT fk_reminder_retries_task
+        FOREIGN KEY (task_id)
+        REFERENCES tasks(id)
+        ON DELETE CASCADE
+);
+
+CREATE INDEX idx_reminder_retries_next_attempt_at ON reminder_retries(next_attempt_at);
+
+CREATE TABLE reminder_dead_letters (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    reminder_at TIMESTAMP NOT NULL,
+    channel VARCHAR(20) NOT NULL,
+    due_date DATE NOT NULL,
+    attempts INT NOT NULL,
+    first_failed_at TIMESTAMP,
+    failed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_reminder_dead_letters_task
+        FOREIGN KEY (task_id)
+        REFERENCES tasks(id)
+        ON DELETE CASCADE
+);
+
+CREATE TABLE user_rules (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    expression VARCHAR(500) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_user_rules_user
+        FOREIGN KEY (user_id)
+        REFERENCES users(id)
+        ON DELETE CASCADE
+);
+
+CREATE INDEX idx_user_rules_user_id ON user_rules(user_id);
+
+CREATE TABLE revoked_tokens (
+    jti VARCHAR(64) PRIMARY KEY,
+    user_id BIGINT,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+
+CREATE TABLE schedule_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    action VARCHAR(20) NOT NULL,
+    due_date TIMESTAMP,
+    attempts INT DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
 
 
 INSERT INTO users (username, password, email, role, enabled)
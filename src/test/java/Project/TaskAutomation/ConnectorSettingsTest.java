@@ -0,0 +1,114 @@
+package Project.TaskAutomation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class ConnectorSettingsTest {
+
+	private Tomcat tomcat;
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		if (tomcat != null) {
+			tomcat.stop();
+			tomcat.destroy();
+		}
+	}
+
+	private URI start(ConnectorSettings settings) throws Exception {
+		tomcat = new Tomcat();
+		tomcat.setBaseDir(Files.createTempDirectory("tomcat").toString());
+		tomcat.setPort(0);
+		settings.applyTo(tomcat.getConnector());
+		Context context = tomcat.addContext("", null);
+		Tomcat.addServlet(context, "json", new JsonServlet());
+		context.addServletMappingDecoded("/*", "json");
+		tomcat.start();
+		return URI.create("http://localhost:" + tomcat.getConnector().getLocalPort() + "/");
+	}
+
+	private static HttpResponse<byte[]> get(HttpClient.Version version, URI uri, int items) throws Exception {
+		HttpClient client = HttpClient.newBuilder().version(version).build();
+		HttpRequest request = HttpRequest.newBuilder(uri.resolve("?items=" + items))
+				.header("Accept-Encoding", "gzip").build();
+		return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	private static String gunzip(byte[] body) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	@Test
+	public void testGzipsJsonAboveTheThreshold() throws Exception {
+		URI uri = start(ConnectorSettings.fromEnvironment(Map.of()).compressionMinBytes(1024));
+
+		HttpResponse<byte[]> large = get(HttpClient.Version.HTTP_1_1, uri, 100);
+		assertEquals("gzip", large.headers().firstValue("Content-Encoding").orElse(null));
+		assertEquals(JsonServlet.json(100), gunzip(large.body()));
+		assertTrue(large.body().length < JsonServlet.json(100).length() / 4);
+
+		HttpResponse<byte[]> small = get(HttpClient.Version.HTTP_1_1, uri, 2);
+		assertTrue(small.headers().firstValue("Content-Encoding").isEmpty());
+		assertEquals(JsonServlet.json(2), new String(small.body(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testUpgradesToHttp2AndStillCompresses() throws Exception {
+		URI uri = start(ConnectorSettings.fromEnvironment(Map.of()));
+
+		HttpResponse<byte[]> response = get(HttpClient.Version.HTTP_2, uri, 100);
+		assertEquals(HttpClient.Version.HTTP_2, response.version());
+		assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+		assertEquals(JsonServlet.json(100), gunzip(response.body()));
+	}
+
+	@Test
+	public void testStaysOnHttp11WhenHttp2IsOff() throws Exception {
+		URI uri = start(ConnectorSettings.fromEnvironment(Map.of("SERVER_HTTP2", "false", "SERVER_COMPRESSION", "false")));
+
+		HttpResponse<byte[]> response = get(HttpClient.Version.HTTP_2, uri, 100);
+		assertEquals(HttpClient.Version.HTTP_1_1, response.version());
+		assertTrue(response.headers().firstValue("Content-Encoding").isEmpty());
+	}
+
+	private static final class JsonServlet extends HttpServlet {
+
+		static String json(int items) {
+			StringBuilder json = new StringBuilder("{\"success\":true,\"data\":[");
+			for (int i = 0; i < items; i++) {
+				json.append(i == 0 ? "" : ",").append("{\"id\":").append(i)
+						.append(",\"title\":\"Task ").append(i).append("\",\"status\":\"PENDING\"}");
+			}
+			return json.append("]}").toString();
+		}
+
+		@Override
+		protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+			byte[] body = json(Integer.parseInt(request.getParameter("items"))).getBytes(StandardCharsets.UTF_8);
+			response.setContentType("application/json;charset=UTF-8");
+			response.setContentLength(body.length);
+			response.getOutputStream().write(body);
+		}
+	}
+}
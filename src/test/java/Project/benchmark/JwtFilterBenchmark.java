@@ -0,0 +1,130 @@
+package Project.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.model.User;
+import Project.service.TokenRevocationService;
+import Project.util.JwtAuthenticationFilter;
+import Project.util.JwtUtil;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+
+/**
+ * Per-request cost of {@link JwtAuthenticationFilter} with the verified-token
+ * cache, with the cache off (one parse on the shared parser), and the token
+ * work of the filter before the cache: three parses, each with a freshly built
+ * parser. The principal is built from the token's claims, and revocations
+ * are checked against an empty in-memory set. After {@code mvn test-compile},
+ * run {@link #main} with the test classpath, or
+ * {@code org.openjdk.jmh.Main JwtFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKey12345benchmarkSecretKey12345";
+
+    private final FilterChain chain = (request, response) -> {
+    };
+
+    private JwtAuthenticationFilter cachedFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private Key key;
+    private String token;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        // logback.xml logs every authenticated request at DEBUG; measure the filter, not the console.
+        ((Logger) LoggerFactory.getLogger("Project.util")).setLevel(Level.INFO);
+
+        UserDetailsService userDetailsService = username -> {
+            throw new IllegalStateException("Tokens with claims need no user lookup");
+        };
+        TokenRevocationService revocationService = new TokenRevocationService();
+
+        JwtUtil cachedJwt = jwtUtil(10_000);
+        cachedFilter = new JwtAuthenticationFilter(cachedJwt, userDetailsService, revocationService);
+        uncachedFilter = new JwtAuthenticationFilter(jwtUtil(0), userDetailsService, revocationService);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("alice");
+        user.setRole("USER");
+        token = cachedJwt.generateToken(user);
+
+        request = new MockHttpServletRequest("GET", "/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    private static JwtUtil jwtUtil(int cacheMaxEntries) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKeyString", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "EXPIRATION_TIME", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxEntries", cacheMaxEntries);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public Object cachedFilter() throws Exception {
+        return filter(cachedFilter);
+    }
+
+    @Benchmark
+    public Object uncachedFilter() throws Exception {
+        return filter(uncachedFilter);
+    }
+
+    @Benchmark
+    public Object previousTokenChecks() {
+        // extractUsername, then isTokenValid -> extractUsername + isTokenExpired.
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return claims.getExpiration();
+    }
+
+    private Object filter(JwtAuthenticationFilter filter) throws Exception {
+        filter.doFilter(request, response, chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(JwtFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,159 @@
+package Project.benchmark;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.model.Task;
+import Project.model.User;
+import Project.template.NotificationTemplates;
+
+/**
+ * Rendering a reminder and a ten-task digest from the precompiled templates
+ * against the hand-built StringBuilder bodies they replaced, model building
+ * included. After {@code mvn test-compile}, run {@link #main} with the test
+ * classpath, or {@code org.openjdk.jmh.Main ReminderTemplateBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReminderTemplateBenchmark {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private NotificationTemplates templates;
+    private User user;
+    private Task task;
+    private List<Task> digest;
+
+    @Setup
+    public void setUp() {
+        templates = new NotificationTemplates();
+        ReflectionTestUtils.setField(templates, "location", "classpath:templates/");
+        templates.start();
+
+        user = new User();
+        user.setUsername("alice");
+        digest = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Task next = new Task();
+            next.setId((long) i);
+            next.setTitle("Task number " + i);
+            next.setDescription(i % 3 == 0 ? null : "Something that needs doing before the deadline");
+            next.setDueDate(LocalDate.of(2026, 3, 14).plusDays(i));
+            next.setPriority(i % 2 == 0 ? "HIGH" : "MEDIUM");
+            next.setStatus("PENDING");
+            digest.add(next);
+        }
+        task = digest.get(1);
+
+        if (!handWrittenReminder().equals(templateReminder()) || !handWrittenDigest().equals(templateDigest())) {
+            throw new IllegalStateException("Templates no longer match the hand-written emails");
+        }
+    }
+
+    @Benchmark
+    public String handWrittenReminder() {
+        StringBuilder emailBody = new StringBuilder();
+        emailBody.append("Hello ").append(user.getUsername()).append(",\n\n");
+        emailBody.append("This is a reminder for your upcoming task:\n\n");
+        emailBody.append("Title: ").append(task.getTitle()).append("\n");
+        if (task.getDescription() != null && !task.getDescription().isEmpty()) {
+            emailBody.append("Description: ").append(task.getDescription()).append("\n");
+        }
+        if (task.getDueDate() != null) {
+            emailBody.append("Due Date: ").append(task.getDueDate().atStartOfDay().format(DATE_FORMATTER)).append("\n");
+        }
+        emailBody.append("Priority: ").append(task.getPriority()).append("\n");
+        emailBody.append("Status: ").append(task.getStatus()).append("\n\n");
+        emailBody.append("Don't forget to complete this task!\n\n");
+        emailBody.append("Best regards,\n");
+        emailBody.append("Task Automation System");
+        return emailBody.toString();
+    }
+
+    @Benchmark
+    public String templateReminder() {
+        Map<String, Object> model = taskModel(task);
+        model.put("username", user.getUsername());
+        return templates.render("reminder", Locale.ENGLISH, NotificationTemplates.TEXT, model);
+    }
+
+    @Benchmark
+    public String handWrittenDigest() {
+        StringBuilder emailBody = new StringBuilder();
+        emailBody.append("Hello ").append(user.getUsername()).append(",\n\n");
+        emailBody.append("This is a reminder for your ").append(digest.size())
+                .append(" upcoming tasks, most urgent first:\n\n");
+        int index = 1;
+        for (Task next : digest) {
+            emailBody.append(index++).append(". ").append(next.getTitle()).append("\n");
+            if (next.getDescription() != null && !next.getDescription().isEmpty()) {
+                emailBody.append("   Description: ").append(next.getDescription()).append("\n");
+            }
+            if (next.getDueDate() != null) {
+                emailBody.append("   Due Date: ").append(next.getDueDate().atStartOfDay().format(DATE_FORMATTER))
+                        .append("\n");
+            }
+            emailBody.append("   Priority: ").append(next.getPriority()).append("\n");
+            emailBody.append("   Status: ").append(next.getStatus()).append("\n\n");
+        }
+        emailBody.append("Don't forget to complete these tasks!\n\n");
+        emailBody.append("Best regards,\n");
+        emailBody.append("Task Automation System");
+        return emailBody.toString();
+    }
+
+    @Benchmark
+    public String templateDigest() {
+        List<Map<String, Object>> tasks = new ArrayList<>(digest.size());
+        for (Task next : digest) {
+            Map<String, Object> model = taskModel(next);
+            model.put("index", tasks.size() + 1);
+            tasks.add(model);
+        }
+        Map<String, Object> model = new HashMap<>();
+        model.put("username", user.getUsername());
+        model.put("count", digest.size());
+        model.put("tasks", tasks);
+        return templates.render("digest", Locale.ENGLISH, NotificationTemplates.TEXT, model);
+    }
+
+    private static Map<String, Object> taskModel(Task task) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("title", task.getTitle());
+        model.put("description", task.getDescription());
+        if (task.getDueDate() != null) {
+            model.put("dueDate", task.getDueDate().atStartOfDay().format(DATE_FORMATTER));
+        }
+        model.put("priority", task.getPriority());
+        model.put("status", task.getStatus());
+        return model;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(ReminderTemplateBenchmark.class.getSimpleName()).build()).run();
+    }
+}
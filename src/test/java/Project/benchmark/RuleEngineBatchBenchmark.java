@@ -0,0 +1,88 @@
+package Project.benchmark;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.model.Task;
+import Project.rules.BatchEvaluation;
+import Project.rules.RuleEngine;
+import ch.qos.logback.classic.Level;
+
+/**
+ * Per-task {@link RuleEngine#shouldExecute} plus {@link RuleEngine#calculateUrgencyScore}
+ * against {@link RuleEngine#evaluateBatch} over 1M tasks. The rules logger is
+ * raised to WARN so both sides measure evaluation rather than log output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class RuleEngineBatchBenchmark {
+
+    private static final String[] PRIORITIES = { "HIGH", "MEDIUM", "LOW", "high" };
+
+    private RuleEngine ruleEngine;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("Project.rules")).setLevel(Level.WARN);
+
+        LocalDateTime now = LocalDate.of(2026, 1, 5).atTime(23, 12, 30);
+        ruleEngine = new RuleEngine();
+        ReflectionTestUtils.setField(ruleEngine, "clock",
+                Clock.fixed(now.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+
+        Random random = new Random(11);
+        tasks = new ArrayList<>(1_000_000);
+        for (int i = 0; i < 1_000_000; i++) {
+            Task task = new Task();
+            task.setId((long) i);
+            task.setPriority(PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            task.setDueDate(random.nextInt(50) == 0 ? null : now.toLocalDate().plusDays(random.nextInt(10) - 2));
+            task.setCompleted(random.nextInt(10) == 0);
+            tasks.add(task);
+        }
+    }
+
+    @Benchmark
+    public void perTask(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(ruleEngine.shouldExecute(task));
+            blackhole.consume(ruleEngine.calculateUrgencyScore(task));
+        }
+    }
+
+    @Benchmark
+    public BatchEvaluation batch() {
+        return ruleEngine.evaluateBatch(tasks);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(RuleEngineBatchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
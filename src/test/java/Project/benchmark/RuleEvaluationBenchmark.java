@@ -0,0 +1,118 @@
+package Project.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import Project.model.Task;
+import Project.rules.CompiledRule;
+import Project.rules.RuleExpression;
+
+/**
+ * Compiled rule expressions against the equivalent hand-written checks over
+ * 1024 tasks per invocation. After {@code mvn test-compile}, run {@link #main}
+ * with the test classpath, or {@code org.openjdk.jmh.Main RuleEvaluationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleEvaluationBenchmark {
+
+    private static final String[] PRIORITIES = { "HIGH", "MEDIUM", "LOW" };
+
+    private Task[] tasks;
+    private LocalDateTime now;
+    private CompiledRule simpleRule;
+    private CompiledRule complexRule;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        now = LocalDate.of(2026, 1, 5).atTime(9, 30);
+        tasks = new Task[1024];
+        for (int i = 0; i < tasks.length; i++) {
+            Task task = new Task();
+            task.setId((long) i);
+            task.setPriority(PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            task.setDueDate(now.toLocalDate().plusDays(random.nextInt(5) - 1));
+            task.setCompleted(random.nextInt(10) == 0);
+            tasks[i] = task;
+        }
+
+        simpleRule = RuleExpression.parse("priority == HIGH && hoursUntilDue < 4").compile();
+        complexRule = RuleExpression.parse(
+                "(priority == HIGH || priority == MEDIUM) && hoursUntilDue >= 0 && hoursUntilDue < 24 && !completed")
+                .compile();
+    }
+
+    @Benchmark
+    public int handWrittenSimple() {
+        int matches = 0;
+        for (Task task : tasks) {
+            if ("HIGH".equalsIgnoreCase(task.getPriority()) && task.getDueDate() != null
+                    && ChronoUnit.HOURS.between(now, task.getDueDate().atStartOfDay()) < 4) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int compiledSimple() {
+        int matches = 0;
+        for (Task task : tasks) {
+            if (simpleRule.matches(task, now)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int handWrittenComplex() {
+        int matches = 0;
+        for (Task task : tasks) {
+            String priority = task.getPriority();
+            if (("HIGH".equalsIgnoreCase(priority) || "MEDIUM".equalsIgnoreCase(priority)) && task.getDueDate() != null) {
+                long hours = ChronoUnit.HOURS.between(now, task.getDueDate().atStartOfDay());
+                if (hours >= 0 && hours < 24 && !task.isCompleted()) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int compiledComplex() {
+        int matches = 0;
+        for (Task task : tasks) {
+            if (complexRule.matches(task, now)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(RuleEvaluationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,168 @@
+package Project.dao;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.model.ReminderDelivery;
+
+public class ReminderDeliveryDaoTest {
+
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+    private static final LocalDateTime REMINDER_AT = LocalDateTime.of(2026, 3, 14, 8, 0);
+
+    private String url;
+    private JdbcTemplate jdbcTemplate;
+    private ReminderDeliveryDao reminderDeliveryDao;
+    private long taskId;
+
+    @BeforeEach
+    public void setUp() {
+        url = "jdbc:h2:mem:delivery-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1";
+        DataSource dataSource = new DriverManagerDataSource(url);
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        populator.setContinueOnError(true);
+        populator.execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        reminderDeliveryDao = new ReminderDeliveryDao();
+        ReflectionTestUtils.setField(reminderDeliveryDao, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(reminderDeliveryDao, "clock",
+                Clock.fixed(REMINDER_AT.atZone(ZONE).toInstant(), ZONE));
+
+        jdbcTemplate.update("INSERT INTO tasks (title, due_date, completed, priority, status, user_id) "
+                + "VALUES ('Pay rent', ?, FALSE, 'HIGH', 'PENDING', 1)", Timestamp.valueOf(REMINDER_AT.plusHours(1)));
+        taskId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tasks", Long.class);
+    }
+
+    private ReminderDelivery delivery(LocalDateTime reminderAt) {
+        return new ReminderDelivery(taskId, reminderAt, ReminderDelivery.CHANNEL_EMAIL);
+    }
+
+    private int ledgerRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reminder_deliveries", Integer.class);
+    }
+
+    @Test
+    public void testSecondClaimOfTheSameOccurrenceIsRejected() {
+        assertTrue(reminderDeliveryDao.claim(List.of(delivery(REMINDER_AT)))[0]);
+        assertFalse(reminderDeliveryDao.claim(List.of(delivery(REMINDER_AT)))[0]);
+
+        // Even after the first claimer has finished, the occurrence stays taken.
+        reminderDeliveryDao.updateStatus(delivery(REMINDER_AT), ReminderDelivery.STATUS_SENT);
+        assertFalse(reminderDeliveryDao.claim(List.of(delivery(REMINDER_AT)))[0]);
+
+        assertTrue(reminderDeliveryDao.claim(List.of(delivery(REMINDER_AT.plusDays(1))))[0],
+                "The next occurrence of the same task is a different delivery");
+        assertEquals(2, ledgerRows());
+        assertEquals(ReminderDelivery.STATUS_SENT, reminderDeliveryDao.findByTaskId(taskId).get(1).getStatus());
+    }
+
+    @Test
+    public void testBatchedClaimReportsEachRow() {
+        assertTrue(reminderDeliveryDao.claim(List.of(delivery(REMINDER_AT)))[0]);
+
+        boolean[] claimed = reminderDeliveryDao.claim(List.of(
+                delivery(REMINDER_AT.plusDays(1)),
+                delivery(REMINDER_AT),
+                delivery(REMINDER_AT.plusDays(2)),
+                delivery(REMINDER_AT.plusDays(1))));
+
+        assertArrayEquals(new boolean[] { true, false, true, false }, claimed);
+        assertEquals(3, ledgerRows());
+    }
+
+    @Test
+    public void testConcurrentClaimersEachWinDisjointRows() throws Exception {
+        List<ReminderDelivery> deliveries = new ArrayList<>();
+        for (int day = 0; day < 50; day++) {
+            deliveries.add(delivery(REMINDER_AT.plusDays(day)));
+        }
+
+        int claimers = 4;
+        CyclicBarrier barrier = new CyclicBarrier(claimers);
+        ExecutorService executor = Executors.newFixedThreadPool(claimers);
+        try {
+            List<Future<boolean[]>> results = new ArrayList<>();
+            for (int i = 0; i < claimers; i++) {
+                results.add(executor.submit(() -> {
+                    barrier.await();
+                    return reminderDeliveryDao.claim(deliveries);
+                }));
+            }
+
+            int[] winners = new int[deliveries.size()];
+            for (Future<boolean[]> result : results) {
+                boolean[] claimed = result.get();
+                for (int i = 0; i < claimed.length; i++) {
+                    winners[i] += claimed[i] ? 1 : 0;
+                }
+            }
+            for (int i = 0; i < winners.length; i++) {
+                assertEquals(1, winners[i], "Occurrence " + i + " must be claimed exactly once");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(deliveries.size(), ledgerRows());
+    }
+
+    @Test
+    public void testClaimThatLosesOneRowToAConcurrentInsertKeepsTheOthers() throws Exception {
+        try (Connection other = DriverManager.getConnection(url)) {
+            other.setAutoCommit(false);
+            try (PreparedStatement insert = other.prepareStatement(
+                    "INSERT INTO reminder_deliveries (task_id, reminder_at, channel) VALUES (?, ?, ?)")) {
+                insert.setLong(1, taskId);
+                insert.setTimestamp(2, Timestamp.valueOf(REMINDER_AT.plusDays(1)));
+                insert.setString(3, ReminderDelivery.CHANNEL_EMAIL);
+                insert.executeUpdate();
+            }
+
+            // The uncommitted row is invisible to NOT EXISTS, so the batch blocks on
+            // the unique index for that key until the other connection commits.
+            CompletableFuture<boolean[]> claim = CompletableFuture.supplyAsync(() -> reminderDeliveryDao.claim(List.of(
+                    delivery(REMINDER_AT), delivery(REMINDER_AT.plusDays(1)), delivery(REMINDER_AT.plusDays(2)))));
+            String blockedOnHeldRow = "INSERT INTO reminder_deliveries %2: TIMESTAMP '"
+                    + Timestamp.valueOf(REMINDER_AT.plusDays(1)).toString().replace(".0", "") + "'%";
+            while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS "
+                    + "WHERE EXECUTING_STATEMENT LIKE ?", Integer.class, blockedOnHeldRow) == 0) {
+                if (claim.isDone()) {
+                    claim.join();
+                    fail("The claim must wait for the other connection");
+                }
+                Thread.sleep(5);
+            }
+            other.commit();
+
+            assertArrayEquals(new boolean[] { true, false, true }, claim.get(10, TimeUnit.SECONDS),
+                    "The rows this claim inserted are still its to dispatch");
+        }
+
+        assertEquals(3, ledgerRows());
+    }
+}
@@ -0,0 +1,169 @@
+package Project.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.dao.UserDao;
+import Project.metrics.SchedulerMetrics;
+import Project.model.Task;
+import Project.model.User;
+import Project.template.NotificationTemplates;
+
+public class ActionExecutorDigestTest {
+
+    private UserDao userDao;
+    private MailDeliveryPipeline mailPipeline;
+    private OutboundMailGuard mailGuard;
+    private ActionExecutor actionExecutor;
+    private NotificationTemplates templates;
+
+    @BeforeEach
+    public void setUp() {
+        templates = new NotificationTemplates();
+        ReflectionTestUtils.setField(templates, "location", "classpath:templates/");
+        templates.start();
+
+        userDao = mock(UserDao.class);
+        mailPipeline = mock(MailDeliveryPipeline.class);
+        when(mailPipeline.submit(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        mailGuard = mock(OutboundMailGuard.class);
+        when(mailGuard.send(any())).thenAnswer(invocation -> invocation.<Function<Runnable, ?>>getArgument(0).apply(null));
+        for (long id = 1; id <= 2; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setUsername("user" + id);
+            user.setEmail("user" + id + "@example.com");
+            when(userDao.findById(id)).thenReturn(user);
+        }
+        actionExecutor = newExecutor(50);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        actionExecutor.stop();
+    }
+
+    private ActionExecutor newExecutor(int maxTasks) {
+        ActionExecutor executor = new ActionExecutor();
+        ReflectionTestUtils.setField(executor, "userDao", userDao);
+        ReflectionTestUtils.setField(executor, "mailPipeline", mailPipeline);
+        ReflectionTestUtils.setField(executor, "mailGuard", mailGuard);
+        ReflectionTestUtils.setField(executor, "schedulerMetrics", mock(SchedulerMetrics.class));
+        ReflectionTestUtils.setField(executor, "templates", templates);
+        ReflectionTestUtils.setField(executor, "digestEnabled", true);
+        ReflectionTestUtils.setField(executor, "digestWindowMs", 200L);
+        ReflectionTestUtils.setField(executor, "digestMaxTasks", maxTasks);
+        executor.start();
+        return executor;
+    }
+
+    private static Task task(long id, long userId) {
+        Task task = new Task();
+        task.setId(id);
+        task.setUserId(userId);
+        task.setTitle("task-" + id);
+        task.setPriority("MEDIUM");
+        task.setStatus("PENDING");
+        task.setDueDate(LocalDate.of(2026, 3, 14));
+        return task;
+    }
+
+    private static void awaitAll(List<CompletableFuture<Boolean>> futures) throws Exception {
+        for (CompletableFuture<Boolean> future : futures) {
+            assertTrue(future.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private List<SimpleMailMessage> sentMessages(int expected) {
+        ArgumentCaptor<SimpleMailMessage> captor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailPipeline, times(expected)).submit(captor.capture(), any(), any());
+        return captor.getAllValues();
+    }
+
+    @Test
+    public void testRemindersOfOneUserGoOutAsOneEmailMostUrgentFirst() throws Exception {
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            futures.add(actionExecutor.executeAsync(task(id, 1L), (int) (id * 7 % 41)));
+        }
+        for (long id = 41; id <= 43; id++) {
+            futures.add(actionExecutor.executeAsync(task(id, 2L), 10));
+        }
+        awaitAll(futures);
+
+        List<SimpleMailMessage> messages = sentMessages(2);
+        verify(userDao, times(1)).findById(1L);
+        verify(userDao, times(1)).findById(2L);
+
+        SimpleMailMessage first = messages.stream().filter(m -> m.getTo()[0].startsWith("user1")).findFirst().get();
+        assertEquals("Task Reminder: 40 upcoming tasks", first.getSubject());
+        String body = first.getText();
+        // Scores id * 7 % 41 are distinct for ids 1..40; task 35 has the highest (40).
+        assertTrue(body.contains("\n1. task-35\n"), body);
+        Matcher line = Pattern.compile("(?m)^(\\d+)\\. task-(\\d+)$").matcher(body);
+        int previous = Integer.MAX_VALUE;
+        int listed = 0;
+        while (line.find()) {
+            assertEquals(++listed, Integer.parseInt(line.group(1)));
+            int score = (int) (Long.parseLong(line.group(2)) * 7 % 41);
+            assertTrue(score <= previous, "ordered by urgency at position " + listed);
+            previous = score;
+        }
+        assertEquals(40, listed);
+    }
+
+    @Test
+    public void testFullDigestIsSentWithoutWaitingForTheWindow() throws Exception {
+        actionExecutor.stop();
+        actionExecutor = newExecutor(10);
+        ReflectionTestUtils.setField(actionExecutor, "digestWindowMs", 60_000L);
+
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            futures.add(actionExecutor.executeAsync(task(id, 1L), 0));
+        }
+        awaitAll(futures);
+
+        sentMessages(2);
+        verify(userDao, times(2)).findById(1L);
+    }
+
+    @Test
+    public void testSingleReminderKeepsTheSingleTaskEmail() throws Exception {
+        awaitAll(List.of(actionExecutor.executeAsync(task(7, 1L), 40)));
+
+        assertEquals("Task Reminder: task-7", sentMessages(1).get(0).getSubject());
+    }
+
+    @Test
+    public void testFailedDigestFailsEveryReminderInIt() throws Exception {
+        when(mailPipeline.submit(any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("SMTP down")));
+
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            futures.add(actionExecutor.executeAsync(task(id, 1L), 0));
+        }
+
+        for (CompletableFuture<Boolean> future : futures) {
+            assertFalse(future.get(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package Project.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class CircuitBreakerTest {
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(5);
+    private static final long OPEN = TimeUnit.SECONDS.toNanos(30);
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(10, 4, 50, 80, SLOW, OPEN, 2, now::get);
+
+    private void call(boolean success, long durationNanos) {
+        long permit = breaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.NOT_PERMITTED, permit);
+        breaker.onResult(permit, durationNanos, success);
+    }
+
+    @Test
+    public void testOpensOnFailureRateAndRecoversThroughProbes() {
+        call(false, 0);
+        call(false, 0);
+        call(true, 0);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "Fewer than the minimum calls");
+        call(true, 0);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.tryAcquire());
+
+        now.addAndGet(OPEN);
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.NOT_PERMITTED, second);
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.tryAcquire(), "Only two probes at a time");
+
+        breaker.onResult(first, 0, true);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(second, 0, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.stats().get("bufferedCalls"));
+    }
+
+    @Test
+    public void testSlowProbeReopens() {
+        for (int i = 0; i < 4; i++) {
+            call(true, SLOW);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "Slow calls trip the breaker too");
+
+        now.addAndGet(OPEN);
+        call(true, SLOW);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2L, breaker.stats().get("timesOpened"));
+    }
+
+    @Test
+    public void testOldFailuresLeaveTheWindowAndStaleResultsAreIgnored() {
+        long stale = breaker.tryAcquire();
+        for (int i = 0; i < 4; i++) {
+            call(false, 0);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        now.addAndGet(OPEN);
+        long probe = breaker.tryAcquire();
+        breaker.onResult(stale, 0, false);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState(), "A call from before the trip is no probe");
+        breaker.release(probe);
+        call(true, 0);
+        call(true, 0);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // Ten successes push the first failure out of the window; with it, four more would reach 50%.
+        call(false, 0);
+        for (int i = 0; i < 10; i++) {
+            call(true, 0);
+        }
+        for (int i = 0; i < 4; i++) {
+            call(false, 0);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        call(false, 0);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testTokenBucketLimitsAndAdapts() {
+        TokenBucket bucket = new TokenBucket(10, 1, 2, now::get);
+        assertEquals(2, bucket.available());
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(-1, bucket.reserve(0), "The burst is used up");
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(-1, bucket.reserve(0));
+
+        for (int i = 0; i < 10; i++) {
+            bucket.slowDown();
+        }
+        assertEquals(1.0, bucket.getRate(), "Never below the floor");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(0, bucket.available());
+        assertEquals(-1, bucket.reserve(0));
+
+        for (int i = 0; i < 30; i++) {
+            bucket.speedUp();
+        }
+        assertEquals(10.0, bucket.getRate(), 1e-9, "Never above the quota");
+    }
+}
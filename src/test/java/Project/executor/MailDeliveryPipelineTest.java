@@ -0,0 +1,128 @@
+package Project.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class MailDeliveryPipelineTest {
+
+    private FakeSmtpServer server;
+    private MailDeliveryPipeline pipeline;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = new FakeSmtpServer();
+    }
+
+    @AfterEach
+    public void stopAll() throws Exception {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+        server.close();
+    }
+
+    private MailDeliveryPipeline startPipeline(int workers, int queueCapacity, int batchSize) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(server.getPort());
+        Properties properties = mailSender.getJavaMailProperties();
+        properties.put("mail.smtp.connectiontimeout", "5000");
+        properties.put("mail.smtp.timeout", "5000");
+
+        pipeline = new MailDeliveryPipeline();
+        ReflectionTestUtils.setField(pipeline, "mailSender", mailSender);
+        ReflectionTestUtils.setField(pipeline, "workerCount", workers);
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(pipeline, "batchSize", batchSize);
+        ReflectionTestUtils.setField(pipeline, "maxIdleMs", 30_000L);
+        pipeline.start();
+        return pipeline;
+    }
+
+    private static SimpleMailMessage message(int i) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("reminders@example.com");
+        message.setTo("user" + i + "@example.com");
+        message.setSubject("Task Reminder: task-" + i);
+        message.setText("Reminder body " + i);
+        return message;
+    }
+
+    private List<CompletableFuture<Void>> submit(int count) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(pipeline.submit(message(i)));
+        }
+        return futures;
+    }
+
+    private static void awaitAll(List<CompletableFuture<Void>> futures) throws Exception {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testConnectionsAreReusedAcrossBatches() throws Exception {
+        startPipeline(2, 1000, 10);
+
+        awaitAll(submit(200));
+        // A second wave after the first has drained still goes over the open connections.
+        awaitAll(submit(50));
+
+        assertEquals(250, server.getMessages().size());
+        assertTrue(server.getConnections() <= 2, "connections: " + server.getConnections());
+        assertEquals(250L, pipeline.getStats().get("sent"));
+        assertEquals((long) server.getConnections(), pipeline.getStats().get("connectionsOpened"));
+        assertTrue((long) pipeline.getStats().get("batches") < 250L, "messages were batched");
+    }
+
+    @Test
+    public void testReconnectsWhenServerDropsConnection() throws Exception {
+        server.dropAfterMessages(7);
+        startPipeline(1, 1000, 10);
+
+        awaitAll(submit(30));
+
+        assertEquals(30, server.getMessages().size());
+        assertEquals(5, server.getConnections());
+        assertEquals(0L, pipeline.getStats().get("failed"));
+    }
+
+    @Test
+    public void testSubmitFailsFastWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        server.holdData(release);
+        startPipeline(1, 2, 1);
+
+        CompletableFuture<Void> inFlight = pipeline.submit(message(0));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pipeline.getQueueDepth() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        List<CompletableFuture<Void>> queued = submit(2);
+        CompletableFuture<Void> rejected = pipeline.submit(message(3));
+
+        assertTrue(rejected.isCompletedExceptionally());
+        CompletionException error = assertThrows(CompletionException.class, rejected::join);
+        assertEquals("Mail queue is full", error.getCause().getMessage());
+
+        release.countDown();
+        queued.add(inFlight);
+        awaitAll(queued);
+        assertEquals(3, server.getMessages().size());
+        assertEquals(1L, pipeline.getStats().get("rejected"));
+    }
+}
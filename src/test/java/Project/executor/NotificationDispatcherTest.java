@@ -0,0 +1,173 @@
+package Project.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.model.Task;
+
+public class NotificationDispatcherTest {
+
+    private final CountDownLatch smtpStalled = new CountDownLatch(1);
+    private NotificationDispatcher dispatcher;
+
+    @AfterEach
+    public void tearDown() {
+        smtpStalled.countDown();
+        dispatcher.stop();
+    }
+
+    private static NotificationChannel channel(String name, Callable<Boolean> deliver) {
+        return new NotificationChannel() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public boolean deliver(Task task) throws Exception {
+                return deliver.call();
+            }
+        };
+    }
+
+    private NotificationDispatcher start(NotificationChannel... channels) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("notification.bulkhead.email.threads", "1")
+                .withProperty("notification.bulkhead.email.queue-capacity", "2");
+
+        dispatcher = new NotificationDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "channels", List.of(channels));
+        ReflectionTestUtils.setField(dispatcher, "environment", environment);
+        ReflectionTestUtils.setField(dispatcher, "defaultThreads", 2);
+        ReflectionTestUtils.setField(dispatcher, "defaultQueueCapacity", 10);
+        ReflectionTestUtils.setField(dispatcher, "maxWaitMs", 5000L);
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    private static Task task(long id) {
+        Task task = new Task();
+        task.setId(id);
+        task.setUserId(1L);
+        return task;
+    }
+
+    @Test
+    public void testStalledChannelDoesNotHoldUpOthers() throws Exception {
+        start(channel("EMAIL", () -> {
+            smtpStalled.await();
+            return true;
+        }), channel("NOTIFICATION", () -> true));
+
+        // One email in flight and two queued fill the EMAIL bulkhead; the fourth is shed.
+        CompletableFuture<Boolean> first = dispatcher.dispatch(task(1), "EMAIL");
+        CompletableFuture<Boolean> second = dispatcher.dispatch(task(2), "email");
+        CompletableFuture<Boolean> third = dispatcher.dispatch(task(3), "EMAIL");
+        CompletableFuture<Boolean> shed = dispatcher.dispatch(task(4), "EMAIL");
+        assertFalse(shed.get(1, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(dispatcher.dispatch(task(100 + i), "NOTIFICATION").get(1, TimeUnit.SECONDS));
+        }
+        assertFalse(first.isDone());
+
+        smtpStalled.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        assertTrue(third.get(5, TimeUnit.SECONDS));
+
+        Map<String, Object> email = dispatcher.getStats().get("EMAIL");
+        assertEquals(3L, email.get("delivered"));
+        assertEquals(1L, email.get("rejected"));
+        assertEquals(50L, dispatcher.getStats().get("NOTIFICATION").get("delivered"));
+    }
+
+    @Test
+    public void testUnknownChannelAndFailingChannelReportNotDelivered() throws Exception {
+        start(channel("NOTIFICATION", () -> {
+            throw new IllegalStateException("no connection");
+        }));
+
+        assertFalse(dispatcher.hasChannel("SMS"));
+        assertFalse(dispatcher.dispatch(task(1), "SMS").get(1, TimeUnit.SECONDS));
+        assertFalse(dispatcher.dispatch(task(2), "NOTIFICATION").get(1, TimeUnit.SECONDS));
+        assertEquals(1L, dispatcher.getStats().get("NOTIFICATION").get("failed"));
+    }
+
+    @Test
+    public void testSweepRemindersCarryTheirUrgencyScore() throws Exception {
+        List<Integer> scores = new ArrayList<>();
+        List<CompletableFuture<Boolean>> handedOver = new ArrayList<>();
+        NotificationChannel email = new NotificationChannel() {
+            @Override
+            public String getName() {
+                return "EMAIL";
+            }
+
+            @Override
+            public boolean deliver(Task task) {
+                throw new AssertionError("The sweep hands reminders over asynchronously");
+            }
+
+            @Override
+            public synchronized CompletableFuture<Boolean> deliver(Task task, int urgencyScore) {
+                scores.add(urgencyScore);
+                CompletableFuture<Boolean> sent = new CompletableFuture<>();
+                handedOver.add(sent);
+                return sent;
+            }
+        };
+        start(email, channel("NOTIFICATION", () -> true));
+
+        // Far more reminders than threads and queue: the sweep waits for room instead of shedding, and a
+        // reminder holds a thread only until it is handed over.
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            results.add(dispatcher.dispatch(task(i), 100 + i, "EMAIL"));
+        }
+        assertTrue(dispatcher.dispatch(task(99), 7, "NOTIFICATION").get(1, TimeUnit.SECONDS),
+                "Channels without an asynchronous transport deliver as usual");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (handedOver(email, handedOver).size() < 30 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        List<CompletableFuture<Boolean>> pending = handedOver(email, handedOver);
+        assertEquals(30, pending.size());
+        assertTrue(results.stream().noneMatch(CompletableFuture::isDone), "Done only once the transport has answered");
+        synchronized (email) {
+            assertEquals(30, scores.size());
+            assertTrue(scores.containsAll(List.of(100, 115, 129)));
+        }
+
+        pending.get(0).complete(false);
+        pending.subList(1, 30).forEach(sent -> sent.complete(true));
+        int delivered = 0;
+        for (CompletableFuture<Boolean> result : results) {
+            delivered += result.get(1, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        assertEquals(29, delivered);
+        Map<String, Object> stats = dispatcher.getStats().get("EMAIL");
+        assertEquals(29L, stats.get("delivered"));
+        assertEquals(1L, stats.get("failed"));
+        assertEquals(0L, stats.get("rejected"));
+    }
+
+    private static List<CompletableFuture<Boolean>> handedOver(Object lock, List<CompletableFuture<Boolean>> handedOver) {
+        synchronized (lock) {
+            return new ArrayList<>(handedOver);
+        }
+    }
+}
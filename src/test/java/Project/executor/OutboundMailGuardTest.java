@@ -0,0 +1,169 @@
+package Project.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class OutboundMailGuardTest {
+
+    private OutboundMailGuard guard;
+
+    @AfterEach
+    public void tearDown() {
+        if (guard != null) {
+            guard.stop();
+        }
+    }
+
+    private OutboundMailGuard start(double ratePerSecond, int burst, long maxWaitMs, long slowCallMs) {
+        return start(ratePerSecond, burst, maxWaitMs, slowCallMs, 60_000L);
+    }
+
+    private OutboundMailGuard start(double ratePerSecond, int burst, long maxWaitMs, long slowCallMs, long openMs) {
+        guard = new OutboundMailGuard();
+        ReflectionTestUtils.setField(guard, "windowSize", 10);
+        ReflectionTestUtils.setField(guard, "minimumCalls", 4);
+        ReflectionTestUtils.setField(guard, "failureRateThreshold", 50);
+        ReflectionTestUtils.setField(guard, "slowCallRateThreshold", 50);
+        ReflectionTestUtils.setField(guard, "slowCallMs", slowCallMs);
+        ReflectionTestUtils.setField(guard, "openMs", openMs);
+        ReflectionTestUtils.setField(guard, "halfOpenCalls", 1);
+        ReflectionTestUtils.setField(guard, "ratePerSecond", ratePerSecond);
+        ReflectionTestUtils.setField(guard, "burst", burst);
+        ReflectionTestUtils.setField(guard, "adaptive", false);
+        ReflectionTestUtils.setField(guard, "maxWaitMs", maxWaitMs);
+        guard.start();
+        return guard;
+    }
+
+    /** A send that queues for {@code queuedMs}, then transmits for {@code transmitMs}. */
+    private static Function<Runnable, CompletableFuture<Void>> send(AtomicInteger sent, long queuedMs, long transmitMs) {
+        return sendStarted -> CompletableFuture.runAsync(() -> {
+            sleep(queuedMs);
+            sendStarted.run();
+            sleep(transmitMs);
+            sent.incrementAndGet();
+        });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Throwable failure(CompletableFuture<Void> future) {
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+        return e.getCause();
+    }
+
+    @Test
+    public void testBurstOverTheRateLimitIsPacedInsteadOfDeferred() {
+        OutboundMailGuard guard = start(20, 2, 5000, 5000);
+        assertEquals(2, guard.availablePermits());
+
+        AtomicInteger sent = new AtomicInteger();
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(guard.send(send(sent, 0, 0)));
+        }
+        assertEquals(0, guard.availablePermits());
+        results.forEach(CompletableFuture::join);
+
+        // Two from the burst, then one every 50 ms.
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(180));
+        assertEquals(6, sent.get());
+        assertEquals(4L, guard.getStats().get("paced"));
+        assertEquals(0L, guard.getStats().get("deferredByRateLimit"));
+    }
+
+    @Test
+    public void testSendsWaitingLongerThanMaxWaitAreDeferred() {
+        OutboundMailGuard guard = start(2, 1, 700, 5000);
+
+        AtomicInteger sent = new AtomicInteger();
+        CompletableFuture<Void> first = guard.send(send(sent, 0, 0));
+        CompletableFuture<Void> second = guard.send(send(sent, 0, 0));
+        CompletableFuture<Void> third = guard.send(send(sent, 0, 0));
+
+        assertInstanceOf(OutboundMailGuard.DeferredException.class, failure(third), "Its token is a second away");
+        first.join();
+        second.join();
+        assertEquals(2, sent.get());
+        assertEquals(1L, guard.getStats().get("deferredByRateLimit"));
+    }
+
+    @Test
+    public void testSlowCallTimerStartsWhenTransmissionStarts() {
+        OutboundMailGuard guard = start(0, 1, 0, 100);
+
+        AtomicInteger sent = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            guard.send(send(sent, 200, 0)).join();
+        }
+        assertEquals("CLOSED", guard.getStats().get("state"), "Time spent queueing is not held against the relay");
+        assertEquals(0.0, guard.getStats().get("slowCallRate"));
+
+        for (int i = 0; i < 4; i++) {
+            guard.send(send(sent, 0, 200)).join();
+        }
+        assertEquals(50.0, guard.getStats().get("slowCallRate"));
+        assertEquals("OPEN", guard.getStats().get("state"));
+        assertEquals(0, guard.availablePermits());
+        assertInstanceOf(OutboundMailGuard.DeferredException.class, failure(guard.send(send(sent, 0, 0))));
+        assertEquals(8, sent.get());
+    }
+
+    @Test
+    public void testStopDefersPacedSendsThatHaveNotStarted() {
+        OutboundMailGuard guard = start(1, 1, 5000, 5000);
+
+        AtomicInteger sent = new AtomicInteger();
+        guard.send(send(sent, 0, 0)).join();
+        CompletableFuture<Void> paced = guard.send(send(sent, 0, 0));
+        assertEquals(1, guard.getStats().get("waiting"));
+
+        guard.stop();
+        assertInstanceOf(OutboundMailGuard.DeferredException.class, failure(paced));
+        sleep(1200);
+        assertEquals(1, sent.get(), "A deferred send never reaches the relay");
+    }
+
+    @Test
+    public void testSendThatFailsBeforeReachingTheRelayGivesItsProbeBack() {
+        OutboundMailGuard guard = start(0, 1, 0, 5000, 100);
+
+        for (int i = 0; i < 4; i++) {
+            CompletableFuture<Void> failed = guard.send(sendStarted -> {
+                sendStarted.run();
+                return CompletableFuture.failedFuture(new IllegalStateException("relay down"));
+            });
+            assertInstanceOf(IllegalStateException.class, failure(failed));
+        }
+        assertEquals("OPEN", guard.getStats().get("state"));
+        sleep(150);
+
+        assertThrows(IllegalStateException.class, () -> guard.send(sendStarted -> {
+            throw new IllegalStateException("pipeline queue is full");
+        }));
+        assertEquals("HALF_OPEN", guard.getStats().get("state"), "A send that never started is not a failed probe");
+
+        AtomicInteger sent = new AtomicInteger();
+        guard.send(send(sent, 0, 0)).join();
+        assertEquals(1, sent.get());
+        assertEquals("CLOSED", guard.getStats().get("state"));
+    }
+}
@@ -0,0 +1,208 @@
+package Project.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.model.Task;
+
+public class ReminderDispatchQueueTest {
+
+    private ReminderDispatchQueue queue;
+
+    @AfterEach
+    public void tearDown() {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    private ReminderDispatchQueue start(int highQuota, int lowQuota, long agingMsPerPoint, long drainTimeoutMs) {
+        queue = new ReminderDispatchQueue();
+        ReflectionTestUtils.setField(queue, "highQuota", highQuota);
+        ReflectionTestUtils.setField(queue, "mediumQuota", 1);
+        ReflectionTestUtils.setField(queue, "lowQuota", lowQuota);
+        ReflectionTestUtils.setField(queue, "agingMsPerPoint", agingMsPerPoint);
+        ReflectionTestUtils.setField(queue, "drainTimeoutMs", drainTimeoutMs);
+        queue.start();
+        return queue;
+    }
+
+    private static Task task(long id, String priority) {
+        Task task = new Task();
+        task.setId(id);
+        task.setPriority(priority);
+        return task;
+    }
+
+    /** Occupies the single MEDIUM slot until the returned latch is released. */
+    private static CountDownLatch blockMedium(ReminderDispatchQueue queue) throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue.submit(task(0, "MEDIUM"), 0, () -> {
+            running.countDown();
+            await(release);
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void testDispatchesEarliestVirtualDeadlineFirst() throws Exception {
+        ReminderDispatchQueue queue = start(1, 1, 2000, 5000);
+        CountDownLatch release = blockMedium(queue);
+
+        List<Long> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        for (long[] reminder : new long[][] { { 1, 10 }, { 2, 50 }, { 3, 30 } }) {
+            queue.submit(task(reminder[0], "MEDIUM"), (int) reminder[1], () -> {
+                order.add(reminder[0]);
+                done.countDown();
+            });
+        }
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(2L, 3L, 1L), order, "More urgent reminders are dispatched first");
+    }
+
+    @Test
+    public void testWaitingTimeOutweighsUrgencyAfterTheAgingBound() throws Exception {
+        // One millisecond per urgency point: a score of 100 gains only 100 ms on a reminder queued 300 ms earlier.
+        ReminderDispatchQueue queue = start(1, 1, 1, 5000);
+        CountDownLatch release = blockMedium(queue);
+
+        List<Long> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        queue.submit(task(1, "MEDIUM"), 0, () -> {
+            order.add(1L);
+            done.countDown();
+        });
+        Thread.sleep(300);
+        queue.submit(task(2, "MEDIUM"), 100, () -> {
+            order.add(2L);
+            done.countDown();
+        });
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1L, 2L), order);
+    }
+
+    @Test
+    public void testEachPriorityClassStaysWithinItsQuota() throws Exception {
+        ReminderDispatchQueue queue = start(2, 1, 2000, 5000);
+
+        AtomicInteger lowRunning = new AtomicInteger();
+        AtomicInteger lowPeak = new AtomicInteger();
+        CountDownLatch releaseLow = new CountDownLatch(1);
+        CountDownLatch lowDone = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            queue.submit(task(100 + i, "LOW"), 0, () -> {
+                lowPeak.accumulateAndGet(lowRunning.incrementAndGet(), Math::max);
+                await(releaseLow);
+                lowRunning.decrementAndGet();
+                lowDone.countDown();
+            });
+        }
+
+        AtomicInteger highRunning = new AtomicInteger();
+        AtomicInteger highPeak = new AtomicInteger();
+        CountDownLatch highDone = new CountDownLatch(6);
+        for (int i = 0; i < 6; i++) {
+            queue.submit(task(200 + i, "HIGH"), 0, () -> {
+                highPeak.accumulateAndGet(highRunning.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                highRunning.decrementAndGet();
+                highDone.countDown();
+            });
+        }
+
+        assertTrue(highDone.await(5, TimeUnit.SECONDS), "A stalled LOW burst must not hold up HIGH reminders");
+        assertEquals(1, lowPeak.get());
+        assertEquals(4, queue.getQueueDepth(), "Four LOW reminders wait behind the one running");
+        assertTrue(highPeak.get() <= 2);
+
+        releaseLow.countDown();
+        assertTrue(lowDone.await(5, TimeUnit.SECONDS));
+        assertEquals(1, lowPeak.get());
+    }
+
+    @Test
+    public void testStopDrainsQueuedReminders() throws Exception {
+        ReminderDispatchQueue queue = start(1, 1, 2000, 5000);
+        CountDownLatch release = blockMedium(queue);
+
+        AtomicInteger ran = new AtomicInteger();
+        AtomicInteger dropped = new AtomicInteger();
+        for (int i = 1; i <= 5; i++) {
+            queue.submit(task(i, "MEDIUM"), 0, ran::incrementAndGet, dropped::incrementAndGet);
+        }
+        new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        }).start();
+
+        queue.stop();
+
+        assertEquals(5, ran.get());
+        assertEquals(0, dropped.get());
+        assertEquals(0, queue.getQueueDepth());
+    }
+
+    @Test
+    public void testStopHandsBackRemindersItCouldNotDispatch() throws Exception {
+        ReminderDispatchQueue queue = start(1, 1, 2000, 50);
+        CountDownLatch release = blockMedium(queue);
+
+        AtomicInteger ran = new AtomicInteger();
+        List<Long> dropped = new CopyOnWriteArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            long id = i;
+            queue.submit(task(id, "MEDIUM"), 0, ran::incrementAndGet, () -> dropped.add(id));
+        }
+        // The running reminder finishes during shutdown; the queued ones outlast the drain timeout.
+        new Thread(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        }).start();
+
+        queue.stop();
+
+        assertEquals(0, ran.get());
+        assertEquals(List.of(1L, 2L, 3L), dropped.stream().sorted().toList());
+        assertEquals(0, queue.getQueueDepth());
+
+        queue.submit(task(4, "HIGH"), 0, ran::incrementAndGet, () -> dropped.add(4L));
+        assertEquals(0, ran.get());
+        assertTrue(dropped.contains(4L), "A reminder submitted after stop is handed back right away");
+    }
+}
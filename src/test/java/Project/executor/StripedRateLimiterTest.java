@@ -0,0 +1,82 @@
+package Project.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class StripedRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    public void testBurstThenRefillWithWaitUntilNextToken() {
+        StripedRateLimiter limiter = new StripedRateLimiter(4, 100, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("alice:0", 2, 3));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), limiter.tryAcquire("alice:0", 2, 3));
+        assertEquals(0, limiter.tryAcquire("bob:0", 2, 3), "Keys have their own buckets");
+        assertEquals(0, limiter.tryAcquire("alice:1", 2, 3), "So do route classes");
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(0, limiter.tryAcquire("alice:0", 2, 3));
+        assertTrue(limiter.tryAcquire("alice:0", 2, 3) > 0);
+
+        assertEquals(6L, limiter.stats().get("granted"));
+        assertEquals(2L, limiter.stats().get("limited"));
+    }
+
+    @Test
+    public void testBucketCountStaysBounded() {
+        StripedRateLimiter limiter = new StripedRateLimiter(8, 64, now::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(0, limiter.tryAcquire("user" + i + ":0", 1, 1));
+        }
+        assertTrue(limiter.size() <= 64, "Was " + limiter.size());
+        assertTrue((Long) limiter.stats().get("evicted") >= 10_000 - 64);
+
+        // The most recently used buckets are the ones kept.
+        assertTrue(limiter.tryAcquire("user9999:0", 1, 1) > 0);
+    }
+
+    @Test
+    public void testConcurrentCallersNeverExceedTheBurst() throws Exception {
+        StripedRateLimiter limiter = new StripedRateLimiter(16, 1_000, now::get);
+        int threads = 8;
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1_000; i++) {
+                    if (limiter.tryAcquire("user" + (i % 10) + ":0", 100, 50) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // The clock stands still, so each of the 10 users gets exactly its burst.
+        assertEquals(10 * 50, granted.get());
+    }
+}
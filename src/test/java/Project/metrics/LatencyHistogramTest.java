@@ -0,0 +1,99 @@
+package Project.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testSmallValuesHaveExactBuckets() {
+        for (long value = 0; value < 32; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertEquals(value, index);
+            assertEquals(value, LatencyHistogram.upperBoundOf(index));
+        }
+    }
+
+    @Test
+    public void testBucketBoundariesAreContiguous() {
+        // The upper bound of every bucket is the last value in it, and the next value starts the next bucket.
+        int last = LatencyHistogram.indexOf(Long.MAX_VALUE);
+        for (int index = 0; index < last; index++) {
+            long upper = LatencyHistogram.upperBoundOf(index);
+            assertEquals(index, LatencyHistogram.indexOf(upper), "upper bound of bucket " + index);
+            assertEquals(index + 1, LatencyHistogram.indexOf(upper + 1), "value after bucket " + index);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundOf(last));
+
+        assertEquals(32, LatencyHistogram.indexOf(32));
+        assertEquals(32, LatencyHistogram.indexOf(33));
+        assertEquals(33, LatencyHistogram.upperBoundOf(32));
+        assertEquals(LatencyHistogram.indexOf(1L << 40) - 1, LatencyHistogram.indexOf((1L << 40) - 1));
+    }
+
+    @Test
+    public void testBucketsAreWithinOneSixteenthOfTheValue() {
+        Random random = new Random(30);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            long upper = LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(value));
+            assertTrue(upper >= value, value + " above its bucket " + upper);
+            assertTrue(upper - value <= value / 16, value + " too far from its bucket bound " + upper);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(50), "An empty histogram reports zero");
+
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        assertEquals(1000, histogram.getCount());
+        assertPercentile(histogram, 50, 500);
+        assertPercentile(histogram, 90, 900);
+        assertPercentile(histogram, 99, 990);
+        assertPercentile(histogram, 0, 1);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), histogram.percentile(100), "p100 is the exact maximum");
+
+        Map<String, Object> snapshot = histogram.snapshot();
+        assertEquals(1000L, snapshot.get("count"));
+        assertEquals(500.5, (Double) snapshot.get("meanMs"), 1e-9);
+        assertEquals(1000.0, snapshot.get("maxMs"));
+    }
+
+    private static void assertPercentile(LatencyHistogram histogram, double percentile, long expectedMillis) {
+        long expected = TimeUnit.MILLISECONDS.toNanos(expectedMillis);
+        long actual = histogram.percentile(percentile);
+        assertTrue(actual >= expected && actual <= expected + expected / 16,
+                "p" + percentile + " was " + actual + ", expected about " + expected);
+    }
+
+    @Test
+    public void testExtremeValuesLandInTheEdgeBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(Long.MAX_VALUE - 1);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(0, histogram.percentile(33), "Negative durations count as zero");
+        assertEquals(Long.MAX_VALUE, histogram.percentile(99));
+        assertEquals(Long.MAX_VALUE, histogram.percentile(100));
+    }
+
+    @Test
+    public void testPercentileNeverExceedsTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long value = TimeUnit.MILLISECONDS.toNanos(123) + 1;
+        histogram.record(value);
+        assertTrue(LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(value)) > value);
+        assertEquals(value, histogram.percentile(50));
+    }
+}
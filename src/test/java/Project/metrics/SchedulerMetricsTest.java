@@ -0,0 +1,109 @@
+package Project.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.quartz.JobKey;
+import org.quartz.ListenerManager;
+import org.quartz.Scheduler;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.TriggerListener;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.executor.MailDeliveryPipeline;
+import Project.executor.NotificationDispatcher;
+import Project.executor.OutboundMailGuard;
+import Project.executor.ReminderDispatchQueue;
+import Project.rules.UrgencyScoreCache;
+import Project.scheduler.ReminderRetryWorker;
+import Project.service.NotificationHub;
+
+public class SchedulerMetricsTest {
+
+    private Scheduler scheduler;
+    private ListenerManager listenerManager;
+    private SchedulerMetrics metrics;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        scheduler = mock(Scheduler.class);
+        listenerManager = mock(ListenerManager.class);
+        when(scheduler.getListenerManager()).thenReturn(listenerManager);
+        when(scheduler.getJobKeys(any())).thenReturn(Set.of(new JobKey("a"), new JobKey("b")));
+
+        metrics = new SchedulerMetrics();
+        ReflectionTestUtils.setField(metrics, "scheduler", scheduler);
+        ReflectionTestUtils.setField(metrics, "dispatchQueue", mock(ReminderDispatchQueue.class));
+        ReflectionTestUtils.setField(metrics, "urgencyScoreCache", mock(UrgencyScoreCache.class));
+        ReflectionTestUtils.setField(metrics, "mailPipeline", mock(MailDeliveryPipeline.class));
+        ReflectionTestUtils.setField(metrics, "notificationDispatcher", mock(NotificationDispatcher.class));
+        ReflectionTestUtils.setField(metrics, "mailGuard", mock(OutboundMailGuard.class));
+        ReflectionTestUtils.setField(metrics, "notificationHub", mock(NotificationHub.class));
+        ReflectionTestUtils.setField(metrics, "reminderRetryWorker", mock(ReminderRetryWorker.class));
+        ReflectionTestUtils.setField(metrics, "logIntervalMs", 0L);
+        metrics.start();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> histogram(Map<String, Object> snapshot, String name) {
+        return (Map<String, Object>) snapshot.get(name);
+    }
+
+    @Test
+    public void testFireLagIsScheduledToActualFireTime() {
+        Date scheduled = new Date(1_000_000);
+        metrics.recordFire(scheduled, new Date(1_000_250));
+        metrics.recordFire(scheduled, new Date(999_000));
+        metrics.recordFire(null, new Date(1_000_000));
+
+        Map<String, Object> snapshot = metrics.snapshot();
+        assertEquals(3L, snapshot.get("jobsFired"));
+        Map<String, Object> fireLag = histogram(snapshot, "fireLag");
+        assertEquals(2L, fireLag.get("count"), "A fire without a scheduled time has no lag");
+        assertEquals(250.0, fireLag.get("maxMs"));
+        assertEquals(0.0, fireLag.get("p50Ms"), "A trigger fired early counts as no lag");
+    }
+
+    @Test
+    public void testCountsDeliveriesDigestsAndScheduleChanges() {
+        metrics.recordDelivery(2_000_000, true);
+        metrics.recordDelivery(3_000_000, true);
+        metrics.recordDelivery(50_000_000, false);
+        metrics.recordDigest(4, true);
+        metrics.recordDigest(7, false);
+        metrics.recordScheduleChange(true);
+        metrics.recordScheduleChange(false);
+
+        Map<String, Object> snapshot = metrics.snapshot();
+        assertEquals(2L, snapshot.get("deliveriesSent"));
+        assertEquals(1L, snapshot.get("deliveriesFailed"));
+        assertEquals(3L, histogram(snapshot, "delivery").get("count"));
+        assertEquals(1L, snapshot.get("digestsSent"));
+        assertEquals(4L, snapshot.get("digestedReminders"));
+        assertEquals(1L, snapshot.get("scheduleChanges"));
+        assertEquals(1L, snapshot.get("scheduleFailures"));
+        assertEquals(2, snapshot.get("jobsInStore"));
+    }
+
+    @Test
+    public void testCountsMisfiresReportedByQuartz() {
+        ArgumentCaptor<TriggerListener> listener = ArgumentCaptor.forClass(TriggerListener.class);
+        verify(listenerManager).addTriggerListener(listener.capture());
+
+        Trigger trigger = mock(Trigger.class);
+        when(trigger.getKey()).thenReturn(new TriggerKey("reminder"));
+        listener.getValue().triggerMisfired(trigger);
+        listener.getValue().triggerMisfired(trigger);
+
+        assertEquals(2L, metrics.snapshot().get("misfires"));
+    }
+}
@@ -0,0 +1,138 @@
+package Project.rules;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class RecurrenceRuleTest {
+
+    private static List<LocalDate> occurrences(String rule, String start, String from, String to) {
+        return RecurrenceRule.parse(rule).occurrencesBetween(LocalDate.parse(start), LocalDate.parse(from),
+                LocalDate.parse(to));
+    }
+
+    private static List<LocalDate> dates(String... dates) {
+        return Arrays.stream(dates).map(LocalDate::parse).toList();
+    }
+
+    @Test
+    public void testDailyWithIntervalAndCount() {
+        assertEquals(dates("2026-03-01", "2026-03-04", "2026-03-07", "2026-03-10"),
+                occurrences("FREQ=DAILY;INTERVAL=3;COUNT=4", "2026-03-01", "2026-03-01", "2026-12-31"));
+        assertEquals(dates("2026-03-07", "2026-03-10"),
+                occurrences("FREQ=DAILY;INTERVAL=3;COUNT=4", "2026-03-01", "2026-03-05", "2026-12-31"));
+        assertEquals(dates("2026-03-01", "2026-03-02", "2026-03-03", "2026-03-04", "2026-03-05"),
+                occurrences("rrule:freq=daily;until=20260305T235959Z", "2026-03-01", "2026-02-01", "2026-03-31"));
+        assertTrue(occurrences("FREQ=DAILY", "2026-03-10", "2026-03-01", "2026-03-09").isEmpty(),
+                "Nothing occurs before the series starts");
+    }
+
+    @Test
+    public void testWeeklyByDay() {
+        // 2026-03-04 is a Wednesday.
+        assertEquals(dates("2026-03-04", "2026-03-06", "2026-03-09", "2026-03-11", "2026-03-13"),
+                occurrences("FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=5", "2026-03-04", "2026-03-01", "2026-04-30"));
+        assertEquals(dates("2026-03-11", "2026-03-13"),
+                occurrences("FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=5", "2026-03-04", "2026-03-10", "2026-04-30"));
+
+        assertEquals(dates("2026-03-03", "2026-03-05", "2026-03-17", "2026-03-19", "2026-03-31"),
+                occurrences("FREQ=WEEKLY;INTERVAL=2;BYDAY=TU,TH;UNTIL=20260331", "2026-03-03", "2026-03-01",
+                        "2026-06-30"));
+
+        assertEquals(dates("2026-03-14", "2026-03-21", "2026-03-28"),
+                occurrences("FREQ=WEEKLY", "2026-03-14", "2026-03-01", "2026-03-31"),
+                "Without BYDAY a weekly series repeats on the start's weekday");
+
+        RecurrenceRule weekends = RecurrenceRule.parse("FREQ=DAILY;BYDAY=SA,SU");
+        assertEquals(RecurrenceRule.Frequency.WEEKLY, weekends.getFrequency());
+        assertEquals(dates("2026-03-14", "2026-03-15", "2026-03-21", "2026-03-22"),
+                weekends.occurrencesBetween(LocalDate.parse("2026-03-12"), LocalDate.parse("2026-03-12"),
+                        LocalDate.parse("2026-03-22")));
+    }
+
+    @Test
+    public void testMonthlySkipsMonthsWithoutTheStartDay() {
+        assertEquals(dates("2026-01-31", "2026-03-31", "2026-05-31"),
+                occurrences("FREQ=MONTHLY;COUNT=3", "2026-01-31", "2026-01-01", "2027-12-31"),
+                "Short months are skipped and do not count towards COUNT");
+        assertEquals(dates("2026-05-31", "2026-07-31", "2026-08-31", "2026-10-31", "2026-12-31"),
+                occurrences("FREQ=MONTHLY", "2026-01-31", "2026-04-01", "2026-12-31"));
+        assertEquals(dates("2024-02-29", "2028-02-29"),
+                occurrences("FREQ=MONTHLY;INTERVAL=12", "2024-02-29", "2024-01-01", "2029-12-31"));
+        assertEquals(dates("2026-01-15", "2026-04-15", "2026-07-15"),
+                occurrences("FREQ=MONTHLY;INTERVAL=3;UNTIL=20260715", "2026-01-15", "2026-01-01", "2027-12-31"));
+    }
+
+    @Test
+    public void testOccurrencesAreCalendarDatesAcrossDaylightSavingChanges() {
+        // US clocks change on 2026-03-08, EU clocks on 2026-03-29 and 2026-10-25. Occurrences are dates,
+        // so a change neither drops nor repeats one and weekly series keep their weekday.
+        List<LocalDate> sundays = occurrences("FREQ=WEEKLY", "2026-03-01", "2026-03-01", "2026-04-05");
+        assertEquals(dates("2026-03-01", "2026-03-08", "2026-03-15", "2026-03-22", "2026-03-29", "2026-04-05"),
+                sundays);
+        assertTrue(sundays.stream().allMatch(date -> date.getDayOfWeek() == DayOfWeek.SUNDAY));
+
+        assertEquals(dates("2026-10-24", "2026-10-25", "2026-10-26"),
+                occurrences("FREQ=DAILY", "2026-10-01", "2026-10-24", "2026-10-26"));
+        assertEquals(dates("2026-03-28", "2026-03-29", "2026-03-30"),
+                occurrences("FREQ=DAILY", "2026-03-28", "2026-03-01", "2026-03-30"));
+    }
+
+    @Test
+    public void testWindowedExpansionMatchesExpansionFromTheStart() {
+        String[] rules = {
+                "FREQ=DAILY;INTERVAL=5",
+                "FREQ=DAILY;COUNT=40",
+                "FREQ=WEEKLY;INTERVAL=3;BYDAY=MO,TH,SU",
+                "FREQ=WEEKLY;BYDAY=TU,SA;COUNT=25",
+                "FREQ=MONTHLY;INTERVAL=2",
+                "FREQ=MONTHLY;COUNT=9",
+                "FREQ=WEEKLY;INTERVAL=2;UNTIL=20270601",
+        };
+        Random random = new Random(28);
+        for (String text : rules) {
+            RecurrenceRule rule = RecurrenceRule.parse(text);
+            for (int i = 0; i < 50; i++) {
+                LocalDate start = LocalDate.of(2026, 1, 1).plusDays(random.nextInt(365));
+                List<LocalDate> all = rule.occurrencesBetween(start, start, start.plusYears(3));
+                LocalDate from = start.plusDays(random.nextInt(700) - 30);
+                LocalDate to = from.plusDays(random.nextInt(200));
+
+                List<LocalDate> expected = all.stream().filter(date -> !date.isBefore(from) && !date.isAfter(to))
+                        .toList();
+                assertEquals(expected, rule.occurrencesBetween(start, from, to),
+                        text + " from " + start + " in [" + from + ", " + to + "]");
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsMalformedRules() {
+        String[] malformed = {
+                null,
+                " ",
+                "INTERVAL=2",
+                "FREQ=YEARLY",
+                "FREQ",
+                "=DAILY",
+                "FREQ=DAILY;INTERVAL=0",
+                "FREQ=DAILY;INTERVAL=two",
+                "FREQ=DAILY;COUNT=-1",
+                "FREQ=DAILY;COUNT=2;UNTIL=20260101",
+                "FREQ=DAILY;UNTIL=2026-01-01",
+                "FREQ=MONTHLY;BYDAY=MO",
+                "FREQ=DAILY;INTERVAL=2;BYDAY=MO",
+                "FREQ=WEEKLY;BYDAY=MO,XX",
+                "FREQ=DAILY;BYMONTH=1",
+        };
+        for (String text : malformed) {
+            assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse(text), String.valueOf(text));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package Project.rules;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.model.Task;
+
+public class RuleEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 14);
+
+    private static RuleEngine ruleEngineAt(LocalDateTime now, UrgencyScoreCache cache) {
+        RuleEngine ruleEngine = new RuleEngine();
+        ReflectionTestUtils.setField(ruleEngine, "clock",
+                Clock.fixed(now.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+        ReflectionTestUtils.setField(ruleEngine, "urgencyScoreCache", cache);
+        return ruleEngine;
+    }
+
+    private static List<Task> tasks() {
+        List<LocalDate> dueDates = new ArrayList<>(List.of(
+                LocalDate.MIN, LocalDate.of(1, 1, 1), LocalDate.of(1734, 3, 14), LocalDate.of(1900, 1, 1),
+                LocalDate.of(2318, 1, 1), LocalDate.of(2400, 2, 29), LocalDate.of(9999, 12, 31), LocalDate.MAX));
+        for (int day = -3; day <= 4; day++) {
+            dueDates.add(TODAY.plusDays(day));
+        }
+
+        String[] priorities = { "HIGH", "medium", "LOW", null, "URGENT" };
+        List<Task> tasks = new ArrayList<>();
+        long id = 1;
+        for (LocalDate dueDate : dueDates) {
+            for (String priority : priorities) {
+                for (boolean completed : new boolean[] { false, true }) {
+                    Task task = new Task();
+                    task.setId(id++);
+                    task.setPriority(priority);
+                    task.setDueDate(dueDate);
+                    task.setCompleted(completed);
+                    tasks.add(task);
+                }
+            }
+        }
+        Task undated = new Task();
+        undated.setId(id);
+        undated.setPriority("HIGH");
+        tasks.add(undated);
+        tasks.add(null);
+        return tasks;
+    }
+
+    @Test
+    public void testBatchEvaluationMatchesPerTaskEvaluation() {
+        List<Task> tasks = tasks();
+        List<LocalDateTime> instants = new ArrayList<>();
+        for (LocalDateTime now = TODAY.minusDays(1).atStartOfDay(); now.isBefore(TODAY.plusDays(5).atStartOfDay());
+                now = now.plusMinutes(29).plusNanos(999_999_999)) {
+            instants.add(now);
+        }
+        for (long minutes : new long[] { 60 * 73, 60 * 25, 60 * 7, 61, 60, 59, 1, 0, -1, -60, -61 }) {
+            LocalDateTime boundary = TODAY.plusDays(1).atStartOfDay().minusMinutes(minutes);
+            instants.add(boundary.minusNanos(1));
+            instants.add(boundary);
+            instants.add(boundary.plusNanos(1));
+        }
+
+        for (LocalDateTime now : instants) {
+            RuleEngine ruleEngine = ruleEngineAt(now, null);
+            BatchEvaluation batch = ruleEngine.evaluateBatch(tasks, now);
+            assertEquals(tasks.size(), batch.size());
+            for (int i = 0; i < tasks.size(); i++) {
+                Task task = tasks.get(i);
+                String where = (task == null ? "null task" : task.getPriority() + " due " + task.getDueDate()) + " at " + now;
+                assertEquals(ruleEngine.shouldExecute(task), batch.shouldExecute(i), where);
+                assertEquals(ruleEngine.calculateUrgencyScore(task), batch.urgencyScore(i), where);
+            }
+        }
+    }
+
+    @Test
+    public void testFarAwayDueDatesSaturateInsteadOfOverflowing() {
+        LocalDateTime now = TODAY.atTime(10, 30, 0, 5);
+        long nowSecond = now.toEpochSecond(ZoneOffset.UTC);
+        long nowNano = now.getNano();
+
+        assertEquals(Long.MAX_VALUE, RuleEngine.nanosUntilDue(LocalDate.of(9999, 12, 31), nowSecond, nowNano));
+        assertEquals(Long.MAX_VALUE, RuleEngine.nanosUntilDue(LocalDate.MAX, nowSecond, nowNano));
+        assertEquals(Long.MIN_VALUE, RuleEngine.nanosUntilDue(LocalDate.of(1, 1, 1), nowSecond, nowNano));
+        assertEquals(Long.MIN_VALUE, RuleEngine.nanosUntilDue(LocalDate.MIN, nowSecond, nowNano));
+        assertEquals(-(10 * 3600 + 30 * 60) * 1_000_000_000L - 5, RuleEngine.nanosUntilDue(TODAY, nowSecond, nowNano));
+
+        // 2318 is still within range; it must not wrap round to a negative (overdue) distance.
+        assertTrue(RuleEngine.nanosUntilDue(LocalDate.of(2318, 1, 1), nowSecond, nowNano) > 0);
+
+        Task farFuture = new Task();
+        farFuture.setPriority("HIGH");
+        farFuture.setDueDate(LocalDate.of(9999, 12, 31));
+        Task farPast = new Task();
+        farPast.setPriority("HIGH");
+        farPast.setDueDate(LocalDate.of(1, 1, 1));
+
+        BatchEvaluation batch = ruleEngineAt(now, null).evaluateBatch(List.of(farFuture, farPast), now);
+        assertFalse(batch.shouldExecute(0));
+        assertEquals(50, batch.urgencyScore(0), "A task due in 9999 is not urgent");
+        assertFalse(batch.shouldExecute(1));
+        assertEquals(150, batch.urgencyScore(1), "A task due in year 1 is overdue");
+
+        assertEquals(Long.MAX_VALUE, RuleEngine.urgencyScoreValidForNanos(LocalDate.of(1, 1, 1), nowSecond, nowNano));
+        assertTrue(RuleEngine.urgencyScoreValidForNanos(LocalDate.of(9999, 12, 31), nowSecond, nowNano) > 0);
+    }
+
+    @Test
+    public void testCachedScoresAgreeForFarAwayDueDates() {
+        UrgencyScoreCache cache = new UrgencyScoreCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 1000);
+        LocalDateTime now = TODAY.atTime(9, 0);
+        RuleEngine cached = ruleEngineAt(now, cache);
+        RuleEngine uncached = ruleEngineAt(now, null);
+
+        for (Task task : tasks()) {
+            assertEquals(uncached.calculateUrgencyScore(task), cached.calculateUrgencyScore(task),
+                    task == null ? "null task" : task.getPriority() + " due " + task.getDueDate());
+        }
+    }
+}
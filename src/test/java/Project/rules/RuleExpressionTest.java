@@ -0,0 +1,214 @@
+package Project.rules;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.dao.TaskDao;
+import Project.model.Task;
+
+public class RuleExpressionTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 14);
+    private static final LocalDateTime NOW = TODAY.atTime(10, 30);
+
+    private static Task task(String priority, String status, boolean completed, LocalDate dueDate) {
+        Task task = new Task();
+        task.setPriority(priority);
+        task.setStatus(status);
+        task.setCompleted(completed);
+        task.setDueDate(dueDate);
+        return task;
+    }
+
+    private static boolean matches(String rule, Task task) {
+        return RuleExpression.parse(rule).compile().matches(task, NOW);
+    }
+
+    /** Renders the parse tree with explicit grouping, e.g. {@code (a || (b && c))}. */
+    private static String tree(RuleExpression.Node node) {
+        if (node instanceof RuleExpression.And) {
+            return group(((RuleExpression.And) node).getOperands(), " && ");
+        }
+        if (node instanceof RuleExpression.Or) {
+            return group(((RuleExpression.Or) node).getOperands(), " || ");
+        }
+        if (node instanceof RuleExpression.Not) {
+            return "!" + tree(((RuleExpression.Not) node).getOperand());
+        }
+        RuleExpression.Comparison comparison = (RuleExpression.Comparison) node;
+        return comparison.getVariable().getName() + comparison.getOperator().getSymbol() + comparison.getValue();
+    }
+
+    private static String group(List<RuleExpression.Node> operands, String separator) {
+        StringBuilder text = new StringBuilder("(");
+        for (int i = 0; i < operands.size(); i++) {
+            text.append(i == 0 ? "" : separator).append(tree(operands.get(i)));
+        }
+        return text.append(")").toString();
+    }
+
+    private static String parsed(String rule) {
+        return tree(RuleExpression.parse(rule).getRoot());
+    }
+
+    @Test
+    public void testAndBindsTighterThanOrAndNotTighterThanAnd() {
+        assertEquals("(priority==HIGH || (completed==true && overdue==true))",
+                parsed("priority == HIGH || completed && overdue"));
+        assertEquals("((priority==HIGH || completed==true) && overdue==true)",
+                parsed("(priority == HIGH || completed) && overdue"));
+        assertEquals("(!completed==true && overdue==true)", parsed("!completed && overdue"));
+        assertEquals("!(completed==true && overdue==true)", parsed("!(completed && overdue)"));
+        assertEquals("!!pastDue==true", parsed("!!pastDue"));
+        assertEquals("(status==PENDING && status!=DONE && daysUntilDue>=-2)",
+                parsed("status == pending && status != 'done' && daysUntilDue >= -2"),
+                "Chains flatten into one node; strings are upper-cased and may be quoted");
+        assertEquals("((priority==HIGH && completed==false) || (priority==LOW && overdue==true) || pastDue==true)",
+                parsed("priority==HIGH&&completed==FALSE||priority==LOW&&overdue||pastDue"));
+    }
+
+    @Test
+    public void testCompiledRuleFollowsPrecedence() {
+        Task highOpen = task("HIGH", "PENDING", false, TODAY.plusDays(2));
+        Task lowDone = task("LOW", "COMPLETED", true, TODAY.plusDays(2));
+
+        assertTrue(matches("priority == HIGH || priority == LOW && completed", highOpen),
+                "Read as HIGH || (LOW && completed)");
+        assertFalse(matches("(priority == HIGH || priority == LOW) && completed", highOpen));
+        assertTrue(matches("(priority == HIGH || priority == LOW) && completed", lowDone));
+        assertFalse(matches("!completed && priority == LOW", lowDone));
+        assertTrue(matches("!(completed && priority == HIGH)", lowDone));
+    }
+
+    @Test
+    public void testComparisonSemantics() {
+        Task dueTomorrow = task("high", null, false, TODAY.plusDays(1));
+        Task noDueDate = task(null, "PENDING", false, null);
+
+        assertTrue(matches("priority == 'HIGH'", dueTomorrow), "Strings compare case-insensitively");
+        assertTrue(matches("status != PENDING", dueTomorrow), "A missing value is unequal to every word");
+        assertFalse(matches("priority == HIGH", noDueDate));
+
+        // 13.5 hours until the start of tomorrow: time variables truncate.
+        assertTrue(matches("hoursUntilDue == 13", dueTomorrow));
+        assertTrue(matches("minutesUntilDue == 810", dueTomorrow));
+        assertTrue(matches("daysUntilDue == 0", dueTomorrow));
+        assertTrue(matches("hoursUntilDue > 12 && hoursUntilDue < 14 && priority == HIGH", dueTomorrow));
+        assertFalse(matches("hoursUntilDue > 12 && hoursUntilDue < 13", dueTomorrow));
+
+        assertFalse(matches("hoursUntilDue != 5", noDueDate), "Time variables never match without a due date");
+        assertTrue(matches("!(hoursUntilDue < 4)", noDueDate));
+        assertFalse(matches("overdue || pastDue", noDueDate));
+
+        Task dueToday = task("LOW", "PENDING", false, TODAY);
+        Task dueYesterday = task("LOW", "PENDING", false, TODAY.minusDays(1));
+        assertTrue(matches("pastDue && !overdue", dueToday), "The start of today has passed, the date has not");
+        assertTrue(matches("overdue && daysUntilDue == -1", dueYesterday));
+        dueYesterday.setCompleted(true);
+        assertFalse(matches("overdue", dueYesterday), "Completed tasks are never overdue");
+        assertTrue(matches("pastDue == true", dueYesterday));
+    }
+
+    @Test
+    public void testRejectsMalformedRules() {
+        String[][] cases = {
+                { null, "empty" },
+                { "  ", "empty" },
+                { "x".repeat(RuleExpression.MAX_LENGTH + 1), "longer than" },
+                { "priority == HIGH &&", "end of rule" },
+                { "(completed", "')'" },
+                { "completed)", "Unexpected ')'" },
+                { "completed overdue", "Unexpected 'overdue'" },
+                { "dueSoon", "Unknown variable" },
+                { "priority", "must be compared" },
+                { "hoursUntilDue < soon", "number" },
+                { "hoursUntilDue < 99999999999999999999", "number" },
+                { "priority < HIGH", "only supports == and !=" },
+                { "completed > false", "only supports == and !=" },
+                { "completed == yes", "true or false" },
+                { "priority == 5", "word" },
+                { "status == 'PENDING", "Unterminated string" },
+                { "priority = HIGH", "Unexpected character '='" },
+                { "completed & overdue", "Unexpected character '&'" },
+                { "(".repeat(40) + "completed" + ")".repeat(40), "nested too deeply" },
+        };
+        for (String[] rule : cases) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> RuleExpression.parse(rule[0]), String.valueOf(rule[0]));
+            assertTrue(e.getMessage().contains(rule[1]), rule[0] + " -> " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testGeneratedSqlSelectsTheRowsTheCompiledRuleMatches() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:rule-expression-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        populator.setContinueOnError(true);
+        populator.execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM tasks");
+        TaskDao taskDao = new TaskDao();
+        ReflectionTestUtils.setField(taskDao, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(taskDao, "clock", Clock.systemDefaultZone());
+
+        String[] priorities = { "HIGH", "low", null };
+        String[] statuses = { "PENDING", "completed", null };
+        LocalDate[] dueDates = { null, TODAY.minusDays(1), TODAY, TODAY.plusDays(1), TODAY.plusDays(3) };
+        long userId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users", Long.class);
+        for (String priority : priorities) {
+            for (String status : statuses) {
+                for (LocalDate dueDate : dueDates) {
+                    for (boolean completed : new boolean[] { false, true }) {
+                        jdbcTemplate.update("INSERT INTO tasks (title, due_date, completed, priority, status, user_id) "
+                                + "VALUES ('t', ?, ?, ?, ?, ?)", dueDate != null ? Timestamp.valueOf(dueDate.atStartOfDay()) : null,
+                                completed, priority, status, userId);
+                    }
+                }
+            }
+        }
+        List<Task> tasks = taskDao.findAll();
+
+        String[] rules = {
+                "priority == HIGH || priority == LOW && completed",
+                "(priority == HIGH || priority == LOW) && completed",
+                "!completed && priority != HIGH",
+                "!(hoursUntilDue < 24)",
+                "hoursUntilDue >= 0 && hoursUntilDue < 48 || overdue",
+                "!(overdue || pastDue) && status == pending",
+                "daysUntilDue != 0",
+                "minutesUntilDue > " + Long.MIN_VALUE + " && daysUntilDue <= " + Long.MAX_VALUE,
+                "!!(status != 'COMPLETED' && !completed)",
+        };
+        for (String source : rules) {
+            RuleExpression expression = RuleExpression.parse(source);
+            CompiledRule rule = expression.compile();
+            Set<Long> expected = new HashSet<>();
+            for (Task task : tasks) {
+                if (rule.matches(task, NOW)) {
+                    expected.add(task.getId());
+                }
+            }
+
+            SqlPredicate predicate = expression.toSql(NOW);
+            Set<Long> selected = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM tasks WHERE " + predicate.getSql(),
+                    Long.class, predicate.getParameters().toArray()));
+            assertEquals(expected, selected, source + " -> " + predicate);
+        }
+    }
+}
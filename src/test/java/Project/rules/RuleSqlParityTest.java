@@ -0,0 +1,224 @@
+package Project.rules;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.dao.TaskDao;
+import Project.model.Task;
+
+/**
+ * Property tests: for random rules, rows and instants, the SQL predicate from
+ * {@link RuleExpression#toSql} selects exactly the rows the compiled rule
+ * matches once they are read back through {@link TaskDao}.
+ */
+public class RuleSqlParityTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 14);
+    private static final String[] PRIORITIES = { "HIGH", "high", "Medium", "LOW", "URGENT", null };
+    private static final String[] STATUSES = { "PENDING", "pending", "COMPLETED", "IN_PROGRESS", null };
+    private static final String[] OPERATORS = { "==", "!=", "<", "<=", ">", ">=" };
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TaskDao taskDao;
+    private static List<Long> userIds;
+    private static List<Task> tasks;
+
+    @BeforeAll
+    public static void setUpDatabase() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:rule-sql-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        populator.setContinueOnError(true);
+        populator.execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM tasks");
+
+        taskDao = new TaskDao();
+        ReflectionTestUtils.setField(taskDao, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(taskDao, "clock", Clock.systemDefaultZone());
+
+        Random random = new Random(36);
+        for (int i = 0; i < 60; i++) {
+            jdbcTemplate.update("INSERT INTO users (username, password) VALUES (?, 'x')", "rule-user-" + i);
+        }
+        userIds = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class);
+
+        for (int i = 0; i < 600; i++) {
+            LocalDateTime dueDate = null;
+            if (random.nextInt(10) != 0) {
+                dueDate = TODAY.plusDays(random.nextInt(15) - 7).atStartOfDay();
+                if (random.nextInt(8) == 0) {
+                    // Rows written outside the DAO may carry a time of day; it is ignored when read.
+                    dueDate = dueDate.plusSeconds(random.nextInt(86_400));
+                }
+            }
+            Boolean completed = random.nextInt(12) == 0 ? null : random.nextInt(5) == 0;
+            jdbcTemplate.update("INSERT INTO tasks (title, due_date, completed, priority, status, user_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", "task " + i, dueDate != null ? Timestamp.valueOf(dueDate) : null,
+                    completed, PRIORITIES[random.nextInt(PRIORITIES.length)], STATUSES[random.nextInt(STATUSES.length)],
+                    userIds.get(random.nextInt(userIds.size())));
+        }
+        tasks = taskDao.findAll();
+    }
+
+    private static LocalDateTime randomInstant(Random random) {
+        LocalDateTime midnight = TODAY.plusDays(random.nextInt(5) - 2).atStartOfDay();
+        switch (random.nextInt(5)) {
+            case 0:
+                return midnight;
+            case 1:
+                return midnight.minusNanos(1 + random.nextInt(2));
+            case 2:
+                return midnight.plusHours(random.nextInt(24)).plusNanos(random.nextInt(3) - 1);
+            case 3:
+                return midnight.plusMinutes(random.nextInt(1440)).minusNanos(1);
+            default:
+                return midnight.plusNanos((long) (random.nextDouble() * 86_400_000_000_000L));
+        }
+    }
+
+    private static String randomAmount(Random random, int scale) {
+        switch (random.nextInt(12)) {
+            case 0:
+                return String.valueOf(Long.MAX_VALUE);
+            case 1:
+                return String.valueOf(Long.MIN_VALUE);
+            case 2:
+                return "0";
+            default:
+                // Near multiples of the unit's day length, where truncation matters.
+                return String.valueOf((random.nextInt(17) - 8) * scale + random.nextInt(3) - 1);
+        }
+    }
+
+    private static String randomComparison(Random random) {
+        String operator = OPERATORS[random.nextInt(OPERATORS.length)];
+        String equality = random.nextBoolean() ? "==" : "!=";
+        switch (random.nextInt(9)) {
+            case 0:
+                return "priority " + equality + " " + new String[] { "HIGH", "medium", "'Low'", "URGENT" }[random.nextInt(4)];
+            case 1:
+                return "status " + equality + " " + new String[] { "PENDING", "completed", "in_progress" }[random.nextInt(3)];
+            case 2:
+                return random.nextBoolean() ? "completed" : "completed " + equality + " " + random.nextBoolean();
+            case 3:
+                return random.nextBoolean() ? "overdue" : "overdue " + equality + " " + random.nextBoolean();
+            case 4:
+                return random.nextBoolean() ? "pastDue" : "pastDue " + equality + " " + random.nextBoolean();
+            case 5:
+            case 6:
+                return "minutesUntilDue " + operator + " " + randomAmount(random, 1440);
+            case 7:
+                return "hoursUntilDue " + operator + " " + randomAmount(random, 24);
+            default:
+                return "daysUntilDue " + operator + " " + randomAmount(random, 1);
+        }
+    }
+
+    private static String randomRule(Random random, int depth) {
+        int choice = depth > 2 ? 0 : random.nextInt(5);
+        switch (choice) {
+            case 1:
+                return randomRule(random, depth + 1) + " && " + randomRule(random, depth + 1);
+            case 2:
+                return "(" + randomRule(random, depth + 1) + " || " + randomRule(random, depth + 1) + ")";
+            case 3:
+                return "!(" + randomRule(random, depth + 1) + ")";
+            default:
+                return randomComparison(random);
+        }
+    }
+
+    private static Set<Long> selectIds(SqlPredicate predicate) {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM tasks WHERE " + predicate.getSql(), Long.class,
+                predicate.getParameters().toArray()));
+    }
+
+    @Test
+    public void testRandomRulesSelectTheSameRowsInSqlAndJava() {
+        Random random = new Random(3600);
+        for (int round = 0; round < 1500; round++) {
+            String source = randomRule(random, 0);
+            RuleExpression expression = RuleExpression.parse(source);
+            CompiledRule rule = expression.compile();
+            LocalDateTime now = randomInstant(random);
+
+            Set<Long> expected = new HashSet<>();
+            for (Task task : tasks) {
+                if (rule.matches(task, now)) {
+                    expected.add(task.getId());
+                }
+            }
+
+            SqlPredicate predicate = expression.toSql(now);
+            assertEquals(expected, selectIds(predicate), source + " at " + now + " -> " + predicate);
+        }
+    }
+
+    @Test
+    public void testDefaultReminderPredicateMatchesShouldExecute() {
+        Random random = new Random(61);
+        for (int round = 0; round < 300; round++) {
+            LocalDateTime now = randomInstant(random);
+            RuleEngine ruleEngine = new RuleEngine();
+            ReflectionTestUtils.setField(ruleEngine, "clock",
+                    Clock.fixed(now.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+
+            Set<Long> expected = new HashSet<>();
+            for (Task task : tasks) {
+                if (ruleEngine.shouldExecute(task)) {
+                    expected.add(task.getId());
+                }
+            }
+            assertEquals(expected, selectIds(ruleEngine.defaultReminderPredicate(now)), "at " + now);
+        }
+    }
+
+    @Test
+    public void testUserRulePredicatesAreAppliedPerUserAcrossBatches() {
+        Random random = new Random(4);
+        LocalDateTime now = TODAY.atTime(22, 30);
+        Map<Long, SqlPredicate> predicatesByUser = new HashMap<>();
+        Map<Long, CompiledRule> rulesByUser = new HashMap<>();
+        for (Long userId : userIds) {
+            RuleExpression expression = RuleExpression.parse(randomRule(random, 0));
+            predicatesByUser.put(userId, expression.toSql(now));
+            rulesByUser.put(userId, expression.compile());
+        }
+
+        Set<Long> expected = new HashSet<>();
+        for (Task task : tasks) {
+            if (!task.isCompleted() && rulesByUser.get(task.getUserId()).matches(task, now)) {
+                expected.add(task.getId());
+            }
+        }
+
+        List<Long> actual = new ArrayList<>();
+        for (Task task : taskDao.findPendingTasksMatchingUserRules(predicatesByUser)) {
+            actual.add(task.getId());
+        }
+        assertEquals(expected.size(), actual.size(), "No task should be returned twice");
+        assertEquals(expected, new HashSet<>(actual));
+    }
+}
@@ -0,0 +1,187 @@
+package Project.rules;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.model.Task;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+public class RuleStateNetworkTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 14);
+    private static final String[] PRIORITIES = { "HIGH", "high", "MEDIUM", "LOW", null };
+
+    private static Level previousLevel;
+
+    @BeforeAll
+    public static void quietRuleEngine() {
+        // needsImmediateAttention logs every hit at INFO; the brute-force side calls it a lot.
+        Logger logger = (Logger) LoggerFactory.getLogger("Project.rules");
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.WARN);
+    }
+
+    @AfterAll
+    public static void restoreLogging() {
+        ((Logger) LoggerFactory.getLogger("Project.rules")).setLevel(previousLevel);
+    }
+
+    private static Task randomTask(Random random, long id) {
+        Task task = new Task();
+        task.setId(id);
+        task.setUserId(1L + random.nextInt(4));
+        task.setPriority(PRIORITIES[random.nextInt(PRIORITIES.length)]);
+        task.setDueDate(random.nextInt(15) == 0 ? null : TODAY.plusDays(random.nextInt(6) - 2));
+        task.setCompleted(random.nextInt(6) == 0);
+        if (random.nextInt(30) == 0) {
+            task.setRecurrenceRule("FREQ=DAILY");
+        }
+        return task;
+    }
+
+    private static List<Long> bruteForce(Map<Long, Task> tasks, Long userId, LocalDateTime now) {
+        RuleEngine ruleEngine = new RuleEngine();
+        ReflectionTestUtils.setField(ruleEngine, "clock",
+                Clock.fixed(now.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+
+        List<Task> expected = new ArrayList<>();
+        for (Task task : tasks.values()) {
+            if (userId.equals(task.getUserId()) && task.getRecurrenceRule() == null
+                    && ruleEngine.needsImmediateAttention(task)) {
+                expected.add(task);
+            }
+        }
+        expected.sort((a, b) -> a.getDueDate().equals(b.getDueDate()) ? a.getId().compareTo(b.getId())
+                : a.getDueDate().compareTo(b.getDueDate()));
+
+        List<Long> ids = new ArrayList<>();
+        expected.forEach(task -> ids.add(task.getId()));
+        return ids;
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        List<Long> ids = new ArrayList<>();
+        tasks.forEach(task -> ids.add(task.getId()));
+        return ids;
+    }
+
+    @Test
+    public void testMaterializedStateMatchesRuleEngineThroughChangesAndTime() {
+        Random random = new Random(37);
+        Map<Long, Task> tasks = new HashMap<>();
+        for (long id = 1; id <= 300; id++) {
+            tasks.put(id, randomTask(random, id));
+        }
+
+        LocalDateTime now = TODAY.minusDays(1).atTime(21, 0);
+        RuleStateNetwork network = new RuleStateNetwork();
+        network.load(tasks.values(), now);
+
+        for (int step = 0; step < 400; step++) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    now = now.plusNanos(1 + (long) (random.nextDouble() * 3_600_000_000_000L));
+                    break;
+                case 1: {
+                    // Land exactly on, or a nanosecond around, the next window or due boundary.
+                    LocalDateTime midnight = now.toLocalDate().plusDays(1).atStartOfDay();
+                    LocalDateTime boundary = midnight.minusMinutes(new int[] { 61, 60, 0 }[random.nextInt(3)]);
+                    boundary = boundary.isAfter(now) ? boundary : midnight;
+                    LocalDateTime candidate = boundary.plusNanos(random.nextInt(3) - 1);
+                    now = candidate.isAfter(now) ? candidate : boundary.plusNanos(1);
+                    break;
+                }
+                case 2: {
+                    long id = 1 + random.nextInt(330);
+                    Task changed = randomTask(random, id);
+                    tasks.put(id, changed);
+                    network.upsert(changed, now);
+                    break;
+                }
+                default: {
+                    long id = 1 + random.nextInt(330);
+                    tasks.remove(id);
+                    network.remove(id);
+                    break;
+                }
+            }
+
+            for (long userId = 1; userId <= 4; userId++) {
+                assertEquals(bruteForce(tasks, userId, now), ids(network.needingAttention(userId, now)),
+                        "user " + userId + " at " + now + " (step " + step + ")");
+            }
+        }
+    }
+
+    @Test
+    public void testWindowEdgesMatchRuleEngineToTheNanosecond() {
+        Task task = new Task();
+        task.setId(1L);
+        task.setUserId(1L);
+        task.setPriority("HIGH");
+        task.setDueDate(TODAY);
+        Map<Long, Task> tasks = Map.of(1L, task);
+
+        LocalDateTime due = TODAY.atStartOfDay();
+        LocalDateTime[] instants = { due.minusMinutes(61).minusNanos(1), due.minusMinutes(61),
+                due.minusMinutes(61).plusNanos(1), due.minusNanos(1), due, due.plusNanos(1),
+                due.plusDays(1).minusNanos(1), due.plusDays(1) };
+
+        RuleStateNetwork network = new RuleStateNetwork();
+        network.load(List.of(task), instants[0].minusHours(1));
+        for (LocalDateTime instant : instants) {
+            assertEquals(bruteForce(tasks, 1L, instant), ids(network.needingAttention(1L, instant)),
+                    "at " + instant);
+        }
+    }
+
+    @Test
+    public void testQueriesBetweenBoundariesDoNotReevaluate() {
+        Random random = new Random(5);
+        List<Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= 10_000; id++) {
+            Task task = randomTask(random, id);
+            task.setDueDate(TODAY.plusDays(3 + random.nextInt(5)));
+            tasks.add(task);
+        }
+
+        RuleStateNetwork network = new RuleStateNetwork();
+        network.load(tasks, TODAY.atTime(9, 0));
+        long afterLoad = network.getEvaluations();
+
+        for (int minute = 0; minute < 600; minute++) {
+            network.needingAttention(1L, TODAY.atTime(9, 0).plusMinutes(minute));
+        }
+        assertEquals(afterLoad, network.getEvaluations(), "No task crosses a boundary during the day");
+    }
+
+    @Test
+    public void testClockGoingBackwardsIsHandled() {
+        Task task = new Task();
+        task.setId(1L);
+        task.setUserId(1L);
+        task.setPriority("LOW");
+        task.setDueDate(TODAY);
+
+        RuleStateNetwork network = new RuleStateNetwork();
+        network.load(List.of(task), TODAY.plusDays(2).atStartOfDay());
+        assertEquals(List.of(1L), ids(network.needingAttention(1L, TODAY.plusDays(2).atStartOfDay())));
+        assertEquals(List.of(), ids(network.needingAttention(1L, TODAY.atTime(12, 0))));
+    }
+}
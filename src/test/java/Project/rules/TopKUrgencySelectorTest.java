@@ -0,0 +1,99 @@
+package Project.rules;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.model.Task;
+
+public class TopKUrgencySelectorTest {
+
+    private static final String[] PRIORITIES = { "HIGH", "MEDIUM", "LOW", "high", "Low", "URGENT", null };
+
+    private static RuleEngine ruleEngineAt(LocalDateTime now) {
+        RuleEngine ruleEngine = new RuleEngine();
+        ReflectionTestUtils.setField(ruleEngine, "clock",
+                Clock.fixed(now.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+        return ruleEngine;
+    }
+
+    private static List<Task> randomTasks(Random random, LocalDate today, int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setId((long) random.nextInt(count * 2));
+            task.setPriority(PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            task.setDueDate(random.nextInt(20) == 0 ? null : today.plusDays(random.nextInt(12) - 4));
+            task.setCompleted(random.nextInt(8) == 0);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /** Full sort by {@link RuleEngine#calculateUrgencyScore} with the documented tie-breaks; the sort is stable, so arrival order breaks the rest. */
+    private static List<Task> fullSortTopK(RuleEngine ruleEngine, List<Task> tasks, int k) {
+        Map<Task, Integer> scores = new IdentityHashMap<>();
+        tasks.forEach(task -> scores.put(task, ruleEngine.calculateUrgencyScore(task)));
+
+        List<Task> sorted = new ArrayList<>(tasks);
+        sorted.sort(Comparator.comparingInt((Task task) -> -scores.get(task))
+                .thenComparing(Task::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Task::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        return sorted.subList(0, Math.min(k, sorted.size()));
+    }
+
+    @Test
+    public void testRankingMatchesFullSortByRuleEngineScore() {
+        Random random = new Random(34);
+        LocalDate today = LocalDate.of(2026, 3, 14);
+        LocalDateTime[] instants = { today.atStartOfDay(), today.atTime(0, 59, 59, 999_999_999), today.atTime(9, 30),
+                today.atTime(17, 0, 0, 1), today.atTime(23, 59, 59, 500_000_000) };
+
+        for (LocalDateTime now : instants) {
+            RuleEngine ruleEngine = ruleEngineAt(now);
+            for (int round = 0; round < 20; round++) {
+                List<Task> tasks = randomTasks(random, today, 500);
+                for (int k : new int[] { 1, 3, 10, 100, 500, 600 }) {
+                    TopKUrgencySelector selector = ruleEngine.topKSelector(k);
+                    tasks.forEach(selector::offer);
+
+                    List<Task> expected = fullSortTopK(ruleEngine, tasks, k);
+                    List<Task> actual = selector.result();
+
+                    assertEquals(expected.size(), actual.size(), "k=" + k + " at " + now);
+                    for (int i = 0; i < expected.size(); i++) {
+                        assertSame(expected.get(i), actual.get(i), "rank " + i + " for k=" + k + " at " + now);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSelectorKeepsAtMostKTasks() {
+        RuleEngine ruleEngine = ruleEngineAt(LocalDate.of(2026, 3, 14).atTime(12, 0));
+        TopKUrgencySelector selector = ruleEngine.topKSelector(5);
+        randomTasks(new Random(7), LocalDate.of(2026, 3, 14), 10_000).forEach(selector::offer);
+
+        assertEquals(5, selector.result().size());
+        assertEquals(10_000, selector.getOffered());
+    }
+
+    @Test
+    public void testInvalidKIsRejected() {
+        RuleEngine ruleEngine = ruleEngineAt(LocalDate.of(2026, 3, 14).atTime(12, 0));
+        assertThrows(IllegalArgumentException.class, () -> ruleEngine.topKSelector(0));
+    }
+}
@@ -0,0 +1,153 @@
+package Project.rules;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.model.Task;
+
+public class UrgencyScoreCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 14);
+
+    private static int uncachedScore(Task task, LocalDateTime now) {
+        RuleEngine ruleEngine = new RuleEngine();
+        ReflectionTestUtils.setField(ruleEngine, "clock",
+                Clock.fixed(now.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+        return ruleEngine.calculateUrgencyScore(task);
+    }
+
+    private static int cachedScore(UrgencyScoreCache cache, Task task, LocalDateTime now) {
+        return cache.score(task, now.toEpochSecond(ZoneOffset.UTC), now.getNano());
+    }
+
+    private static UrgencyScoreCache newCache() {
+        UrgencyScoreCache cache = new UrgencyScoreCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 1000);
+        return cache;
+    }
+
+    private static Task task(long id, String priority, LocalDate dueDate) {
+        Task task = new Task();
+        task.setId(id);
+        task.setPriority(priority);
+        task.setDueDate(dueDate);
+        return task;
+    }
+
+    @Test
+    public void testCachedScoreMatchesRuleEngineAcrossEveryThreshold() {
+        List<Task> tasks = new ArrayList<>();
+        String[] priorities = { "HIGH", "medium", "LOW", null };
+        for (int day = 0; day < 6; day++) {
+            tasks.add(task(day * 10L + 1, priorities[day % priorities.length], TODAY.plusDays(day)));
+        }
+
+        // Regular steps plus the nanosecond either side of every threshold.
+        TreeSet<LocalDateTime> instants = new TreeSet<>();
+        for (LocalDateTime now = TODAY.minusDays(1).atStartOfDay(); now.isBefore(TODAY.plusDays(7).atStartOfDay());
+                now = now.plusMinutes(13).plusNanos(7)) {
+            instants.add(now);
+        }
+        for (Task task : tasks) {
+            LocalDateTime due = task.getDueDate().atStartOfDay();
+            for (long hours : new long[] { 73, 72, 25, 24, 7, 6, 2, 1, 0, -1, -2 }) {
+                LocalDateTime boundary = due.minusHours(hours);
+                instants.add(boundary.minusNanos(1));
+                instants.add(boundary);
+                instants.add(boundary.plusNanos(1));
+            }
+        }
+
+        UrgencyScoreCache cache = newCache();
+        for (LocalDateTime now : instants) {
+            for (Task task : tasks) {
+                assertEquals(uncachedScore(task, now), cachedScore(cache, task, now), "task " + task.getId() + " at " + now);
+            }
+        }
+
+        double hitRate = (Double) cache.getStats().get("hitRate");
+        assertTrue(hitRate > 0.9, "Scores should mostly be served from the cache, hit rate was " + hitRate);
+    }
+
+    @Test
+    public void testChangedTaskIsRescoredEvenWithoutInvalidation() {
+        UrgencyScoreCache cache = newCache();
+        LocalDateTime now = TODAY.atTime(10, 0);
+        Task task = task(1L, "LOW", TODAY.plusDays(10));
+
+        assertEquals(uncachedScore(task, now), cachedScore(cache, task, now));
+
+        task.setPriority("HIGH");
+        task.setDueDate(TODAY.plusDays(1));
+        assertEquals(uncachedScore(task, now), cachedScore(cache, task, now));
+
+        task.setCompleted(true);
+        assertEquals(0, cachedScore(cache, task, now));
+    }
+
+    @Test
+    public void testInvalidateDropsEntry() {
+        UrgencyScoreCache cache = newCache();
+        LocalDateTime now = TODAY.atTime(10, 0);
+        Task task = task(1L, "HIGH", TODAY.plusDays(1));
+
+        cachedScore(cache, task, now);
+        cachedScore(cache, task, now);
+        cache.invalidate(1L);
+        cachedScore(cache, task, now);
+
+        assertEquals(1L, cache.getStats().get("hits"));
+        assertEquals(2L, cache.getStats().get("misses"));
+        assertEquals(1L, cache.getStats().get("invalidations"));
+    }
+
+    @Test
+    public void testVirtualOccurrencesAreNotCached() {
+        UrgencyScoreCache cache = newCache();
+        LocalDateTime now = TODAY.atTime(10, 0);
+        Task occurrence = task(5L, "HIGH", TODAY);
+        occurrence.setSeriesId(5L);
+
+        assertEquals(uncachedScore(occurrence, now), cachedScore(cache, occurrence, now));
+        assertEquals(0, cache.getStats().get("size"));
+        assertEquals(1L, cache.getStats().get("bypasses"));
+    }
+
+    @Test
+    public void testFullCacheEvictsTheLeastRecentlyUsedEntry() {
+        UrgencyScoreCache cache = new UrgencyScoreCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 3);
+        LocalDateTime now = TODAY.atTime(10, 0);
+        Task first = task(1L, "HIGH", TODAY.plusDays(30));
+        Task second = task(2L, "LOW", TODAY.plusDays(30));
+        Task third = task(3L, "MEDIUM", TODAY.plusDays(30));
+        Task fourth = task(4L, "HIGH", TODAY.plusDays(30));
+
+        cachedScore(cache, first, now);
+        cachedScore(cache, second, now);
+        cachedScore(cache, third, now);
+        cachedScore(cache, first, now);
+        // None of the entries has expired; the new one still gets cached and the idle second one goes.
+        assertEquals(uncachedScore(fourth, now), cachedScore(cache, fourth, now));
+
+        assertEquals(3, cache.getStats().get("size"));
+        assertEquals(1L, cache.getStats().get("evictions"));
+        cachedScore(cache, first, now);
+        cachedScore(cache, third, now);
+        cachedScore(cache, fourth, now);
+        assertEquals(4L, cache.getStats().get("hits"));
+        cachedScore(cache, second, now);
+        assertEquals(5L, cache.getStats().get("misses"));
+    }
+}
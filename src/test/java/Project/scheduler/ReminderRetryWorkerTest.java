@@ -0,0 +1,199 @@
+package Project.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.dao.ReminderDeliveryDao;
+import Project.dao.ReminderRetryDao;
+import Project.dao.TaskDao;
+import Project.executor.ActionExecutor;
+import Project.executor.OutboundMailGuard;
+import Project.model.ReminderDeadLetter;
+import Project.model.ReminderDelivery;
+import Project.model.ReminderRetry;
+import Project.model.Task;
+import Project.service.RecurrenceService;
+
+public class ReminderRetryWorkerTest {
+
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 14, 9, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private TaskDao taskDao;
+    private ReminderDeliveryDao reminderDeliveryDao;
+    private ReminderRetryDao reminderRetryDao;
+    private ActionExecutor actionExecutor;
+    private OutboundMailGuard mailGuard;
+    private ReminderRetryWorker worker;
+    private Task task;
+    private ReminderDelivery delivery;
+
+    @BeforeEach
+    public void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:retry-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        populator.setContinueOnError(true);
+        populator.execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        taskDao = new TaskDao();
+        ReflectionTestUtils.setField(taskDao, "jdbcTemplate", jdbcTemplate);
+        reminderDeliveryDao = new ReminderDeliveryDao();
+        ReflectionTestUtils.setField(reminderDeliveryDao, "jdbcTemplate", jdbcTemplate);
+        reminderRetryDao = new ReminderRetryDao();
+        ReflectionTestUtils.setField(reminderRetryDao, "jdbcTemplate", jdbcTemplate);
+        actionExecutor = mock(ActionExecutor.class);
+        mailGuard = mock(OutboundMailGuard.class);
+        when(mailGuard.availablePermits()).thenReturn(Integer.MAX_VALUE);
+
+        worker = new ReminderRetryWorker();
+        ReflectionTestUtils.setField(worker, "reminderRetryDao", reminderRetryDao);
+        ReflectionTestUtils.setField(worker, "reminderDeliveryDao", reminderDeliveryDao);
+        ReflectionTestUtils.setField(worker, "taskDao", taskDao);
+        ReflectionTestUtils.setField(worker, "recurrenceService", new RecurrenceService());
+        ReflectionTestUtils.setField(worker, "actionExecutor", actionExecutor);
+        ReflectionTestUtils.setField(worker, "mailGuard", mailGuard);
+        ReflectionTestUtils.setField(worker, "batchSize", 10);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(worker, "baseDelayMs", 60_000L);
+        ReflectionTestUtils.setField(worker, "maxDelayMs", 600_000L);
+        at(START);
+
+        LocalDate dueDate = START.toLocalDate().plusDays(1);
+        jdbcTemplate.update("INSERT INTO tasks (title, due_date, completed, priority, status, user_id) "
+                + "VALUES ('Pay rent', ?, FALSE, 'HIGH', 'PENDING', 1)", Timestamp.valueOf(dueDate.atStartOfDay()));
+        task = taskDao.findById(jdbcTemplate.queryForObject("SELECT MAX(id) FROM tasks", Long.class));
+        delivery = new ReminderDelivery(task.getId(), dueDate.atStartOfDay().minusHours(1),
+                ReminderDelivery.CHANNEL_EMAIL);
+        assertTrue(reminderDeliveryDao.claim(List.of(delivery))[0]);
+    }
+
+    private void at(LocalDateTime now) {
+        Clock clock = Clock.fixed(now.atZone(ZONE).toInstant(), ZONE);
+        ReflectionTestUtils.setField(taskDao, "clock", clock);
+        ReflectionTestUtils.setField(reminderDeliveryDao, "clock", clock);
+        ReflectionTestUtils.setField(worker, "clock", clock);
+    }
+
+    private String ledgerStatus() {
+        return reminderDeliveryDao.findByTaskId(task.getId()).get(0).getStatus();
+    }
+
+    @Test
+    public void testFailedReminderIsRetriedThenDeadLetteredAndReplayed() {
+        when(actionExecutor.executeAsync(any(Task.class))).thenReturn(CompletableFuture.completedFuture(false));
+
+        worker.deliveryFailed(task, delivery);
+        worker.deliveryFailed(task, delivery);
+        assertEquals(1, reminderRetryDao.countRetries(), "A reminder is queued for retry once");
+        assertEquals(ReminderDelivery.STATUS_RETRYING, ledgerStatus());
+        assertEquals(0, worker.retryBatch(), "The first retry waits for its backoff");
+
+        // Three retries, each due at most max-delay-ms after the last.
+        for (int retry = 1; retry <= 3; retry++) {
+            at(START.plusMinutes(10L * retry));
+            assertEquals(1, worker.retryBatch());
+            assertEquals(0, worker.retryBatch(), "An attempt in flight is not picked up again");
+        }
+
+        assertEquals(0, reminderRetryDao.countRetries());
+        assertEquals(ReminderDelivery.STATUS_FAILED, ledgerStatus());
+        List<ReminderDeadLetter> deadLetters = worker.getDeadLetters(10);
+        assertEquals(1, deadLetters.size());
+        assertEquals(3, deadLetters.get(0).getAttempts());
+        assertEquals(START, deadLetters.get(0).getFirstFailedAt());
+        verify(actionExecutor, times(3)).executeAsync(any(Task.class));
+
+        when(actionExecutor.executeAsync(any(Task.class))).thenReturn(CompletableFuture.completedFuture(true));
+        worker.replay(deadLetters.get(0).getId());
+        assertThrows(RuntimeException.class, () -> worker.replay(deadLetters.get(0).getId()));
+        assertEquals(1, worker.retryBatch(), "A replayed dead letter is due right away");
+
+        assertEquals(ReminderDelivery.STATUS_SENT, ledgerStatus());
+        assertEquals(0, reminderRetryDao.countRetries());
+        assertEquals(0, reminderRetryDao.countDeadLetters());
+    }
+
+    @Test
+    public void testRetryOfCompletedTaskIsDropped() {
+        worker.deliveryFailed(task, delivery);
+        jdbcTemplate.update("UPDATE tasks SET completed = TRUE WHERE id = ?", task.getId());
+
+        at(START.plusMinutes(10));
+        assertEquals(0, worker.retryBatch());
+        assertEquals(0, reminderRetryDao.countRetries());
+        assertEquals(ReminderDelivery.STATUS_SKIPPED, ledgerStatus(), "The ledger does not stay RETRYING");
+        assertNotNull(reminderDeliveryDao.findByTaskId(task.getId()).get(0).getCompletedAt());
+        verifyNoInteractions(actionExecutor);
+    }
+
+    @Test
+    public void testEmailRetriesWaitWhileTheMailCircuitIsOpen() {
+        when(actionExecutor.executeAsync(any(Task.class))).thenReturn(CompletableFuture.completedFuture(true));
+        worker.deliveryFailed(task, delivery);
+        at(START.plusMinutes(10));
+
+        when(mailGuard.availablePermits()).thenReturn(0);
+        assertEquals(0, worker.retryBatch());
+        assertEquals(0, reminderRetryDao.findDue(START.plusMinutes(10), 10).get(0).getAttempts(),
+                "A retry held back by the breaker keeps its attempts");
+        verifyNoInteractions(actionExecutor);
+
+        when(mailGuard.availablePermits()).thenReturn(1);
+        assertEquals(1, worker.retryBatch());
+        assertEquals(ReminderDelivery.STATUS_SENT, ledgerStatus());
+    }
+
+    @Test
+    public void testEmailRetriesStartOnlyAsFastAsTheMailRateLimitAllows() {
+        when(actionExecutor.executeAsync(any(Task.class))).thenReturn(new CompletableFuture<>());
+        for (int hour = 1; hour <= 3; hour++) {
+            ReminderDelivery earlier = new ReminderDelivery(task.getId(), delivery.getReminderAt().minusHours(hour),
+                    ReminderDelivery.CHANNEL_EMAIL);
+            assertTrue(reminderDeliveryDao.claim(List.of(earlier))[0]);
+            worker.deliveryFailed(task, earlier);
+        }
+        worker.deliveryFailed(task, delivery);
+        at(START.plusMinutes(10));
+
+        when(mailGuard.availablePermits()).thenReturn(2);
+        assertEquals(2, worker.retryBatch());
+        List<ReminderRetry> waiting = reminderRetryDao.findDue(START.plusMinutes(10), 10);
+        assertEquals(2, waiting.size(), "The other two stay due");
+        for (ReminderRetry retry : waiting) {
+            assertEquals(0, retry.getAttempts(), "A retry held back by the rate limit keeps its attempts");
+        }
+        verify(actionExecutor, times(2)).executeAsync(any(Task.class));
+    }
+
+    @Test
+    public void testBackoffDoublesWithJitterUpToTheCap() {
+        for (int attempt = 1; attempt <= 8; attempt++) {
+            long delay = Math.min(600_000L, 60_000L << (attempt - 1));
+            for (int i = 0; i < 200; i++) {
+                long backoff = worker.backoffMillis(attempt);
+                assertTrue(backoff >= delay / 2 && backoff <= delay, "attempt " + attempt + ": " + backoff);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package Project.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+
+import Project.dao.ScheduleOutboxDao;
+import Project.dao.TaskDao;
+import Project.dao.UserDao;
+import Project.model.ScheduleOutboxEntry;
+import Project.model.Task;
+import Project.service.SchedulerService;
+import Project.service.TaskService;
+
+public class ScheduleOutboxRelayTest {
+
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 14);
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private TaskDao taskDao;
+    private ScheduleOutboxDao scheduleOutboxDao;
+    private SchedulerService schedulerService;
+    private ScheduleOutboxRelay relay;
+
+    @BeforeEach
+    public void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:outbox-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        populator.setContinueOnError(true);
+        populator.execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        taskDao = new TaskDao();
+        ReflectionTestUtils.setField(taskDao, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(taskDao, "clock", Clock.fixed(TODAY.atStartOfDay(ZONE).toInstant(), ZONE));
+        scheduleOutboxDao = new ScheduleOutboxDao();
+        ReflectionTestUtils.setField(scheduleOutboxDao, "jdbcTemplate", jdbcTemplate);
+        schedulerService = mock(SchedulerService.class);
+
+        relay = new ScheduleOutboxRelay();
+        ReflectionTestUtils.setField(relay, "scheduleOutboxDao", scheduleOutboxDao);
+        ReflectionTestUtils.setField(relay, "schedulerService", schedulerService);
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+    }
+
+    /** A TaskService behind the same transaction proxy Spring puts around it. */
+    private TaskService transactionalTaskService(ScheduleOutboxDao outboxDao) {
+        UserDao userDao = new UserDao();
+        ReflectionTestUtils.setField(userDao, "jdbcTemplate", jdbcTemplate);
+
+        TaskService taskService = new TaskService();
+        ReflectionTestUtils.setField(taskService, "taskDao", taskDao);
+        ReflectionTestUtils.setField(taskService, "userDao", userDao);
+        ReflectionTestUtils.setField(taskService, "scheduleOutboxDao", outboxDao);
+        ReflectionTestUtils.setField(taskService, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(taskService, "clock", Clock.fixed(TODAY.atStartOfDay(ZONE).toInstant(), ZONE));
+
+        ProxyFactory proxyFactory = new ProxyFactory(taskService);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        return (TaskService) proxyFactory.getProxy();
+    }
+
+    private static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDueDate(TODAY.plusDays(2));
+        return task;
+    }
+
+    private int taskCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Integer.class);
+    }
+
+    @Test
+    public void testOutboxRowIsWrittenInTheTaskTransaction() {
+        int seeded = taskCount();
+        Task created = transactionalTaskService(scheduleOutboxDao).createTask(task("Pay rent"), "admin");
+        assertEquals(seeded + 1, taskCount());
+        assertEquals(1, scheduleOutboxDao.count());
+        assertEquals(created.getId(), scheduleOutboxDao.findBatch(10).get(0).getTaskId());
+
+        // If the outbox insert fails, the task change must not be committed without it.
+        ScheduleOutboxDao failingOutboxDao = spy(scheduleOutboxDao);
+        doThrow(new RuntimeException("outbox unavailable")).when(failingOutboxDao)
+                .enqueue(anyLong(), any(), any());
+        TaskService taskService = transactionalTaskService(failingOutboxDao);
+
+        assertThrows(RuntimeException.class, () -> taskService.createTask(task("Renew passport"), "admin"));
+        Task moved = task("Pay rent");
+        moved.setDueDate(TODAY.plusDays(5));
+        assertThrows(RuntimeException.class, () -> taskService.updateTask(created.getId(), moved, "admin"));
+
+        assertEquals(seeded + 1, taskCount());
+        assertEquals(TODAY.plusDays(2), taskDao.findById(created.getId()).getDueDate());
+        assertEquals(1, scheduleOutboxDao.count());
+    }
+
+    @Test
+    public void testRelayAppliesTheLatestChangePerTaskAndDeletesRows() {
+        scheduleOutboxDao.enqueue(1L, ScheduleOutboxEntry.ACTION_SCHEDULE, TODAY.plusDays(1));
+        scheduleOutboxDao.enqueue(2L, ScheduleOutboxEntry.ACTION_SCHEDULE, TODAY.plusDays(3));
+        scheduleOutboxDao.enqueue(1L, ScheduleOutboxEntry.ACTION_CANCEL, null);
+        when(schedulerService.scheduleTask(any(Task.class))).thenReturn(true);
+        when(schedulerService.cancelTask(anyLong())).thenReturn(true);
+
+        assertEquals(3, relay.relayBatch());
+
+        verify(schedulerService).cancelTask(1L);
+        verify(schedulerService).scheduleTask(argThat(task -> task.getId() == 2L
+                && TODAY.plusDays(3).equals(task.getDueDate())));
+        verifyNoMoreInteractions(schedulerService);
+        assertEquals(0, scheduleOutboxDao.count());
+    }
+
+    @Test
+    public void testFailedPublishLeavesTheRowPending() {
+        scheduleOutboxDao.enqueue(1L, ScheduleOutboxEntry.ACTION_SCHEDULE, TODAY.plusDays(1));
+        when(schedulerService.scheduleTask(any(Task.class))).thenReturn(false);
+
+        assertEquals(0, relay.relayBatch(), "A failed batch stops the drain loop");
+        assertEquals(1, scheduleOutboxDao.count());
+        assertEquals(1, scheduleOutboxDao.findBatch(10).get(0).getAttempts());
+
+        when(schedulerService.scheduleTask(any(Task.class))).thenReturn(true);
+        assertEquals(1, relay.relayBatch());
+        assertEquals(0, scheduleOutboxDao.count());
+        verify(schedulerService, times(2)).scheduleTask(any(Task.class));
+    }
+
+    @Test
+    public void testRowIsDroppedAfterMaxAttempts() {
+        scheduleOutboxDao.enqueue(1L, ScheduleOutboxEntry.ACTION_CANCEL, null);
+        when(schedulerService.cancelTask(eq(1L))).thenReturn(false);
+
+        relay.relayBatch();
+        relay.relayBatch();
+        assertEquals(1, scheduleOutboxDao.count());
+        relay.relayBatch();
+        assertEquals(0, scheduleOutboxDao.count());
+        verify(schedulerService, times(3)).cancelTask(1L);
+    }
+}
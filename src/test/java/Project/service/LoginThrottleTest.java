@@ -0,0 +1,58 @@
+package Project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class LoginThrottleTest {
+
+    private static LoginThrottle throttle(int maxKeys) {
+        LoginThrottle throttle = new LoginThrottle();
+        ReflectionTestUtils.setField(throttle, "addressPerMinute", 30);
+        ReflectionTestUtils.setField(throttle, "addressBurst", 10);
+        ReflectionTestUtils.setField(throttle, "usernamePerMinute", 1);
+        ReflectionTestUtils.setField(throttle, "usernameBurst", 5);
+        ReflectionTestUtils.setField(throttle, "maxKeys", maxKeys);
+        throttle.init();
+        return throttle;
+    }
+
+    private static int admitted(LoginThrottle throttle, String address, String username, int attempts) {
+        int admitted = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (throttle.tryAcquire(address, username)) {
+                admitted++;
+            }
+        }
+        return admitted;
+    }
+
+    @Test
+    public void testAddressAndUsernameAreLimitedSeparately() {
+        LoginThrottle throttle = throttle(1000);
+
+        assertEquals(5, admitted(throttle, null, "alice", 20));
+        assertEquals(5, admitted(throttle, "10.0.0.1", "bob", 20), "bob has a separate bucket");
+        assertEquals(10, admitted(throttle, "10.0.0.2", null, 20));
+        assertEquals(0, admitted(throttle, "10.0.0.2", "carol", 1), "An exhausted address blocks every username");
+        assertEquals(41L, throttle.getStats().get("throttled"));
+    }
+
+    @Test
+    public void testFullTableKeepsThrottling() {
+        int maxKeys = 160;
+        LoginThrottle throttle = throttle(maxKeys);
+        // Fill the table with buckets that are all still draining, so none could be dropped as idle.
+        for (int i = 0; i < maxKeys * 2; i++) {
+            assertEquals(5, admitted(throttle, null, "user" + i, 6));
+        }
+        assertTrue((Integer) throttle.getStats().get("usernames") <= maxKeys);
+
+        // A guessing run against a new account is still limited to its burst.
+        assertEquals(5, admitted(throttle, null, "mallory", 50));
+        assertEquals(0, admitted(throttle, null, "mallory", 50));
+        assertTrue((Integer) throttle.getStats().get("usernames") <= maxKeys);
+        assertTrue((Long) throttle.getStats().get("evicted") >= maxKeys);
+    }
+}
@@ -0,0 +1,85 @@
+package Project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class NotificationHubTest {
+
+    private NotificationHub hub;
+
+    @BeforeEach
+    public void setUp() {
+        hub = new NotificationHub();
+        ReflectionTestUtils.setField(hub, "maxSubscribers", 100);
+        ReflectionTestUtils.setField(hub, "bufferSize", 32);
+        ReflectionTestUtils.setField(hub, "fanoutThreads", 1);
+        ReflectionTestUtils.setField(hub, "slowLaneThreads", 1);
+        ReflectionTestUtils.setField(hub, "slowSendMs", 10L);
+        ReflectionTestUtils.setField(hub, "heartbeatMs", 0L);
+        hub.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        hub.stop();
+    }
+
+    private static final NotificationHub.Sink SINK = new NotificationHub.Sink() {
+        @Override
+        public void send(Map<String, Object> notification) {
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Test
+    public void testSubscribingWhileTheLastSubscriberCancelsIsNotLost() throws Exception {
+        Long userId = 7L;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // A page reload: the old stream closes while the new one opens.
+            for (int round = 0; round < 10_000; round++) {
+                NotificationHub.Subscription old = hub.subscribe(userId, SINK);
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                executor.submit(() -> {
+                    barrier.await();
+                    old.cancel();
+                    return null;
+                });
+                Future<NotificationHub.Subscription> reopened = executor.submit(() -> {
+                    barrier.await();
+                    return hub.subscribe(userId, SINK);
+                });
+                NotificationHub.Subscription current = reopened.get(10, TimeUnit.SECONDS);
+                while (hub.getSubscriberCount() != 1) {
+                    Thread.onSpinWait();
+                }
+
+                assertEquals(1, hub.publish(userId, Map.of("round", round)), "Round " + round);
+                current.cancel();
+                assertEquals(0, hub.getSubscriberCount());
+                assertEquals(0, hub.publish(userId, Map.of("round", round)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, hub.getStats().get("users"));
+    }
+}
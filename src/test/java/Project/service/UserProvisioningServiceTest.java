@@ -0,0 +1,177 @@
+package Project.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.dao.UserDao;
+import Project.dto.ProvisioningResult;
+import Project.model.User;
+
+public class UserProvisioningServiceTest {
+
+    private final BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+    private final Set<String> hashThreads = ConcurrentHashMap.newKeySet();
+    private volatile CountDownLatch hashGate = new CountDownLatch(0);
+
+    /** Records which threads hash, and can be held shut to keep a request in flight. */
+    private final PasswordEncoder passwordEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            hashThreads.add(Thread.currentThread().getName());
+            try {
+                hashGate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return bcrypt.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return bcrypt.matches(rawPassword, encodedPassword);
+        }
+    };
+
+    private JdbcTemplate jdbcTemplate;
+    private UserDao userDao;
+    private UserProvisioningService service;
+
+    @BeforeEach
+    public void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:provision-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        populator.setContinueOnError(true);
+        populator.execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        userDao = new UserDao();
+        ReflectionTestUtils.setField(userDao, "jdbcTemplate", jdbcTemplate);
+
+        service = new UserProvisioningService();
+        ReflectionTestUtils.setField(service, "userDao", userDao);
+        ReflectionTestUtils.setField(service, "authService", new AuthService(userDao, null, passwordEncoder, null, null));
+        ReflectionTestUtils.setField(service, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(service, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(service, "hashThreads", 2);
+        ReflectionTestUtils.setField(service, "batchSize", 4);
+        ReflectionTestUtils.setField(service, "maxRows", 100);
+        service.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.stop();
+    }
+
+    private static User user(String username, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret-" + username);
+        user.setEmail(email);
+        return user;
+    }
+
+    @Test
+    public void testCreatesUsersInBatchesWithHashedPasswords() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            users.add(user("member" + i, "member" + i + "@example.com"));
+        }
+        users.add(user("no-email", ""));
+        users.add(user("no-email-either", null));
+
+        ProvisioningResult result = service.provision(users);
+
+        assertEquals(12, result.getCreated());
+        assertTrue(result.getRejected().isEmpty());
+        assertFalse(hashThreads.contains(Thread.currentThread().getName()), "Hashing never runs on the request thread");
+        assertFalse(hashThreads.isEmpty());
+        User stored = userDao.findByUsername("member7");
+        assertEquals("USER", stored.getRole());
+        assertTrue(stored.isEnabled());
+        assertTrue(passwordEncoder.matches("secret-member7", stored.getPassword()));
+        assertNull(userDao.findByUsername("no-email").getEmail());
+    }
+
+    @Test
+    public void testReportsConflictsAndInvalidRowsByPosition() {
+        userDao.save(user("taken", "taken@example.com"));
+
+        ProvisioningResult result = service.provision(List.of(
+                user("alice", "alice@example.com"),
+                user("taken", "other@example.com"),
+                user("bob", "taken@example.com"),
+                user("x", "x@example.com"),
+                user("alice", "alice2@example.com"),
+                user("carol", "alice@example.com"),
+                user("dave", "dave@example.com")));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(4, result.getConflicts());
+        assertEquals(1, result.getInvalid());
+
+        List<ProvisioningResult.Row> rejected = result.getRejected();
+        assertEquals(List.of(1, 2, 3, 4, 5), rejected.stream().map(ProvisioningResult.Row::getIndex).toList());
+        assertEquals("Username already exists", rejected.get(0).getMessage());
+        assertEquals("Email already exists", rejected.get(1).getMessage());
+        assertEquals(ProvisioningResult.INVALID, rejected.get(2).getStatus());
+        assertEquals("Username repeated in request", rejected.get(3).getMessage());
+        assertEquals("Email repeated in request", rejected.get(4).getMessage());
+
+        assertNotNull(userDao.findByUsername("alice"));
+        assertNotNull(userDao.findByUsername("dave"));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE username <> 'admin'", Integer.class));
+    }
+
+    @Test
+    public void testRejectsOversizedRequests() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            users.add(user("member" + i, null));
+        }
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.provision(users));
+        assertEquals("At most 100 users can be provisioned at once", e.getMessage());
+        assertTrue(hashThreads.isEmpty(), "An oversized request is refused before any hashing");
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE username <> 'admin'", Integer.class));
+
+        assertEquals(100, service.provision(users.subList(0, 100)).getCreated());
+    }
+
+    @Test
+    public void testRefusesASecondRequestWhileOneIsRunning() throws Exception {
+        hashGate = new CountDownLatch(1);
+        CompletableFuture<ProvisioningResult> first = CompletableFuture.supplyAsync(
+                () -> service.provision(List.of(user("alice", null), user("bob", null))));
+        while (hashThreads.isEmpty()) {
+            Thread.sleep(5);
+        }
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.provision(List.of(user("carol", null))));
+        assertTrue(e.getMessage().contains("in progress"));
+
+        hashGate.countDown();
+        assertEquals(2, first.get(10, TimeUnit.SECONDS).getCreated());
+        assertEquals(1, service.provision(List.of(user("carol", null))).getCreated());
+    }
+}
@@ -0,0 +1,179 @@
+package Project.simulation;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import Project.TaskAutomation.ConnectorSettings;
+import Project.metrics.LatencyHistogram;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Starts an embedded Tomcat configured by {@link ConnectorSettings} and sends
+ * it {@code concurrency} requests at a time. Each request does what our
+ * request path does: it sets the security context, runs a JDBC query in a
+ * transaction, and blocks for {@code blockingMs} the way a slow query or
+ * BCrypt would. It then checks that it saw only its own ThreadLocal state,
+ * so the report shows both throughput and whether the security context or
+ * transaction synchronization leaked between requests.
+ */
+public class ConnectorLoadSimulation {
+
+    private int requests = 2_000;
+    private int concurrency = 200;
+    private long blockingMs = 20;
+
+    public static ConnectorLoadSimulation fromSystemProperties() {
+        ConnectorLoadSimulation simulation = new ConnectorLoadSimulation();
+        simulation.requests = Integer.getInteger("connector.requests", simulation.requests);
+        simulation.concurrency = Integer.getInteger("connector.concurrency", simulation.concurrency);
+        simulation.blockingMs = Long.getLong("connector.blocking-ms", simulation.blockingMs);
+        return simulation;
+    }
+
+    public Report run(ConnectorSettings settings) throws Exception {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:connector-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        populator.setContinueOnError(true);
+        populator.execute(dataSource);
+
+        Report report = new Report();
+        report.settings = settings.toString();
+        RequestServlet servlet = new RequestServlet(new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), blockingMs, report);
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("tomcat").toString());
+        tomcat.setPort(0);
+        report.threadMode = settings.applyTo(tomcat.getConnector());
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "request", servlet);
+        context.addServletMappingDecoded("/*", "request");
+        tomcat.start();
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientExecutor).build();
+        try {
+            URI uri = URI.create("http://localhost:" + tomcat.getConnector().getLocalPort() + "/tasks");
+            Semaphore inFlight = new Semaphore(concurrency);
+            CompletableFuture<?>[] responses = new CompletableFuture<?>[requests];
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                inFlight.acquire();
+                String user = "user" + (i % concurrency);
+                long sent = System.nanoTime();
+                HttpRequest request = HttpRequest.newBuilder(uri).header("X-User", user).build();
+                responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, e) -> {
+                    inFlight.release();
+                    report.latency.record(System.nanoTime() - sent);
+                    if (e != null || response.statusCode() != 200 || !user.equals(response.body())) {
+                        report.failed.incrementAndGet();
+                    }
+                });
+            }
+            CompletableFuture.allOf(responses).exceptionally(e -> null).join();
+            report.wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            report.requests = requests;
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+            clientExecutor.shutdownNow();
+        }
+        return report;
+    }
+
+    private static final class RequestServlet extends HttpServlet {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transactionTemplate;
+        private final long blockingMs;
+        private final Report report;
+
+        private RequestServlet(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, long blockingMs,
+                Report report) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.transactionTemplate = transactionTemplate;
+            this.blockingMs = blockingMs;
+            this.report = report;
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            if (SecurityContextHolder.getContext().getAuthentication() != null
+                    || TransactionSynchronizationManager.isSynchronizationActive()) {
+                report.leaked.incrementAndGet();
+            }
+
+            String user = request.getHeader("X-User");
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+                    if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                        report.leaked.incrementAndGet();
+                    }
+                    try {
+                        Thread.sleep(blockingMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                response.getWriter().write(authentication.getName());
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        }
+    }
+
+    public static class Report {
+        public String settings;
+        public ConnectorSettings.ThreadMode threadMode;
+        public int requests;
+        public long wallMillis;
+        public final AtomicLong failed = new AtomicLong();
+        public final AtomicLong leaked = new AtomicLong();
+        public final LatencyHistogram latency = new LatencyHistogram();
+
+        public double requestsPerSecond() {
+            return wallMillis == 0 ? 0 : requests * 1000.0 / wallMillis;
+        }
+
+        @Override
+        public String toString() {
+            Map<String, Object> latencies = latency.snapshot();
+            return String.format("Connector (%s, ran on %s threads): %d requests in %d ms, %.0f/s%n"
+                    + "  failed %d, ThreadLocal leaks %d%n  latency %s",
+                    settings, threadMode, requests, wallMillis, requestsPerSecond(), failed.get(), leaked.get(),
+                    latencies);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package Project.simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import Project.TaskAutomation.ConnectorSettings;
+
+/**
+ * 2,000 requests, 200 at a time, each blocking for 20 ms. Other loads:
+ * {@code mvn test -Dtest=ConnectorLoadSimulationTest -Dconnector.concurrency=1000 -Dconnector.requests=20000}
+ */
+public class ConnectorLoadSimulationTest {
+
+    private static ConnectorSettings settings(ConnectorSettings.ThreadMode mode) {
+        return ConnectorSettings.fromEnvironment(Map.of()).threadMode(mode).maxThreads(20);
+    }
+
+    @Test
+    public void testPlatformThreadsKeepRequestStateApart() throws Exception {
+        ConnectorLoadSimulation.Report report = ConnectorLoadSimulation.fromSystemProperties()
+                .run(settings(ConnectorSettings.ThreadMode.PLATFORM));
+        System.out.println(report);
+
+        assertEquals(ConnectorSettings.ThreadMode.PLATFORM, report.threadMode);
+        assertEquals(0, report.failed.get());
+        assertEquals(0, report.leaked.get());
+    }
+
+    @Test
+    public void testVirtualThreadsFallBackBeforeJava21() throws Exception {
+        ConnectorLoadSimulation.Report report = ConnectorLoadSimulation.fromSystemProperties()
+                .run(settings(ConnectorSettings.ThreadMode.VIRTUAL));
+        System.out.println(report);
+
+        assertEquals(ConnectorSettings.virtualThreadsAvailable() ? ConnectorSettings.ThreadMode.VIRTUAL
+                : ConnectorSettings.ThreadMode.PLATFORM, report.threadMode);
+        assertEquals(0, report.failed.get());
+        assertEquals(0, report.leaked.get());
+    }
+
+    @Test
+    public void testVirtualThreadsOutrunAPlatformPoolOnBlockingRequests() throws Exception {
+        assumeTrue(ConnectorSettings.virtualThreadsAvailable(), "Virtual threads need Java 21");
+        ConnectorLoadSimulation simulation = ConnectorLoadSimulation.fromSystemProperties();
+        ConnectorLoadSimulation.Report platform = simulation.run(settings(ConnectorSettings.ThreadMode.PLATFORM));
+        ConnectorLoadSimulation.Report virtual = simulation.run(settings(ConnectorSettings.ThreadMode.VIRTUAL));
+        System.out.println(platform);
+        System.out.println(virtual);
+
+        assertEquals(0, virtual.leaked.get());
+        assertTrue(virtual.requestsPerSecond() > platform.requestsPerSecond(),
+                "200 blocking requests at a time should not queue for 20 threads");
+    }
+}
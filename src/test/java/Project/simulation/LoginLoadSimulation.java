@@ -0,0 +1,216 @@
+package Project.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.dao.UserDao;
+import Project.dto.AuthResponse;
+import Project.executor.PasswordHashExecutor;
+import Project.metrics.LatencyHistogram;
+import Project.model.User;
+import Project.service.AuthService;
+import Project.service.TokenRevocationService;
+import Project.util.JwtUtil;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * A login storm against a pool of request threads standing in for Tomcat's,
+ * while a probe sends a cheap "task API" request through the same pool every
+ * {@code probeIntervalMs}. Runs the login both ways:
+ * <ul>
+ * <li>{@link Mode#INLINE}: the path before the hashing executor, two user
+ * lookups and BCrypt on the request thread;</li>
+ * <li>{@link Mode#PIPELINED}: {@link AuthService#login}, which hands BCrypt
+ * to the {@link PasswordHashExecutor} and frees the request thread.</li>
+ * </ul>
+ * Shed clients wait {@code shedBackoffMs} before trying again, as they would
+ * on a 503 with Retry-After. The report compares login throughput and
+ * shedding with the latency the probe saw, i.e. how long other APIs wait for
+ * a request thread during the storm.
+ */
+public class LoginLoadSimulation {
+
+    public enum Mode {
+        INLINE, PIPELINED
+    }
+
+    private int clients = 32;
+    private int requestThreads = 8;
+    private int hashThreads = 2;
+    private int hashQueueCapacity = 16;
+    private int bcryptStrength = 10;
+    private long durationMs = 3_000;
+    private long probeIntervalMs = 10;
+    private long shedBackoffMs = 1000;
+
+    public static LoginLoadSimulation fromSystemProperties() {
+        LoginLoadSimulation simulation = new LoginLoadSimulation();
+        simulation.clients = Integer.getInteger("login.clients", simulation.clients);
+        simulation.requestThreads = Integer.getInteger("login.request-threads", simulation.requestThreads);
+        simulation.hashThreads = Integer.getInteger("login.hash-threads", simulation.hashThreads);
+        simulation.hashQueueCapacity = Integer.getInteger("login.hash-queue", simulation.hashQueueCapacity);
+        simulation.bcryptStrength = Integer.getInteger("login.bcrypt-strength", simulation.bcryptStrength);
+        simulation.durationMs = Long.getLong("login.duration-ms", simulation.durationMs);
+        return simulation;
+    }
+
+    public Report run(Mode mode) throws Exception {
+        // logback.xml logs every login attempt at DEBUG; measure the logins, not the console.
+        ((Logger) LoggerFactory.getLogger("Project")).setLevel(Level.INFO);
+
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:login-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        populator.setContinueOnError(true);
+        populator.execute(dataSource);
+        UserDao userDao = new UserDao();
+        ReflectionTestUtils.setField(userDao, "jdbcTemplate", new JdbcTemplate(dataSource));
+
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(bcryptStrength);
+        String hash = passwordEncoder.encode("password");
+        for (int i = 0; i < clients; i++) {
+            userDao.save(new User(null, "user" + i, hash, "user" + i + "@example.com", "USER", true));
+        }
+
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKeyString", "simulationSecretKey12345simulationSecretKey12345");
+        ReflectionTestUtils.setField(jwtUtil, "EXPIRATION_TIME", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxEntries", 0);
+        jwtUtil.init();
+
+        PasswordHashExecutor hashExecutor = new PasswordHashExecutor();
+        ReflectionTestUtils.setField(hashExecutor, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(hashExecutor, "threads", hashThreads);
+        ReflectionTestUtils.setField(hashExecutor, "queueCapacity", hashQueueCapacity);
+        hashExecutor.start();
+        AuthService authService = new AuthService(userDao, jwtUtil, passwordEncoder, new TokenRevocationService(),
+                hashExecutor);
+
+        ExecutorService requestPool = Executors.newFixedThreadPool(requestThreads);
+        Report report = new Report();
+        report.mode = mode;
+        report.clients = clients;
+        report.requestThreads = requestThreads;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs);
+
+        try {
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                String username = "user" + i;
+                Thread client = new Thread(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            if (mode == Mode.INLINE) {
+                                requestPool.submit(() -> loginInline(userDao, passwordEncoder, jwtUtil, username)).get();
+                            } else {
+                                requestPool.submit(() -> authService.login(username, "password")).get().join();
+                            }
+                            report.loginLatency.record(System.nanoTime() - start);
+                            report.succeeded.incrementAndGet();
+                        } catch (CompletionException e) {
+                            if (e.getCause() instanceof PasswordHashExecutor.OverloadedException) {
+                                report.shed.incrementAndGet();
+                                pause(shedBackoffMs);
+                            } else {
+                                report.failed.incrementAndGet();
+                            }
+                        } catch (InterruptedException | ExecutionException e) {
+                            report.failed.incrementAndGet();
+                        }
+                    }
+                }, "login-client-" + i);
+                threads.add(client);
+            }
+
+            Thread probe = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        requestPool.submit(() -> userDao.findById(1L)).get();
+                        report.taskLatency.record(System.nanoTime() - start);
+                    } catch (InterruptedException | ExecutionException e) {
+                        return;
+                    }
+                    pause(probeIntervalMs);
+                }
+            }, "task-probe");
+            threads.add(probe);
+
+            long started = System.nanoTime();
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            report.wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            report.hashStats = hashExecutor.getStats();
+        } finally {
+            requestPool.shutdownNow();
+            hashExecutor.stop();
+        }
+        return report;
+    }
+
+    private static AuthResponse loginInline(UserDao userDao, BCryptPasswordEncoder passwordEncoder, JwtUtil jwtUtil,
+            String username) {
+        User user = userDao.findByUsername(username);
+        if (user == null || !passwordEncoder.matches("password", user.getPassword())) {
+            throw new RuntimeException("Invalid username or password");
+        }
+        String token = jwtUtil.generateToken(username);
+        // The controller looked the user up a second time for the response.
+        user = userDao.findByUsername(username);
+        return new AuthResponse(token, user.getUsername(), user.getEmail(), "Login successful");
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static class Report {
+        public Mode mode;
+        public int clients;
+        public int requestThreads;
+        public long wallMillis;
+        public final AtomicLong succeeded = new AtomicLong();
+        public final AtomicLong shed = new AtomicLong();
+        public final AtomicLong failed = new AtomicLong();
+        public final LatencyHistogram loginLatency = new LatencyHistogram();
+        public final LatencyHistogram taskLatency = new LatencyHistogram();
+        public Map<String, Object> hashStats;
+
+        public double loginsPerSecond() {
+            return wallMillis == 0 ? 0 : succeeded.get() * 1000.0 / wallMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Login storm (%s): %d clients, %d request threads, %d ms%n"
+                    + "  logins %d ok (%.1f/s), %d shed, %d failed%n"
+                    + "  login latency %s%n  task request latency %s%n  hashing %s",
+                    mode, clients, requestThreads, wallMillis, succeeded.get(), loginsPerSecond(), shed.get(),
+                    failed.get(), loginLatency.snapshot(), taskLatency.snapshot(), hashStats);
+        }
+    }
+}
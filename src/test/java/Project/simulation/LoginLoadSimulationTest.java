@@ -0,0 +1,28 @@
+package Project.simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 32 clients for 3 seconds per mode by default. Heavier runs:
+ * {@code mvn test -Dtest=LoginLoadSimulationTest -Dlogin.clients=200 -Dlogin.duration-ms=10000}
+ */
+public class LoginLoadSimulationTest {
+
+    @Test
+    public void testLoginStormLeavesRequestThreadsForOtherApis() throws Exception {
+        LoginLoadSimulation simulation = LoginLoadSimulation.fromSystemProperties();
+        LoginLoadSimulation.Report inline = simulation.run(LoginLoadSimulation.Mode.INLINE);
+        System.out.println(inline);
+        LoginLoadSimulation.Report pipelined = simulation.run(LoginLoadSimulation.Mode.PIPELINED);
+        System.out.println(pipelined);
+
+        assertEquals(0, inline.failed.get());
+        assertEquals(0, pipelined.failed.get());
+        assertTrue(pipelined.succeeded.get() > 0, "Logins should still get through");
+        assertTrue(pipelined.shed.get() > 0, "Logins beyond the hashing queue should be shed");
+        assertTrue(pipelined.taskLatency.percentile(99) < inline.taskLatency.percentile(99),
+                "Other requests should not wait behind BCrypt for a request thread");
+    }
+}
@@ -0,0 +1,266 @@
+package Project.simulation;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.service.NotificationHub;
+
+/**
+ * Drives the {@link NotificationHub} with thousands of concurrent subscribers.
+ * Publisher threads push notifications to random users while clients keep
+ * connecting and disconnecting. A few subscribers are slow to read, and a few
+ * fail after some notifications, the way a browser that went away does.
+ *
+ * Publishers are paced to {@code fanout.rate} notifications per second in
+ * total. Every user is published to by a single publisher thread, so the order of
+ * its notifications is known. The report says whether each subscriber saw
+ * them in that order, how many it saw, and how long fan-out took.
+ */
+public class NotificationFanoutSimulation {
+
+    private int subscribers = 5_000;
+    private int users = 500;
+    private int notifications = 20_000;
+    private int publishers = 8;
+    private int publishRate = 10_000;
+    private int fanoutThreads = 4;
+    private int bufferSize = 32;
+    private int slowEvery = 100;
+    private long slowDelayMs = 20;
+    private int failingEvery = 250;
+    private int failAfter = 3;
+
+    public static NotificationFanoutSimulation fromSystemProperties() {
+        NotificationFanoutSimulation simulation = new NotificationFanoutSimulation();
+        simulation.subscribers = Integer.getInteger("fanout.subscribers", simulation.subscribers);
+        simulation.users = Integer.getInteger("fanout.users", simulation.users);
+        simulation.notifications = Integer.getInteger("fanout.notifications", simulation.notifications);
+        simulation.publishers = Integer.getInteger("fanout.publishers", simulation.publishers);
+        simulation.publishRate = Integer.getInteger("fanout.rate", simulation.publishRate);
+        simulation.fanoutThreads = Integer.getInteger("fanout.threads", simulation.fanoutThreads);
+        return simulation;
+    }
+
+    public NotificationFanoutSimulation subscribers(int subscribers) {
+        this.subscribers = subscribers;
+        return this;
+    }
+
+    public NotificationFanoutSimulation notifications(int notifications) {
+        this.notifications = notifications;
+        return this;
+    }
+
+    public Report run() throws Exception {
+        NotificationHub hub = new NotificationHub();
+        ReflectionTestUtils.setField(hub, "maxSubscribers", subscribers + publishers * 10);
+        ReflectionTestUtils.setField(hub, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(hub, "fanoutThreads", fanoutThreads);
+        ReflectionTestUtils.setField(hub, "slowLaneThreads", 2);
+        ReflectionTestUtils.setField(hub, "slowSendMs", 10L);
+        ReflectionTestUtils.setField(hub, "heartbeatMs", 0L);
+        hub.start();
+
+        try {
+            List<RecordingSink> sinks = new ArrayList<>();
+            for (int i = 0; i < subscribers; i++) {
+                long userId = i % users;
+                long delayMs = slowEvery > 0 && i % slowEvery == 1 ? slowDelayMs : 0;
+                int failAt = failingEvery > 0 && i % failingEvery == 2 ? failAfter : -1;
+                RecordingSink sink = new RecordingSink(userId, delayMs, failAt);
+                hub.subscribe(userId, sink);
+                sinks.add(sink);
+            }
+
+            AtomicLongArray lastPublished = new AtomicLongArray(users);
+            AtomicBoolean publishing = new AtomicBoolean(true);
+            Thread churn = new Thread(() -> churn(hub, publishing), "fanout-churn");
+            churn.start();
+
+            CountDownLatch done = new CountDownLatch(publishers);
+            long start = System.nanoTime();
+            for (int p = 0; p < publishers; p++) {
+                int publisher = p;
+                Thread thread = new Thread(() -> {
+                    try {
+                        publish(hub, publisher, lastPublished);
+                    } finally {
+                        done.countDown();
+                    }
+                }, "fanout-publisher-" + p);
+                thread.start();
+            }
+            done.await();
+            long publishNanos = System.nanoTime() - start;
+            publishing.set(false);
+            churn.join();
+
+            Report report = new Report();
+            report.drained = awaitDrained(sinks, lastPublished, TimeUnit.SECONDS.toNanos(60));
+            report.wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            report.publishMillis = TimeUnit.NANOSECONDS.toMillis(publishNanos);
+            report.subscribers = subscribers;
+            report.notifications = notifications;
+            report.peakThreads = ManagementFactory.getThreadMXBean().getPeakThreadCount();
+            report.openSubscribers = hub.getSubscriberCount();
+            report.hubStats = hub.getStats();
+
+            for (RecordingSink sink : sinks) {
+                long expected = expectedFor(sink.userId, lastPublished);
+                if (!sink.inOrder) {
+                    report.outOfOrder++;
+                }
+                if (sink.failAt >= 0) {
+                    report.failing++;
+                    report.closedByHub += sink.closed ? 1 : 0;
+                } else if (sink.delayMs > 0) {
+                    report.slow++;
+                    report.slowCaughtUp += sink.last == expected ? 1 : 0;
+                } else {
+                    report.fast++;
+                    report.fastComplete += sink.received == expected && sink.last == expected ? 1 : 0;
+                }
+            }
+            return report;
+        } finally {
+            hub.stop();
+        }
+    }
+
+    private void publish(NotificationHub hub, int publisher, AtomicLongArray lastPublished) {
+        // Users owned by this publisher, so per-user order is this thread's order.
+        List<Integer> owned = new ArrayList<>();
+        for (int user = publisher; user < users; user += publishers) {
+            owned.add(user);
+        }
+        int count = notifications / publishers;
+        // Paced to this publisher's share of the total rate; 0 publishes as fast as possible.
+        long intervalNanos = publishRate > 0 ? TimeUnit.SECONDS.toNanos(publishers) / publishRate : 0;
+        long next = System.nanoTime();
+        for (int n = 0; n < count; n++) {
+            if (intervalNanos > 0) {
+                next += intervalNanos;
+                LockSupport.parkNanos(next - System.nanoTime());
+            }
+            int user = owned.get((int) ((n * 2654435761L) % owned.size()));
+            long sequence = lastPublished.get(user) + 1;
+            lastPublished.set(user, sequence);
+            hub.publish((long) user, Map.of("seq", sequence, "publishedAt", System.nanoTime()));
+        }
+    }
+
+    /** Clients opening and closing streams while notifications flow. */
+    private void churn(NotificationHub hub, AtomicBoolean publishing) {
+        List<NotificationHub.Subscription> open = new ArrayList<>();
+        long i = 0;
+        while (publishing.get()) {
+            open.add(hub.subscribe(i++ % users, new RecordingSink(-1, 0, -1)));
+            if (open.size() > publishers * 5) {
+                open.remove(0).cancel();
+            }
+        }
+        open.forEach(NotificationHub.Subscription::cancel);
+    }
+
+    private static long expectedFor(long userId, AtomicLongArray lastPublished) {
+        return lastPublished.get((int) userId);
+    }
+
+    private static boolean awaitDrained(List<RecordingSink> sinks, AtomicLongArray lastPublished, long timeoutNanos)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (System.nanoTime() < deadline) {
+            boolean drained = true;
+            for (RecordingSink sink : sinks) {
+                if (sink.failAt < 0 && sink.last != expectedFor(sink.userId, lastPublished)) {
+                    drained = false;
+                    break;
+                }
+            }
+            if (drained) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    static final class RecordingSink implements NotificationHub.Sink {
+        private final long userId;
+        private final long delayMs;
+        private final int failAt;
+        private volatile long last;
+        private volatile long received;
+        private volatile boolean inOrder = true;
+        private volatile boolean closed;
+
+        RecordingSink(long userId, long delayMs, int failAt) {
+            this.userId = userId;
+            this.delayMs = delayMs;
+            this.failAt = failAt;
+        }
+
+        @Override
+        public void send(Map<String, Object> notification) throws Exception {
+            if (failAt >= 0 && received >= failAt) {
+                throw new IOException("Broken pipe");
+            }
+            if (delayMs > 0) {
+                Thread.sleep(delayMs);
+            }
+            long sequence = (Long) notification.get("seq");
+            if (sequence <= last) {
+                inOrder = false;
+            }
+            last = sequence;
+            received++;
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    public static class Report {
+        public int subscribers;
+        public int notifications;
+        public boolean drained;
+        public long wallMillis;
+        public long publishMillis;
+        public int peakThreads;
+        public int openSubscribers;
+        public int fast;
+        public int fastComplete;
+        public int slow;
+        public int slowCaughtUp;
+        public int failing;
+        public int closedByHub;
+        public int outOfOrder;
+        public Map<String, Object> hubStats;
+
+        @Override
+        public String toString() {
+            return String.format("Notification fan-out: %d subscribers, %d notifications%n"
+                    + "  publish %d ms, until drained %d ms (drained=%s), peak threads %d%n"
+                    + "  fast %d/%d complete, slow %d/%d caught up, failing %d/%d dropped, out of order %d%n"
+                    + "  open subscribers after run %d%n  hub %s",
+                    subscribers, notifications, publishMillis, wallMillis, drained, peakThreads, fastComplete, fast,
+                    slowCaughtUp, slow, closedByHub, failing, outOfOrder, openSubscribers, hubStats);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package Project.simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 5,000 subscribers by default. Larger runs:
+ * {@code mvn test -Dtest=NotificationFanoutSimulationTest -Dfanout.subscribers=50000 -Dfanout.users=5000}
+ */
+public class NotificationFanoutSimulationTest {
+
+	@Test
+	public void testEverySubscriberGetsItsNotificationsInOrder() throws Exception {
+		NotificationFanoutSimulation.Report report = NotificationFanoutSimulation.fromSystemProperties().run();
+		System.out.println(report);
+
+		assertTrue(report.drained, "All subscribers should catch up");
+		assertEquals(0, report.outOfOrder, "No subscriber should see notifications out of order");
+		assertEquals(report.fast, report.fastComplete, "Fast subscribers should get every notification");
+		assertEquals(report.slow, report.slowCaughtUp, "Slow subscribers should end on the latest notification");
+		assertEquals(report.failing, report.closedByHub, "Broken subscribers should be dropped");
+		assertEquals(report.subscribers - report.failing, report.openSubscribers);
+	}
+}
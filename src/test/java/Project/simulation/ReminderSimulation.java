@@ -0,0 +1,369 @@
+package Project.simulation;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.JobExecutionContextImpl;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggerFiredBundle;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import Project.dao.ReminderDeliveryDao;
+import Project.dao.ReminderRetryDao;
+import Project.dao.TaskDao;
+import Project.dao.UserDao;
+import Project.dao.UserRuleDao;
+import Project.executor.ActionExecutor;
+import Project.executor.EmailNotificationChannel;
+import Project.executor.InAppNotificationChannel;
+import Project.executor.MailDeliveryPipeline;
+import Project.executor.NotificationDispatcher;
+import Project.executor.OutboundMailGuard;
+import Project.executor.ReminderDispatchQueue;
+import Project.metrics.LatencyHistogram;
+import Project.metrics.SchedulerMetrics;
+import Project.rules.RuleEngine;
+import Project.rules.UrgencyScoreCache;
+import Project.scheduler.ReminderRetryWorker;
+import Project.scheduler.TaskExecutionJob;
+import Project.service.NotificationHub;
+import Project.service.RecurrenceService;
+import Project.service.UserRuleService;
+import Project.template.NotificationTemplates;
+import ch.qos.logback.classic.Level;
+
+/**
+ * Runs the reminder sweep against an in-memory H2 database on a virtual clock.
+ * Loads synthetic tasks due over the simulated days, fires the sweep job every
+ * step, waits for the dispatch queue to drain and reports reminders fired, their
+ * lateness against the nominal reminder time and the resources used.
+ *
+ * Mail is captured in memory; everything between the Quartz job and the mail
+ * sender is the production code.
+ */
+public class ReminderSimulation {
+
+    private static final DateTimeFormatter DUE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String TITLE_PREFIX = "sim-";
+    private static final String[] PRIORITIES = { "HIGH", "MEDIUM", "LOW" };
+
+    private int tasks = 10_000;
+    private int users = 100;
+    private int days = 7;
+    private Duration step = Duration.ofMinutes(15);
+    private long seed = 42;
+    private LocalDateTime start = LocalDate.of(2026, 1, 5).atStartOfDay();
+
+    public static ReminderSimulation fromSystemProperties() {
+        ReminderSimulation simulation = new ReminderSimulation();
+        simulation.tasks = Integer.getInteger("sim.tasks", simulation.tasks);
+        simulation.users = Integer.getInteger("sim.users", simulation.users);
+        simulation.days = Integer.getInteger("sim.days", simulation.days);
+        simulation.step = Duration.ofMinutes(Integer.getInteger("sim.step-minutes", (int) simulation.step.toMinutes()));
+        simulation.seed = Long.getLong("sim.seed", simulation.seed);
+        return simulation;
+    }
+
+    public ReminderSimulation tasks(int tasks) {
+        this.tasks = tasks;
+        return this;
+    }
+
+    public ReminderSimulation days(int days) {
+        this.days = days;
+        return this;
+    }
+
+    public ReminderSimulation step(Duration step) {
+        this.step = step;
+        return this;
+    }
+
+    public Report run() throws Exception {
+        ch.qos.logback.classic.Logger appLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger("Project");
+        Level previousLevel = appLogger.getLevel();
+        appLogger.setLevel(Level.WARN);
+
+        SimulatedClock clock = new SimulatedClock(start, ZoneId.systemDefault());
+        RecordingMailSender mailSender = new RecordingMailSender(clock);
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(Clock.class, () -> clock);
+            context.registerBean(JavaMailSender.class, () -> mailSender);
+            context.register(SimulationConfig.class);
+            context.refresh();
+
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            Report report = new Report();
+
+            long loadStart = System.nanoTime();
+            report.expectedReminders = load(jdbcTemplate);
+            report.loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+
+            TaskExecutionJob job = context.getBean(TaskExecutionJob.class);
+            Scheduler scheduler = context.getBean(Scheduler.class);
+            JobDetail sweepJob = JobBuilder.newJob(TaskExecutionJob.class).withIdentity("simulatedSweep").build();
+
+            long gcCountBefore = gcCount();
+            long gcTimeBefore = gcTime();
+            long runStart = System.nanoTime();
+            LocalDateTime end = start.plusDays(days);
+            long ledgerRows = 0;
+
+            for (LocalDateTime now = start; !now.isAfter(end); now = clock.localNow()) {
+                long sweepStart = System.nanoTime();
+                job.execute(new JobExecutionContextImpl(scheduler, firedBundle(sweepJob, clock), job));
+
+                long rows = count(jdbcTemplate, "SELECT COUNT(*) FROM reminder_deliveries");
+                if (rows != ledgerRows) {
+                    awaitDrained(jdbcTemplate);
+                    ledgerRows = rows;
+                }
+                report.sweepTime.record(System.nanoTime() - sweepStart);
+                report.sweeps++;
+                report.peakHeapBytes = Math.max(report.peakHeapBytes, usedHeap());
+
+                clock.advance(step);
+            }
+
+            report.runMillis = (System.nanoTime() - runStart) / 1_000_000;
+            report.gcCount = gcCount() - gcCountBefore;
+            report.gcMillis = gcTime() - gcTimeBefore;
+            report.peakThreads = ManagementFactory.getThreadMXBean().getPeakThreadCount();
+            report.remindersFired = mailSender.sent.get();
+            report.lateness = mailSender.lateness;
+            report.metrics = context.getBean(SchedulerMetrics.class).snapshot().toString();
+            report.tasks = tasks;
+            report.days = days;
+            report.step = step;
+            return report;
+        } finally {
+            appLogger.setLevel(previousLevel);
+        }
+    }
+
+    /**
+     * Inserts users and tasks; returns the number of reminders the run should fire
+     * (every incomplete task, since all due dates fall inside the simulated days).
+     */
+    private long load(JdbcTemplate jdbcTemplate) {
+        List<Object[]> userRows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            userRows.add(new Object[] { "sim-user-" + i, "x", "sim-user-" + i + "@example.com" });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, password, email) VALUES (?, ?, ?)", userRows);
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE username LIKE 'sim-user-%'",
+                Long.class);
+
+        Random random = new Random(seed);
+        String sql = "INSERT INTO tasks (title, due_date, completed, priority, status, user_id) VALUES (?, ?, ?, ?, ?, ?)";
+        long expected = 0;
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            LocalDate dueDate = start.toLocalDate().plusDays(1 + random.nextInt(days));
+            boolean completed = random.nextInt(10) == 0;
+            if (!completed) {
+                expected++;
+            }
+            batch.add(new Object[] { TITLE_PREFIX + i, Timestamp.valueOf(dueDate.atStartOfDay()), completed,
+                    PRIORITIES[random.nextInt(PRIORITIES.length)], completed ? "COMPLETED" : "PENDING",
+                    userIds.get(i % userIds.size()) });
+            if (batch.size() == 10_000) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+        return expected;
+    }
+
+    private static TriggerFiredBundle firedBundle(JobDetail jobDetail, SimulatedClock clock) {
+        Date now = Date.from(clock.instant());
+        OperableTrigger trigger = (OperableTrigger) TriggerBuilder.newTrigger().forJob(jobDetail).startAt(now).build();
+        return new TriggerFiredBundle(jobDetail, trigger, null, false, now, now, null, null);
+    }
+
+    private static void awaitDrained(JdbcTemplate jdbcTemplate) throws InterruptedException {
+        while (count(jdbcTemplate, "SELECT COUNT(*) FROM reminder_deliveries WHERE status = 'CLAIMED'") > 0) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static long count(JdbcTemplate jdbcTemplate, String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    public static class Report {
+        public int tasks;
+        public int days;
+        public Duration step;
+        public long expectedReminders;
+        public long remindersFired;
+        public long sweeps;
+        public long loadMillis;
+        public long runMillis;
+        public long gcCount;
+        public long gcMillis;
+        public long peakHeapBytes;
+        public int peakThreads;
+        public LatencyHistogram lateness;
+        public final LatencyHistogram sweepTime = new LatencyHistogram();
+        public String metrics;
+
+        @Override
+        public String toString() {
+            return String.format("Simulated %d days of %d tasks in %d steps of %s%n"
+                    + "  reminders fired: %d of %d expected%n"
+                    + "  lateness (virtual): p50 %.0f s, p99 %.0f s, max %.0f s%n"
+                    + "  wall time: load %d ms, run %d ms, sweep+drain p99 %.1f ms%n"
+                    + "  resources: peak heap %d MB, peak threads %d, %d GCs taking %d ms%n"
+                    + "  scheduler metrics: %s",
+                    days, tasks, sweeps, step, remindersFired, expectedReminders,
+                    lateness.percentile(50) / 1e9, lateness.percentile(99) / 1e9, lateness.percentile(100) / 1e9,
+                    loadMillis, runMillis, sweepTime.percentile(99) / 1e6, peakHeapBytes / (1024 * 1024), peakThreads,
+                    gcCount, gcMillis, metrics);
+        }
+    }
+
+    /**
+     * Captures simulated reminders and records how late each one was sent against
+     * its nominal reminder time, read back from the due date in the body.
+     */
+    static class RecordingMailSender extends JavaMailSenderImpl {
+
+        private final SimulatedClock clock;
+        private final AtomicLong sent = new AtomicLong();
+        private final LatencyHistogram lateness = new LatencyHistogram();
+
+        RecordingMailSender(SimulatedClock clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public void send(SimpleMailMessage... simpleMessages) {
+            for (SimpleMailMessage message : simpleMessages) {
+                if (message.getSubject() == null || !message.getSubject().contains(TITLE_PREFIX)) {
+                    continue;
+                }
+                LocalDateTime dueDate = dueDateOf(message.getText());
+                LocalDateTime reminderAt = dueDate.minusHours(1);
+                lateness.record(Duration.between(reminderAt, clock.localNow()).toNanos());
+                sent.incrementAndGet();
+            }
+        }
+
+        private static LocalDateTime dueDateOf(String text) {
+            int index = text.indexOf("Due Date: ");
+            return LocalDateTime.parse(text.substring(index + 10, index + 26), DUE_FORMAT);
+        }
+    }
+
+    @Configuration
+    @Import({ TaskDao.class, UserDao.class, UserRuleDao.class, ReminderDeliveryDao.class, ReminderRetryDao.class,
+            RecurrenceService.class, UserRuleService.class, RuleEngine.class, UrgencyScoreCache.class,
+            ActionExecutor.class, MailDeliveryPipeline.class, OutboundMailGuard.class, NotificationDispatcher.class,
+            EmailNotificationChannel.class, InAppNotificationChannel.class, NotificationHub.class,
+            ReminderDispatchQueue.class, SchedulerMetrics.class, TaskExecutionJob.class, ReminderRetryWorker.class,
+            NotificationTemplates.class })
+    static class SimulationConfig {
+
+        @Bean
+        public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
+            PropertySourcesPlaceholderConfigurer configurer = new PropertySourcesPlaceholderConfigurer();
+            Properties properties = new Properties();
+            properties.setProperty("metrics.log-interval-ms", "0");
+            // The simulated relay has no quota; the burst of reminders would otherwise be deferred.
+            properties.setProperty("mail.rate-limit.per-second", "0");
+            configurer.setProperties(properties);
+            return configurer;
+        }
+
+        @Bean(destroyMethod = "close")
+        public DataSource dataSource() {
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl("jdbc:h2:mem:simulation-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+            config.setUsername("sa");
+            config.setPassword("");
+            config.setMaximumPoolSize(10);
+            return new HikariDataSource(config);
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        public DataSourceInitializer dataSourceInitializer(DataSource dataSource) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+            populator.setContinueOnError(true);
+            DataSourceInitializer initializer = new DataSourceInitializer();
+            initializer.setDataSource(dataSource);
+            initializer.setDatabasePopulator(populator);
+            return initializer;
+        }
+
+        @Bean(destroyMethod = "shutdown")
+        public Scheduler scheduler() throws SchedulerException {
+            Properties properties = new Properties();
+            properties.setProperty("org.quartz.scheduler.instanceName", "simulation-" + System.nanoTime());
+            properties.setProperty("org.quartz.threadPool.threadCount", "1");
+            properties.setProperty("org.quartz.jobStore.class", "org.quartz.simpl.RAMJobStore");
+            return new StdSchedulerFactory(properties).getScheduler();
+        }
+    }
+}
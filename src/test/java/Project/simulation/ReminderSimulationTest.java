@@ -0,0 +1,33 @@
+package Project.simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Small simulated week by default. Larger runs:
+ * {@code mvn test -Dtest=ReminderSimulationTest -Dsim.tasks=1000000 -Dsim.days=7}
+ */
+public class ReminderSimulationTest {
+
+	@Test
+	public void testEveryPendingTaskIsRemindedOnceWithinOneStep() throws Exception {
+		ReminderSimulation.Report report = ReminderSimulation.fromSystemProperties().run();
+		System.out.println(report);
+
+		assertEquals(report.expectedReminders, report.remindersFired, "Every pending task should get one reminder");
+		assertTrue(report.lateness.percentile(100) <= report.step.toNanos(),
+				"No reminder should be later than one sweep step");
+	}
+
+	@Test
+	public void testRunIsDeterministic() throws Exception {
+		ReminderSimulation.Report first = new ReminderSimulation().tasks(500).days(2).step(Duration.ofMinutes(30)).run();
+		ReminderSimulation.Report second = new ReminderSimulation().tasks(500).days(2).step(Duration.ofMinutes(30)).run();
+
+		assertEquals(first.remindersFired, second.remindersFired);
+		assertEquals(first.lateness.percentile(50), second.lateness.percentile(50));
+	}
+}
@@ -0,0 +1,44 @@
+package Project.simulation;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Clock that only moves when told to. Shared by every bean of a simulation run.
+ */
+public class SimulatedClock extends Clock {
+
+    private final ZoneId zone;
+    private volatile Instant now;
+
+    public SimulatedClock(LocalDateTime start, ZoneId zone) {
+        this.zone = zone;
+        this.now = start.atZone(zone).toInstant();
+    }
+
+    public void advance(Duration duration) {
+        now = now.plus(duration);
+    }
+
+    public LocalDateTime localNow() {
+        return LocalDateTime.ofInstant(now, zone);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new SimulatedClock(LocalDateTime.ofInstant(now, zone), zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return now;
+    }
+}
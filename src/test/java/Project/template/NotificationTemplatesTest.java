@@ -0,0 +1,101 @@
+package Project.template;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class NotificationTemplatesTest {
+
+    private static NotificationTemplates load(String location) {
+        NotificationTemplates templates = new NotificationTemplates();
+        ReflectionTestUtils.setField(templates, "location", location);
+        templates.start();
+        return templates;
+    }
+
+    private static Map<String, Object> reminder(String description) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("username", "alice");
+        model.put("title", "Pay rent");
+        model.put("description", description);
+        model.put("dueDate", "2026-03-14 00:00");
+        model.put("priority", "HIGH");
+        model.put("status", "PENDING");
+        return model;
+    }
+
+    @Test
+    public void testReminderTextMatchesTheHandWrittenEmail() {
+        NotificationTemplates templates = load("classpath:templates/");
+
+        assertEquals("Hello alice,\n\nThis is a reminder for your upcoming task:\n\n"
+                + "Title: Pay rent\nDescription: Transfer to landlord\nDue Date: 2026-03-14 00:00\n"
+                + "Priority: HIGH\nStatus: PENDING\n\nDon't forget to complete this task!\n\n"
+                + "Best regards,\nTask Automation System",
+                templates.render("reminder", null, NotificationTemplates.TEXT, reminder("Transfer to landlord")));
+        assertFalse(templates.render("reminder", null, NotificationTemplates.TEXT, reminder(""))
+                .contains("Description"));
+        assertEquals("Task Reminder: Pay rent",
+                templates.render("reminder", Locale.ENGLISH, NotificationTemplates.SUBJECT, reminder(null)));
+    }
+
+    @Test
+    public void testLocaleFallsBackFromCountryToLanguageToDefault() {
+        NotificationTemplates templates = load("classpath:templates/");
+
+        assertEquals("Erinnerung: Pay rent",
+                templates.render("reminder", Locale.forLanguageTag("de-AT"), NotificationTemplates.SUBJECT, reminder(null)));
+        assertEquals("Task Reminder: Pay rent",
+                templates.render("reminder", Locale.forLanguageTag("fr"), NotificationTemplates.SUBJECT, reminder(null)));
+        assertNull(templates.render("missing", null, NotificationTemplates.TEXT, reminder(null)));
+    }
+
+    @Test
+    public void testSectionsIterateAndHtmlIsEscaped() {
+        CompiledTemplate template = CompiledTemplate.compile("list.html",
+                "{{! header }}<h1>{{title}}</h1>{{#tasks}}<li>{{index}}. {{title}}</li>{{/tasks}}{{^tasks}}none{{/tasks}}",
+                true);
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("title", "Tom & Jerry's <list>");
+        model.put("tasks", List.of(Map.of("index", 1, "title", "a<b"), Map.of("index", 2)));
+        assertEquals("<h1>Tom &amp; Jerry&#39;s &lt;list&gt;</h1><li>1. a&lt;b</li>"
+                + "<li>2. Tom &amp; Jerry&#39;s &lt;list&gt;</li>", template.render(model));
+
+        model.put("tasks", List.of());
+        assertEquals("<h1>Tom &amp; Jerry&#39;s &lt;list&gt;</h1>none", template.render(model));
+    }
+
+    @Test
+    public void testMalformedTemplatesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("t", "{{#a}}x", false));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("t", "{{#a}}x{{/b}}", false));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("t", "x{{/a}}", false));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("t", "{{a", false));
+        assertThrows(IllegalArgumentException.class, () -> CompiledTemplate.compile("t", "{{ }}", false));
+    }
+
+    @Test
+    public void testReloadPicksUpChangesAndKeepsTemplatesOnError(@TempDir Path directory) throws Exception {
+        Files.writeString(directory.resolve("reminder.subject"), "Due: {{title}}\n");
+        NotificationTemplates templates = load(directory.toUri().toString());
+        assertEquals("Due: Pay rent", templates.render("reminder", null, NotificationTemplates.SUBJECT, reminder(null)));
+
+        Files.writeString(directory.resolve("reminder.subject"), "Soon: {{title}}\r\n");
+        assertEquals(1, templates.reload());
+        assertEquals("Soon: Pay rent", templates.render("reminder", null, NotificationTemplates.SUBJECT, reminder(null)));
+
+        Files.writeString(directory.resolve("reminder.subject"), "Broken: {{#title}}");
+        assertThrows(RuntimeException.class, templates::reload);
+        assertEquals("Soon: Pay rent", templates.render("reminder", null, NotificationTemplates.SUBJECT, reminder(null)));
+    }
+}
@@ -0,0 +1,153 @@
+package Project.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import Project.dao.RevokedTokenDao;
+import Project.dao.UserDao;
+import Project.model.User;
+import Project.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+
+public class JwtAuthenticationFilterTest {
+
+    private final AtomicInteger userLookups = new AtomicInteger();
+
+    private JdbcTemplate jdbcTemplate;
+    private UserDao userDao;
+    private JwtUtil jwtUtil;
+    private TokenRevocationService revocationService;
+    private JwtAuthenticationFilter filter;
+    private User alice;
+
+    @BeforeEach
+    public void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:auth-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        populator.setContinueOnError(true);
+        populator.execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        userDao = new UserDao();
+        ReflectionTestUtils.setField(userDao, "jdbcTemplate", jdbcTemplate);
+        RevokedTokenDao revokedTokenDao = new RevokedTokenDao();
+        ReflectionTestUtils.setField(revokedTokenDao, "jdbcTemplate", jdbcTemplate);
+
+        revocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(revocationService, "userDao", userDao);
+        ReflectionTestUtils.setField(revocationService, "revokedTokenDao", revokedTokenDao);
+        ReflectionTestUtils.setField(revocationService, "clock", Clock.systemUTC());
+
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKeyString", "testSecretKey12345testSecretKey12345");
+        ReflectionTestUtils.setField(jwtUtil, "EXPIRATION_TIME", 60_000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxEntries", 10);
+        jwtUtil.init();
+
+        UserDetailsService userDetailsService = username -> {
+            userLookups.incrementAndGet();
+            return org.springframework.security.core.userdetails.User.withUsername(username).password("")
+                    .roles("USER").build();
+        };
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, revocationService);
+
+        User user = new User();
+        user.setUsername("alice");
+        user.setPassword("hash-1");
+        user.setRole("ADMIN");
+        user.setEnabled(true);
+        userDao.save(user);
+        alice = userDao.findByUsername("alice");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testPrincipalIsBuiltFromClaimsWithoutUserLookup() throws Exception {
+        Authentication authentication = authenticate(jwtUtil.generateToken(alice));
+
+        assertNotNull(authentication);
+        assertEquals("alice", authentication.getName());
+        assertEquals("ROLE_ADMIN", authentication.getAuthorities().iterator().next().getAuthority());
+        assertEquals(0, userLookups.get());
+
+        assertNotNull(authenticate(jwtUtil.generateToken("alice")), "Tokens without claims still work");
+        assertEquals(1, userLookups.get());
+    }
+
+    @Test
+    public void testRevokedTokenIsRejected() throws Exception {
+        String token = jwtUtil.generateToken(alice);
+        String other = jwtUtil.generateToken(alice);
+        Claims claims = jwtUtil.verify(token);
+
+        revocationService.revokeToken(claims.getId(), alice.getId(), claims.getExpiration().toInstant());
+
+        assertNull(authenticate(token));
+        assertNotNull(authenticate(other));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM revoked_tokens", Integer.class));
+    }
+
+    @Test
+    public void testCredentialChangeRevokesOlderTokens() throws Exception {
+        String before = jwtUtil.generateToken(alice);
+
+        alice.setPassword("hash-2");
+        userDao.update(alice);
+        revocationService.credentialsChanged(alice);
+
+        assertEquals(1, alice.getCredentialVersion());
+        assertNull(authenticate(before));
+        assertNotNull(authenticate(jwtUtil.generateToken(alice)));
+    }
+
+    @Test
+    public void testRefreshPicksUpChangesMadeElsewhere() throws Exception {
+        String token = jwtUtil.generateToken(alice);
+        jdbcTemplate.update("UPDATE users SET enabled = FALSE WHERE id = ?", alice.getId());
+        assertNotNull(authenticate(token), "Not seen before the next refresh");
+
+        revocationService.refresh();
+        assertNull(authenticate(token));
+
+        jdbcTemplate.update("UPDATE users SET enabled = TRUE WHERE id = ?", alice.getId());
+        jdbcTemplate.update("INSERT INTO revoked_tokens (jti, user_id, expires_at) VALUES (?, ?, ?)",
+                "expired", alice.getId(), Timestamp.from(Instant.now().minusSeconds(1)));
+        revocationService.refresh();
+        assertNotNull(authenticate(token));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM revoked_tokens", Integer.class),
+                "Expired revocations are purged");
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+        });
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
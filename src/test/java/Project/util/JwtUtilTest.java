@@ -0,0 +1,77 @@
+package Project.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+public class JwtUtilTest {
+
+    private static JwtUtil jwtUtil(long expirationMs, int cacheMaxEntries) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKeyString", "testSecretKey12345testSecretKey12345");
+        ReflectionTestUtils.setField(jwtUtil, "EXPIRATION_TIME", expirationMs);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxEntries", cacheMaxEntries);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Test
+    public void testVerifiedTokenIsParsedOnce() {
+        JwtUtil jwtUtil = jwtUtil(60_000, 10);
+        String token = jwtUtil.generateToken("alice");
+
+        assertEquals("alice", jwtUtil.verify(token).getSubject());
+        assertEquals("alice", jwtUtil.extractUsername(token));
+        assertFalse(jwtUtil.isTokenExpired(token));
+
+        Map<String, Object> stats = jwtUtil.getCacheStats();
+        assertEquals(1, stats.get("size"));
+        assertEquals(1L, stats.get("misses"));
+        assertEquals(2L, stats.get("hits"));
+    }
+
+    @Test
+    public void testInvalidAndExpiredTokensAreNeitherAcceptedNorCached() throws Exception {
+        JwtUtil jwtUtil = jwtUtil(60_000, 10);
+        String token = jwtUtil.generateToken("alice");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThrows(SignatureException.class, () -> jwtUtil.verify(tampered));
+
+        // Expiry is kept in whole seconds, so this token lasts between 0.5 and 1.5 seconds.
+        JwtUtil shortLived = jwtUtil(1500, 10);
+        String expiring = shortLived.generateToken("bob");
+        assertEquals("bob", shortLived.verify(expiring).getSubject());
+        Thread.sleep(1600);
+        assertThrows(ExpiredJwtException.class, () -> shortLived.verify(expiring),
+                "A cached token is not served past its expiry");
+        assertTrue(shortLived.isTokenExpired(expiring));
+    }
+
+    @Test
+    public void testFullCacheEvictsTheLeastRecentlyUsedToken() {
+        JwtUtil jwtUtil = jwtUtil(60_000, 2);
+        String first = jwtUtil.generateToken("alice");
+        String second = jwtUtil.generateToken("bob");
+        String third = jwtUtil.generateToken("carol");
+
+        jwtUtil.verify(first);
+        jwtUtil.verify(second);
+        jwtUtil.verify(first);
+        // Neither cached token has expired; carol is still cached and the idle bob makes room.
+        assertEquals("carol", jwtUtil.verify(third).getSubject());
+        assertEquals("carol", jwtUtil.verify(third).getSubject());
+        assertEquals("alice", jwtUtil.verify(first).getSubject());
+        assertEquals(2, jwtUtil.getCacheStats().get("size"));
+        assertEquals(3L, jwtUtil.getCacheStats().get("misses"));
+        assertEquals(3L, jwtUtil.getCacheStats().get("hits"));
+
+        assertEquals("bob", jwtUtil.verify(second).getSubject());
+        assertEquals(4L, jwtUtil.getCacheStats().get("misses"));
+    }
+}
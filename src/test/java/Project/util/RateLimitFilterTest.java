@@ -0,0 +1,75 @@
+package Project.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "stripes", 4);
+        ReflectionTestUtils.setField(filter, "maxBuckets", 100);
+        ReflectionTestUtils.setField(filter, "readPerSecond", 0.5);
+        ReflectionTestUtils.setField(filter, "readBurst", 2);
+        ReflectionTestUtils.setField(filter, "writePerSecond", 0.5);
+        ReflectionTestUtils.setField(filter, "writeBurst", 1);
+        ReflectionTestUtils.setField(filter, "adminPerSecond", 0.0);
+        ReflectionTestUtils.setField(filter, "adminBurst", 1);
+        filter.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testUserOverQuotaGets429WithRetryAfter() throws Exception {
+        assertEquals(200, call("alice", "GET", "/tasks").getStatus());
+        assertEquals(200, call("alice", "GET", "/tasks").getStatus());
+
+        MockHttpServletResponse limited = call("alice", "GET", "/tasks");
+        assertEquals(429, limited.getStatus());
+        assertEquals("2", limited.getHeader("Retry-After"));
+        assertTrue(limited.getContentAsString().contains("Too many requests"));
+
+        assertEquals(200, call("alice", "POST", "/tasks").getStatus(), "Writes have their own quota");
+        assertEquals(429, call("alice", "PUT", "/tasks/1").getStatus());
+        assertEquals(200, call("bob", "GET", "/tasks").getStatus(), "Other users are unaffected");
+    }
+
+    @Test
+    public void testAnonymousAndUnlimitedRoutesPassThrough() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, call(null, "GET", "/tasks").getStatus());
+            assertEquals(200, call("admin", "GET", "/admin/metrics").getStatus());
+        }
+    }
+
+    private MockHttpServletResponse call(String username, String method, String uri) throws Exception {
+        SecurityContextHolder.clearContext();
+        if (username != null) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, null,
+                    List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, (req, res) -> {
+        });
+        return response;
+    }
+}